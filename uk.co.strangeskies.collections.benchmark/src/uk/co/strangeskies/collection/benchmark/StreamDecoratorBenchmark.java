@@ -0,0 +1,111 @@
+/*
+ * Copyright (C) 2018 Elias N Vasylenko <eliasvasylenko@strangeskies.co.uk>
+ *      __   _______  ____           _       __     _      __       __
+ *    ,`_ `,|__   __||  _ `.        / \     |  \   | |  ,-`__`¬  ,-`__`¬
+ *   ( (_`-'   | |   | | ) |       / . \    | . \  | | / .`  `' / .`  `'
+ *    `._ `.   | |   | |<. L      / / \ \   | |\ \ | || |    _ | '--.
+ *   _   `. \  | |   | |  `.`.   / /   \ \  | | \ \| || |   | || +--'
+ *  \ \__.' /  | |   | |    \ \ / /     \ \ | |  \ ` | \ `._' | \ `.__,.
+ *   `.__.-`   |_|   |_|    |_|/_/       \_\|_|   \__|  `-.__.J  `-.__.J
+ *                   __    _         _      __      __
+ *                 ,`_ `, | |  _    | |  ,-`__`¬  ,`_ `,
+ *                ( (_`-' | | ) |   | | / .`  `' ( (_`-'
+ *                 `._ `. | L-' L   | || '--.     `._ `.
+ *                _   `. \| ,.-^.`. | || +--'    _   `. \
+ *               \ \__.' /| |    \ \| | \ `.__,.\ \__.' /
+ *                `.__.-` |_|    |_||_|  `-.__.J `.__.-`
+ *
+ * This file is part of uk.co.strangeskies.collections.benchmark.
+ *
+ * uk.co.strangeskies.collections is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * uk.co.strangeskies.collections is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package uk.co.strangeskies.collection.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import uk.co.strangeskies.collection.stream.FusedStream;
+import uk.co.strangeskies.collection.stream.ResourceStream;
+
+/**
+ * Cost of a long fluent chain of intermediate operations through the stream
+ * decorators, compared against the same chain on a raw JDK stream. Small
+ * sources expose the per-stage construction overhead, and large sources the
+ * per-element cost of traversal.
+ * 
+ * @author Elias N Vasylenko
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StreamDecoratorBenchmark {
+	@Param({ "10", "10000" })
+	public int size;
+
+	private List<Integer> source;
+
+	@Setup
+	public void setup() {
+		source = new ArrayList<>(size);
+		for (int i = 0; i < size; i++)
+			source.add(i);
+	}
+
+	private static long chain(Stream<Integer> stream) {
+		return stream
+				.filter(i -> (i & 1) == 0)
+				.map(i -> i + 1)
+				.filter(i -> i % 3 != 0)
+				.map(i -> i * 2)
+				.map(i -> i - 3)
+				.mapToInt(Integer::intValue)
+				.map(i -> i - 1)
+				.filter(i -> i > 0)
+				.asLongStream()
+				.map(i -> i * i)
+				.sum();
+	}
+
+	@Benchmark
+	public long raw() {
+		return chain(source.stream());
+	}
+
+	@Benchmark
+	public long decorated() {
+		return chain(ResourceStream.over(source.stream(), () -> {}, () -> {}));
+	}
+
+	@Benchmark
+	public long fused() {
+		return chain(FusedStream.over(source.stream()));
+	}
+}
@@ -32,9 +32,12 @@
  */
 package uk.co.strangeskies.collection.observable;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 
+import uk.co.strangeskies.collection.IndexedMergeIndicesListView;
+
 public interface ObservableList<E>
     extends List<E>, ObservableCollection<E, ObservableList.Change<E>> {
   /**
@@ -75,6 +78,31 @@ public interface ObservableList<E>
     List<E> addedItems();
   }
 
+  /**
+   * Create a view of the concatenation of the given observable lists, which
+   * indexes the offset of each list for fast random access and updates the
+   * index whenever any of the lists is invalidated.
+   * <p>
+   * The lists are observed only for as long as the view is reachable. The given
+   * list of lists is copied, so later changes to it are not reflected in the
+   * view.
+   * 
+   * @param <E>
+   *          the element type
+   * @param lists
+   *          the lists to concatenate
+   * @return a view of the concatenation of the given lists
+   */
+  static <E> List<E> mergeIndicesView(List<? extends ObservableList<? extends E>> lists) {
+    IndexedMergeIndicesListView<E> view = new IndexedMergeIndicesListView<>(new ArrayList<>(lists));
+
+    for (ObservableList<? extends E> list : lists) {
+      list.invalidations().weakReference(view).observe(m -> m.owner().invalidate());
+    }
+
+    return view;
+  }
+
   @Override
   default ObservableList<E> unmodifiableView() {
     return new UnmodifiableObservableList<>(this);
@@ -33,8 +33,12 @@
 package uk.co.strangeskies.collection.observable;
 
 import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.Set;
 
+import uk.co.strangeskies.collection.CachedMergedCollectionSet;
+
 /**
  * A set which can be observed for changes, as per the contract of
  * {@link ObservableCollection}.
@@ -60,6 +64,36 @@ public interface ObservableSet<E> extends Set<E>, ObservableCollection<E, Observ
     Set<E> removed();
   }
 
+  /**
+   * Create a view of the union of the given observable sets, which caches its
+   * size and discards the cache whenever any of the sets changes.
+   * <p>
+   * The sets are observed only for as long as the view is reachable. The given
+   * set of sets is copied by identity, so later changes to it are not reflected
+   * in the view, and distinct sets with equal contents are each observed.
+   * 
+   * @param <E>
+   *          the element type
+   * @param sets
+   *          the sets to merge
+   * @return a view of the union of the given sets
+   */
+  static <E> Set<E> mergedView(Set<? extends ObservableSet<? extends E>> sets) {
+    Set<ObservableSet<? extends E>> backingSets = Collections.newSetFromMap(new IdentityHashMap<>());
+    backingSets.addAll(sets);
+    CachedMergedCollectionSet<E> view = new CachedMergedCollectionSet<>(backingSets);
+
+    /*
+     * Sets only fire invalidations for changes which are observed, so observe
+     * the changes themselves.
+     */
+    for (ObservableSet<? extends E> set : backingSets) {
+      set.changes().weakReference(view).observe(m -> m.owner().invalidate());
+    }
+
+    return view;
+  }
+
   @Override
   default ObservableSet<E> unmodifiableView() {
     return new UnmodifiableObservableSet<>(this);
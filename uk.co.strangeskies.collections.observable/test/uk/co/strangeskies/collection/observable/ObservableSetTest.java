@@ -201,4 +201,20 @@ public class ObservableSetTest {
 
     assertFalse(stringsChildren.localIterator().hasNext());
   }
+
+  @Test
+  public void mergedViewSizeTracksChangesTest() {
+    ObservableSet<String> first = new ObservableSetDecorator<>(new HashSet<>(asList(ONE, TWO)));
+    ObservableSet<String> second = new ObservableSetDecorator<>(new HashSet<>(asList(TWO, THREE)));
+
+    Set<String> merged = ObservableSet.mergedView(new HashSet<>(asList(first, second)));
+    assertEquals(3, merged.size());
+
+    second.add(FOUR);
+    assertEquals(4, merged.size());
+
+    first.remove(ONE);
+    assertEquals(3, merged.size());
+    assertEquals(new HashSet<>(asList(TWO, THREE, FOUR)), merged);
+  }
 }
@@ -0,0 +1,87 @@
+/*
+ * Copyright (C) 2018 Elias N Vasylenko <eliasvasylenko@strangeskies.co.uk>
+ *      __   _______  ____           _       __     _      __       __
+ *    ,`_ `,|__   __||  _ `.        / \     |  \   | |  ,-`__`¬  ,-`__`¬
+ *   ( (_`-'   | |   | | ) |       / . \    | . \  | | / .`  `' / .`  `'
+ *    `._ `.   | |   | |<. L      / / \ \   | |\ \ | || |    _ | '--.
+ *   _   `. \  | |   | |  `.`.   / /   \ \  | | \ \| || |   | || +--'
+ *  \ \__.' /  | |   | |    \ \ / /     \ \ | |  \ ` | \ `._' | \ `.__,.
+ *   `.__.-`   |_|   |_|    |_|/_/       \_\|_|   \__|  `-.__.J  `-.__.J
+ *                   __    _         _      __      __
+ *                 ,`_ `, | |  _    | |  ,-`__`¬  ,`_ `,
+ *                ( (_`-' | | ) |   | | / .`  `' ( (_`-'
+ *                 `._ `. | L-' L   | || '--.     `._ `.
+ *                _   `. \| ,.-^.`. | || +--'    _   `. \
+ *               \ \__.' /| |    \ \| | \ `.__,.\ \__.' /
+ *                `.__.-` |_|    |_||_|  `-.__.J `.__.-`
+ *
+ * This file is part of uk.co.strangeskies.collections.
+ *
+ * uk.co.strangeskies.collections is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * uk.co.strangeskies.collections is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package uk.co.strangeskies.collection;
+
+import java.util.Collection;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A {@link MergedCollectionSet} which caches its size once computed.
+ * <p>
+ * The cached size must be discarded by {@link #invalidate()} whenever any
+ * backing collection, or the set of backing collections itself, changes.
+ * Where the backing collections are observable this can be arranged
+ * automatically, for example by {@code ObservableSet.mergedView(Set)}.
+ * 
+ * @author Elias N Vasylenko
+ *
+ * @param <T>
+ *          the element type
+ */
+public class CachedMergedCollectionSet<T> extends MergedCollectionSet<T> {
+	private static final long SIZE_MASK = 0xFFFFFFFFL;
+
+	/*
+	 * The high bits hold a version stamp, which is incremented by each
+	 * invalidation, and the low bits hold the cached size plus one, or zero if
+	 * there is no cached size. A size computed concurrently with an invalidation
+	 * is not stored, as the stamp will have changed.
+	 */
+	private final AtomicLong state = new AtomicLong();
+
+	public CachedMergedCollectionSet(Set<? extends Collection<? extends T>> backingCollections) {
+		super(backingCollections);
+	}
+
+	/**
+	 * Discard the cached size, so that it is recomputed from the backing
+	 * collections upon next access.
+	 */
+	public void invalidate() {
+		state.updateAndGet(s -> (s & ~SIZE_MASK) + (SIZE_MASK + 1));
+	}
+
+	@Override
+	public int size() {
+		long state = this.state.get();
+
+		if ((state & SIZE_MASK) == 0) {
+			int size = super.size();
+			this.state.compareAndSet(state, state | ((size + 1L) & SIZE_MASK));
+			return size;
+		}
+
+		return (int) (state & SIZE_MASK) - 1;
+	}
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright (C) 2018 Elias N Vasylenko <eliasvasylenko@strangeskies.co.uk>
+ *      __   _______  ____           _       __     _      __       __
+ *    ,`_ `,|__   __||  _ `.        / \     |  \   | |  ,-`__`¬  ,-`__`¬
+ *   ( (_`-'   | |   | | ) |       / . \    | . \  | | / .`  `' / .`  `'
+ *    `._ `.   | |   | |<. L      / / \ \   | |\ \ | || |    _ | '--.
+ *   _   `. \  | |   | |  `.`.   / /   \ \  | | \ \| || |   | || +--'
+ *  \ \__.' /  | |   | |    \ \ / /     \ \ | |  \ ` | \ `._' | \ `.__,.
+ *   `.__.-`   |_|   |_|    |_|/_/       \_\|_|   \__|  `-.__.J  `-.__.J
+ *                   __    _         _      __      __
+ *                 ,`_ `, | |  _    | |  ,-`__`¬  ,`_ `,
+ *                ( (_`-' | | ) |   | | / .`  `' ( (_`-'
+ *                 `._ `. | L-' L   | || '--.     `._ `.
+ *                _   `. \| ,.-^.`. | || +--'    _   `. \
+ *               \ \__.' /| |    \ \| | \ `.__,.\ \__.' /
+ *                `.__.-` |_|    |_||_|  `-.__.J `.__.-`
+ *
+ * This file is part of uk.co.strangeskies.collections.
+ *
+ * uk.co.strangeskies.collections is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * uk.co.strangeskies.collections is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package uk.co.strangeskies.collection;
+
+import java.util.AbstractList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * A thread safe equivalent of {@link ListTransformOnceView}, which may be
+ * shared between threads so long as the backing list itself is safe for
+ * concurrent reads.
+ * <p>
+ * Each element is transformed at most once at a time, however many threads
+ * request it together, with transformations memoized by the identity hash of
+ * the backing element rather than by an ordering over identity hash codes.
+ * Either every transformation is kept for as long as its element remains in
+ * the backing list, or, if a maximum size is given, transformations which
+ * have not recently been used are evicted beyond that size and recomputed on
+ * demand.
+ * <p>
+ * Modification is supported only by removal.
+ * 
+ * @author Elias N Vasylenko
+ * 
+ * @param <T>
+ *          The type of the elements of this list.
+ * @param <F>
+ *          The type of the elements of the backing list.
+ */
+public class ConcurrentListTransformOnceView<F, T> extends AbstractList<T> {
+	private final List<F> backingCollection;
+	private final Function<? super F, ? extends T> function;
+
+	private final IdentityTransformations<F, T> transformations;
+
+	/**
+	 * @param backingCollection
+	 *          The backing collection this class presents a view over.
+	 * @param function
+	 *          The function which transforms elements into the form in which they
+	 *          are represented in by this view.
+	 */
+	public ConcurrentListTransformOnceView(List<F> backingCollection, Function<? super F, ? extends T> function) {
+		this(backingCollection, function, Long.MAX_VALUE);
+	}
+
+	/**
+	 * @param backingCollection
+	 *          The backing collection this class presents a view over.
+	 * @param function
+	 *          The function which transforms elements into the form in which they
+	 *          are represented in by this view.
+	 * @param maximumSize
+	 *          The maximum number of transformations to retain.
+	 */
+	public ConcurrentListTransformOnceView(
+			List<F> backingCollection,
+			Function<? super F, ? extends T> function,
+			long maximumSize) {
+		this.backingCollection = backingCollection;
+		this.function = function;
+
+		transformations = new IdentityTransformations<>(function, maximumSize);
+	}
+
+	/**
+	 * Transform every element of the backing list ahead of time, in parallel.
+	 * 
+	 * @return the receiving view
+	 */
+	public ConcurrentListTransformOnceView<F, T> materialize() {
+		transformations.materialize(backingCollection);
+		return this;
+	}
+
+	@Override
+	public final T get(int index) {
+		return transformations.transform(backingCollection.get(index), backingCollection);
+	}
+
+	@Override
+	public T remove(int index) {
+		F removed = backingCollection.get(index);
+		T transformation = get(index);
+		backingCollection.remove(index);
+		transformations.forget(removed, backingCollection);
+		return transformation;
+	}
+
+	/**
+	 * @return The backing collection this class presents a view over.
+	 */
+	public final List<F> getBackingList() {
+		return backingCollection;
+	}
+
+	/**
+	 * @return The function which transforms elements into the form in which they
+	 *         are represented in by this view.
+	 */
+	public final Function<? super F, ? extends T> getFunction() {
+		return function;
+	}
+
+	@Override
+	public final int size() {
+		return backingCollection.size();
+	}
+}
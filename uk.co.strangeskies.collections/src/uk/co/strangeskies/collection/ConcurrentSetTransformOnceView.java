@@ -0,0 +1,150 @@
+/*
+ * Copyright (C) 2018 Elias N Vasylenko <eliasvasylenko@strangeskies.co.uk>
+ *      __   _______  ____           _       __     _      __       __
+ *    ,`_ `,|__   __||  _ `.        / \     |  \   | |  ,-`__`¬  ,-`__`¬
+ *   ( (_`-'   | |   | | ) |       / . \    | . \  | | / .`  `' / .`  `'
+ *    `._ `.   | |   | |<. L      / / \ \   | |\ \ | || |    _ | '--.
+ *   _   `. \  | |   | |  `.`.   / /   \ \  | | \ \| || |   | || +--'
+ *  \ \__.' /  | |   | |    \ \ / /     \ \ | |  \ ` | \ `._' | \ `.__,.
+ *   `.__.-`   |_|   |_|    |_|/_/       \_\|_|   \__|  `-.__.J  `-.__.J
+ *                   __    _         _      __      __
+ *                 ,`_ `, | |  _    | |  ,-`__`¬  ,`_ `,
+ *                ( (_`-' | | ) |   | | / .`  `' ( (_`-'
+ *                 `._ `. | L-' L   | || '--.     `._ `.
+ *                _   `. \| ,.-^.`. | || +--'    _   `. \
+ *               \ \__.' /| |    \ \| | \ `.__,.\ \__.' /
+ *                `.__.-` |_|    |_||_|  `-.__.J `.__.-`
+ *
+ * This file is part of uk.co.strangeskies.collections.
+ *
+ * uk.co.strangeskies.collections is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * uk.co.strangeskies.collections is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package uk.co.strangeskies.collection;
+
+import java.util.AbstractSet;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.function.Function;
+
+/**
+ * A thread safe equivalent of {@link SetTransformOnceView}, which may be shared
+ * between threads so long as the backing collection itself is safe for
+ * concurrent reads.
+ * <p>
+ * Transformations are memoized as described by
+ * {@link ConcurrentListTransformOnceView}. Modification is supported only by
+ * removal through the iterator.
+ * 
+ * @author Elias N Vasylenko
+ * 
+ * @param <T>
+ *          The type of the elements of this set.
+ * @param <F>
+ *          The type of the elements of the backing collection.
+ */
+public class ConcurrentSetTransformOnceView<F, T> extends AbstractSet<T> {
+	private final Collection<F> backingCollection;
+	private final Function<? super F, ? extends T> function;
+
+	private final IdentityTransformations<F, T> transformations;
+
+	/**
+	 * @param backingCollection
+	 *          The backing collection this class presents a view over.
+	 * @param function
+	 *          The function which transforms elements into the form in which they
+	 *          are represented in by this view.
+	 */
+	public ConcurrentSetTransformOnceView(
+			Collection<F> backingCollection,
+			Function<? super F, ? extends T> function) {
+		this(backingCollection, function, Long.MAX_VALUE);
+	}
+
+	/**
+	 * @param backingCollection
+	 *          The backing collection this class presents a view over.
+	 * @param function
+	 *          The function which transforms elements into the form in which they
+	 *          are represented in by this view.
+	 * @param maximumSize
+	 *          The maximum number of transformations to retain.
+	 */
+	public ConcurrentSetTransformOnceView(
+			Collection<F> backingCollection,
+			Function<? super F, ? extends T> function,
+			long maximumSize) {
+		this.backingCollection = backingCollection;
+		this.function = function;
+
+		transformations = new IdentityTransformations<>(function, maximumSize);
+	}
+
+	/**
+	 * Transform every element of the backing collection ahead of time, in
+	 * parallel.
+	 * 
+	 * @return the receiving view
+	 */
+	public ConcurrentSetTransformOnceView<F, T> materialize() {
+		transformations.materialize(backingCollection);
+		return this;
+	}
+
+	/**
+	 * @return The backing collection this class presents a view over.
+	 */
+	public final Collection<F> getBackingCollection() {
+		return backingCollection;
+	}
+
+	/**
+	 * @return The function which transforms elements into the form in which they
+	 *         are represented in by this view.
+	 */
+	public final Function<? super F, ? extends T> getFunction() {
+		return function;
+	}
+
+	@Override
+	public final int size() {
+		return backingCollection.size();
+	}
+
+	@Override
+	public Iterator<T> iterator() {
+		Iterator<F> backingIterator = backingCollection.iterator();
+
+		return new Iterator<T>() {
+			private F last;
+
+			@Override
+			public boolean hasNext() {
+				return backingIterator.hasNext();
+			}
+
+			@Override
+			public T next() {
+				last = backingIterator.next();
+				return transformations.transform(last, backingCollection);
+			}
+
+			@Override
+			public void remove() {
+				backingIterator.remove();
+				transformations.forget(last, backingCollection);
+			}
+		};
+	}
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright (C) 2018 Elias N Vasylenko <eliasvasylenko@strangeskies.co.uk>
+ *      __   _______  ____           _       __     _      __       __
+ *    ,`_ `,|__   __||  _ `.        / \     |  \   | |  ,-`__`¬  ,-`__`¬
+ *   ( (_`-'   | |   | | ) |       / . \    | . \  | | / .`  `' / .`  `'
+ *    `._ `.   | |   | |<. L      / / \ \   | |\ \ | || |    _ | '--.
+ *   _   `. \  | |   | |  `.`.   / /   \ \  | | \ \| || |   | || +--'
+ *  \ \__.' /  | |   | |    \ \ / /     \ \ | |  \ ` | \ `._' | \ `.__,.
+ *   `.__.-`   |_|   |_|    |_|/_/       \_\|_|   \__|  `-.__.J  `-.__.J
+ *                   __    _         _      __      __
+ *                 ,`_ `, | |  _    | |  ,-`__`¬  ,`_ `,
+ *                ( (_`-' | | ) |   | | / .`  `' ( (_`-'
+ *                 `._ `. | L-' L   | || '--.     `._ `.
+ *                _   `. \| ,.-^.`. | || +--'    _   `. \
+ *               \ \__.' /| |    \ \| | \ `.__,.\ \__.' /
+ *                `.__.-` |_|    |_||_|  `-.__.J `.__.-`
+ *
+ * This file is part of uk.co.strangeskies.collections.
+ *
+ * uk.co.strangeskies.collections is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * uk.co.strangeskies.collections is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package uk.co.strangeskies.collection;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
+import uk.co.strangeskies.collection.computingmap.ConcurrentCacheComputingMap;
+
+/**
+ * A thread safe memo of the transformations of objects as distinguished by
+ * identity, shared by the concurrent transform-once views.
+ * 
+ * @author Elias N Vasylenko
+ *
+ * @param <F>
+ *          The type of the elements to transform.
+ * @param <T>
+ *          The type of the transformations.
+ */
+class IdentityTransformations<F, T> {
+	static final class IdentityKey<F> {
+		private final F element;
+
+		IdentityKey(F element) {
+			this.element = element;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			return obj instanceof IdentityKey<?> && ((IdentityKey<?>) obj).element == element;
+		}
+
+		@Override
+		public int hashCode() {
+			return System.identityHashCode(element);
+		}
+	}
+
+	private final ConcurrentCacheComputingMap<IdentityKey<F>, T> transformations;
+	private final boolean bounded;
+	private final AtomicBoolean pruning = new AtomicBoolean();
+
+	IdentityTransformations(Function<? super F, ? extends T> function, long maximumSize) {
+		transformations = new ConcurrentCacheComputingMap<>(
+				key -> function.apply(key.element),
+				maximumSize,
+				Runnable::run);
+		bounded = maximumSize < Long.MAX_VALUE;
+	}
+
+	T transform(F element, Collection<? extends F> backingCollection) {
+		T transformation = transformations.putGet(new IdentityKey<>(element));
+
+		if (!bounded)
+			prune(backingCollection);
+
+		return transformation;
+	}
+
+	/*
+	 * The same element may appear more than once in the backing collection, so
+	 * its transformation is only discarded once the last occurrence is gone.
+	 */
+	void forget(F element, Collection<? extends F> backingCollection) {
+		for (F remaining : backingCollection)
+			if (remaining == element)
+				return;
+
+		transformations.remove(new IdentityKey<>(element));
+	}
+
+	void materialize(Collection<? extends F> backingCollection) {
+		backingCollection.parallelStream().forEach(
+				element -> transformations.putGet(new IdentityKey<>(element)));
+	}
+
+	/*
+	 * Unbounded memos discard the transformations of elements which have left
+	 * the backing collection once they outnumber the elements which remain, and
+	 * only one thread at a time need do so.
+	 */
+	private void prune(Collection<? extends F> backingCollection) {
+		if (transformations.size() > backingCollection.size() * 1.5 && pruning.compareAndSet(false, true)) {
+			try {
+				Set<IdentityKey<F>> live = new HashSet<>();
+				for (F element : backingCollection)
+					live.add(new IdentityKey<>(element));
+
+				transformations.keySet().removeIf(key -> !live.contains(key));
+			} finally {
+				pruning.set(false);
+			}
+		}
+	}
+}
@@ -0,0 +1,130 @@
+/*
+ * Copyright (C) 2018 Elias N Vasylenko <eliasvasylenko@strangeskies.co.uk>
+ *      __   _______  ____           _       __     _      __       __
+ *    ,`_ `,|__   __||  _ `.        / \     |  \   | |  ,-`__`¬  ,-`__`¬
+ *   ( (_`-'   | |   | | ) |       / . \    | . \  | | / .`  `' / .`  `'
+ *    `._ `.   | |   | |<. L      / / \ \   | |\ \ | || |    _ | '--.
+ *   _   `. \  | |   | |  `.`.   / /   \ \  | | \ \| || |   | || +--'
+ *  \ \__.' /  | |   | |    \ \ / /     \ \ | |  \ ` | \ `._' | \ `.__,.
+ *   `.__.-`   |_|   |_|    |_|/_/       \_\|_|   \__|  `-.__.J  `-.__.J
+ *                   __    _         _      __      __
+ *                 ,`_ `, | |  _    | |  ,-`__`¬  ,`_ `,
+ *                ( (_`-' | | ) |   | | / .`  `' ( (_`-'
+ *                 `._ `. | L-' L   | || '--.     `._ `.
+ *                _   `. \| ,.-^.`. | || +--'    _   `. \
+ *               \ \__.' /| |    \ \| | \ `.__,.\ \__.' /
+ *                `.__.-` |_|    |_||_|  `-.__.J `.__.-`
+ *
+ * This file is part of uk.co.strangeskies.collections.
+ *
+ * uk.co.strangeskies.collections is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * uk.co.strangeskies.collections is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package uk.co.strangeskies.collection;
+
+import java.util.AbstractList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * A view of the concatenation of a list of lists, as per
+ * {@link MergeIndicesListView}, which maintains an index of the offset of each
+ * backing list so that {@link #get(int)} is a binary search and
+ * {@link #size()} is constant time.
+ * <p>
+ * The index is built lazily, and must be discarded by {@link #invalidate()}
+ * whenever the size of any backing list, or the list of backing lists itself,
+ * changes. Where the backing lists are observable this can be arranged
+ * automatically, for example by
+ * {@code ObservableList.mergeIndicesView(List)}.
+ * 
+ * @author Elias N Vasylenko
+ *
+ * @param <T>
+ *          the element type
+ */
+public class IndexedMergeIndicesListView<T> extends AbstractList<T> {
+  private final List<? extends List<? extends T>> backingList;
+
+  /*
+   * offsets[i] is the index of the first element of the ith list, and the last
+   * entry is the total size. An empty array means there is no index, and a new
+   * one is set by each invalidation, so an index built concurrently with an
+   * invalidation is not stored.
+   */
+  private final AtomicReference<int[]> offsets = new AtomicReference<>(new int[0]);
+
+  public IndexedMergeIndicesListView(List<? extends List<? extends T>> backingList) {
+    this.backingList = backingList;
+  }
+
+  /**
+   * Discard the index, so that it is rebuilt from the backing lists upon next
+   * access.
+   */
+  public void invalidate() {
+    offsets.set(new int[0]);
+  }
+
+  private int[] offsets() {
+    int[] offsets = this.offsets.get();
+
+    if (offsets.length == 0) {
+      int[] invalid = offsets;
+      offsets = new int[backingList.size() + 1];
+
+      int i = 0;
+      for (List<?> major : backingList) {
+        offsets[i + 1] = offsets[i] + major.size();
+        i++;
+      }
+
+      this.offsets.compareAndSet(invalid, offsets);
+    }
+
+    return offsets;
+  }
+
+  @Override
+  public final T get(int index) {
+    int[] offsets = offsets();
+
+    if (index < 0 || index >= offsets[offsets.length - 1]) {
+      throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + offsets[offsets.length - 1]);
+    }
+
+    /*
+     * Find the last list starting at or before the index, which skips over any
+     * empty lists starting at the same offset.
+     */
+    int low = 0;
+    int high = offsets.length - 2;
+    while (low < high) {
+      int middle = (low + high + 1) >>> 1;
+
+      if (offsets[middle] <= index) {
+        low = middle;
+      } else {
+        high = middle - 1;
+      }
+    }
+
+    return backingList.get(low).get(index - offsets[low]);
+  }
+
+  @Override
+  public final int size() {
+    int[] offsets = offsets();
+    return offsets[offsets.length - 1];
+  }
+}
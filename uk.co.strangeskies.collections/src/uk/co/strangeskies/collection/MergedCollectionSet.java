@@ -34,8 +34,10 @@ package uk.co.strangeskies.collection;
 
 import java.util.AbstractSet;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.NoSuchElementException;
 import java.util.Set;
 
 public class MergedCollectionSet<T> extends AbstractSet<T> {
@@ -46,14 +48,71 @@ public class MergedCollectionSet<T> extends AbstractSet<T> {
 		this.backingCollections = backingCollections;
 	}
 
+	/**
+	 * The iterator deduplicates lazily, remembering only the elements it has
+	 * already returned, so partial iteration does not visit every backing
+	 * collection.
+	 */
 	@Override
 	public Iterator<T> iterator() {
-		return getSnapshot().iterator();
+		return new Iterator<T>() {
+			private final Iterator<? extends Collection<? extends T>> collections = backingCollections
+					.iterator();
+			private Iterator<? extends T> elements = Collections.emptyIterator();
+
+			private final Set<T> returned = new HashSet<>();
+			private boolean hasNext;
+			private T next;
+
+			@Override
+			public boolean hasNext() {
+				while (!hasNext) {
+					if (elements.hasNext()) {
+						T element = elements.next();
+						if (returned.add(element)) {
+							next = element;
+							hasNext = true;
+						}
+					} else if (collections.hasNext()) {
+						elements = collections.next().iterator();
+					} else {
+						return false;
+					}
+				}
+
+				return true;
+			}
+
+			@Override
+			public T next() {
+				if (!hasNext())
+					throw new NoSuchElementException();
+
+				T element = next;
+				next = null;
+				hasNext = false;
+				return element;
+			}
+		};
 	}
 
 	@Override
-	public final int size() {
-		return getSnapshot().size();
+	public boolean contains(Object o) {
+		for (Collection<? extends T> collection : backingCollections)
+			if (collection.contains(o))
+				return true;
+
+		return false;
+	}
+
+	@Override
+	public int size() {
+		int size = 0;
+
+		for (Iterator<T> iterator = iterator(); iterator.hasNext(); iterator.next())
+			size++;
+
+		return size;
 	}
 
 	public Set<T> getSnapshot() {
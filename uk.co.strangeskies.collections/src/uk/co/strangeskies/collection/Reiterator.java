@@ -32,10 +32,10 @@
  */
 package uk.co.strangeskies.collection;
 
-import java.util.ArrayDeque;
-import java.util.Deque;
 import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.LinkedBlockingDeque;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Supplier;
@@ -56,21 +56,17 @@ import java.util.stream.StreamSupport;
 public interface Reiterator<T, R> extends Consumer<T>, Supplier<R>, Iterable<R> {
   static <T> Reiterator<T, T> queueReiterator() {
     return new Reiterator<T, T>() {
-      private final Deque<T> queue = new ArrayDeque<>();
+      private final BlockingDeque<T> queue = new LinkedBlockingDeque<>();
 
       @Override
-      public synchronized void accept(T t) {
+      public void accept(T t) {
         queue.push(t);
-        notifyAll();
       }
 
       @Override
-      public synchronized T get() {
+      public T get() {
         try {
-          while (queue.isEmpty()) {
-            wait();
-          }
-          return queue.pop();
+          return queue.takeFirst();
         } catch (InterruptedException e) {
           throw new RuntimeException(e);
         }
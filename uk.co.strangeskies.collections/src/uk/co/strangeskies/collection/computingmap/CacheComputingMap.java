@@ -32,12 +32,14 @@
  */
 package uk.co.strangeskies.collection.computingmap;
 
+import static java.util.Objects.requireNonNull;
+
 import java.lang.ref.ReferenceQueue;
 import java.lang.ref.SoftReference;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Executor;
-import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.Future;
 import java.util.function.Consumer;
 import java.util.function.Function;
@@ -47,7 +49,7 @@ public class CacheComputingMap<K, V> extends ComputingEntryHashMap<K, V> {
 		private final K key;
 
 		public KeyedReference(K key) {
-			super(computation().apply(key), references);
+			super(load(key), references);
 			this.key = key;
 		}
 
@@ -90,6 +92,11 @@ public class CacheComputingMap<K, V> extends ComputingEntryHashMap<K, V> {
 			}
 		}
 
+		@Override
+		public boolean isComputed() {
+			return value.isDone();
+		}
+
 		@Override
 		public void remove() {
 			value.cancel(true);
@@ -98,28 +105,65 @@ public class CacheComputingMap<K, V> extends ComputingEntryHashMap<K, V> {
 
 	private final ReferenceQueue<V> references;
 	private final boolean softReferences;
+	private final CacheStatsRecorder stats;
 
 	public CacheComputingMap(Function<K, V> computation, boolean softReferences) {
-		this(computation, softReferences, Executors.newFixedThreadPool(4));
+		this(computation, softReferences, ForkJoinPool.commonPool());
 	}
 
 	public CacheComputingMap(Function<K, V> computation, boolean softReferences, Executor executor) {
+		this(computation, softReferences, executor, CacheStatsRecorder.disabled());
+	}
+
+	public CacheComputingMap(
+			Function<K, V> computation,
+			boolean softReferences,
+			Executor executor,
+			CacheStatsRecorder stats) {
 		super(computation, executor);
 		references = new ReferenceQueue<>();
 		this.softReferences = softReferences;
+		this.stats = requireNonNull(stats);
 	}
 
 	protected CacheComputingMap(CacheComputingMap<K, V> other) {
 		super(other);
 		references = other.references;
 		softReferences = other.softReferences;
+		stats = other.stats;
+	}
+
+	private V load(K key) {
+		long start = System.nanoTime();
+		try {
+			V value = computation().apply(key);
+			stats.recordLoadSuccess(System.nanoTime() - start);
+			return value;
+		} catch (RuntimeException | Error e) {
+			stats.recordLoadFailure(System.nanoTime() - start);
+			throw e;
+		}
+	}
+
+	protected CacheStatsRecorder statsRecorder() {
+		return stats;
+	}
+
+	/**
+	 * @return A snapshot of the statistics recorded for the map, which are
+	 *         empty unless a recorder was given on construction
+	 */
+	public CacheStats stats() {
+		return stats.snapshot();
 	}
 
 	@SuppressWarnings("unchecked")
 	public void clean() {
 		KeyedReference oldReference;
-		while ((oldReference = (KeyedReference) references.poll()) != null)
+		while ((oldReference = (KeyedReference) references.poll()) != null) {
+			stats.recordEviction(RemovalCause.COLLECTED);
 			remove(oldReference.key);
+		}
 	}
 
 	@Override
@@ -127,11 +171,21 @@ public class CacheComputingMap<K, V> extends ComputingEntryHashMap<K, V> {
 		return new ReferenceEntry(key);
 	}
 
+	/*
+	 * Hits and misses for putGet are also counted here, since it delegates to
+	 * get.
+	 */
 	@Override
 	public V get(K key) {
 		clean();
 
-		return super.get(key);
+		V value = super.get(key);
+		if (value == null) {
+			stats.recordMiss();
+		} else {
+			stats.recordHit();
+		}
+		return value;
 	}
 
 	@Override
@@ -0,0 +1,172 @@
+/*
+ * Copyright (C) 2018 Elias N Vasylenko <eliasvasylenko@strangeskies.co.uk>
+ *      __   _______  ____           _       __     _      __       __
+ *    ,`_ `,|__   __||  _ `.        / \     |  \   | |  ,-`__`¬  ,-`__`¬
+ *   ( (_`-'   | |   | | ) |       / . \    | . \  | | / .`  `' / .`  `'
+ *    `._ `.   | |   | |<. L      / / \ \   | |\ \ | || |    _ | '--.
+ *   _   `. \  | |   | |  `.`.   / /   \ \  | | \ \| || |   | || +--'
+ *  \ \__.' /  | |   | |    \ \ / /     \ \ | |  \ ` | \ `._' | \ `.__,.
+ *   `.__.-`   |_|   |_|    |_|/_/       \_\|_|   \__|  `-.__.J  `-.__.J
+ *                   __    _         _      __      __
+ *                 ,`_ `, | |  _    | |  ,-`__`¬  ,`_ `,
+ *                ( (_`-' | | ) |   | | / .`  `' ( (_`-'
+ *                 `._ `. | L-' L   | || '--.     `._ `.
+ *                _   `. \| ,.-^.`. | || +--'    _   `. \
+ *               \ \__.' /| |    \ \| | \ `.__,.\ \__.' /
+ *                `.__.-` |_|    |_||_|  `-.__.J `.__.-`
+ *
+ * This file is part of uk.co.strangeskies.collections.
+ *
+ * uk.co.strangeskies.collections is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * uk.co.strangeskies.collections is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package uk.co.strangeskies.collection.computingmap;
+
+import java.util.Arrays;
+
+/**
+ * An immutable snapshot of the statistics recorded by a
+ * {@link CacheStatsRecorder}.
+ * <p>
+ * A hit is a request for a key which was already present in the map, and a
+ * miss is a request for a key which was not. Load times are in nanoseconds.
+ *
+ * @author Elias N Vasylenko
+ */
+public final class CacheStats {
+	private final long hitCount;
+	private final long missCount;
+	private final long loadSuccessCount;
+	private final long loadFailureCount;
+	private final long totalLoadTime;
+	private final long[] evictionCounts;
+
+	CacheStats(
+			long hitCount,
+			long missCount,
+			long loadSuccessCount,
+			long loadFailureCount,
+			long totalLoadTime,
+			long[] evictionCounts) {
+		this.hitCount = hitCount;
+		this.missCount = missCount;
+		this.loadSuccessCount = loadSuccessCount;
+		this.loadFailureCount = loadFailureCount;
+		this.totalLoadTime = totalLoadTime;
+		this.evictionCounts = evictionCounts;
+	}
+
+	static CacheStats empty() {
+		return new CacheStats(0, 0, 0, 0, 0, new long[RemovalCause.values().length]);
+	}
+
+	public long hitCount() {
+		return hitCount;
+	}
+
+	public long missCount() {
+		return missCount;
+	}
+
+	public long requestCount() {
+		return hitCount + missCount;
+	}
+
+	/**
+	 * @return The proportion of requests which were hits, or 1 if there have
+	 *         been no requests
+	 */
+	public double hitRate() {
+		long requestCount = requestCount();
+		return requestCount == 0 ? 1 : (double) hitCount / requestCount;
+	}
+
+	public long loadSuccessCount() {
+		return loadSuccessCount;
+	}
+
+	public long loadFailureCount() {
+		return loadFailureCount;
+	}
+
+	public long loadCount() {
+		return loadSuccessCount + loadFailureCount;
+	}
+
+	/**
+	 * @return The total time spent computing values, in nanoseconds
+	 */
+	public long totalLoadTime() {
+		return totalLoadTime;
+	}
+
+	/**
+	 * @return The average time spent computing a value, in nanoseconds
+	 */
+	public double averageLoadPenalty() {
+		long loadCount = loadCount();
+		return loadCount == 0 ? 0 : (double) totalLoadTime / loadCount;
+	}
+
+	public long evictionCount() {
+		return Arrays.stream(evictionCounts).sum();
+	}
+
+	public long evictionCount(RemovalCause cause) {
+		return evictionCounts[cause.ordinal()];
+	}
+
+	/**
+	 * @param other
+	 *          Statistics recorded earlier by the same recorder
+	 * @return The statistics recorded since the other snapshot was taken
+	 */
+	public CacheStats minus(CacheStats other) {
+		long[] evictionCounts = new long[this.evictionCounts.length];
+		for (int i = 0; i < evictionCounts.length; i++)
+			evictionCounts[i] = this.evictionCounts[i] - other.evictionCounts[i];
+
+		return new CacheStats(
+				hitCount - other.hitCount,
+				missCount - other.missCount,
+				loadSuccessCount - other.loadSuccessCount,
+				loadFailureCount - other.loadFailureCount,
+				totalLoadTime - other.totalLoadTime,
+				evictionCounts);
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder evictions = new StringBuilder();
+		for (RemovalCause cause : RemovalCause.values()) {
+			if (evictions.length() > 0)
+				evictions.append(", ");
+			evictions.append(cause).append('=').append(evictionCount(cause));
+		}
+
+		return getClass().getSimpleName()
+				+ "{hits="
+				+ hitCount
+				+ ", misses="
+				+ missCount
+				+ ", loadSuccesses="
+				+ loadSuccessCount
+				+ ", loadFailures="
+				+ loadFailureCount
+				+ ", totalLoadTime="
+				+ totalLoadTime
+				+ ", evictions={"
+				+ evictions
+				+ "}}";
+	}
+}
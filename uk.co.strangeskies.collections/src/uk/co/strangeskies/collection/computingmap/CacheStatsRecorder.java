@@ -0,0 +1,84 @@
+/*
+ * Copyright (C) 2018 Elias N Vasylenko <eliasvasylenko@strangeskies.co.uk>
+ *      __   _______  ____           _       __     _      __       __
+ *    ,`_ `,|__   __||  _ `.        / \     |  \   | |  ,-`__`¬  ,-`__`¬
+ *   ( (_`-'   | |   | | ) |       / . \    | . \  | | / .`  `' / .`  `'
+ *    `._ `.   | |   | |<. L      / / \ \   | |\ \ | || |    _ | '--.
+ *   _   `. \  | |   | |  `.`.   / /   \ \  | | \ \| || |   | || +--'
+ *  \ \__.' /  | |   | |    \ \ / /     \ \ | |  \ ` | \ `._' | \ `.__,.
+ *   `.__.-`   |_|   |_|    |_|/_/       \_\|_|   \__|  `-.__.J  `-.__.J
+ *                   __    _         _      __      __
+ *                 ,`_ `, | |  _    | |  ,-`__`¬  ,`_ `,
+ *                ( (_`-' | | ) |   | | / .`  `' ( (_`-'
+ *                 `._ `. | L-' L   | || '--.     `._ `.
+ *                _   `. \| ,.-^.`. | || +--'    _   `. \
+ *               \ \__.' /| |    \ \| | \ `.__,.\ \__.' /
+ *                `.__.-` |_|    |_||_|  `-.__.J `.__.-`
+ *
+ * This file is part of uk.co.strangeskies.collections.
+ *
+ * uk.co.strangeskies.collections is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * uk.co.strangeskies.collections is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package uk.co.strangeskies.collection.computingmap;
+
+/**
+ * Accumulates statistics about the effectiveness of a caching
+ * {@link ComputingMap}, which can be exported at any time as a
+ * {@link CacheStats snapshot}.
+ * <p>
+ * A recorder may be shared between several maps to record their combined
+ * statistics.
+ *
+ * @author Elias N Vasylenko
+ */
+public interface CacheStatsRecorder {
+	void recordHit();
+
+	void recordMiss();
+
+	/**
+	 * @param loadTime
+	 *          The time taken to compute the value, in nanoseconds
+	 */
+	void recordLoadSuccess(long loadTime);
+
+	/**
+	 * @param loadTime
+	 *          The time taken before the computation failed, in nanoseconds
+	 */
+	void recordLoadFailure(long loadTime);
+
+	void recordEviction(RemovalCause cause);
+
+	/**
+	 * @return A snapshot of the statistics recorded so far
+	 */
+	CacheStats snapshot();
+
+	/**
+	 * @return A new thread-safe recorder which accumulates into striped
+	 *         counters, so that it is cheap enough to leave enabled in
+	 *         production
+	 */
+	static CacheStatsRecorder create() {
+		return new StripedCacheStatsRecorder();
+	}
+
+	/**
+	 * @return A recorder which discards all statistics
+	 */
+	static CacheStatsRecorder disabled() {
+		return DisabledCacheStatsRecorder.INSTANCE;
+	}
+}
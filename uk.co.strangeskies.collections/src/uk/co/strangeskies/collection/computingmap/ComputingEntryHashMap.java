@@ -39,6 +39,7 @@ import java.util.HashMap;
 import java.util.Iterator;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executor;
 import java.util.function.Consumer;
 import java.util.function.Function;
@@ -49,6 +50,10 @@ public class ComputingEntryHashMap<K, V> implements ComputingMap<K, V> {
 
 		V getValue();
 
+		default boolean isComputed() {
+			return false;
+		}
+
 		void remove();
 	}
 
@@ -70,6 +75,11 @@ public class ComputingEntryHashMap<K, V> implements ComputingMap<K, V> {
 			return value != null ? value : (value = computation().apply(getKey()));
 		}
 
+		@Override
+		public synchronized boolean isComputed() {
+			return value != null;
+		}
+
 		@Override
 		public void remove() {}
 	}
@@ -104,6 +114,20 @@ public class ComputingEntryHashMap<K, V> implements ComputingMap<K, V> {
 		return entry == null ? null : entry.getValue();
 	}
 
+	/*
+	 * Values which have already been computed are returned directly, and only
+	 * those still being computed are waited for on the executor.
+	 */
+	@Override
+	public CompletableFuture<V> getAsync(K key, Executor executor) {
+		Entry<K, V> entry = map.get(key);
+
+		if (entry == null || entry.isComputed())
+			return CompletableFuture.completedFuture(get(key));
+		else
+			return ComputingMap.super.getAsync(key, executor);
+	}
+
 	@Override
 	public boolean put(K key) {
 		if (map.containsKey(key))
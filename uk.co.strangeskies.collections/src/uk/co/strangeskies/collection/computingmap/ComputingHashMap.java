@@ -36,6 +36,8 @@ import java.util.Collection;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import java.util.function.Consumer;
 import java.util.function.Function;
 
@@ -53,6 +55,15 @@ public class ComputingHashMap<K, V> implements ComputingMap<K, V> {
 		return map.get(key);
 	}
 
+	/*
+	 * Values are computed as soon as their keys are put, so there is never
+	 * anything to wait for.
+	 */
+	@Override
+	public CompletableFuture<V> getAsync(K key, Executor executor) {
+		return CompletableFuture.completedFuture(get(key));
+	}
+
 	@Override
 	public boolean put(K key) {
 		if (map.containsKey(key))
@@ -33,8 +33,14 @@
 package uk.co.strangeskies.collection.computingmap;
 
 import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.Consumer;
+import java.util.function.Function;
 
 /**
  * Conceptually, this map behaves much like an ordinary map other than the
@@ -73,6 +79,42 @@ public interface ComputingMap<K, V> extends ReadOnlyMap<K, V> {
 	@Override
 	V get(K key);
 
+	/**
+	 * Get the value for the given key without blocking on its computation.
+	 * <p>
+	 * The default implementation waits for the value on the
+	 * {@link ForkJoinPool#commonPool() common pool} as per
+	 * {@link #getAsync(Object, Executor)}, so where values may take some time to
+	 * compute an executor should be given explicitly.
+	 *
+	 * @param key
+	 *          The key object for which to return the mapped computed value
+	 * @return A future over the computed value associated with a given key,
+	 *         which completes with null if the key is not in the map
+	 */
+	default CompletableFuture<V> getAsync(K key) {
+		return getAsync(key, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Get the value for the given key without blocking on its computation.
+	 * <p>
+	 * The default implementation occupies a thread of the given executor for as
+	 * long as it waits for the value to be computed. Implementations which are
+	 * able to complete the future as soon as the value is available, or
+	 * immediately if it has already been computed, should do so instead.
+	 *
+	 * @param key
+	 *          The key object for which to return the mapped computed value
+	 * @param executor
+	 *          The executor on which to wait for the value, if necessary
+	 * @return A future over the computed value associated with a given key,
+	 *         which completes with null if the key is not in the map
+	 */
+	default CompletableFuture<V> getAsync(K key, Executor executor) {
+		return CompletableFuture.supplyAsync(() -> get(key), executor);
+	}
+
 	/**
 	 * Enters the key into the map such that a value of type {@code V} will at
 	 * some point be computed which will be then returned by any subsequent calls
@@ -98,6 +140,97 @@ public interface ComputingMap<K, V> extends ReadOnlyMap<K, V> {
 		return changed;
 	}
 
+	/**
+	 * Enter all of the given keys into the map as per {@link #putAll(Collection)},
+	 * then return a future which completes once all of their values have been
+	 * computed.
+	 * <p>
+	 * The default implementation waits for each value as per
+	 * {@link #getAsync(Object)}.
+	 *
+	 * @param keys
+	 *          The key objects to be mapped to new values
+	 * @return A future over the computed values associated with the given keys,
+	 *         in the iteration order of the given collection
+	 */
+	default CompletableFuture<Map<K, V>> putAllAsync(Collection<? extends K> keys) {
+		return putAllAsync(keys, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Enter all of the given keys into the map as per {@link #putAll(Collection)},
+	 * then return a future which completes once all of their values have been
+	 * computed.
+	 * <p>
+	 * The default implementation waits for each value as per
+	 * {@link #getAsync(Object, Executor)}.
+	 *
+	 * @param keys
+	 *          The key objects to be mapped to new values
+	 * @param executor
+	 *          The executor on which to wait for values, if necessary
+	 * @return A future over the computed values associated with the given keys,
+	 *         in the iteration order of the given collection
+	 */
+	default CompletableFuture<Map<K, V>> putAllAsync(Collection<? extends K> keys, Executor executor) {
+		putAll(keys);
+
+		Map<K, CompletableFuture<V>> futures = new LinkedHashMap<>();
+		for (K key : keys)
+			futures.put(key, getAsync(key, executor));
+
+		return CompletableFuture.allOf(futures.values().toArray(new CompletableFuture<?>[0])).thenApply(
+				v -> {
+					Map<K, V> values = new LinkedHashMap<>();
+					futures.forEach((key, value) -> values.put(key, value.join()));
+					return values;
+				});
+	}
+
+	/**
+	 * Get the values for all of the given keys, first entering any which are
+	 * missing into the map as per {@link #putGet(Object)}.
+	 *
+	 * @param keys
+	 *          The key objects for which to return the mapped computed values
+	 * @return The computed values associated with the given keys, in the
+	 *         iteration order of the given collection, omitting any keys for
+	 *         which no value could be computed
+	 */
+	default Map<K, V> getAll(Collection<? extends K> keys) {
+		Map<K, V> values = new LinkedHashMap<>();
+		for (K key : keys) {
+			V value = putGet(key);
+			if (value != null)
+				values.put(key, value);
+		}
+		return values;
+	}
+
+	/**
+	 * Get the values for all of the given keys as per {@link #getAll(Collection)},
+	 * allowing the values of any missing keys to be computed together in a
+	 * single batch.
+	 * <p>
+	 * Implementations which do not support batch computation may ignore the
+	 * given function and compute missing keys individually, as the default
+	 * implementation does. Where the batch computation is used, its results
+	 * should agree with the computation associated with the map.
+	 *
+	 * @param keys
+	 *          The key objects for which to return the mapped computed values
+	 * @param batchComputation
+	 *          A computation from a set of missing keys to their values
+	 * @return The computed values associated with the given keys, in the
+	 *         iteration order of the given collection, omitting any keys for
+	 *         which no value could be computed
+	 */
+	default Map<K, V> getAll(
+			Collection<? extends K> keys,
+			Function<? super Set<K>, ? extends Map<? extends K, ? extends V>> batchComputation) {
+		return getAll(keys);
+	}
+
 	/**
 	 * This method simply makes sure the value for the given key has been computed
 	 * and added to the map, then returns it.
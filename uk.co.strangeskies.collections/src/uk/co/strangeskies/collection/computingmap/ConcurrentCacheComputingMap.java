@@ -0,0 +1,913 @@
+/*
+ * Copyright (C) 2018 Elias N Vasylenko <eliasvasylenko@strangeskies.co.uk>
+ *      __   _______  ____           _       __     _      __       __
+ *    ,`_ `,|__   __||  _ `.        / \     |  \   | |  ,-`__`¬  ,-`__`¬
+ *   ( (_`-'   | |   | | ) |       / . \    | . \  | | / .`  `' / .`  `'
+ *    `._ `.   | |   | |<. L      / / \ \   | |\ \ | || |    _ | '--.
+ *   _   `. \  | |   | |  `.`.   / /   \ \  | | \ \| || |   | || +--'
+ *  \ \__.' /  | |   | |    \ \ / /     \ \ | |  \ ` | \ `._' | \ `.__,.
+ *   `.__.-`   |_|   |_|    |_|/_/       \_\|_|   \__|  `-.__.J  `-.__.J
+ *                   __    _         _      __      __
+ *                 ,`_ `, | |  _    | |  ,-`__`¬  ,`_ `,
+ *                ( (_`-' | | ) |   | | / .`  `' ( (_`-'
+ *                 `._ `. | L-' L   | || '--.     `._ `.
+ *                _   `. \| ,.-^.`. | || +--'    _   `. \
+ *               \ \__.' /| |    \ \| | \ `.__,.\ \__.' /
+ *                `.__.-` |_|    |_||_|  `-.__.J `.__.-`
+ *
+ * This file is part of uk.co.strangeskies.collections.
+ *
+ * uk.co.strangeskies.collections is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * uk.co.strangeskies.collections is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package uk.co.strangeskies.collection.computingmap;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.AbstractCollection;
+import java.util.AbstractSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.ToLongBiFunction;
+
+/**
+ * A thread-safe {@link ComputingMap} intended for use as a bounded cache.
+ * <p>
+ * Reads never take a lock. Each key is computed at most once while it remains
+ * in the map, either on the executor when it is {@link #put(Object) put}, or
+ * on the first thread to need its value if that comes sooner, and any other
+ * thread needing the value waits for that computation rather than repeating
+ * it.
+ * <p>
+ * When the number of entries exceeds the maximum size, or the total weight of
+ * computed values exceeds the maximum weight, entries are evicted in
+ * approximately least-recently-used order according to the CLOCK algorithm.
+ * Eviction is amortized over writes and never blocks a writer, so the bounds
+ * may be exceeded briefly under contention.
+ * <p>
+ * If a computation fails, or produces null, the key is removed from the map so
+ * that it may be computed again.
+ *
+ * @author Elias N Vasylenko
+ *
+ * @param <K>
+ *          The type of keys
+ * @param <V>
+ *          The type of values
+ */
+public class ConcurrentCacheComputingMap<K, V> implements ComputingMap<K, V> {
+	private static final int NEW = 0;
+	private static final int COMPUTING = 1;
+	private static final int DONE = 2;
+	private static final int REFRESHING = 3;
+
+	private static final int EXPIRY_SCAN_LIMIT = 16;
+	private static final int READS_PER_EXPIRY_SCAN = 64;
+
+	private class Node {
+		private final K key;
+		private final AtomicInteger state = new AtomicInteger(NEW);
+		private final CompletableFuture<V> value = new CompletableFuture<>();
+		private volatile boolean referenced;
+		private volatile long writeTime;
+		private volatile long accessTime;
+
+		private boolean removed;
+		private long weight;
+
+		Node(K key) {
+			this.key = key;
+		}
+
+		Node(K key, V value, long now) {
+			this.key = key;
+			this.state.set(DONE);
+			this.value.complete(value);
+			this.writeTime = now;
+			this.accessTime = now;
+		}
+
+		void reference() {
+			if (!referenced)
+				referenced = true;
+		}
+
+		void compute() {
+			if (!state.compareAndSet(NEW, COMPUTING))
+				return;
+
+			long start = System.nanoTime();
+			V value;
+			try {
+				value = computation.apply(key);
+			} catch (Throwable t) {
+				fail(t, System.nanoTime() - start);
+				return;
+			}
+			complete(value, System.nanoTime() - start);
+		}
+
+		/*
+		 * Must only be called by the thread which moved the node to COMPUTING.
+		 */
+		void complete(V value, long loadTime) {
+			try {
+				if (value == null) {
+					stats.recordLoadFailure(loadTime);
+					discard();
+				} else {
+					stats.recordLoadSuccess(loadTime);
+					if (expiry.isTimed())
+						writeTime = accessTime = expiry.now();
+					weigh(value);
+				}
+				this.value.complete(value);
+			} finally {
+				state.set(DONE);
+			}
+
+			afterWrite();
+		}
+
+		/*
+		 * Must only be called by the thread which moved the node to COMPUTING.
+		 */
+		void fail(Throwable t, long loadTime) {
+			stats.recordLoadFailure(loadTime);
+			discard();
+			value.completeExceptionally(t);
+			state.set(DONE);
+
+			afterWrite();
+		}
+
+		void cancel() {
+			if (state.compareAndSet(NEW, DONE))
+				value.complete(null);
+		}
+
+		boolean isExpired(long now) {
+			return state.get() >= DONE && expiry.isExpired(writeTime, accessTime, now);
+		}
+
+		V getValue() {
+			compute();
+
+			try {
+				return value.join();
+			} catch (CompletionException e) {
+				if (e.getCause() instanceof Error) {
+					throw (Error) e.getCause();
+				} else if (e.getCause() instanceof RuntimeException) {
+					throw (RuntimeException) e.getCause();
+				} else {
+					throw e;
+				}
+			}
+		}
+
+		private void discard() {
+			if (map.remove(key, this))
+				afterRemoval(this);
+		}
+
+		synchronized void weigh(V value) {
+			if (!removed) {
+				weight = weigher.applyAsLong(key, value);
+				totalWeight.addAndGet(weight);
+			}
+		}
+
+		synchronized void onRemoval() {
+			if (!removed) {
+				removed = true;
+				totalWeight.addAndGet(-weight);
+				weight = 0;
+			}
+		}
+
+		synchronized boolean isRemoved() {
+			return removed;
+		}
+	}
+
+	private final Map<K, Node> map;
+	private final Function<K, V> computation;
+	private final Executor executor;
+
+	private final long maximumSize;
+	private final long maximumWeight;
+	private final ToLongBiFunction<? super K, ? super V> weigher;
+	private final AtomicLong totalWeight;
+
+	private final CacheStatsRecorder stats;
+	private final ExpiryPolicy expiry;
+
+	private final Queue<Node> clock;
+	private final AtomicInteger clockSize;
+	private final AtomicInteger removedFromClock;
+	private final AtomicInteger readsSinceExpiryScan;
+	private final ReentrantLock evictionLock;
+
+	/**
+	 * Create a cache bounded by size, computing values which are put into the
+	 * map on the {@link ForkJoinPool#commonPool() common pool}.
+	 *
+	 * @param computation
+	 *          The computation from keys to values
+	 * @param maximumSize
+	 *          The maximum number of entries to retain
+	 */
+	public ConcurrentCacheComputingMap(Function<K, V> computation, long maximumSize) {
+		this(computation, maximumSize, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Create a cache bounded by size.
+	 *
+	 * @param computation
+	 *          The computation from keys to values
+	 * @param maximumSize
+	 *          The maximum number of entries to retain
+	 * @param executor
+	 *          The executor on which to compute values which are put into the map
+	 */
+	public ConcurrentCacheComputingMap(Function<K, V> computation, long maximumSize, Executor executor) {
+		this(computation, maximumSize, Long.MAX_VALUE, (k, v) -> 0, executor);
+	}
+
+	/**
+	 * Create a cache bounded by size, whose entries expire or are refreshed
+	 * according to the given policy.
+	 *
+	 * @param computation
+	 *          The computation from keys to values
+	 * @param maximumSize
+	 *          The maximum number of entries to retain
+	 * @param expiry
+	 *          The policy for expiring and refreshing entries
+	 * @param executor
+	 *          The executor on which to compute values which are put into the
+	 *          map, and on which to refresh values
+	 */
+	public ConcurrentCacheComputingMap(
+			Function<K, V> computation,
+			long maximumSize,
+			ExpiryPolicy expiry,
+			Executor executor) {
+		this(
+				computation,
+				maximumSize,
+				Long.MAX_VALUE,
+				(k, v) -> 0,
+				executor,
+				CacheStatsRecorder.disabled(),
+				expiry);
+	}
+
+	/**
+	 * Create a cache bounded by size and by the total weight of its values.
+	 *
+	 * @param computation
+	 *          The computation from keys to values
+	 * @param maximumSize
+	 *          The maximum number of entries to retain
+	 * @param maximumWeight
+	 *          The maximum total weight of values to retain
+	 * @param weigher
+	 *          The weight of each computed entry, which must not be negative
+	 * @param executor
+	 *          The executor on which to compute values which are put into the map
+	 */
+	public ConcurrentCacheComputingMap(
+			Function<K, V> computation,
+			long maximumSize,
+			long maximumWeight,
+			ToLongBiFunction<? super K, ? super V> weigher,
+			Executor executor) {
+		this(
+				computation,
+				maximumSize,
+				maximumWeight,
+				weigher,
+				executor,
+				CacheStatsRecorder.disabled(),
+				ExpiryPolicy.none());
+	}
+
+	/**
+	 * Create a cache bounded by size and by the total weight of its values,
+	 * recording statistics on its effectiveness.
+	 *
+	 * @param computation
+	 *          The computation from keys to values
+	 * @param maximumSize
+	 *          The maximum number of entries to retain
+	 * @param maximumWeight
+	 *          The maximum total weight of values to retain
+	 * @param weigher
+	 *          The weight of each computed entry, which must not be negative
+	 * @param executor
+	 *          The executor on which to compute values which are put into the map
+	 * @param stats
+	 *          The recorder for cache statistics
+	 */
+	public ConcurrentCacheComputingMap(
+			Function<K, V> computation,
+			long maximumSize,
+			long maximumWeight,
+			ToLongBiFunction<? super K, ? super V> weigher,
+			Executor executor,
+			CacheStatsRecorder stats) {
+		this(computation, maximumSize, maximumWeight, weigher, executor, stats, ExpiryPolicy.none());
+	}
+
+	/**
+	 * Create a cache bounded by size and by the total weight of its values,
+	 * whose entries expire or are refreshed according to the given policy, and
+	 * recording statistics on its effectiveness.
+	 * <p>
+	 * Expired entries are removed lazily when they are read, and a few entries
+	 * are checked for expiry on each write and periodically on reads, so no
+	 * dedicated thread is needed.
+	 * {@link #cleanUp()} may be invoked to remove all expired entries at once.
+	 *
+	 * @param computation
+	 *          The computation from keys to values
+	 * @param maximumSize
+	 *          The maximum number of entries to retain
+	 * @param maximumWeight
+	 *          The maximum total weight of values to retain
+	 * @param weigher
+	 *          The weight of each computed entry, which must not be negative
+	 * @param executor
+	 *          The executor on which to compute values which are put into the
+	 *          map, and on which to refresh values
+	 * @param stats
+	 *          The recorder for cache statistics
+	 * @param expiry
+	 *          The policy for expiring and refreshing entries
+	 */
+	public ConcurrentCacheComputingMap(
+			Function<K, V> computation,
+			long maximumSize,
+			long maximumWeight,
+			ToLongBiFunction<? super K, ? super V> weigher,
+			Executor executor,
+			CacheStatsRecorder stats,
+			ExpiryPolicy expiry) {
+		if (maximumSize < 0)
+			throw new IllegalArgumentException("Maximum size must not be negative " + maximumSize);
+		if (maximumWeight < 0)
+			throw new IllegalArgumentException("Maximum weight must not be negative " + maximumWeight);
+
+		this.map = new ConcurrentHashMap<>();
+		this.computation = requireNonNull(computation);
+		this.executor = requireNonNull(executor);
+
+		this.maximumSize = maximumSize;
+		this.maximumWeight = maximumWeight;
+		this.weigher = requireNonNull(weigher);
+		this.totalWeight = new AtomicLong();
+
+		this.stats = requireNonNull(stats);
+		this.expiry = requireNonNull(expiry);
+
+		this.clock = new ConcurrentLinkedQueue<>();
+		this.clockSize = new AtomicInteger();
+		this.removedFromClock = new AtomicInteger();
+		this.readsSinceExpiryScan = new AtomicInteger();
+		this.evictionLock = new ReentrantLock();
+	}
+
+	public long maximumSize() {
+		return maximumSize;
+	}
+
+	public long maximumWeight() {
+		return maximumWeight;
+	}
+
+	/**
+	 * @return The total weight of the computed values currently in the map
+	 */
+	public long weight() {
+		return totalWeight.get();
+	}
+
+	/**
+	 * @return A snapshot of the statistics recorded for the map, which are
+	 *         empty unless a recorder was given on construction
+	 */
+	public CacheStats stats() {
+		return stats.snapshot();
+	}
+
+	/*
+	 * Insertion and eviction
+	 */
+
+	private Node insert(K key) {
+		Node node = new Node(key);
+		if (map.putIfAbsent(key, node) != null)
+			return null;
+
+		enqueue(node);
+		afterWrite();
+		return node;
+	}
+
+	/*
+	 * The clock is only ever polled or purged while holding the eviction lock,
+	 * so its size is tracked separately rather than walking the queue.
+	 */
+	private void enqueue(Node node) {
+		clockSize.incrementAndGet();
+		clock.add(node);
+	}
+
+	private Node dequeue() {
+		Node node = clock.poll();
+		if (node != null)
+			clockSize.decrementAndGet();
+		return node;
+	}
+
+	private void purgeClock() {
+		removedFromClock.set(0);
+		clock.removeIf(node -> {
+			if (!node.isRemoved())
+				return false;
+
+			clockSize.decrementAndGet();
+			return true;
+		});
+	}
+
+	private void afterRemoval(Node node) {
+		node.onRemoval();
+		removedFromClock.incrementAndGet();
+	}
+
+	private boolean isOverCapacity() {
+		return map.size() > maximumSize || totalWeight.get() > maximumWeight;
+	}
+
+	/*
+	 * Only one thread at a time sweeps the clock, and any other writer which
+	 * finds it busy simply leaves the work to that thread. Nodes which were
+	 * removed from the map by other means are skipped by the sweep, and purged
+	 * in bulk once they outnumber the live nodes.
+	 * 
+	 * Nodes which have not finished computing are never evicted, as their keys
+	 * have only just been inserted and someone is waiting on their values. They
+	 * are revisited once their computation completes and writes again.
+	 */
+	private void afterWrite() {
+		boolean compact = removedFromClock.get() > map.size() + 16;
+
+		if ((compact || expiry.expires() || isOverCapacity()) && evictionLock.tryLock()) {
+			try {
+				if (compact)
+					purgeClock();
+				if (expiry.expires())
+					expire(EXPIRY_SCAN_LIMIT);
+				evict();
+			} finally {
+				evictionLock.unlock();
+			}
+		}
+	}
+
+	private void evict() {
+		if (!isOverCapacity())
+			return;
+
+		int sweep = clockSize.get() * 2;
+
+		while (isOverCapacity() && sweep-- > 0) {
+			Node node = dequeue();
+			if (node == null)
+				return;
+
+			if (node.isRemoved()) {
+				continue;
+			} else if (node.referenced || node.state.get() < DONE) {
+				node.referenced = false;
+				enqueue(node);
+			} else {
+				RemovalCause cause = map.size() > maximumSize ? RemovalCause.SIZE : RemovalCause.WEIGHT;
+				if (map.remove(node.key, node)) {
+					stats.recordEviction(cause);
+					node.onRemoval();
+				}
+			}
+		}
+	}
+
+	/*
+	 * Checks a number of nodes from the head of the clock for expiry, rotating
+	 * those which are still live to the tail. Must be called while holding the
+	 * eviction lock.
+	 */
+	private void expire(int limit) {
+		long now = expiry.now();
+
+		while (limit-- > 0) {
+			Node node = dequeue();
+			if (node == null)
+				return;
+
+			if (node.isRemoved()) {
+				continue;
+			} else if (node.isExpired(now)) {
+				if (map.remove(node.key, node)) {
+					stats.recordEviction(RemovalCause.EXPIRED);
+					node.onRemoval();
+				}
+			} else {
+				enqueue(node);
+			}
+		}
+	}
+
+	/**
+	 * Remove all expired entries from the map.
+	 */
+	public void cleanUp() {
+		evictionLock.lock();
+		try {
+			purgeClock();
+			if (expiry.expires())
+				expire(clockSize.get());
+			evict();
+		} finally {
+			evictionLock.unlock();
+		}
+	}
+
+	/*
+	 * Expiry and refresh
+	 */
+
+	/*
+	 * Get the node for the given key if it is present and has not expired,
+	 * recording the access and triggering a refresh if one is due.
+	 */
+	private Node getLive(K key) {
+		if (expiry.expires())
+			afterRead();
+
+		Node node = map.get(key);
+
+		if (node != null && expiry.isTimed()) {
+			long now = expiry.now();
+
+			if (node.isExpired(now)) {
+				if (map.remove(key, node)) {
+					stats.recordEviction(RemovalCause.EXPIRED);
+					afterRemoval(node);
+				}
+				return null;
+			}
+
+			node.accessTime = now;
+
+			if (expiry.refreshes()
+					&& expiry.isRefreshDue(node.writeTime, now)
+					&& node.state.compareAndSet(DONE, REFRESHING))
+				executor.execute(() -> refresh(node));
+		}
+
+		return node;
+	}
+
+	/*
+	 * Entries which are never read again would otherwise only be removed by
+	 * writes, so every so often a read checks a few entries for expiry too,
+	 * unless another thread is already doing so.
+	 */
+	private void afterRead() {
+		if (readsSinceExpiryScan.incrementAndGet() >= READS_PER_EXPIRY_SCAN && evictionLock.tryLock()) {
+			try {
+				readsSinceExpiryScan.set(0);
+				expire(EXPIRY_SCAN_LIMIT);
+			} finally {
+				evictionLock.unlock();
+			}
+		}
+	}
+
+	private void refresh(Node node) {
+		long start = System.nanoTime();
+		try {
+			V value = computation.apply(node.key);
+
+			if (value != null) {
+				stats.recordLoadSuccess(System.nanoTime() - start);
+
+				Node refreshed = new Node(node.key, value, expiry.now());
+				refreshed.weigh(value);
+				if (map.replace(node.key, node, refreshed)) {
+					enqueue(refreshed);
+					afterRemoval(node);
+					afterWrite();
+				} else {
+					refreshed.onRemoval();
+				}
+				return;
+			}
+
+			stats.recordLoadFailure(System.nanoTime() - start);
+		} catch (Throwable t) {
+			stats.recordLoadFailure(System.nanoTime() - start);
+		}
+
+		node.state.compareAndSet(REFRESHING, DONE);
+	}
+
+	/*
+	 * ComputingMap
+	 */
+
+	@Override
+	public V get(K key) {
+		Node node = getLive(key);
+		if (node == null) {
+			stats.recordMiss();
+			return null;
+		}
+
+		stats.recordHit();
+		node.reference();
+		return node.getValue();
+	}
+
+	@Override
+	public CompletableFuture<V> getAsync(K key) {
+		Node node = getLive(key);
+		if (node == null) {
+			stats.recordMiss();
+			return CompletableFuture.completedFuture(null);
+		}
+
+		stats.recordHit();
+		node.reference();
+		return node.value.copy();
+	}
+
+	/**
+	 * Get the value for the given key as per {@link #getAsync(Object)}. The
+	 * future completes as soon as the value is computed, so the executor is
+	 * never needed.
+	 */
+	@Override
+	public CompletableFuture<V> getAsync(K key, Executor executor) {
+		return getAsync(key);
+	}
+
+	/**
+	 * Get the values for all of the given keys, computing the values of any
+	 * which are missing from the map together in a single invocation of the
+	 * batch computation on the calling thread.
+	 * <p>
+	 * Keys which are already being computed elsewhere are waited for rather than
+	 * included in the batch. If the batch computation fails, every key in the
+	 * batch fails with the same exception and is removed from the map. Keys
+	 * which are absent from the result of the batch computation are removed from
+	 * the map and omitted from the returned values.
+	 */
+	@Override
+	public Map<K, V> getAll(
+			Collection<? extends K> keys,
+			Function<? super Set<K>, ? extends Map<? extends K, ? extends V>> batchComputation) {
+		Map<K, Node> nodes = new LinkedHashMap<>();
+		Map<K, Node> batch = new LinkedHashMap<>();
+
+		for (K key : keys) {
+			while (!nodes.containsKey(key)) {
+				Node node = getLive(key);
+
+				if (node != null) {
+					stats.recordHit();
+					node.reference();
+					nodes.put(key, node);
+				} else if ((node = insert(key)) != null) {
+					stats.recordMiss();
+					nodes.put(key, node);
+					if (node.state.compareAndSet(NEW, COMPUTING))
+						batch.put(key, node);
+				}
+			}
+		}
+
+		if (!batch.isEmpty())
+			computeBatch(batch, batchComputation);
+
+		Map<K, V> values = new LinkedHashMap<>();
+		nodes.forEach((key, node) -> {
+			V value = node.getValue();
+			if (value != null)
+				values.put(key, value);
+		});
+		return values;
+	}
+
+	private void computeBatch(
+			Map<K, Node> batch,
+			Function<? super Set<K>, ? extends Map<? extends K, ? extends V>> batchComputation) {
+		long start = System.nanoTime();
+		Map<? extends K, ? extends V> values;
+		try {
+			values = batchComputation.apply(Collections.unmodifiableSet(batch.keySet()));
+		} catch (Throwable t) {
+			long loadTime = (System.nanoTime() - start) / batch.size();
+			batch.values().forEach(node -> node.fail(t, loadTime));
+			throw t;
+		}
+
+		long loadTime = (System.nanoTime() - start) / batch.size();
+		batch.forEach((key, node) -> node.complete(values.get(key), loadTime));
+	}
+
+	@Override
+	public boolean put(K key) {
+		if (getLive(key) != null)
+			return false;
+
+		Node node = insert(key);
+		if (node == null)
+			return false;
+
+		executor.execute(node::compute);
+		return true;
+	}
+
+	@Override
+	public V putGet(K key, Consumer<V> wasPresent, Consumer<V> wasMissing) {
+		for (;;) {
+			Node node = getLive(key);
+
+			if (node != null) {
+				stats.recordHit();
+				node.reference();
+				V value = node.getValue();
+				wasPresent.accept(value);
+				return value;
+			}
+
+			node = insert(key);
+
+			if (node != null) {
+				stats.recordMiss();
+				V value = node.getValue();
+				wasMissing.accept(value);
+				return value;
+			}
+		}
+	}
+
+	@Override
+	public Set<K> keySet() {
+		return new AbstractSet<K>() {
+			@Override
+			public Iterator<K> iterator() {
+				Iterator<K> iterator = map.keySet().iterator();
+
+				return new Iterator<K>() {
+					private K last;
+
+					@Override
+					public boolean hasNext() {
+						return iterator.hasNext();
+					}
+
+					@Override
+					public K next() {
+						return last = iterator.next();
+					}
+
+					@Override
+					public void remove() {
+						ConcurrentCacheComputingMap.this.remove(last);
+					}
+				};
+			}
+
+			@Override
+			public boolean contains(Object o) {
+				return map.containsKey(o);
+			}
+
+			@Override
+			public int size() {
+				return map.size();
+			}
+		};
+	}
+
+	@Override
+	public Collection<V> values() {
+		return new AbstractCollection<V>() {
+			@Override
+			public Iterator<V> iterator() {
+				Iterator<Node> iterator = map.values().iterator();
+
+				return new Iterator<V>() {
+					private Node last;
+
+					@Override
+					public boolean hasNext() {
+						return iterator.hasNext();
+					}
+
+					@Override
+					public V next() {
+						return (last = iterator.next()).getValue();
+					}
+
+					@Override
+					public void remove() {
+						ConcurrentCacheComputingMap.this.remove(last.key);
+					}
+				};
+			}
+
+			@Override
+			public int size() {
+				return map.size();
+			}
+		};
+	}
+
+	@Override
+	public int size() {
+		return map.size();
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return map.isEmpty();
+	}
+
+	/**
+	 * Remove the given key from the map, cancelling the computation of its value
+	 * if it has not yet started.
+	 */
+	@Override
+	public boolean remove(K key) {
+		Node node = map.remove(key);
+		if (node == null)
+			return false;
+
+		afterRemoval(node);
+		node.cancel();
+		return true;
+	}
+
+	@Override
+	public V removeGet(K key) {
+		Node node = map.remove(key);
+		if (node == null)
+			return null;
+
+		afterRemoval(node);
+		return node.getValue();
+	}
+
+	@Override
+	public boolean clear() {
+		boolean changed = false;
+
+		for (K key : map.keySet())
+			changed = remove(key) | changed;
+
+		return changed;
+	}
+}
@@ -33,12 +33,12 @@
 package uk.co.strangeskies.collection.computingmap;
 
 import java.util.concurrent.Executor;
-import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.Function;
 
 public class DeferredComputingMap<K, V> extends ComputingEntryHashMap<K, V> {
 	public DeferredComputingMap(Function<K, V> computation) {
-		this(computation, Executors.newFixedThreadPool(4));
+		this(computation, ForkJoinPool.commonPool());
 	}
 
 	public DeferredComputingMap(Function<K, V> computation, Executor executor) {
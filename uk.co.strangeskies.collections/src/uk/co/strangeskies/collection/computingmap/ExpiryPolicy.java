@@ -0,0 +1,152 @@
+/*
+ * Copyright (C) 2018 Elias N Vasylenko <eliasvasylenko@strangeskies.co.uk>
+ *      __   _______  ____           _       __     _      __       __
+ *    ,`_ `,|__   __||  _ `.        / \     |  \   | |  ,-`__`¬  ,-`__`¬
+ *   ( (_`-'   | |   | | ) |       / . \    | . \  | | / .`  `' / .`  `'
+ *    `._ `.   | |   | |<. L      / / \ \   | |\ \ | || |    _ | '--.
+ *   _   `. \  | |   | |  `.`.   / /   \ \  | | \ \| || |   | || +--'
+ *  \ \__.' /  | |   | |    \ \ / /     \ \ | |  \ ` | \ `._' | \ `.__,.
+ *   `.__.-`   |_|   |_|    |_|/_/       \_\|_|   \__|  `-.__.J  `-.__.J
+ *                   __    _         _      __      __
+ *                 ,`_ `, | |  _    | |  ,-`__`¬  ,`_ `,
+ *                ( (_`-' | | ) |   | | / .`  `' ( (_`-'
+ *                 `._ `. | L-' L   | || '--.     `._ `.
+ *                _   `. \| ,.-^.`. | || +--'    _   `. \
+ *               \ \__.' /| |    \ \| | \ `.__,.\ \__.' /
+ *                `.__.-` |_|    |_||_|  `-.__.J `.__.-`
+ *
+ * This file is part of uk.co.strangeskies.collections.
+ *
+ * uk.co.strangeskies.collections is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * uk.co.strangeskies.collections is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package uk.co.strangeskies.collection.computingmap;
+
+import static java.util.Objects.requireNonNull;
+
+import java.time.Duration;
+import java.util.function.LongSupplier;
+
+/**
+ * An immutable description of when the entries of a caching
+ * {@link ComputingMap} become stale.
+ * <p>
+ * An entry may expire a fixed time after its value was computed, or a fixed
+ * time after it was last read, after which it is removed and its value must
+ * be computed again when next needed. Alternatively, or additionally, an entry
+ * may be refreshed a fixed time after its value was computed, in which case
+ * the first read after that time triggers a new computation in the background
+ * and the stale value continues to be served until it completes.
+ *
+ * @author Elias N Vasylenko
+ */
+public final class ExpiryPolicy {
+	private static final long NEVER = Long.MAX_VALUE;
+	private static final ExpiryPolicy NONE = new ExpiryPolicy(NEVER, NEVER, NEVER, System::nanoTime);
+
+	private final long expireAfterWrite;
+	private final long expireAfterAccess;
+	private final long refreshAfterWrite;
+	private final LongSupplier ticker;
+
+	private ExpiryPolicy(
+			long expireAfterWrite,
+			long expireAfterAccess,
+			long refreshAfterWrite,
+			LongSupplier ticker) {
+		this.expireAfterWrite = expireAfterWrite;
+		this.expireAfterAccess = expireAfterAccess;
+		this.refreshAfterWrite = refreshAfterWrite;
+		this.ticker = ticker;
+	}
+
+	/**
+	 * @return A policy under which entries never expire or refresh
+	 */
+	public static ExpiryPolicy none() {
+		return NONE;
+	}
+
+	private static long toNanos(Duration duration) {
+		if (duration.isNegative() || duration.isZero())
+			throw new IllegalArgumentException("Duration must be positive " + duration);
+		return duration.toNanos();
+	}
+
+	/**
+	 * @param duration
+	 *          The time after an entry's value is computed at which it expires
+	 * @return A policy derived from the receiving policy
+	 */
+	public ExpiryPolicy expireAfterWrite(Duration duration) {
+		return new ExpiryPolicy(toNanos(duration), expireAfterAccess, refreshAfterWrite, ticker);
+	}
+
+	/**
+	 * @param duration
+	 *          The time after an entry is computed or last read at which it
+	 *          expires
+	 * @return A policy derived from the receiving policy
+	 */
+	public ExpiryPolicy expireAfterAccess(Duration duration) {
+		return new ExpiryPolicy(expireAfterWrite, toNanos(duration), refreshAfterWrite, ticker);
+	}
+
+	/**
+	 * @param duration
+	 *          The time after an entry's value is computed at which the next
+	 *          read triggers it to be computed again in the background
+	 * @return A policy derived from the receiving policy
+	 */
+	public ExpiryPolicy refreshAfterWrite(Duration duration) {
+		return new ExpiryPolicy(expireAfterWrite, expireAfterAccess, toNanos(duration), ticker);
+	}
+
+	/**
+	 * @param ticker
+	 *          A source of the current time in nanoseconds, for example to
+	 *          substitute a manual clock in tests
+	 * @return A policy derived from the receiving policy
+	 */
+	public ExpiryPolicy withTicker(LongSupplier ticker) {
+		return new ExpiryPolicy(
+				expireAfterWrite,
+				expireAfterAccess,
+				refreshAfterWrite,
+				requireNonNull(ticker));
+	}
+
+	boolean expires() {
+		return expireAfterWrite != NEVER || expireAfterAccess != NEVER;
+	}
+
+	boolean refreshes() {
+		return refreshAfterWrite != NEVER;
+	}
+
+	boolean isTimed() {
+		return expires() || refreshes();
+	}
+
+	long now() {
+		return ticker.getAsLong();
+	}
+
+	boolean isExpired(long writeTime, long accessTime, long now) {
+		return now - writeTime >= expireAfterWrite || now - accessTime >= expireAfterAccess;
+	}
+
+	boolean isRefreshDue(long writeTime, long now) {
+		return now - writeTime >= refreshAfterWrite;
+	}
+}
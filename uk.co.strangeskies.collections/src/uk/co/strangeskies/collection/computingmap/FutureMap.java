@@ -32,152 +32,253 @@
  */
 package uk.co.strangeskies.collection.computingmap;
 
+import static java.util.Objects.requireNonNull;
+import static java.util.stream.Collectors.toSet;
+
 import java.util.AbstractCollection;
 import java.util.AbstractSet;
 import java.util.Collection;
 import java.util.Comparator;
 import java.util.Iterator;
-import java.util.Map;
 import java.util.Set;
-import java.util.TreeMap;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.Consumer;
 import java.util.function.Function;
 
-import uk.co.strangeskies.collection.EquivalenceComparator;
-
+/**
+ * A {@link ComputingMap} which computes the value for each key asynchronously
+ * as soon as it is {@link #put(Object) put}, on a shared executor.
+ * <p>
+ * Each key has its own {@link CompletableFuture}, so waiting for the value of
+ * one key never blocks access to any other. A thread which needs a value
+ * before the executor has begun computing it computes the value itself rather
+ * than waiting. Removing a key whose value is still being computed cancels the
+ * computation, interrupting it if it is running, unless the value has been
+ * requested {@link #get(Object, boolean) uncancellably}.
+ * <p>
+ * If a computation fails or produces null, the key is removed from the map.
+ *
+ * @author Elias N Vasylenko
+ *
+ * @param <K>
+ *          The type of keys
+ * @param <V>
+ *          The type of values
+ */
 public class FutureMap<K, V> implements ComputingMap<K, V> {
-	public class PreparationThread extends Thread {
+	private class Preparation implements Runnable {
 		private final K key;
-		private V value;
+		private final CompletableFuture<V> future = new CompletableFuture<>();
+
+		private boolean started;
 		private boolean cancellable = true;
-		private RuntimeException exception;
+		private Thread runner;
 
-		public PreparationThread(K key) {
-			synchronized (FutureMap.this) {
-				this.key = key;
-				preparationThreads.put(key, this);
-				start();
-			}
+		Preparation(K key) {
+			this.key = key;
 		}
 
 		@Override
 		public void run() {
+			synchronized (this) {
+				if (started || future.isDone())
+					return;
+				started = true;
+				runner = Thread.currentThread();
+			}
+
 			try {
-				value = mapping.apply(key);
-			} catch (RuntimeException e) {
-				exception = e;
+				V value = mapping.apply(key);
+				if (value == null)
+					preparations.remove(key, this);
+				future.complete(value);
+			} catch (Throwable t) {
+				preparations.remove(key, this);
+				future.completeExceptionally(t);
 			} finally {
-				synchronized (FutureMap.this) {
-					if (preparationThreads.containsKey(key)) {
-						if (value != null) {
-							values.put(key, value);
-						}
-						preparationThreads.remove(key);
-						FutureMap.this.notifyAll();
-					}
+				synchronized (this) {
+					runner = null;
+					if (future.isCancelled())
+						Thread.interrupted();
 				}
 			}
 		}
 
-		public void setUncancellable() {
-			synchronized (FutureMap.this) {
-				cancellable = false;
-			}
+		synchronized void setUncancellable() {
+			cancellable = false;
 		}
 
-		public void cancel() {
-			synchronized (FutureMap.this) {
-				if (cancellable && preparationThreads.containsKey(key)) {
-					preparationThreads.remove(key);
-					FutureMap.this.notifyAll();
-					interrupt();
-				}
-			}
+		synchronized void cancel() {
+			if (cancellable && future.cancel(false) && runner != null)
+				runner.interrupt();
 		}
 
-		public V waitForValue() {
-			synchronized (FutureMap.this) {
-				while (preparationThreads.containsKey(key)) {
-					try {
-						preparationThreads.wait();
-					} catch (InterruptedException e) {}
-				}
-				return getValue();
-			}
-		}
-
-		public V getValue() {
-			if (exception != null) {
-				throw exception;
-			}
-			return value;
+		V getValue() {
+			run();
+			return FutureMap.getValue(future);
 		}
 	}
 
-	private final Map<K, PreparationThread> preparationThreads;
-	private final Map<K, V> values;
+	private final ConcurrentMap<K, Preparation> preparations;
 	private final Function<K, V> mapping;
-
+	private final Executor executor;
+
+	/**
+	 * Create a map which computes values on the {@link ForkJoinPool#commonPool()
+	 * common pool}.
+	 *
+	 * @param function
+	 *          The computation from keys to values
+	 */
 	public FutureMap(Function<K, V> function) {
-		this(function, EquivalenceComparator.identityComparator());
+		this(function, ForkJoinPool.commonPool());
 	}
 
-	public FutureMap(Function<K, V> function, Comparator<K> comparator) {
-		preparationThreads = new TreeMap<>(comparator);
-		values = new TreeMap<>(comparator);
-		mapping = values::get;
+	/**
+	 * @param function
+	 *          The computation from keys to values
+	 * @param executor
+	 *          The executor on which to compute values
+	 */
+	public FutureMap(Function<K, V> function, Executor executor) {
+		this.preparations = new ConcurrentHashMap<>();
+		this.mapping = requireNonNull(function);
+		this.executor = requireNonNull(executor);
 	}
 
-	private boolean isPending(K key) {
-		synchronized (this) {
-			return preparationThreads.containsKey(key) || values.containsKey(key);
-		}
+	/**
+	 * Create a map which computes values on the {@link ForkJoinPool#commonPool()
+	 * common pool}, and which considers keys equal according to the given
+	 * comparator rather than by {@link Object#equals(Object)}.
+	 *
+	 * @param function
+	 *          The computation from keys to values
+	 * @param comparator
+	 *          The total ordering over keys
+	 */
+	public FutureMap(Function<K, V> function, Comparator<K> comparator) {
+		this.preparations = new ConcurrentSkipListMap<>(comparator);
+		this.mapping = requireNonNull(function);
+		this.executor = ForkJoinPool.commonPool();
 	}
 
-	@Override
-	public boolean put(final K key) {
-		synchronized (this) {
-			if (isPending(key)) {
-				return false;
+	private static <V> V getValue(CompletableFuture<V> future) {
+		try {
+			return future.join();
+		} catch (CancellationException e) {
+			return null;
+		} catch (CompletionException e) {
+			if (e.getCause() instanceof Error) {
+				throw (Error) e.getCause();
+			} else if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
 			} else {
-				new PreparationThread(key);
-				return true;
+				throw e;
 			}
 		}
 	}
 
+	@Override
+	public boolean put(K key) {
+		if (preparations.containsKey(key))
+			return false;
+
+		Preparation preparation = new Preparation(key);
+		if (preparations.putIfAbsent(key, preparation) != null)
+			return false;
+
+		executor.execute(preparation);
+		return true;
+	}
+
 	@Override
 	public V get(K key) {
 		return get(key, true);
 	}
 
+	/**
+	 * Get the value for the given key, waiting for it to be computed if
+	 * necessary.
+	 *
+	 * @param key
+	 *          The key object for which to return the mapped computed value
+	 * @param cancellable
+	 *          False if the computation should no longer be cancelled if the key
+	 *          is removed while it is in progress
+	 * @return The computed value associated with a given key, or null if there
+	 *         is none
+	 */
 	public V get(K key, boolean cancellable) {
-		synchronized (this) {
-			if (preparationThreads.containsKey(key)) {
-				if (!cancellable) {
-					preparationThreads.get(key).setUncancellable();
-				}
-				return preparationThreads.get(key).waitForValue();
-			} else if (values.containsKey(key)) {
-				return values.get(key);
+		Preparation preparation = preparations.get(key);
+		if (preparation == null)
+			return null;
+
+		if (!cancellable)
+			preparation.setUncancellable();
+		return preparation.getValue();
+	}
+
+	/**
+	 * Get the value for the given key without blocking.
+	 * <p>
+	 * If the key is removed and its computation cancelled before it completes,
+	 * the future completes exceptionally with a {@link CancellationException}.
+	 *
+	 * @param key
+	 *          The key object for which to return the mapped computed value
+	 * @return A future over the computed value associated with a given key,
+	 *         which completes with null if the key is not in the map
+	 */
+	@Override
+	public CompletableFuture<V> getAsync(K key) {
+		Preparation preparation = preparations.get(key);
+		if (preparation == null)
+			return CompletableFuture.completedFuture(null);
+
+		CompletableFuture<V> value = new CompletableFuture<>();
+		preparation.future.whenComplete((v, t) -> {
+			if (t == null) {
+				value.complete(v);
+			} else if (t instanceof CancellationException) {
+				value.cancel(false);
 			} else {
-				return null;
+				value.completeExceptionally(t);
 			}
-		}
+		});
+		return value;
 	}
 
+	/**
+	 * Get the value for the given key as per {@link #getAsync(Object)}. The
+	 * future completes as soon as the value is computed, so the executor is
+	 * never needed.
+	 */
 	@Override
-	public V putGet(K key, Consumer<V> wasPresent, Consumer<V> wasMissing) {
-		synchronized (this) {
-			boolean added = put(key);
-			V value = get(key, false);
+	public CompletableFuture<V> getAsync(K key, Executor executor) {
+		return getAsync(key);
+	}
 
-			if (added) {
-				wasMissing.accept(value);
-			} else {
-				wasPresent.accept(value);
-			}
+	@Override
+	public V putGet(K key, Consumer<V> wasPresent, Consumer<V> wasMissing) {
+		Preparation preparation = new Preparation(key);
+		Preparation existing = preparations.putIfAbsent(key, preparation);
 
+		if (existing == null) {
+			preparation.setUncancellable();
+			V value = preparation.getValue();
+			wasMissing.accept(value);
+			return value;
+		} else {
+			existing.setUncancellable();
+			V value = existing.getValue();
+			wasPresent.accept(value);
 			return value;
 		}
 	}
@@ -187,7 +288,7 @@ public class FutureMap<K, V> implements ComputingMap<K, V> {
 		return new AbstractSet<K>() {
 			@Override
 			public Iterator<K> iterator() {
-				Iterator<K> baseIterator = preparationThreads.keySet().iterator();
+				Iterator<K> baseIterator = preparations.keySet().iterator();
 
 				return new Iterator<K>() {
 					private K last;
@@ -209,9 +310,14 @@ public class FutureMap<K, V> implements ComputingMap<K, V> {
 				};
 			}
 
+			@Override
+			public boolean contains(Object o) {
+				return preparations.containsKey(o);
+			}
+
 			@Override
 			public int size() {
-				return preparationThreads.keySet().size();
+				return preparations.size();
 			}
 		};
 	}
@@ -254,19 +360,12 @@ public class FutureMap<K, V> implements ComputingMap<K, V> {
 
 	@Override
 	public boolean remove(K key) {
-		synchronized (this) {
-			if (preparationThreads.containsKey(key)) {
-				preparationThreads.get(key).cancel();
-				preparationThreads.remove(key);
-				notifyAll();
-				return true;
-			} else if (values.containsKey(key)) {
-				values.remove(key);
-				return true;
-			} else {
-				return false;
-			}
-		}
+		Preparation preparation = preparations.remove(key);
+		if (preparation == null)
+			return false;
+
+		preparation.cancel();
+		return true;
 	}
 
 	@Override
@@ -274,51 +373,60 @@ public class FutureMap<K, V> implements ComputingMap<K, V> {
 		return removeGet(key, true);
 	}
 
+	/**
+	 * Remove the given key from the map.
+	 *
+	 * @param key
+	 *          The key to remove
+	 * @param cancellable
+	 *          True if a computation in progress should be cancelled, in which
+	 *          case null is returned, or false if it should be waited for
+	 * @return The value removed
+	 */
 	public V removeGet(K key, boolean cancellable) {
-		synchronized (this) {
-			if (preparationThreads.containsKey(key)) {
-				if (!cancellable) {
-					preparationThreads.get(key).setUncancellable();
-					V value = preparationThreads.remove(key).waitForValue();
-					notifyAll();
-					return value;
-				} else {
-					preparationThreads.get(key).cancel();
-					return null;
-				}
-			} else if (values.containsKey(key)) {
-				return values.remove(key);
-			} else {
-				return null;
-			}
+		Preparation preparation = preparations.remove(key);
+		if (preparation == null)
+			return null;
+
+		if (cancellable) {
+			preparation.cancel();
+		} else {
+			preparation.setUncancellable();
 		}
+
+		return preparation.future.isDone() || !cancellable ? preparation.getValue() : null;
 	}
 
 	@Override
 	public boolean clear() {
 		boolean changed = false;
 
-		synchronized (this) {
-			for (K key : preparationThreads.keySet()) {
-				changed = remove(key) || changed;
-			}
-			for (K key : values.keySet()) {
-				changed = remove(key) || changed;
-			}
-		}
+		for (K key : preparations.keySet())
+			changed = remove(key) || changed;
 
 		return changed;
 	}
 
+	/**
+	 * Wait for the computation of every key currently in the map to complete.
+	 */
 	public void waitForAll() {
-		synchronized (this) {
-			while (!preparationThreads.isEmpty()) {
-				preparationThreads.values().stream().findAny().get().waitForValue();
-			}
-		}
+		CompletableFuture
+				.allOf(
+						preparations.values().stream().map(p -> p.future.handle((v, t) -> v)).toArray(
+								CompletableFuture[]::new))
+				.join();
 	}
 
-	public synchronized Set<K> getKeys() {
-		return preparationThreads.keySet();
+	/**
+	 * @return A snapshot of the keys whose values are still being computed
+	 */
+	public Set<K> getKeys() {
+		return preparations
+				.values()
+				.stream()
+				.filter(p -> !p.future.isDone())
+				.map(p -> p.key)
+				.collect(toSet());
 	}
 }
@@ -34,6 +34,7 @@ package uk.co.strangeskies.collection.computingmap;
 
 import java.util.Collection;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.Consumer;
 import java.util.function.Function;
 
@@ -84,7 +85,15 @@ public class LRUCacheComputingMap<K, V> extends CacheComputingMap<K, V> {
 	private final LinkedEntry bounds;
 
 	public LRUCacheComputingMap(Function<K, V> computation, int maximumSize, boolean softReferences) {
-		super(computation, softReferences);
+		this(computation, maximumSize, softReferences, CacheStatsRecorder.disabled());
+	}
+
+	public LRUCacheComputingMap(
+			Function<K, V> computation,
+			int maximumSize,
+			boolean softReferences,
+			CacheStatsRecorder stats) {
+		super(computation, softReferences, ForkJoinPool.commonPool(), stats);
 
 		this.maximumSize = maximumSize;
 		this.bounds = new LinkedEntry();
@@ -97,6 +106,11 @@ public class LRUCacheComputingMap<K, V> extends CacheComputingMap<K, V> {
 		bounds = other.bounds;
 	}
 
+	private void evict() {
+		statsRecorder().recordEviction(RemovalCause.SIZE);
+		remove(bounds.previous.getKey());
+	}
+
 	@Override
 	protected synchronized Entry<K, V> createEntry(K key) {
 		return new LinkedEntry(key);
@@ -116,7 +130,7 @@ public class LRUCacheComputingMap<K, V> extends CacheComputingMap<K, V> {
 		boolean added = super.put(key);
 
 		if (size() > maximumSize)
-			remove(bounds.previous.getKey());
+			evict();
 
 		return added;
 	}
@@ -128,7 +142,7 @@ public class LRUCacheComputingMap<K, V> extends CacheComputingMap<K, V> {
 			changed = super.put(key) | changed;
 
 		while (size() > maximumSize)
-			remove(bounds.previous.getKey());
+			evict();
 
 		return changed;
 	}
@@ -138,7 +152,7 @@ public class LRUCacheComputingMap<K, V> extends CacheComputingMap<K, V> {
 		V value = super.putGet(key, wasPresent, wasMissing);
 
 		if (size() > maximumSize)
-			remove(bounds.previous.getKey());
+			evict();
 
 		return value;
 	}
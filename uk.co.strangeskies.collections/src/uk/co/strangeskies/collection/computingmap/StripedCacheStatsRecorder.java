@@ -0,0 +1,92 @@
+/*
+ * Copyright (C) 2018 Elias N Vasylenko <eliasvasylenko@strangeskies.co.uk>
+ *      __   _______  ____           _       __     _      __       __
+ *    ,`_ `,|__   __||  _ `.        / \     |  \   | |  ,-`__`¬  ,-`__`¬
+ *   ( (_`-'   | |   | | ) |       / . \    | . \  | | / .`  `' / .`  `'
+ *    `._ `.   | |   | |<. L      / / \ \   | |\ \ | || |    _ | '--.
+ *   _   `. \  | |   | |  `.`.   / /   \ \  | | \ \| || |   | || +--'
+ *  \ \__.' /  | |   | |    \ \ / /     \ \ | |  \ ` | \ `._' | \ `.__,.
+ *   `.__.-`   |_|   |_|    |_|/_/       \_\|_|   \__|  `-.__.J  `-.__.J
+ *                   __    _         _      __      __
+ *                 ,`_ `, | |  _    | |  ,-`__`¬  ,`_ `,
+ *                ( (_`-' | | ) |   | | / .`  `' ( (_`-'
+ *                 `._ `. | L-' L   | || '--.     `._ `.
+ *                _   `. \| ,.-^.`. | || +--'    _   `. \
+ *               \ \__.' /| |    \ \| | \ `.__,.\ \__.' /
+ *                `.__.-` |_|    |_||_|  `-.__.J `.__.-`
+ *
+ * This file is part of uk.co.strangeskies.collections.
+ *
+ * uk.co.strangeskies.collections is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * uk.co.strangeskies.collections is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package uk.co.strangeskies.collection.computingmap;
+
+import java.util.concurrent.atomic.LongAdder;
+
+class StripedCacheStatsRecorder implements CacheStatsRecorder {
+	private final LongAdder hitCount = new LongAdder();
+	private final LongAdder missCount = new LongAdder();
+	private final LongAdder loadSuccessCount = new LongAdder();
+	private final LongAdder loadFailureCount = new LongAdder();
+	private final LongAdder totalLoadTime = new LongAdder();
+	private final LongAdder[] evictionCounts;
+
+	StripedCacheStatsRecorder() {
+		evictionCounts = new LongAdder[RemovalCause.values().length];
+		for (int i = 0; i < evictionCounts.length; i++)
+			evictionCounts[i] = new LongAdder();
+	}
+
+	@Override
+	public void recordHit() {
+		hitCount.increment();
+	}
+
+	@Override
+	public void recordMiss() {
+		missCount.increment();
+	}
+
+	@Override
+	public void recordLoadSuccess(long loadTime) {
+		loadSuccessCount.increment();
+		totalLoadTime.add(loadTime);
+	}
+
+	@Override
+	public void recordLoadFailure(long loadTime) {
+		loadFailureCount.increment();
+		totalLoadTime.add(loadTime);
+	}
+
+	@Override
+	public void recordEviction(RemovalCause cause) {
+		evictionCounts[cause.ordinal()].increment();
+	}
+
+	@Override
+	public CacheStats snapshot() {
+		long[] evictionCounts = new long[this.evictionCounts.length];
+		for (int i = 0; i < evictionCounts.length; i++)
+			evictionCounts[i] = this.evictionCounts[i].sum();
+
+		return new CacheStats(
+				hitCount.sum(),
+				missCount.sum(),
+				loadSuccessCount.sum(),
+				loadFailureCount.sum(),
+				totalLoadTime.sum(),
+				evictionCounts);
+	}
+}
@@ -0,0 +1,153 @@
+/*
+ * Copyright (C) 2018 Elias N Vasylenko <eliasvasylenko@strangeskies.co.uk>
+ *      __   _______  ____           _       __     _      __       __
+ *    ,`_ `,|__   __||  _ `.        / \     |  \   | |  ,-`__`¬  ,-`__`¬
+ *   ( (_`-'   | |   | | ) |       / . \    | . \  | | / .`  `' / .`  `'
+ *    `._ `.   | |   | |<. L      / / \ \   | |\ \ | || |    _ | '--.
+ *   _   `. \  | |   | |  `.`.   / /   \ \  | | \ \| || |   | || +--'
+ *  \ \__.' /  | |   | |    \ \ / /     \ \ | |  \ ` | \ `._' | \ `.__,.
+ *   `.__.-`   |_|   |_|    |_|/_/       \_\|_|   \__|  `-.__.J  `-.__.J
+ *                   __    _         _      __      __
+ *                 ,`_ `, | |  _    | |  ,-`__`¬  ,`_ `,
+ *                ( (_`-' | | ) |   | | / .`  `' ( (_`-'
+ *                 `._ `. | L-' L   | || '--.     `._ `.
+ *                _   `. \| ,.-^.`. | || +--'    _   `. \
+ *               \ \__.' /| |    \ \| | \ `.__,.\ \__.' /
+ *                `.__.-` |_|    |_||_|  `-.__.J `.__.-`
+ *
+ * This file is part of uk.co.strangeskies.collections.
+ *
+ * uk.co.strangeskies.collections is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * uk.co.strangeskies.collections is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package uk.co.strangeskies.collection.multimap;
+
+import java.util.Arrays;
+import java.util.function.LongConsumer;
+import java.util.stream.LongStream;
+
+/**
+ * An immutable {@link LongMultiMap} in compressed sparse row layout: a sorted
+ * array of keys, an array of offsets into a single packed array of values, and
+ * the packed values themselves.
+ * <p>
+ * This is the most compact representation for a map which is built once and
+ * then only read, such as a large adjacency structure, needing three flat
+ * arrays in total regardless of the number of keys. Keys are reported in
+ * ascending order, and looked up by binary search.
+ *
+ * @author Elias N Vasylenko
+ */
+public final class FrozenLongMultiMap implements LongMultiMap {
+	private final long[] keys;
+	private final int[] offsets;
+	private final long[] values;
+
+	/**
+	 * Create a frozen copy of the given map.
+	 *
+	 * @param that
+	 *          the map to copy
+	 */
+	public FrozenLongMultiMap(LongMultiMap that) {
+		long[] keys = that.keys().sorted().toArray();
+		int[] offsets = new int[keys.length + 1];
+
+		for (int i = 0; i < keys.length; i++) {
+			offsets[i + 1] = offsets[i] + that.valueCount(keys[i]);
+			if (offsets[i + 1] < offsets[i])
+				throw new OutOfMemoryError("Too many values");
+		}
+
+		long[] values = new long[offsets[keys.length]];
+		for (int i = 0; i < keys.length; i++) {
+			long[] keyValues = that.toArray(keys[i]);
+			System.arraycopy(keyValues, 0, values, offsets[i], keyValues.length);
+		}
+
+		this.keys = keys;
+		this.offsets = offsets;
+		this.values = values;
+	}
+
+	private int index(long key) {
+		return Arrays.binarySearch(keys, key);
+	}
+
+	@Override
+	public int keyCount() {
+		return keys.length;
+	}
+
+	@Override
+	public int size() {
+		return values.length;
+	}
+
+	@Override
+	public boolean containsKey(long key) {
+		return index(key) >= 0;
+	}
+
+	@Override
+	public int valueCount(long key) {
+		int index = index(key);
+		return index < 0 ? 0 : offsets[index + 1] - offsets[index];
+	}
+
+	@Override
+	public LongStream keys() {
+		return Arrays.stream(keys);
+	}
+
+	@Override
+	public LongStream values(long key) {
+		int index = index(key);
+		return index < 0
+				? LongStream.empty()
+				: Arrays.stream(values, offsets[index], offsets[index + 1]);
+	}
+
+	@Override
+	public void forEachValue(long key, LongConsumer action) {
+		int index = index(key);
+		if (index >= 0)
+			for (int i = offsets[index]; i < offsets[index + 1]; i++)
+				action.accept(values[i]);
+	}
+
+	@Override
+	public long[] toArray(long key) {
+		int index = index(key);
+		return index < 0 ? new long[0] : Arrays.copyOfRange(values, offsets[index], offsets[index + 1]);
+	}
+
+	@Override
+	public FrozenLongMultiMap freeze() {
+		return this;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder builder = new StringBuilder("{");
+		for (int i = 0; i < keys.length; i++) {
+			if (i > 0)
+				builder.append(", ");
+			builder
+					.append(keys[i])
+					.append('=')
+					.append(Arrays.toString(Arrays.copyOfRange(values, offsets[i], offsets[i + 1])));
+		}
+		return builder.append('}').toString();
+	}
+}
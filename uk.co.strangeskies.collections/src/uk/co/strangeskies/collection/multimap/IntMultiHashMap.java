@@ -0,0 +1,382 @@
+/*
+ * Copyright (C) 2018 Elias N Vasylenko <eliasvasylenko@strangeskies.co.uk>
+ *      __   _______  ____           _       __     _      __       __
+ *    ,`_ `,|__   __||  _ `.        / \     |  \   | |  ,-`__`¬  ,-`__`¬
+ *   ( (_`-'   | |   | | ) |       / . \    | . \  | | / .`  `' / .`  `'
+ *    `._ `.   | |   | |<. L      / / \ \   | |\ \ | || |    _ | '--.
+ *   _   `. \  | |   | |  `.`.   / /   \ \  | | \ \| || |   | || +--'
+ *  \ \__.' /  | |   | |    \ \ / /     \ \ | |  \ ` | \ `._' | \ `.__,.
+ *   `.__.-`   |_|   |_|    |_|/_/       \_\|_|   \__|  `-.__.J  `-.__.J
+ *                   __    _         _      __      __
+ *                 ,`_ `, | |  _    | |  ,-`__`¬  ,`_ `,
+ *                ( (_`-' | | ) |   | | / .`  `' ( (_`-'
+ *                 `._ `. | L-' L   | || '--.     `._ `.
+ *                _   `. \| ,.-^.`. | || +--'    _   `. \
+ *               \ \__.' /| |    \ \| | \ `.__,.\ \__.' /
+ *                `.__.-` |_|    |_||_|  `-.__.J `.__.-`
+ *
+ * This file is part of uk.co.strangeskies.collections.
+ *
+ * uk.co.strangeskies.collections is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * uk.co.strangeskies.collections is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package uk.co.strangeskies.collection.multimap;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
+/**
+ * A mutable {@link IntMultiMap} backed by an open-addressing hash table of
+ * keys, with the values of each key packed into a single growable array.
+ * <p>
+ * Per entry this needs only the value itself plus amortized array growth, as
+ * opposed to a boxed key, a boxed value, a map entry, and a collection node
+ * for a {@link MultiHashMap}. Instances are not thread safe, and streams over
+ * keys or values must not be consumed concurrently with modification.
+ *
+ * @author Elias N Vasylenko
+ */
+public class IntMultiHashMap implements IntMultiMap {
+	private static final int DEFAULT_EXPECTED_KEYS = 12;
+	private static final int MAXIMUM_CAPACITY = 1 << 30;
+	private static final int INITIAL_VALUE_CAPACITY = 2;
+
+	/*
+	 * A slot is occupied exactly when its value array is non-null, so the full
+	 * range of key values remains available.
+	 */
+	private int[] keys;
+	private int[][] values;
+	private int[] valueCounts;
+
+	private int keyCount;
+	private int size;
+
+	public IntMultiHashMap() {
+		this(DEFAULT_EXPECTED_KEYS);
+	}
+
+	/**
+	 * @param expectedKeys
+	 *          the number of keys the map should be able to hold without
+	 *          resizing its table
+	 */
+	public IntMultiHashMap(int expectedKeys) {
+		if (expectedKeys < 0)
+			throw new IllegalArgumentException("Expected keys must not be negative " + expectedKeys);
+
+		allocate(tableSizeFor(expectedKeys));
+	}
+
+	public IntMultiHashMap(IntMultiMap that) {
+		this(that.keyCount());
+
+		that.keys().forEach(key -> addAll(key, that.toArray(key)));
+	}
+
+	private static int tableSizeFor(int expectedKeys) {
+		long minimum = Math.max(4, (long) expectedKeys * 4 / 3 + 1);
+		if (minimum > MAXIMUM_CAPACITY)
+			throw new IllegalArgumentException("Too many expected keys " + expectedKeys);
+
+		return Integer.highestOneBit((int) minimum - 1) << 1;
+	}
+
+	private void allocate(int capacity) {
+		keys = new int[capacity];
+		values = new int[capacity][];
+		valueCounts = new int[capacity];
+	}
+
+	private static int hash(int key) {
+		int h = key * 0x9E3779B9;
+		return h ^ (h >>> 16);
+	}
+
+	/*
+	 * Returns the slot containing the key if present, or else -(slot + 1) for
+	 * the empty slot at which it should be inserted.
+	 */
+	private int find(int key) {
+		int mask = keys.length - 1;
+		int slot = hash(key) & mask;
+
+		while (values[slot] != null) {
+			if (keys[slot] == key)
+				return slot;
+			slot = (slot + 1) & mask;
+		}
+
+		return -(slot + 1);
+	}
+
+	private int findOrInsert(int key, int minimumValueCapacity) {
+		int slot = find(key);
+		if (slot >= 0)
+			return slot;
+
+		if (keyCount >= keys.length - (keys.length >>> 2)) {
+			if (keys.length == MAXIMUM_CAPACITY)
+				throw new IllegalStateException("Key table is full");
+			resize(keys.length << 1);
+			slot = find(key);
+		}
+
+		slot = -(slot + 1);
+		keys[slot] = key;
+		values[slot] = new int[Math.max(INITIAL_VALUE_CAPACITY, minimumValueCapacity)];
+		keyCount++;
+
+		return slot;
+	}
+
+	private void resize(int capacity) {
+		int[] oldKeys = keys;
+		int[][] oldValues = values;
+		int[] oldValueCounts = valueCounts;
+
+		allocate(capacity);
+
+		int mask = capacity - 1;
+		for (int i = 0; i < oldKeys.length; i++) {
+			if (oldValues[i] != null) {
+				int slot = hash(oldKeys[i]) & mask;
+				while (values[slot] != null)
+					slot = (slot + 1) & mask;
+
+				keys[slot] = oldKeys[i];
+				values[slot] = oldValues[i];
+				valueCounts[slot] = oldValueCounts[i];
+			}
+		}
+	}
+
+	/*
+	 * Backward-shift deletion, so that lookups never need to skip over
+	 * tombstones.
+	 */
+	private void removeSlot(int slot) {
+		int mask = keys.length - 1;
+
+		size -= valueCounts[slot];
+		keyCount--;
+
+		int gap = slot;
+		int next = slot;
+		for (;;) {
+			next = (next + 1) & mask;
+			if (values[next] == null)
+				break;
+
+			int ideal = hash(keys[next]) & mask;
+			if (((next - ideal) & mask) >= ((next - gap) & mask)) {
+				keys[gap] = keys[next];
+				values[gap] = values[next];
+				valueCounts[gap] = valueCounts[next];
+				gap = next;
+			}
+		}
+
+		values[gap] = null;
+		valueCounts[gap] = 0;
+	}
+
+	private static int grow(int capacity, int minimum) {
+		int grown = capacity + (capacity >> 1);
+		if (grown < 0 || grown < minimum)
+			grown = minimum;
+		if (grown < 0)
+			throw new OutOfMemoryError("Too many values for key");
+		return grown;
+	}
+
+	/**
+	 * Associate the given value with the given key.
+	 *
+	 * @param key
+	 *          the key
+	 * @param value
+	 *          the value to add
+	 */
+	public void add(int key, int value) {
+		int slot = findOrInsert(key, 1);
+		int count = valueCounts[slot];
+
+		int[] keyValues = values[slot];
+		if (count == keyValues.length)
+			values[slot] = keyValues = Arrays.copyOf(keyValues, grow(count, count + 1));
+
+		keyValues[count] = value;
+		valueCounts[slot] = count + 1;
+		size++;
+	}
+
+	/**
+	 * Associate each of the given values with the given key.
+	 *
+	 * @param key
+	 *          the key
+	 * @param newValues
+	 *          the values to add
+	 */
+	public void addAll(int key, int... newValues) {
+		if (newValues.length == 0)
+			return;
+
+		int slot = findOrInsert(key, newValues.length);
+		int count = valueCounts[slot];
+
+		int[] keyValues = values[slot];
+		int required = count + newValues.length;
+		if (required < 0)
+			throw new OutOfMemoryError("Too many values for key");
+		if (required > keyValues.length)
+			values[slot] = keyValues = Arrays.copyOf(keyValues, grow(keyValues.length, required));
+
+		System.arraycopy(newValues, 0, keyValues, count, newValues.length);
+		valueCounts[slot] = required;
+		size += newValues.length;
+	}
+
+	/**
+	 * Remove the first occurrence of the given value from the given key,
+	 * removing the key from the map if it has no remaining values.
+	 *
+	 * @param key
+	 *          the key
+	 * @param value
+	 *          the value to remove
+	 * @return true if the value was present, false otherwise
+	 */
+	public boolean removeValue(int key, int value) {
+		int slot = find(key);
+		if (slot < 0)
+			return false;
+
+		int[] keyValues = values[slot];
+		int count = valueCounts[slot];
+		for (int i = 0; i < count; i++) {
+			if (keyValues[i] == value) {
+				if (count == 1) {
+					removeSlot(slot);
+				} else {
+					System.arraycopy(keyValues, i + 1, keyValues, i, count - i - 1);
+					valueCounts[slot] = count - 1;
+					size--;
+				}
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	/**
+	 * Remove the given key and all of its values.
+	 *
+	 * @param key
+	 *          the key
+	 * @return true if the key was present, false otherwise
+	 */
+	public boolean remove(int key) {
+		int slot = find(key);
+		if (slot < 0)
+			return false;
+
+		removeSlot(slot);
+		return true;
+	}
+
+	public void clear() {
+		Arrays.fill(values, null);
+		Arrays.fill(valueCounts, 0);
+		keyCount = 0;
+		size = 0;
+	}
+
+	/**
+	 * Release any spare capacity in the value arrays of each key.
+	 */
+	public void trimToSize() {
+		for (int i = 0; i < values.length; i++)
+			if (values[i] != null && values[i].length > valueCounts[i])
+				values[i] = Arrays.copyOf(values[i], valueCounts[i]);
+	}
+
+	@Override
+	public int keyCount() {
+		return keyCount;
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public boolean containsKey(int key) {
+		return find(key) >= 0;
+	}
+
+	@Override
+	public int valueCount(int key) {
+		int slot = find(key);
+		return slot < 0 ? 0 : valueCounts[slot];
+	}
+
+	@Override
+	public IntStream keys() {
+		int[] keys = this.keys;
+		int[][] values = this.values;
+		return IntStream.range(0, keys.length).filter(i -> values[i] != null).map(i -> keys[i]);
+	}
+
+	@Override
+	public IntStream values(int key) {
+		int slot = find(key);
+		return slot < 0 ? IntStream.empty() : Arrays.stream(values[slot], 0, valueCounts[slot]);
+	}
+
+	@Override
+	public void forEachValue(int key, IntConsumer action) {
+		int slot = find(key);
+		if (slot >= 0) {
+			int[] keyValues = values[slot];
+			for (int i = 0, count = valueCounts[slot]; i < count; i++)
+				action.accept(keyValues[i]);
+		}
+	}
+
+	@Override
+	public int[] toArray(int key) {
+		int slot = find(key);
+		return slot < 0 ? new int[0] : Arrays.copyOf(values[slot], valueCounts[slot]);
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder builder = new StringBuilder("{");
+		for (int i = 0; i < keys.length; i++) {
+			if (values[i] != null) {
+				if (builder.length() > 1)
+					builder.append(", ");
+				builder
+						.append(keys[i])
+						.append('=')
+						.append(Arrays.toString(Arrays.copyOf(values[i], valueCounts[i])));
+			}
+		}
+		return builder.append('}').toString();
+	}
+}
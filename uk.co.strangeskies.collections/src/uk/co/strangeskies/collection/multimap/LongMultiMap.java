@@ -0,0 +1,109 @@
+/*
+ * Copyright (C) 2018 Elias N Vasylenko <eliasvasylenko@strangeskies.co.uk>
+ *      __   _______  ____           _       __     _      __       __
+ *    ,`_ `,|__   __||  _ `.        / \     |  \   | |  ,-`__`¬  ,-`__`¬
+ *   ( (_`-'   | |   | | ) |       / . \    | . \  | | / .`  `' / .`  `'
+ *    `._ `.   | |   | |<. L      / / \ \   | |\ \ | || |    _ | '--.
+ *   _   `. \  | |   | |  `.`.   / /   \ \  | | \ \| || |   | || +--'
+ *  \ \__.' /  | |   | |    \ \ / /     \ \ | |  \ ` | \ `._' | \ `.__,.
+ *   `.__.-`   |_|   |_|    |_|/_/       \_\|_|   \__|  `-.__.J  `-.__.J
+ *                   __    _         _      __      __
+ *                 ,`_ `, | |  _    | |  ,-`__`¬  ,`_ `,
+ *                ( (_`-' | | ) |   | | / .`  `' ( (_`-'
+ *                 `._ `. | L-' L   | || '--.     `._ `.
+ *                _   `. \| ,.-^.`. | || +--'    _   `. \
+ *               \ \__.' /| |    \ \| | \ `.__,.\ \__.' /
+ *                `.__.-` |_|    |_||_|  `-.__.J `.__.-`
+ *
+ * This file is part of uk.co.strangeskies.collections.
+ *
+ * uk.co.strangeskies.collections is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * uk.co.strangeskies.collections is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package uk.co.strangeskies.collection.multimap;
+
+import java.util.function.LongConsumer;
+import java.util.stream.LongStream;
+
+/**
+ * A read-only view of a multimap from primitive {@code long} keys to
+ * primitive {@code long} values, avoiding the boxing and per-key collection
+ * overhead of {@link MultiMap}.
+ * <p>
+ * The values associated with a key are held in insertion order, and the same
+ * value may be associated with a key more than once. Keys with no values are
+ * not present in the map.
+ *
+ * @author Elias N Vasylenko
+ */
+public interface LongMultiMap {
+	/**
+	 * @return the number of keys with at least one value
+	 */
+	int keyCount();
+
+	/**
+	 * @return the total number of values over all keys
+	 */
+	int size();
+
+	default boolean isEmpty() {
+		return size() == 0;
+	}
+
+	boolean containsKey(long key);
+
+	/**
+	 * @param key
+	 *          a key in the map
+	 * @return the number of values associated with the given key, or 0 if it is
+	 *         not present
+	 */
+	int valueCount(long key);
+
+	default boolean contains(long key, long value) {
+		return values(key).anyMatch(v -> v == value);
+	}
+
+	/**
+	 * @return a stream over the keys with at least one value
+	 */
+	LongStream keys();
+
+	/**
+	 * @param key
+	 *          a key in the map
+	 * @return a stream over the values associated with the given key, which is
+	 *         empty if it is not present
+	 */
+	LongStream values(long key);
+
+	void forEachValue(long key, LongConsumer action);
+
+	/**
+	 * @param key
+	 *          a key in the map
+	 * @return a new array containing the values associated with the given key
+	 */
+	default long[] toArray(long key) {
+		return values(key).toArray();
+	}
+
+	/**
+	 * @return an immutable compressed copy of this map, or the receiving
+	 *         instance if it is already frozen
+	 */
+	default FrozenLongMultiMap freeze() {
+		return new FrozenLongMultiMap(this);
+	}
+}
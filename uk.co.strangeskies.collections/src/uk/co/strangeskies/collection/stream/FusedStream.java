@@ -0,0 +1,252 @@
+/*
+ * Copyright (C) 2018 Elias N Vasylenko <eliasvasylenko@strangeskies.co.uk>
+ *      __   _______  ____           _       __     _      __       __
+ *    ,`_ `,|__   __||  _ `.        / \     |  \   | |  ,-`__`¬  ,-`__`¬
+ *   ( (_`-'   | |   | | ) |       / . \    | . \  | | / .`  `' / .`  `'
+ *    `._ `.   | |   | |<. L      / / \ \   | |\ \ | || |    _ | '--.
+ *   _   `. \  | |   | |  `.`.   / /   \ \  | | \ \| || |   | || +--'
+ *  \ \__.' /  | |   | |    \ \ / /     \ \ | |  \ ` | \ `._' | \ `.__,.
+ *   `.__.-`   |_|   |_|    |_|/_/       \_\|_|   \__|  `-.__.J  `-.__.J
+ *                   __    _         _      __      __
+ *                 ,`_ `, | |  _    | |  ,-`__`¬  ,`_ `,
+ *                ( (_`-' | | ) |   | | / .`  `' ( (_`-'
+ *                 `._ `. | L-' L   | || '--.     `._ `.
+ *                _   `. \| ,.-^.`. | || +--'    _   `. \
+ *               \ \__.' /| |    \ \| | \ `.__,.\ \__.' /
+ *                `.__.-` |_|    |_||_|  `-.__.J `.__.-`
+ *
+ * This file is part of uk.co.strangeskies.collections.
+ *
+ * uk.co.strangeskies.collections is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * uk.co.strangeskies.collections is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package uk.co.strangeskies.collection.stream;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.BaseStream;
+import java.util.stream.DoubleStream;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+/**
+ * A stream decorator which records intermediate operations rather than
+ * applying them, and only builds the underlying pipeline once, when a terminal
+ * operation is invoked or the component is otherwise first needed.
+ * <p>
+ * Intermediate operations which do not change the shape of the stream return
+ * the receiving decorator itself, so a long fluent chain allocates a new
+ * decorator only where it changes between reference and primitive elements.
+ * The stages of the underlying pipeline are built as usual once it is
+ * terminated.
+ * <p>
+ * As with any stream, each stage of a pipeline may be operated upon only once.
+ * Decorators of a pipeline share its recorded stages, and each remembers how
+ * many there were when it was last operated upon, so an
+ * {@link IllegalStateException} is thrown if a decorator is operated upon after
+ * a decorator of another shape has been derived from it. As a decorator is
+ * itself the result of operations which preserve its shape, reuse between such
+ * operations is not detected.
+ * 
+ * @author Elias N Vasylenko
+ *
+ * @param <T>
+ *          the type of the elements of the stream
+ * @param <S>
+ *          the type of the stream
+ */
+public abstract class FusedStream<T, S extends BaseStream<T, S>> implements BaseStreamDecorator<T, S> {
+	protected static class ReferenceFusedStream<T> extends FusedStream<T, Stream<T>> implements StreamDecorator<T> {
+		private ReferenceFusedStream(BaseStream<?, ?> source, List<Function<Object, Object>> stages) {
+			super(source, stages);
+		}
+	}
+
+	protected static class IntFusedStream extends FusedStream<Integer, IntStream> implements IntStreamDecorator {
+		private IntFusedStream(BaseStream<?, ?> source, List<Function<Object, Object>> stages) {
+			super(source, stages);
+		}
+	}
+
+	protected static class LongFusedStream extends FusedStream<Long, LongStream> implements LongStreamDecorator {
+		private LongFusedStream(BaseStream<?, ?> source, List<Function<Object, Object>> stages) {
+			super(source, stages);
+		}
+	}
+
+	protected static class DoubleFusedStream extends FusedStream<Double, DoubleStream>
+			implements DoubleStreamDecorator {
+		private DoubleFusedStream(BaseStream<?, ?> source, List<Function<Object, Object>> stages) {
+			super(source, stages);
+		}
+	}
+
+	private static final String LINKED_OR_CONSUMED = "stream has already been operated upon or closed";
+
+	/**
+	 * @param <U>
+	 *          the type of the elements of the stream
+	 * @param stream
+	 *          the source of the pipeline
+	 * @return a fused decorator over the given stream
+	 */
+	public static <U> StreamDecorator<U> over(Stream<U> stream) {
+		return new ReferenceFusedStream<>(stream, new ArrayList<>());
+	}
+
+	/**
+	 * @param stream
+	 *          the source of the pipeline
+	 * @return a fused decorator over the given stream
+	 */
+	public static IntStream over(IntStream stream) {
+		return new IntFusedStream(stream, new ArrayList<>());
+	}
+
+	/**
+	 * @param stream
+	 *          the source of the pipeline
+	 * @return a fused decorator over the given stream
+	 */
+	public static LongStream over(LongStream stream) {
+		return new LongFusedStream(stream, new ArrayList<>());
+	}
+
+	/**
+	 * @param stream
+	 *          the source of the pipeline
+	 * @return a fused decorator over the given stream
+	 */
+	public static DoubleStream over(DoubleStream stream) {
+		return new DoubleFusedStream(stream, new ArrayList<>());
+	}
+
+	private final BaseStream<?, ?> source;
+	private final List<Function<Object, Object>> stages;
+	private int length;
+	private S component;
+
+	/*
+	 * The stage list is shared with the decorator this one was derived from,
+	 * which may no longer be operated upon.
+	 */
+	private FusedStream(BaseStream<?, ?> source, List<Function<Object, Object>> stages) {
+		this.source = source;
+		this.stages = stages;
+		this.length = stages.size();
+	}
+
+	/*
+	 * Only the decorator most recently operated upon has seen every stage of the
+	 * pipeline.
+	 */
+	private boolean isLinked() {
+		return length != stages.size();
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public S getComponent() {
+		if (component == null) {
+			if (isLinked())
+				throw new IllegalStateException(LINKED_OR_CONSUMED);
+
+			Object stream = source;
+			for (Function<Object, Object> stage : stages)
+				stream = stage.apply(stream);
+			component = (S) stream;
+		}
+
+		return component;
+	}
+
+	/*
+	 * A decorator which has been linked to another before its pipeline was built
+	 * has no pipeline of its own to close, so only the source is closed.
+	 */
+	@Override
+	public void close() {
+		if (component == null && isLinked())
+			source.close();
+		else
+			getComponent().close();
+	}
+
+	/*
+	 * Returns whether the transformation has been recorded as a further stage,
+	 * or false if the pipeline has already been built, in which case the
+	 * transformation should be applied to the component directly.
+	 */
+	@SuppressWarnings("unchecked")
+	private boolean stage(Function<? super S, ?> transformation) {
+		if (component != null)
+			return false;
+
+		if (isLinked())
+			throw new IllegalStateException(LINKED_OR_CONSUMED);
+
+		stages.add((Function<Object, Object>) (Function<?, ?>) transformation);
+		return true;
+	}
+
+	/*
+	 * Continue the pipeline through the receiving decorator.
+	 */
+	@SuppressWarnings("unchecked")
+	private <D> D extend() {
+		length = stages.size();
+		return (D) this;
+	}
+
+	@Override
+	public <U> StreamDecorator<U> decorateIntermediateReference(Function<? super S, Stream<U>> transformation) {
+		if (!stage(transformation))
+			return new ReferenceFusedStream<>(transformation.apply(component), new ArrayList<>());
+		else if (this instanceof ReferenceFusedStream<?>)
+			return extend();
+		else
+			return new ReferenceFusedStream<>(source, stages);
+	}
+
+	@Override
+	public IntStream decorateIntermediateInt(Function<? super S, IntStream> transformation) {
+		if (!stage(transformation))
+			return new IntFusedStream(transformation.apply(component), new ArrayList<>());
+		else if (this instanceof IntFusedStream)
+			return extend();
+		else
+			return new IntFusedStream(source, stages);
+	}
+
+	@Override
+	public LongStream decorateIntermediateLong(Function<? super S, LongStream> transformation) {
+		if (!stage(transformation))
+			return new LongFusedStream(transformation.apply(component), new ArrayList<>());
+		else if (this instanceof LongFusedStream)
+			return extend();
+		else
+			return new LongFusedStream(source, stages);
+	}
+
+	@Override
+	public DoubleStream decorateIntermediateDouble(Function<? super S, DoubleStream> transformation) {
+		if (!stage(transformation))
+			return new DoubleFusedStream(transformation.apply(component), new ArrayList<>());
+		else if (this instanceof DoubleFusedStream)
+			return extend();
+		else
+			return new DoubleFusedStream(source, stages);
+	}
+}
@@ -0,0 +1,346 @@
+/*
+ * Copyright (C) 2018 Elias N Vasylenko <eliasvasylenko@strangeskies.co.uk>
+ *      __   _______  ____           _       __     _      __       __
+ *    ,`_ `,|__   __||  _ `.        / \     |  \   | |  ,-`__`¬  ,-`__`¬
+ *   ( (_`-'   | |   | | ) |       / . \    | . \  | | / .`  `' / .`  `'
+ *    `._ `.   | |   | |<. L      / / \ \   | |\ \ | || |    _ | '--.
+ *   _   `. \  | |   | |  `.`.   / /   \ \  | | \ \| || |   | || +--'
+ *  \ \__.' /  | |   | |    \ \ / /     \ \ | |  \ ` | \ `._' | \ `.__,.
+ *   `.__.-`   |_|   |_|    |_|/_/       \_\|_|   \__|  `-.__.J  `-.__.J
+ *                   __    _         _      __      __
+ *                 ,`_ `, | |  _    | |  ,-`__`¬  ,`_ `,
+ *                ( (_`-' | | ) |   | | / .`  `' ( (_`-'
+ *                 `._ `. | L-' L   | || '--.     `._ `.
+ *                _   `. \| ,.-^.`. | || +--'    _   `. \
+ *               \ \__.' /| |    \ \| | \ `.__,.\ \__.' /
+ *                `.__.-` |_|    |_||_|  `-.__.J `.__.-`
+ *
+ * This file is part of uk.co.strangeskies.collections.
+ *
+ * uk.co.strangeskies.collections is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * uk.co.strangeskies.collections is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package uk.co.strangeskies.collection.stream;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * A spliterator which recursively traverses over the elements of some nested
+ * data structure, keeping its frontier in an explicit stack or queue rather
+ * than on the call stack.
+ * <p>
+ * Splitting hands part of the frontier to the new spliterator. Where no part
+ * of the frontier can be split, an element is taken from the frontier and
+ * handed over together with its children. The size estimate halves at each
+ * split so that parallel pipelines settle on a reasonable granularity.
+ * 
+ * @author Elias N Vasylenko
+ *
+ * @param <T>
+ *          the type of the elements
+ */
+abstract class RecursiveSpliterator<T> implements Spliterator<T> {
+	/*
+	 * A source of sibling elements, along with the stream to close once they
+	 * are exhausted if the spliterator is the stream's own.
+	 */
+	static class Frame<T> {
+		private final Stream<? extends T> stream;
+		private final Spliterator<? extends T> spliterator;
+
+		Frame(Stream<? extends T> stream, Spliterator<? extends T> spliterator) {
+			this.stream = stream;
+			this.spliterator = spliterator;
+		}
+
+		void close() {
+			if (stream != null)
+				stream.close();
+		}
+	}
+
+	private final Function<? super T, ? extends Stream<? extends T>> mapping;
+	private final Predicate<? super T> filter;
+	private long estimate;
+
+	private T next;
+	private final Consumer<T> setNext = t -> next = t;
+
+	RecursiveSpliterator(
+			Function<? super T, ? extends Stream<? extends T>> mapping,
+			Predicate<? super T> filter,
+			long estimate) {
+		this.mapping = mapping;
+		this.filter = filter;
+		this.estimate = estimate;
+	}
+
+	static <T> Spliterator<T> over(
+			Spliterator<? extends T> initial,
+			Function<? super T, ? extends Stream<? extends T>> mapping,
+			Predicate<? super T> filter,
+			TraversalOrder order) {
+		Frame<T> frame = new Frame<>(null, initial);
+
+		switch (order) {
+		case DEPTH_FIRST:
+			return new DepthFirst<>(mapping, filter, Long.MAX_VALUE, frame);
+		case BREADTH_FIRST:
+			return new BreadthFirst<>(mapping, filter, Long.MAX_VALUE, frame);
+		default:
+			throw new IllegalArgumentException("Unknown traversal order " + order);
+		}
+	}
+
+	Frame<T> children(T element) {
+		Stream<? extends T> children = mapping.apply(element);
+		return children == null ? null : new Frame<>(children, children.spliterator());
+	}
+
+	/*
+	 * Advance the given frame to the next element which passes the filter,
+	 * returning false if it is exhausted.
+	 */
+	boolean advance(Frame<T> frame) {
+		while (frame.spliterator.tryAdvance(setNext)) {
+			if (filter.test(next))
+				return true;
+		}
+		next = null;
+		return false;
+	}
+
+	T takeNext() {
+		T element = next;
+		next = null;
+		return element;
+	}
+
+	long splitEstimate() {
+		return estimate >>>= 1;
+	}
+
+	Function<? super T, ? extends Stream<? extends T>> mapping() {
+		return mapping;
+	}
+
+	Predicate<? super T> filter() {
+		return filter;
+	}
+
+	@Override
+	public long estimateSize() {
+		return estimate;
+	}
+
+	static class DepthFirst<T> extends RecursiveSpliterator<T> {
+		/*
+		 * The first element has the top of the stack, and the last element, the
+		 * bottom, is encountered after all of the others.
+		 */
+		private final Deque<Frame<T>> stack = new ArrayDeque<>();
+
+		/*
+		 * An element already taken from the frontier, to be encountered before
+		 * anything on the stack, with its children already on the stack.
+		 */
+		private boolean hasHead;
+		private T head;
+
+		DepthFirst(
+				Function<? super T, ? extends Stream<? extends T>> mapping,
+				Predicate<? super T> filter,
+				long estimate,
+				Frame<T> initial) {
+			super(mapping, filter, estimate);
+			stack.push(initial);
+		}
+
+		private DepthFirst(DepthFirst<T> parent) {
+			super(parent.mapping(), parent.filter(), parent.splitEstimate());
+		}
+
+		@Override
+		public boolean tryAdvance(Consumer<? super T> action) {
+			if (hasHead) {
+				T element = head;
+				hasHead = false;
+				head = null;
+				action.accept(element);
+				return true;
+			}
+
+			Frame<T> frame;
+			while ((frame = stack.peek()) != null) {
+				if (advance(frame)) {
+					T element = takeNext();
+					Frame<T> children = children(element);
+					if (children != null)
+						stack.push(children);
+					action.accept(element);
+					return true;
+				}
+
+				stack.pop().close();
+			}
+
+			return false;
+		}
+
+		/*
+		 * The prefix takes the head and every frame above the bottom of the stack,
+		 * as well as any prefix split from the bottom itself, leaving only the
+		 * remainder of the bottom frame behind.
+		 */
+		@Override
+		public Spliterator<T> trySplit() {
+			Frame<T> bottom = stack.peekLast();
+			if (bottom == null)
+				return null;
+
+			Spliterator<? extends T> bottomPrefix = bottom.spliterator.trySplit();
+
+			if (bottomPrefix == null && stack.size() == 1 && !hasHead) {
+				if (!advance(bottom))
+					return null;
+
+				DepthFirst<T> prefix = new DepthFirst<>(this);
+				prefix.hasHead = true;
+				prefix.head = takeNext();
+				Frame<T> children = children(prefix.head);
+				if (children != null)
+					prefix.stack.push(children);
+				return prefix;
+			}
+
+			DepthFirst<T> prefix = new DepthFirst<>(this);
+			if (bottomPrefix != null)
+				prefix.stack.push(new Frame<>(null, bottomPrefix));
+
+			for (Iterator<Frame<T>> frames = stack.descendingIterator(); frames.hasNext();) {
+				Frame<T> frame = frames.next();
+				if (frame != bottom) {
+					prefix.stack.push(frame);
+					frames.remove();
+				}
+			}
+
+			prefix.hasHead = hasHead;
+			prefix.head = head;
+			hasHead = false;
+			head = null;
+
+			return prefix;
+		}
+
+		@Override
+		public int characteristics() {
+			return ORDERED;
+		}
+	}
+
+	static class BreadthFirst<T> extends RecursiveSpliterator<T> {
+		private Frame<T> current;
+
+		/*
+		 * Elements which have been encountered but whose children have not yet
+		 * been. ArrayDeque does not permit null elements, so they are masked.
+		 */
+		private final Deque<Object> pending = new ArrayDeque<>();
+		private static final Object NULL = new Object();
+
+		BreadthFirst(
+				Function<? super T, ? extends Stream<? extends T>> mapping,
+				Predicate<? super T> filter,
+				long estimate,
+				Frame<T> initial) {
+			super(mapping, filter, estimate);
+			current = initial;
+		}
+
+		private BreadthFirst(BreadthFirst<T> parent) {
+			super(parent.mapping(), parent.filter(), parent.splitEstimate());
+		}
+
+		@SuppressWarnings("unchecked")
+		private T poll() {
+			Object element = pending.poll();
+			return element == NULL ? null : (T) element;
+		}
+
+		@Override
+		public boolean tryAdvance(Consumer<? super T> action) {
+			for (;;) {
+				if (current != null) {
+					if (advance(current)) {
+						T element = takeNext();
+						pending.add(element == null ? NULL : element);
+						action.accept(element);
+						return true;
+					}
+
+					current.close();
+					current = null;
+				}
+
+				if (pending.isEmpty())
+					return false;
+
+				current = children(poll());
+			}
+		}
+
+		@Override
+		public Spliterator<T> trySplit() {
+			for (;;) {
+				if (pending.size() > 1) {
+					BreadthFirst<T> prefix = new BreadthFirst<>(this);
+					for (int i = pending.size() / 2; i > 0; i--)
+						prefix.pending.add(pending.poll());
+					return prefix;
+				}
+
+				if (current != null) {
+					Spliterator<? extends T> currentPrefix = current.spliterator.trySplit();
+					if (currentPrefix != null || !pending.isEmpty()) {
+						BreadthFirst<T> prefix = new BreadthFirst<>(this);
+						if (currentPrefix != null)
+							prefix.current = new Frame<>(null, currentPrefix);
+						else
+							prefix.pending.add(pending.poll());
+						return prefix;
+					}
+
+					return null;
+				}
+
+				if (pending.isEmpty())
+					return null;
+
+				current = children(poll());
+			}
+		}
+
+		@Override
+		public int characteristics() {
+			return 0;
+		}
+	}
+}
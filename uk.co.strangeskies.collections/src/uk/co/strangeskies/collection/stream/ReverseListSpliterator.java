@@ -0,0 +1,118 @@
+/*
+ * Copyright (C) 2018 Elias N Vasylenko <eliasvasylenko@strangeskies.co.uk>
+ *      __   _______  ____           _       __     _      __       __
+ *    ,`_ `,|__   __||  _ `.        / \     |  \   | |  ,-`__`¬  ,-`__`¬
+ *   ( (_`-'   | |   | | ) |       / . \    | . \  | | / .`  `' / .`  `'
+ *    `._ `.   | |   | |<. L      / / \ \   | |\ \ | || |    _ | '--.
+ *   _   `. \  | |   | |  `.`.   / /   \ \  | | \ \| || |   | || +--'
+ *  \ \__.' /  | |   | |    \ \ / /     \ \ | |  \ ` | \ `._' | \ `.__,.
+ *   `.__.-`   |_|   |_|    |_|/_/       \_\|_|   \__|  `-.__.J  `-.__.J
+ *                   __    _         _      __      __
+ *                 ,`_ `, | |  _    | |  ,-`__`¬  ,`_ `,
+ *                ( (_`-' | | ) |   | | / .`  `' ( (_`-'
+ *                 `._ `. | L-' L   | || '--.     `._ `.
+ *                _   `. \| ,.-^.`. | || +--'    _   `. \
+ *               \ \__.' /| |    \ \| | \ `.__,.\ \__.' /
+ *                `.__.-` |_|    |_||_|  `-.__.J `.__.-`
+ *
+ * This file is part of uk.co.strangeskies.collections.
+ *
+ * uk.co.strangeskies.collections is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * uk.co.strangeskies.collections is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package uk.co.strangeskies.collection.stream;
+
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * A spliterator over the elements of a {@link RandomAccess random access} list
+ * in reverse order, which splits by index range without copying the list.
+ * <p>
+ * The list must not be structurally modified during traversal.
+ *
+ * @author Elias N Vasylenko
+ *
+ * @param <T>
+ *          the type of the elements
+ */
+class ReverseListSpliterator<T> implements Spliterator<T> {
+	private final List<? extends T> list;
+	private final int characteristics;
+	private final int origin;
+	private int fence;
+
+	/**
+	 * @param list
+	 *          a random access list
+	 * @param additionalCharacteristics
+	 *          characteristics of the list in addition to {@link #ORDERED},
+	 *          {@link #SIZED} and {@link #SUBSIZED}
+	 */
+	ReverseListSpliterator(List<? extends T> list, int additionalCharacteristics) {
+		this(list, ORDERED | SIZED | SUBSIZED | additionalCharacteristics, 0, list.size());
+	}
+
+	private ReverseListSpliterator(List<? extends T> list, int characteristics, int origin, int fence) {
+		this.list = list;
+		this.characteristics = characteristics;
+		this.origin = origin;
+		this.fence = fence;
+	}
+
+	@Override
+	public boolean tryAdvance(Consumer<? super T> action) {
+		if (fence <= origin)
+			return false;
+
+		action.accept(list.get(--fence));
+		return true;
+	}
+
+	@Override
+	public void forEachRemaining(Consumer<? super T> action) {
+		int origin = this.origin;
+		int index = fence;
+		fence = origin;
+
+		while (index > origin)
+			action.accept(list.get(--index));
+	}
+
+	/*
+	 * Elements are encountered from the fence downwards, so the prefix is the
+	 * upper half of the index range.
+	 */
+	@Override
+	public Spliterator<T> trySplit() {
+		int middle = (origin + fence) >>> 1;
+		if (middle <= origin)
+			return null;
+
+		Spliterator<T> prefix = new ReverseListSpliterator<>(list, characteristics, middle, fence);
+		fence = middle;
+		return prefix;
+	}
+
+	@Override
+	public long estimateSize() {
+		return fence - origin;
+	}
+
+	@Override
+	public int characteristics() {
+		return characteristics;
+	}
+}
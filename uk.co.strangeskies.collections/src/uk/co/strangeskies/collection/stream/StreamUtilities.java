@@ -32,25 +32,28 @@
  */
 package uk.co.strangeskies.collection.stream;
 
-import static java.util.stream.Stream.concat;
-import static java.util.stream.Stream.of;
+import static uk.co.strangeskies.collection.stream.TraversalOrder.DEPTH_FIRST;
 
 import java.util.AbstractMap.SimpleEntry;
-import java.util.HashSet;
+import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.ListIterator;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.RandomAccess;
 import java.util.Set;
 import java.util.Spliterator;
 import java.util.Spliterators;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.BiFunction;
 import java.util.function.BinaryOperator;
 import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.function.Predicate;
 import java.util.function.Supplier;
 import java.util.function.UnaryOperator;
 import java.util.stream.Collector;
@@ -66,6 +69,8 @@ import uk.co.strangeskies.function.ThrowingSupplier;
  * @author Elias N Vasylenko
  */
 public class StreamUtilities {
+  private static final Object NULL_ELEMENT = new Object();
+
   private StreamUtilities() {}
 
   public static <T> BinaryOperator<T> throwingSerialCombiner() {
@@ -166,8 +171,17 @@ public class StreamUtilities {
       Stream<B> second,
       BiFunction<A, B, R> combiner,
       Supplier<RuntimeException> mismatchedStreams) {
-    Iterator<A> firstIterator = first.iterator();
-    Iterator<B> secondIterator = second.iterator();
+    boolean parallel = first.isParallel() || second.isParallel();
+
+    Spliterator<A> firstSpliterator = first.spliterator();
+    Spliterator<B> secondSpliterator = second.spliterator();
+    if (ZipSpliterator.canZip(firstSpliterator, secondSpliterator)) {
+      return StreamSupport
+          .stream(new ZipSpliterator<>(firstSpliterator, secondSpliterator, combiner), parallel);
+    }
+
+    Iterator<A> firstIterator = Spliterators.iterator(firstSpliterator);
+    Iterator<B> secondIterator = Spliterators.iterator(secondSpliterator);
 
     Iterable<R> i = () -> new Iterator<R>() {
       @Override
@@ -189,7 +203,7 @@ public class StreamUtilities {
       }
     };
 
-    return StreamSupport.stream(i.spliterator(), false);
+    return StreamSupport.stream(i.spliterator(), parallel);
   }
 
   /**
@@ -201,30 +215,51 @@ public class StreamUtilities {
    *         reverse order
    */
   public static <T> Stream<T> reverse(Stream<? extends T> stream) {
-    List<T> collection = stream.collect(Collectors.toList());
+    List<T> collection = stream.collect(Collectors.toCollection(ArrayList::new));
 
-    Iterator<T> iterator = new Iterator<T>() {
-      private int index = collection.size();
+    return StreamSupport
+        .stream(
+            new ReverseListSpliterator<>(collection, Spliterator.IMMUTABLE),
+            stream.isParallel());
+  }
 
-      @Override
-      public boolean hasNext() {
-        return index > 0;
-      }
+  /**
+   * If the given list is {@link RandomAccess random access} the returned stream
+   * is backed directly by the list, and may be split for parallel processing
+   * without copying. The list should not be structurally modified while the
+   * stream is in use.
+   * 
+   * @param list
+   *          a list
+   * @param <T>
+   *          the type of the list elements
+   * @return a new stream over the elements contained in the given list in
+   *         reverse order
+   */
+  public static <T> Stream<T> reverse(List<? extends T> list) {
+    Spliterator<T> spliterator;
+
+    if (list instanceof RandomAccess) {
+      spliterator = new ReverseListSpliterator<>(list, 0);
+    } else {
+      ListIterator<? extends T> listIterator = list.listIterator(list.size());
+
+      Iterator<T> iterator = new Iterator<T>() {
+        @Override
+        public boolean hasNext() {
+          return listIterator.hasPrevious();
+        }
 
-      @Override
-      public T next() {
-        return collection.get(--index);
-      }
-    };
+        @Override
+        public T next() {
+          return listIterator.previous();
+        }
+      };
 
-    return StreamSupport
-        .stream(
-            Spliterators
-                .spliterator(
-                    iterator,
-                    collection.size(),
-                    Spliterator.ORDERED | Spliterator.IMMUTABLE),
-            false);
+      spliterator = Spliterators.spliterator(iterator, list.size(), Spliterator.ORDERED);
+    }
+
+    return StreamSupport.stream(spliterator, false);
   }
 
   /**
@@ -281,28 +316,30 @@ public class StreamUtilities {
   public static <T> Stream<T> iterateOptional(
       Optional<? extends T> root,
       Function<? super T, Optional<? extends T>> mapping) {
-    Iterator<T> iterator = new Iterator<T>() {
+    /*
+     * Each element depends on the last so the size cannot be known in advance,
+     * but the abstract spliterator still splits off batches of elements for
+     * parallel processing of downstream operations.
+     */
+    Spliterator<T> spliterator = new Spliterators.AbstractSpliterator<T>(
+        Long.MAX_VALUE,
+        Spliterator.ORDERED | Spliterator.IMMUTABLE | Spliterator.NONNULL) {
       private Optional<? extends T> item = root;
 
       @Override
-      public boolean hasNext() {
-        return item.isPresent();
-      }
+      public boolean tryAdvance(Consumer<? super T> action) {
+        if (!item.isPresent())
+          return false;
 
-      @Override
-      public T next() {
         T result = item.get();
-
         item = mapping.apply(result);
+        action.accept(result);
 
-        return result;
+        return true;
       }
     };
-    return StreamSupport
-        .stream(
-            Spliterators
-                .spliteratorUnknownSize(iterator, Spliterator.ORDERED | Spliterator.IMMUTABLE),
-            false);
+
+    return StreamSupport.stream(spliterator, false);
   }
 
   /**
@@ -340,7 +377,67 @@ public class StreamUtilities {
   public static <T> Stream<T> flatMapRecursive(
       Stream<? extends T> stream,
       Function<? super T, ? extends Stream<? extends T>> mapping) {
-    return stream.flatMap(s -> concat(of(s), flatMapRecursive(mapping.apply(s), mapping)));
+    return flatMapRecursive(stream, mapping, DEPTH_FIRST);
+  }
+
+  /**
+   * Generate a stream which recursively traverses over the elements of some
+   * nested data structure starting from its root.
+   * 
+   * @param <T>
+   *          the type of the stream elements
+   * @param root
+   *          the root element
+   * @param mapping
+   *          a mapping from an element to a stream of its direct children
+   * @param order
+   *          the order in which to visit elements
+   * @return a stream over the root and each of its children, as well as each of
+   *         their children, in the given order
+   */
+  public static <T> Stream<T> flatMapRecursive(
+      T root,
+      Function<? super T, ? extends Stream<? extends T>> mapping,
+      TraversalOrder order) {
+    return flatMapRecursive(Stream.of(root), mapping, order);
+  }
+
+  /**
+   * Generate a stream which recursively traverses over the elements of some
+   * nested data structure starting from those in a given stream.
+   * <p>
+   * The traversal keeps an explicit frontier rather than recursing, so it is
+   * not limited in depth by the call stack, and splits its frontier between
+   * workers if the given stream is parallel.
+   * 
+   * @param <T>
+   *          the type of the stream elements
+   * @param stream
+   *          the stream of initial elements
+   * @param mapping
+   *          a mapping from an element to a stream of its direct children
+   * @param order
+   *          the order in which to visit elements
+   * @return a stream over elements in a tree and each of their children, as well
+   *         as each of their children, in the given order
+   */
+  public static <T> Stream<T> flatMapRecursive(
+      Stream<? extends T> stream,
+      Function<? super T, ? extends Stream<? extends T>> mapping,
+      TraversalOrder order) {
+    return recursiveStream(stream, mapping, t -> true, order);
+  }
+
+  private static <T> Stream<T> recursiveStream(
+      Stream<? extends T> stream,
+      Function<? super T, ? extends Stream<? extends T>> mapping,
+      Predicate<? super T> filter,
+      TraversalOrder order) {
+    return StreamSupport
+        .stream(
+            RecursiveSpliterator.over(stream.spliterator(), mapping, filter, order),
+            stream.isParallel())
+        .onClose(stream::close);
   }
 
   /**
@@ -380,15 +477,69 @@ public class StreamUtilities {
   public static <T> Stream<T> flatMapRecursiveDistinct(
       Stream<? extends T> stream,
       Function<? super T, ? extends Stream<? extends T>> mapping) {
-    return flatMapRecursiveDistinct(stream, mapping, new HashSet<>());
+    return flatMapRecursiveDistinct(stream, mapping, DEPTH_FIRST);
   }
 
+  /**
+   * Generate a stream which recursively traverses over the elements of some
+   * nested data structure starting from its root.
+   * <p>
+   * Repeated elements will be ignored.
+   * 
+   * @param <T>
+   *          the type of the stream elements
+   * @param root
+   *          the root element
+   * @param mapping
+   *          a mapping from an element to a stream of its direct children
+   * @param order
+   *          the order in which to visit elements
+   * @return a stream over the root and each of its children, as well as each of
+   *         their children, in the given order
+   */
+  public static <T> Stream<T> flatMapRecursiveDistinct(
+      T root,
+      Function<? super T, ? extends Stream<? extends T>> mapping,
+      TraversalOrder order) {
+    return flatMapRecursiveDistinct(Stream.of(root), mapping, order);
+  }
+
+  /**
+   * Generate a stream which recursively traverses over the elements of some
+   * nested data structure starting from those in a given stream.
+   * <p>
+   * Repeated elements will be ignored. Visited elements are recorded in a
+   * concurrent set, so the stream may safely be traversed in parallel, though
+   * in that case which occurrence of a repeated element is kept is
+   * unspecified.
+   * 
+   * @param <T>
+   *          the type of the stream elements
+   * @param stream
+   *          the stream of initial elements
+   * @param mapping
+   *          a mapping from an element to a stream of its direct children
+   * @param order
+   *          the order in which to visit elements
+   * @return a stream over elements in a tree and each of their children, as well
+   *         as each of their children, in the given order
+   */
+  public static <T> Stream<T> flatMapRecursiveDistinct(
+      Stream<? extends T> stream,
+      Function<? super T, ? extends Stream<? extends T>> mapping,
+      TraversalOrder order) {
+    Set<Object> visited = ConcurrentHashMap.newKeySet();
+    return recursiveStream(stream, mapping, t -> visited.add(t == null ? NULL_ELEMENT : t), order);
+  }
+
+  /*
+   * The given set must be thread safe if the stream is to be traversed in
+   * parallel.
+   */
   protected static <T> Stream<T> flatMapRecursiveDistinct(
       Stream<? extends T> stream,
       Function<? super T, ? extends Stream<? extends T>> mapping,
       Set<T> visited) {
-    return stream
-        .filter(visited::add)
-        .flatMap(s -> concat(of(s), flatMapRecursiveDistinct(mapping.apply(s), mapping, visited)));
+    return recursiveStream(stream, mapping, visited::add, DEPTH_FIRST);
   }
 }
@@ -0,0 +1,140 @@
+/*
+ * Copyright (C) 2018 Elias N Vasylenko <eliasvasylenko@strangeskies.co.uk>
+ *      __   _______  ____           _       __     _      __       __
+ *    ,`_ `,|__   __||  _ `.        / \     |  \   | |  ,-`__`¬  ,-`__`¬
+ *   ( (_`-'   | |   | | ) |       / . \    | . \  | | / .`  `' / .`  `'
+ *    `._ `.   | |   | |<. L      / / \ \   | |\ \ | || |    _ | '--.
+ *   _   `. \  | |   | |  `.`.   / /   \ \  | | \ \| || |   | || +--'
+ *  \ \__.' /  | |   | |    \ \ / /     \ \ | |  \ ` | \ `._' | \ `.__,.
+ *   `.__.-`   |_|   |_|    |_|/_/       \_\|_|   \__|  `-.__.J  `-.__.J
+ *                   __    _         _      __      __
+ *                 ,`_ `, | |  _    | |  ,-`__`¬  ,`_ `,
+ *                ( (_`-' | | ) |   | | / .`  `' ( (_`-'
+ *                 `._ `. | L-' L   | || '--.     `._ `.
+ *                _   `. \| ,.-^.`. | || +--'    _   `. \
+ *               \ \__.' /| |    \ \| | \ `.__,.\ \__.' /
+ *                `.__.-` |_|    |_||_|  `-.__.J `.__.-`
+ *
+ * This file is part of uk.co.strangeskies.collections.
+ *
+ * uk.co.strangeskies.collections is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * uk.co.strangeskies.collections is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package uk.co.strangeskies.collection.stream;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * A spliterator over pairs of elements from two sized sources of equal length,
+ * which splits both sources in lockstep so that zipped streams can be
+ * processed in parallel.
+ * <p>
+ * Sources are usually split at the same point, as are for example two array or
+ * list backed sources of the same size. Where they disagree, the elements of
+ * the second source corresponding to the prefix of the first are buffered into
+ * an array instead.
+ *
+ * @author Elias N Vasylenko
+ *
+ * @param <A>
+ *          the type of the elements of the first source
+ * @param <B>
+ *          the type of the elements of the second source
+ * @param <R>
+ *          the type of the combined elements
+ */
+class ZipSpliterator<A, B, R> implements Spliterator<R> {
+	private static final int CHARACTERISTICS = ORDERED | SIZED | SUBSIZED;
+
+	private final Spliterator<A> first;
+	private Spliterator<B> second;
+	private final BiFunction<? super A, ? super B, ? extends R> combiner;
+
+	/**
+	 * @param first
+	 *          a {@link #SUBSIZED} spliterator
+	 * @param second
+	 *          a {@link #SUBSIZED} spliterator of the same exact size as the
+	 *          first
+	 * @param combiner
+	 *          the combining function for each pair of elements
+	 */
+	ZipSpliterator(
+			Spliterator<A> first,
+			Spliterator<B> second,
+			BiFunction<? super A, ? super B, ? extends R> combiner) {
+		this.first = first;
+		this.second = second;
+		this.combiner = combiner;
+	}
+
+	static boolean canZip(Spliterator<?> first, Spliterator<?> second) {
+		return first.hasCharacteristics(SUBSIZED)
+				&& second.hasCharacteristics(SUBSIZED)
+				&& first.getExactSizeIfKnown() == second.getExactSizeIfKnown();
+	}
+
+	@Override
+	public boolean tryAdvance(Consumer<? super R> action) {
+		return first.tryAdvance(a -> second.tryAdvance(b -> action.accept(combiner.apply(a, b))));
+	}
+
+	@Override
+	public void forEachRemaining(Consumer<? super R> action) {
+		first.forEachRemaining(a -> second.tryAdvance(b -> action.accept(combiner.apply(a, b))));
+	}
+
+	@Override
+	public Spliterator<R> trySplit() {
+		Spliterator<A> firstPrefix = first.trySplit();
+		if (firstPrefix == null)
+			return null;
+		long prefixSize = firstPrefix.getExactSizeIfKnown();
+
+		Spliterator<B> secondPrefix = second.trySplit();
+		if (secondPrefix != null && secondPrefix.getExactSizeIfKnown() == prefixSize)
+			return new ZipSpliterator<>(firstPrefix, secondPrefix, combiner);
+
+		if (secondPrefix != null)
+			second = concat(secondPrefix, second);
+
+		List<B> buffer = new ArrayList<>((int) Math.min(prefixSize, Integer.MAX_VALUE));
+		for (long i = 0; i < prefixSize; i++)
+			second.tryAdvance(buffer::add);
+
+		return new ZipSpliterator<>(firstPrefix, buffer.spliterator(), combiner);
+	}
+
+	private static <T> Spliterator<T> concat(Spliterator<T> prefix, Spliterator<T> suffix) {
+		return Stream
+				.concat(StreamSupport.stream(prefix, false), StreamSupport.stream(suffix, false))
+				.spliterator();
+	}
+
+	@Override
+	public long estimateSize() {
+		return first.estimateSize();
+	}
+
+	@Override
+	public int characteristics() {
+		return CHARACTERISTICS & first.characteristics() & second.characteristics();
+	}
+}
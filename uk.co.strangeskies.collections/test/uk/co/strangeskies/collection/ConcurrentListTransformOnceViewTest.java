@@ -0,0 +1,189 @@
+/*
+ * Copyright (C) 2018 Elias N Vasylenko <eliasvasylenko@strangeskies.co.uk>
+ *      __   _______  ____           _       __     _      __       __
+ *    ,`_ `,|__   __||  _ `.        / \     |  \   | |  ,-`__`¬  ,-`__`¬
+ *   ( (_`-'   | |   | | ) |       / . \    | . \  | | / .`  `' / .`  `'
+ *    `._ `.   | |   | |<. L      / / \ \   | |\ \ | || |    _ | '--.
+ *   _   `. \  | |   | |  `.`.   / /   \ \  | | \ \| || |   | || +--'
+ *  \ \__.' /  | |   | |    \ \ / /     \ \ | |  \ ` | \ `._' | \ `.__,.
+ *   `.__.-`   |_|   |_|    |_|/_/       \_\|_|   \__|  `-.__.J  `-.__.J
+ *                   __    _         _      __      __
+ *                 ,`_ `, | |  _    | |  ,-`__`¬  ,`_ `,
+ *                ( (_`-' | | ) |   | | / .`  `' ( (_`-'
+ *                 `._ `. | L-' L   | || '--.     `._ `.
+ *                _   `. \| ,.-^.`. | || +--'    _   `. \
+ *               \ \__.' /| |    \ \| | \ `.__,.\ \__.' /
+ *                `.__.-` |_|    |_||_|  `-.__.J `.__.-`
+ *
+ * This file is part of uk.co.strangeskies.collections.
+ *
+ * uk.co.strangeskies.collections is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * uk.co.strangeskies.collections is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package uk.co.strangeskies.collection;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+@SuppressWarnings("javadoc")
+public class ConcurrentListTransformOnceViewTest {
+	private final AtomicInteger transformations = new AtomicInteger();
+
+	private String transform(Object element) {
+		transformations.incrementAndGet();
+		return "t" + element;
+	}
+
+	@Test
+	public void transformOnceTest() {
+		ConcurrentListTransformOnceView<Integer, String> view = new ConcurrentListTransformOnceView<>(
+				new ArrayList<>(asList(1, 2, 3)),
+				this::transform);
+
+		assertEquals(asList("t1", "t2", "t3"), view);
+		assertEquals(asList("t1", "t2", "t3"), view);
+		assertEquals(3, transformations.get());
+	}
+
+	@Test
+	public void distinguishesByIdentityTest() {
+		String first = new String("a");
+		String second = new String("a");
+
+		ConcurrentListTransformOnceView<String, String> view = new ConcurrentListTransformOnceView<>(
+				asList(first, second, first),
+				this::transform);
+
+		assertEquals(asList("ta", "ta", "ta"), view);
+		assertEquals(2, transformations.get());
+	}
+
+	@Test
+	public void reflectsBackingListTest() {
+		List<Integer> backing = new ArrayList<>(asList(1, 2));
+		ConcurrentListTransformOnceView<Integer, String> view = new ConcurrentListTransformOnceView<>(
+				backing,
+				this::transform);
+		assertEquals(asList("t1", "t2"), view);
+
+		backing.add(3);
+		assertEquals("t1", view.remove(0));
+
+		assertEquals(asList("t2", "t3"), view);
+		assertEquals(asList(2, 3), backing);
+		assertEquals(3, transformations.get());
+	}
+
+	@Test
+	public void materializeTest() {
+		List<Integer> backing = new ArrayList<>();
+		for (int i = 0; i < 1000; i++)
+			backing.add(i);
+
+		ConcurrentListTransformOnceView<Integer, String> view = new ConcurrentListTransformOnceView<>(
+				backing,
+				this::transform).materialize();
+		assertEquals(1000, transformations.get());
+
+		assertEquals("t500", view.get(500));
+		assertEquals(1000, transformations.get());
+	}
+
+	@Test
+	public void boundedEvictsTest() {
+		List<Integer> backing = new ArrayList<>();
+		for (int i = 0; i < 100; i++)
+			backing.add(i);
+
+		ConcurrentListTransformOnceView<Integer, String> view = new ConcurrentListTransformOnceView<>(
+				backing,
+				this::transform,
+				10);
+
+		assertEquals(100, new ArrayList<>(view).size());
+		assertEquals("t0", view.get(0));
+		assertEquals(101, transformations.get());
+	}
+
+	@Test
+	public void boundedReadsPastWarmEntriesTest() {
+		List<Integer> backing = new ArrayList<>();
+		for (int i = 0; i < 10; i++)
+			backing.add(i);
+
+		ConcurrentListTransformOnceView<Integer, String> view = new ConcurrentListTransformOnceView<>(
+				backing,
+				this::transform,
+				4);
+
+		for (int repeat = 0; repeat < 3; repeat++)
+			for (int i = 0; i < 4; i++)
+				view.get(i);
+
+		for (int i = 4; i < 10; i++)
+			assertEquals("t" + i, view.get(i));
+	}
+
+	@Test
+	public void removeKeepsTransformationOfRemainingOccurrenceTest() {
+		String element = new String("a");
+		List<String> backing = new ArrayList<>(asList(element, "b", element));
+
+		ConcurrentListTransformOnceView<String, String> view = new ConcurrentListTransformOnceView<>(
+				backing,
+				this::transform);
+		assertEquals(asList("ta", "tb", "ta"), view);
+
+		view.remove(0);
+
+		assertEquals(asList("tb", "ta"), view);
+		assertEquals(2, transformations.get());
+	}
+
+	@Test(timeout = 5000)
+	public void concurrentTransformOnceTest() throws Exception {
+		CountDownLatch start = new CountDownLatch(1);
+		ConcurrentListTransformOnceView<Integer, String> view = new ConcurrentListTransformOnceView<>(
+				asList(1, 2, 3, 4),
+				this::transform);
+
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		try {
+			List<Future<List<String>>> results = new ArrayList<>();
+			for (int i = 0; i < 8; i++) {
+				results.add(executor.submit(() -> {
+					start.await();
+					return new ArrayList<>(view);
+				}));
+			}
+			start.countDown();
+
+			for (Future<List<String>> result : results)
+				assertEquals(asList("t1", "t2", "t3", "t4"), result.get(5, TimeUnit.SECONDS));
+			assertEquals(4, transformations.get());
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright (C) 2018 Elias N Vasylenko <eliasvasylenko@strangeskies.co.uk>
+ *      __   _______  ____           _       __     _      __       __
+ *    ,`_ `,|__   __||  _ `.        / \     |  \   | |  ,-`__`¬  ,-`__`¬
+ *   ( (_`-'   | |   | | ) |       / . \    | . \  | | / .`  `' / .`  `'
+ *    `._ `.   | |   | |<. L      / / \ \   | |\ \ | || |    _ | '--.
+ *   _   `. \  | |   | |  `.`.   / /   \ \  | | \ \| || |   | || +--'
+ *  \ \__.' /  | |   | |    \ \ / /     \ \ | |  \ ` | \ `._' | \ `.__,.
+ *   `.__.-`   |_|   |_|    |_|/_/       \_\|_|   \__|  `-.__.J  `-.__.J
+ *                   __    _         _      __      __
+ *                 ,`_ `, | |  _    | |  ,-`__`¬  ,`_ `,
+ *                ( (_`-' | | ) |   | | / .`  `' ( (_`-'
+ *                 `._ `. | L-' L   | || '--.     `._ `.
+ *                _   `. \| ,.-^.`. | || +--'    _   `. \
+ *               \ \__.' /| |    \ \| | \ `.__,.\ \__.' /
+ *                `.__.-` |_|    |_||_|  `-.__.J `.__.-`
+ *
+ * This file is part of uk.co.strangeskies.collections.
+ *
+ * uk.co.strangeskies.collections is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * uk.co.strangeskies.collections is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package uk.co.strangeskies.collection;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+@SuppressWarnings("javadoc")
+public class ConcurrentSetTransformOnceViewTest {
+	private final AtomicInteger transformations = new AtomicInteger();
+
+	private String transform(Object element) {
+		transformations.incrementAndGet();
+		return "t" + element;
+	}
+
+	@Test
+	public void transformOnceTest() {
+		ConcurrentSetTransformOnceView<Integer, String> view = new ConcurrentSetTransformOnceView<>(
+				new HashSet<>(asList(1, 2, 3)),
+				this::transform);
+
+		assertEquals(new HashSet<>(asList("t1", "t2", "t3")), new HashSet<>(view));
+		assertEquals(new HashSet<>(asList("t1", "t2", "t3")), new HashSet<>(view));
+		assertEquals(3, transformations.get());
+	}
+
+	@Test
+	public void removeThroughIteratorTest() {
+		Set<Integer> backing = new HashSet<>(asList(1, 2));
+		ConcurrentSetTransformOnceView<Integer, String> view = new ConcurrentSetTransformOnceView<>(
+				backing,
+				this::transform).materialize();
+
+		for (Iterator<String> iterator = view.iterator(); iterator.hasNext();)
+			if (iterator.next().equals("t1"))
+				iterator.remove();
+
+		assertEquals(new HashSet<>(asList(2)), backing);
+		assertEquals(new HashSet<>(asList("t2")), new HashSet<>(view));
+		assertEquals(2, transformations.get());
+	}
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright (C) 2018 Elias N Vasylenko <eliasvasylenko@strangeskies.co.uk>
+ *      __   _______  ____           _       __     _      __       __
+ *    ,`_ `,|__   __||  _ `.        / \     |  \   | |  ,-`__`¬  ,-`__`¬
+ *   ( (_`-'   | |   | | ) |       / . \    | . \  | | / .`  `' / .`  `'
+ *    `._ `.   | |   | |<. L      / / \ \   | |\ \ | || |    _ | '--.
+ *   _   `. \  | |   | |  `.`.   / /   \ \  | | \ \| || |   | || +--'
+ *  \ \__.' /  | |   | |    \ \ / /     \ \ | |  \ ` | \ `._' | \ `.__,.
+ *   `.__.-`   |_|   |_|    |_|/_/       \_\|_|   \__|  `-.__.J  `-.__.J
+ *                   __    _         _      __      __
+ *                 ,`_ `, | |  _    | |  ,-`__`¬  ,`_ `,
+ *                ( (_`-' | | ) |   | | / .`  `' ( (_`-'
+ *                 `._ `. | L-' L   | || '--.     `._ `.
+ *                _   `. \| ,.-^.`. | || +--'    _   `. \
+ *               \ \__.' /| |    \ \| | \ `.__,.\ \__.' /
+ *                `.__.-` |_|    |_||_|  `-.__.J `.__.-`
+ *
+ * This file is part of uk.co.strangeskies.collections.
+ *
+ * uk.co.strangeskies.collections is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * uk.co.strangeskies.collections is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package uk.co.strangeskies.collection;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+@SuppressWarnings("javadoc")
+public class IndexedMergeIndicesListViewTest {
+	@Test
+	public void emptyTest() {
+		assertEquals(emptyList(), new IndexedMergeIndicesListView<>(emptyList()));
+	}
+
+	@Test
+	public void getAcrossListsTest() {
+		List<List<Integer>> lists = asList(asList(0, 1), emptyList(), emptyList(), asList(2), asList(3, 4, 5));
+
+		IndexedMergeIndicesListView<Integer> view = new IndexedMergeIndicesListView<>(lists);
+
+		assertEquals(6, view.size());
+		for (int i = 0; i < 6; i++)
+			assertEquals((Integer) i, view.get(i));
+		assertEquals(asList(0, 1, 2, 3, 4, 5), view);
+	}
+
+	@Test(expected = IndexOutOfBoundsException.class)
+	public void getOutOfBoundsTest() {
+		new IndexedMergeIndicesListView<>(asList(asList(0, 1))).get(2);
+	}
+
+	@Test
+	public void invalidateTest() {
+		List<Integer> first = new ArrayList<>(asList(0, 1));
+		List<Integer> second = new ArrayList<>(asList(2));
+		IndexedMergeIndicesListView<Integer> view = new IndexedMergeIndicesListView<>(asList(first, second));
+		assertEquals(3, view.size());
+
+		first.add(5);
+		view.invalidate();
+
+		assertEquals(asList(0, 1, 5, 2), view);
+	}
+
+	@Test
+	public void invalidateDuringIndexTest() {
+		List<Integer> first = new ArrayList<>(asList(0, 1));
+		List<Runnable> concurrentChanges = new ArrayList<>();
+		List<Integer> second = new ArrayList<Integer>(asList(2)) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			public int size() {
+				concurrentChanges.forEach(Runnable::run);
+				concurrentChanges.clear();
+				return super.size();
+			}
+		};
+		IndexedMergeIndicesListView<Integer> view = new IndexedMergeIndicesListView<>(asList(first, second));
+		concurrentChanges.add(() -> {
+			first.add(5);
+			view.invalidate();
+		});
+
+		view.size();
+
+		assertEquals(asList(0, 1, 5, 2), view);
+	}
+}
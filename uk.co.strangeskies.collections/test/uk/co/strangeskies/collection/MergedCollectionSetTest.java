@@ -0,0 +1,110 @@
+/*
+ * Copyright (C) 2018 Elias N Vasylenko <eliasvasylenko@strangeskies.co.uk>
+ *      __   _______  ____           _       __     _      __       __
+ *    ,`_ `,|__   __||  _ `.        / \     |  \   | |  ,-`__`¬  ,-`__`¬
+ *   ( (_`-'   | |   | | ) |       / . \    | . \  | | / .`  `' / .`  `'
+ *    `._ `.   | |   | |<. L      / / \ \   | |\ \ | || |    _ | '--.
+ *   _   `. \  | |   | |  `.`.   / /   \ \  | | \ \| || |   | || +--'
+ *  \ \__.' /  | |   | |    \ \ / /     \ \ | |  \ ` | \ `._' | \ `.__,.
+ *   `.__.-`   |_|   |_|    |_|/_/       \_\|_|   \__|  `-.__.J  `-.__.J
+ *                   __    _         _      __      __
+ *                 ,`_ `, | |  _    | |  ,-`__`¬  ,`_ `,
+ *                ( (_`-' | | ) |   | | / .`  `' ( (_`-'
+ *                 `._ `. | L-' L   | || '--.     `._ `.
+ *                _   `. \| ,.-^.`. | || +--'    _   `. \
+ *               \ \__.' /| |    \ \| | \ `.__,.\ \__.' /
+ *                `.__.-` |_|    |_||_|  `-.__.J `.__.-`
+ *
+ * This file is part of uk.co.strangeskies.collections.
+ *
+ * uk.co.strangeskies.collections is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * uk.co.strangeskies.collections is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package uk.co.strangeskies.collection;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Collection;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Test;
+
+@SuppressWarnings("javadoc")
+public class MergedCollectionSetTest {
+	@SafeVarargs
+	private static Set<Collection<Integer>> collections(Collection<Integer>... collections) {
+		Set<Collection<Integer>> set = new LinkedHashSet<>();
+		for (Collection<Integer> collection : collections)
+			set.add(collection);
+		return set;
+	}
+
+	@Test
+	public void mergeDeduplicatesTest() {
+		MergedCollectionSet<Integer> set = new MergedCollectionSet<>(
+				collections(asList(1, 2, 3), asList(3, 4, 1)));
+
+		assertEquals(4, set.size());
+		assertEquals(new HashSet<>(asList(1, 2, 3, 4)), set);
+		assertTrue(set.contains(4));
+		assertFalse(set.contains(5));
+	}
+
+	@Test
+	public void cachedSizeTest() {
+		Set<Integer> first = new HashSet<>(asList(1, 2));
+		CachedMergedCollectionSet<Integer> set = new CachedMergedCollectionSet<>(
+				collections(first, asList(2, 3)));
+		assertEquals(3, set.size());
+
+		first.add(4);
+		assertEquals(3, set.size());
+
+		set.invalidate();
+		assertEquals(4, set.size());
+	}
+
+	@Test
+	public void invalidateDuringSizeTest() {
+		Set<Integer> first = new HashSet<>(asList(1, 2));
+		List<Runnable> concurrentChanges = new ArrayList<>();
+		Set<Integer> second = new HashSet<Integer>(asList(2, 3)) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			public Iterator<Integer> iterator() {
+				concurrentChanges.forEach(Runnable::run);
+				concurrentChanges.clear();
+				return super.iterator();
+			}
+		};
+		CachedMergedCollectionSet<Integer> set = new CachedMergedCollectionSet<>(
+				collections(first, second));
+		concurrentChanges.add(() -> {
+			first.add(4);
+			set.invalidate();
+		});
+
+		set.size();
+
+		assertEquals(4, set.size());
+	}
+}
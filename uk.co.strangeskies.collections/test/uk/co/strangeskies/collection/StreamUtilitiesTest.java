@@ -32,14 +32,26 @@
  */
 package uk.co.strangeskies.collection;
 
+import static uk.co.strangeskies.collection.stream.TraversalOrder.BREADTH_FIRST;
+
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map.Entry;
+import java.util.Spliterator;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
 import org.junit.Assert;
 import org.junit.Test;
 
 import uk.co.strangeskies.collection.stream.StreamUtilities;
+import uk.co.strangeskies.collection.stream.TraversalOrder;
 
 @SuppressWarnings("javadoc")
 public class StreamUtilitiesTest {
@@ -82,4 +94,158 @@ public class StreamUtilitiesTest {
 				StreamUtilities.<Class<?>>flatMapRecursiveDistinct(D.class, c -> Stream.of(c.getInterfaces())).collect(
 						Collectors.toList()));
 	}
+
+	@Test
+	public void zipSizedTest() {
+		Assert.assertEquals(
+				Arrays.asList("a1", "b2", "c3"),
+				StreamUtilities
+						.zip(Stream.of("a", "b", "c"), Stream.of(1, 2, 3), (a, b) -> a + b)
+						.collect(Collectors.toList()));
+	}
+
+	@Test
+	public void zipSizedIsSubsizedTest() {
+		List<Integer> range = IntStream.range(0, 100).boxed().collect(Collectors.toList());
+
+		Spliterator<Entry<Integer, Integer>> spliterator = StreamUtilities
+				.zip(range.stream(), range.stream())
+				.spliterator();
+
+		Assert.assertTrue(spliterator.hasCharacteristics(Spliterator.SUBSIZED));
+		Assert.assertEquals(100, spliterator.getExactSizeIfKnown());
+		Assert.assertNotNull(spliterator.trySplit());
+	}
+
+	@Test
+	public void zipParallelTest() {
+		List<Integer> range = IntStream.range(0, 10000).boxed().collect(Collectors.toList());
+
+		Stream<Integer> zipped = StreamUtilities
+				.zip(range.parallelStream(), range.stream().map(i -> -i), Integer::sum);
+
+		Assert.assertTrue(zipped.isParallel());
+		Assert.assertTrue(zipped.allMatch(i -> i == 0));
+	}
+
+	@Test
+	public void zipMismatchedSplitsTest() {
+		List<Integer> range = IntStream.range(0, 10000).boxed().collect(Collectors.toList());
+
+		List<Integer> zipped = StreamUtilities
+				.zip(
+						range.parallelStream(),
+						Stream.concat(Stream.of(0), range.subList(1, range.size()).stream()),
+						Integer::sum)
+				.collect(Collectors.toList());
+
+		Assert.assertEquals(
+				range.stream().map(i -> i * 2).collect(Collectors.toList()),
+				zipped);
+	}
+
+	@Test
+	public void zipUnsizedTruncatesTest() {
+		Assert.assertEquals(
+				Arrays.asList("a1", "b2"),
+				StreamUtilities
+						.zip(Stream.of("a", "b", "c").filter(s -> true), Stream.of(1, 2), (a, b) -> a + b)
+						.collect(Collectors.toList()));
+	}
+
+	@Test
+	public void reverseStreamTest() {
+		Assert.assertEquals(
+				Arrays.asList(3, 2, 1),
+				StreamUtilities.reverse(Stream.of(1, 2, 3)).collect(Collectors.toList()));
+	}
+
+	@Test
+	public void reverseParallelListTest() {
+		List<Integer> range = IntStream.range(0, 10000).boxed().collect(Collectors.toList());
+		List<Integer> expected = new ArrayList<>(range);
+		Collections.reverse(expected);
+
+		Assert.assertEquals(
+				expected,
+				StreamUtilities.reverse(range).parallel().collect(Collectors.toList()));
+	}
+
+	@Test
+	public void reverseLinkedListTest() {
+		Assert.assertEquals(
+				Arrays.asList(3, 2, 1),
+				StreamUtilities
+						.reverse(new LinkedList<>(Arrays.asList(1, 2, 3)))
+						.collect(Collectors.toList()));
+	}
+
+	@Test
+	public void iterateParallelTest() {
+		Assert.assertEquals(
+				IntStream.range(0, 5000).boxed().collect(Collectors.toList()),
+				StreamUtilities
+						.iterate(0, i -> i < 4999 ? i + 1 : null)
+						.parallel()
+						.collect(Collectors.toList()));
+	}
+
+	@Test
+	public void flatMapBreadthFirstTest() {
+		Assert.assertEquals(
+				Arrays.asList(D.class, B.class, C.class, A.class, B.class, A.class),
+				StreamUtilities
+						.<Class<?>>flatMapRecursive(D.class, c -> Stream.of(c.getInterfaces()), BREADTH_FIRST)
+						.collect(Collectors.toList()));
+	}
+
+	@Test
+	public void flatMapBreadthFirstDistinctTest() {
+		Assert.assertEquals(
+				Arrays.asList(D.class, B.class, C.class, A.class),
+				StreamUtilities
+						.<Class<?>>flatMapRecursiveDistinct(
+								D.class,
+								c -> Stream.of(c.getInterfaces()),
+								BREADTH_FIRST)
+						.collect(Collectors.toList()));
+	}
+
+	@Test
+	public void flatMapDeepHierarchyTest() {
+		Assert.assertEquals(
+				100000,
+				StreamUtilities.flatMapRecursive(0, i -> i < 99999 ? Stream.of(i + 1) : Stream.empty()).count());
+	}
+
+	@Test
+	public void flatMapParallelPreservesOrderTest() {
+		Function<Integer, Stream<Integer>> children = i -> i < 1000
+				? Stream.of(i * 4 + 1, i * 4 + 2, i * 4 + 3, i * 4 + 4)
+				: Stream.empty();
+
+		List<Integer> sequential = StreamUtilities.flatMapRecursive(0, children).collect(Collectors.toList());
+		List<Integer> parallel = StreamUtilities
+				.flatMapRecursive(Stream.of(0).parallel(), children)
+				.collect(Collectors.toList());
+
+		Assert.assertEquals(4001, sequential.size());
+		Assert.assertEquals(sequential, parallel);
+	}
+
+	@Test
+	public void flatMapParallelDistinctTest() {
+		Function<Integer, Stream<Integer>> children = i -> Stream.of((i * 7 + 1) % 5000, (i * 13 + 3) % 5000);
+
+		for (TraversalOrder order : TraversalOrder.values()) {
+			List<Integer> visited = StreamUtilities
+					.flatMapRecursiveDistinct(Stream.of(0).parallel(), children, order)
+					.collect(Collectors.toList());
+
+			Assert.assertEquals(visited.size(), new HashSet<>(visited).size());
+			Assert.assertEquals(
+					new HashSet<>(StreamUtilities.flatMapRecursiveDistinct(0, children).collect(Collectors.toList())),
+					new HashSet<>(visited));
+		}
+	}
 }
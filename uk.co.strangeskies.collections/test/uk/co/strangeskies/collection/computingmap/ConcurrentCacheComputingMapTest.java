@@ -0,0 +1,526 @@
+/*
+ * Copyright (C) 2018 Elias N Vasylenko <eliasvasylenko@strangeskies.co.uk>
+ *      __   _______  ____           _       __     _      __       __
+ *    ,`_ `,|__   __||  _ `.        / \     |  \   | |  ,-`__`¬  ,-`__`¬
+ *   ( (_`-'   | |   | | ) |       / . \    | . \  | | / .`  `' / .`  `'
+ *    `._ `.   | |   | |<. L      / / \ \   | |\ \ | || |    _ | '--.
+ *   _   `. \  | |   | |  `.`.   / /   \ \  | | \ \| || |   | || +--'
+ *  \ \__.' /  | |   | |    \ \ / /     \ \ | |  \ ` | \ `._' | \ `.__,.
+ *   `.__.-`   |_|   |_|    |_|/_/       \_\|_|   \__|  `-.__.J  `-.__.J
+ *                   __    _         _      __      __
+ *                 ,`_ `, | |  _    | |  ,-`__`¬  ,`_ `,
+ *                ( (_`-' | | ) |   | | / .`  `' ( (_`-'
+ *                 `._ `. | L-' L   | || '--.     `._ `.
+ *                _   `. \| ,.-^.`. | || +--'    _   `. \
+ *               \ \__.' /| |    \ \| | \ `.__,.\ \__.' /
+ *                `.__.-` |_|    |_||_|  `-.__.J `.__.-`
+ *
+ * This file is part of uk.co.strangeskies.collections.
+ *
+ * uk.co.strangeskies.collections is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * uk.co.strangeskies.collections is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package uk.co.strangeskies.collection.computingmap;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Test;
+
+@SuppressWarnings("javadoc")
+public class ConcurrentCacheComputingMapTest {
+	private final AtomicInteger computations = new AtomicInteger();
+
+	private ConcurrentCacheComputingMap<String, Integer> createMap(long maximumSize) {
+		return new ConcurrentCacheComputingMap<>(s -> {
+			computations.incrementAndGet();
+			return s.length();
+		}, maximumSize, Runnable::run);
+	}
+
+	@Test
+	public void getMissingKeyTest() {
+		ConcurrentCacheComputingMap<String, Integer> map = createMap(10);
+
+		assertNull(map.get("missing"));
+		assertEquals(0, computations.get());
+	}
+
+	@Test
+	public void putGetComputesOnceTest() {
+		ConcurrentCacheComputingMap<String, Integer> map = createMap(10);
+		List<Integer> missing = new ArrayList<>();
+		List<Integer> present = new ArrayList<>();
+
+		assertEquals((Integer) 3, map.putGet("one", present::add, missing::add));
+		assertEquals((Integer) 3, map.putGet("one", present::add, missing::add));
+
+		assertEquals(Arrays.asList(3), missing);
+		assertEquals(Arrays.asList(3), present);
+		assertEquals(1, computations.get());
+	}
+
+	@Test
+	public void putComputesOnExecutorTest() {
+		ConcurrentCacheComputingMap<String, Integer> map = createMap(10);
+
+		assertTrue(map.put("three"));
+		assertFalse(map.put("three"));
+
+		assertEquals(1, computations.get());
+		assertEquals((Integer) 5, map.get("three"));
+	}
+
+	@Test
+	public void evictLeastRecentlyUsedTest() {
+		ConcurrentCacheComputingMap<String, Integer> map = createMap(2);
+
+		map.putGet("a");
+		map.putGet("bb");
+		map.get("a");
+		map.putGet("ccc");
+
+		assertEquals(new HashSet<>(Arrays.asList("a", "ccc")), map.keySet());
+	}
+
+	@Test
+	public void evictDoesNotDiscardInsertedKeyTest() {
+		ConcurrentCacheComputingMap<String, Integer> map = createMap(1);
+
+		assertEquals((Integer) 1, map.putGet("a"));
+		assertEquals((Integer) 2, map.putGet("bb"));
+		assertEquals(Collections.singleton("bb"), map.keySet());
+	}
+
+	@Test
+	public void putGetIntoReferencedCacheTest() {
+		ConcurrentCacheComputingMap<String, Integer> map = createMap(100);
+
+		for (int i = 0; i < 100; i++)
+			map.putGet("key" + i);
+		for (int i = 0; i < 100; i++)
+			map.get("key" + i);
+
+		for (int i = 0; i < 100; i++) {
+			String key = "new" + i;
+			assertEquals((Integer) key.length(), map.putGet(key));
+		}
+		assertEquals(100, map.size());
+	}
+
+	@Test
+	public void evictByWeightTest() {
+		ConcurrentCacheComputingMap<String, Integer> map = new ConcurrentCacheComputingMap<>(
+				String::length,
+				Long.MAX_VALUE,
+				5,
+				(k, v) -> v,
+				Runnable::run);
+
+		map.putGet("aa");
+		map.putGet("bb");
+		assertEquals(4, map.weight());
+
+		map.putGet("cc");
+
+		assertEquals(2, map.size());
+		assertEquals(4, map.weight());
+	}
+
+	@Test
+	public void failedComputationRemovedTest() {
+		ConcurrentCacheComputingMap<String, Integer> map = new ConcurrentCacheComputingMap<>(s -> {
+			if (computations.incrementAndGet() == 1)
+				throw new IllegalStateException();
+			return s.length();
+		}, 10, Runnable::run);
+
+		try {
+			map.putGet("one");
+		} catch (IllegalStateException e) {}
+
+		assertTrue(map.isEmpty());
+		assertEquals((Integer) 3, map.putGet("one"));
+	}
+
+	@Test
+	public void removeAndClearTest() {
+		ConcurrentCacheComputingMap<String, Integer> map = createMap(10);
+
+		map.putGet("a");
+		map.putGet("bb");
+
+		assertEquals((Integer) 1, map.removeGet("a"));
+		assertNull(map.get("a"));
+		assertTrue(map.clear());
+		assertFalse(map.clear());
+		assertTrue(map.isEmpty());
+	}
+
+	@Test
+	public void recordHitsAndMissesTest() {
+		CacheStatsRecorder stats = CacheStatsRecorder.create();
+		ConcurrentCacheComputingMap<String, Integer> map = new ConcurrentCacheComputingMap<>(
+				String::length,
+				10,
+				Long.MAX_VALUE,
+				(k, v) -> 0,
+				Runnable::run,
+				stats);
+
+		map.get("a");
+		map.putGet("a");
+		map.putGet("a");
+		map.get("a");
+
+		CacheStats snapshot = map.stats();
+		assertEquals(2, snapshot.hitCount());
+		assertEquals(2, snapshot.missCount());
+		assertEquals(0.5, snapshot.hitRate(), 0);
+		assertEquals(1, snapshot.loadSuccessCount());
+		assertEquals(0, snapshot.loadFailureCount());
+	}
+
+	@Test
+	public void recordLoadFailureAndEvictionTest() {
+		CacheStatsRecorder stats = CacheStatsRecorder.create();
+		ConcurrentCacheComputingMap<String, Integer> map = new ConcurrentCacheComputingMap<>(s -> {
+			if (s.isEmpty())
+				throw new IllegalArgumentException();
+			return s.length();
+		}, 1, Long.MAX_VALUE, (k, v) -> 0, Runnable::run, stats);
+
+		try {
+			map.putGet("");
+		} catch (IllegalArgumentException e) {}
+		map.putGet("a");
+		map.putGet("bb");
+
+		CacheStats snapshot = stats.snapshot();
+		assertEquals(2, snapshot.loadSuccessCount());
+		assertEquals(1, snapshot.loadFailureCount());
+		assertEquals(1, snapshot.evictionCount(RemovalCause.SIZE));
+		assertEquals(0, snapshot.evictionCount(RemovalCause.WEIGHT));
+		assertEquals(1, snapshot.evictionCount());
+	}
+
+	@Test
+	public void statsDisabledByDefaultTest() {
+		ConcurrentCacheComputingMap<String, Integer> map = createMap(10);
+
+		map.putGet("a");
+		map.putGet("a");
+
+		assertEquals(0, map.stats().requestCount());
+	}
+
+	@Test
+	public void statsSinceSnapshotTest() {
+		CacheStatsRecorder stats = CacheStatsRecorder.create();
+		stats.recordHit();
+		CacheStats before = stats.snapshot();
+		stats.recordHit();
+		stats.recordMiss();
+
+		CacheStats since = stats.snapshot().minus(before);
+		assertEquals(1, since.hitCount());
+		assertEquals(1, since.missCount());
+	}
+
+	@Test
+	public void expireAfterWriteTest() {
+		AtomicLong time = new AtomicLong();
+		ConcurrentCacheComputingMap<String, Integer> map = new ConcurrentCacheComputingMap<>(s -> {
+			computations.incrementAndGet();
+			return s.length();
+		},
+				10,
+				ExpiryPolicy.none().expireAfterWrite(Duration.ofSeconds(5)).withTicker(time::get),
+				Runnable::run);
+
+		map.putGet("a");
+		time.addAndGet(Duration.ofSeconds(4).toNanos());
+		assertEquals((Integer) 1, map.get("a"));
+
+		time.addAndGet(Duration.ofSeconds(1).toNanos());
+		assertNull(map.get("a"));
+		assertEquals((Integer) 1, map.putGet("a"));
+		assertEquals(2, computations.get());
+	}
+
+	@Test
+	public void expireAfterAccessTest() {
+		AtomicLong time = new AtomicLong();
+		ConcurrentCacheComputingMap<String, Integer> map = new ConcurrentCacheComputingMap<>(
+				String::length,
+				10,
+				ExpiryPolicy.none().expireAfterAccess(Duration.ofSeconds(5)).withTicker(time::get),
+				Runnable::run);
+
+		map.putGet("a");
+		for (int i = 0; i < 3; i++) {
+			time.addAndGet(Duration.ofSeconds(4).toNanos());
+			assertEquals((Integer) 1, map.get("a"));
+		}
+
+		time.addAndGet(Duration.ofSeconds(5).toNanos());
+		assertNull(map.get("a"));
+	}
+
+	@Test
+	public void expiredEntriesRemovedOnWriteTest() {
+		AtomicLong time = new AtomicLong();
+		CacheStatsRecorder stats = CacheStatsRecorder.create();
+		ConcurrentCacheComputingMap<String, Integer> map = new ConcurrentCacheComputingMap<>(
+				String::length,
+				10,
+				Long.MAX_VALUE,
+				(k, v) -> 0,
+				Runnable::run,
+				stats,
+				ExpiryPolicy.none().expireAfterWrite(Duration.ofSeconds(5)).withTicker(time::get));
+
+		map.putGet("a");
+		map.putGet("bb");
+		time.addAndGet(Duration.ofSeconds(5).toNanos());
+		map.putGet("ccc");
+
+		assertEquals(new HashSet<>(Arrays.asList("ccc")), map.keySet());
+		assertEquals(2, stats.snapshot().evictionCount(RemovalCause.EXPIRED));
+	}
+
+	@Test
+	public void expiredEntriesRemovedOnReadTest() {
+		AtomicLong time = new AtomicLong();
+		ConcurrentCacheComputingMap<String, Integer> map = new ConcurrentCacheComputingMap<>(
+				String::length,
+				10,
+				ExpiryPolicy.none().expireAfterWrite(Duration.ofSeconds(5)).withTicker(time::get),
+				Runnable::run);
+
+		map.putGet("a");
+		map.putGet("bb");
+		time.addAndGet(Duration.ofSeconds(3).toNanos());
+		map.putGet("ccc");
+		time.addAndGet(Duration.ofSeconds(3).toNanos());
+
+		for (int i = 0; i < 100; i++)
+			assertEquals((Integer) 3, map.get("ccc"));
+
+		assertEquals(new HashSet<>(Arrays.asList("ccc")), map.keySet());
+	}
+
+	@Test
+	public void cleanUpTest() {
+		AtomicLong time = new AtomicLong();
+		ConcurrentCacheComputingMap<String, Integer> map = new ConcurrentCacheComputingMap<>(
+				String::length,
+				10,
+				ExpiryPolicy.none().expireAfterWrite(Duration.ofSeconds(5)).withTicker(time::get),
+				Runnable::run);
+
+		map.putGet("a");
+		map.putGet("bb");
+		time.addAndGet(Duration.ofSeconds(5).toNanos());
+		map.cleanUp();
+
+		assertTrue(map.isEmpty());
+	}
+
+	@Test
+	public void refreshAfterWriteServesStaleValueTest() {
+		AtomicLong time = new AtomicLong();
+		List<Runnable> refreshes = new ArrayList<>();
+		ConcurrentCacheComputingMap<String, Integer> map = new ConcurrentCacheComputingMap<>(
+				s -> computations.incrementAndGet(),
+				10,
+				ExpiryPolicy.none().refreshAfterWrite(Duration.ofSeconds(5)).withTicker(time::get),
+				refreshes::add);
+
+		assertEquals((Integer) 1, map.putGet("a"));
+		time.addAndGet(Duration.ofSeconds(5).toNanos());
+
+		assertEquals((Integer) 1, map.get("a"));
+		assertEquals((Integer) 1, map.get("a"));
+		assertEquals(1, refreshes.size());
+
+		refreshes.get(0).run();
+
+		assertEquals((Integer) 2, map.get("a"));
+		assertEquals(2, computations.get());
+	}
+
+	@Test
+	public void getAllComputesMissingKeysInOneBatchTest() {
+		ConcurrentCacheComputingMap<String, Integer> map = createMap(10);
+		map.putGet("a");
+		List<Set<String>> batches = new ArrayList<>();
+
+		Map<String, Integer> values = map.getAll(Arrays.asList("a", "bb", "ccc", "bb"), keys -> {
+			batches.add(new HashSet<>(keys));
+			Map<String, Integer> result = new HashMap<>();
+			keys.forEach(key -> result.put(key, key.length() * 10));
+			return result;
+		});
+
+		assertEquals(Arrays.asList("a", "bb", "ccc"), new ArrayList<>(values.keySet()));
+		assertEquals((Integer) 1, values.get("a"));
+		assertEquals((Integer) 20, values.get("bb"));
+		assertEquals((Integer) 30, values.get("ccc"));
+		assertEquals(1, batches.size());
+		assertEquals(new HashSet<>(Arrays.asList("bb", "ccc")), batches.get(0));
+		assertEquals((Integer) 30, map.get("ccc"));
+	}
+
+	@Test
+	public void getAllOmitsKeysMissingFromBatchTest() {
+		ConcurrentCacheComputingMap<String, Integer> map = createMap(10);
+
+		Map<String, Integer> values = map.getAll(
+				Arrays.asList("a", "bb"),
+				keys -> Collections.singletonMap("a", 1));
+
+		assertEquals(Collections.singletonMap("a", 1), values);
+		assertFalse(map.keySet().contains("bb"));
+	}
+
+	@Test
+	public void getAllBatchFailureRemovesKeysTest() {
+		ConcurrentCacheComputingMap<String, Integer> map = createMap(10);
+
+		try {
+			map.getAll(Arrays.asList("a", "bb"), keys -> {
+				throw new IllegalStateException();
+			});
+			fail();
+		} catch (IllegalStateException e) {}
+
+		assertTrue(map.isEmpty());
+		assertEquals((Integer) 2, map.putGet("bb"));
+	}
+
+	@Test
+	public void getAllIntoReferencedCacheTest() {
+		ConcurrentCacheComputingMap<String, Integer> map = createMap(10);
+
+		for (int i = 0; i < 10; i++)
+			map.putGet("key" + i);
+		for (int i = 0; i < 10; i++)
+			map.get("key" + i);
+
+		List<String> keys = new ArrayList<>();
+		for (int i = 0; i < 10; i++)
+			keys.add("new" + i);
+
+		Map<String, Integer> values = map.getAll(keys, batch -> {
+			Map<String, Integer> result = new HashMap<>();
+			batch.forEach(key -> result.put(key, key.length()));
+			return result;
+		});
+
+		assertEquals(new HashSet<>(keys), values.keySet());
+	}
+
+	@Test
+	public void getAllWithoutBatchTest() {
+		ConcurrentCacheComputingMap<String, Integer> map = createMap(10);
+
+		Map<String, Integer> values = map.getAll(Arrays.asList("a", "bb"));
+
+		assertEquals((Integer) 1, values.get("a"));
+		assertEquals((Integer) 2, values.get("bb"));
+		assertEquals(2, computations.get());
+	}
+
+	@Test
+	public void getAsyncMissingKeyTest() {
+		ConcurrentCacheComputingMap<String, Integer> map = createMap(10);
+
+		assertNull(map.getAsync("missing").join());
+		assertEquals(0, computations.get());
+	}
+
+	@Test
+	public void putAllAsyncCompletesWithAllValuesTest() {
+		List<Runnable> tasks = new ArrayList<>();
+		ConcurrentCacheComputingMap<String, Integer> map = new ConcurrentCacheComputingMap<>(
+				String::length,
+				10,
+				tasks::add);
+
+		CompletableFuture<Map<String, Integer>> values = map.putAllAsync(Arrays.asList("a", "bb"));
+		assertFalse(values.isDone());
+
+		tasks.forEach(Runnable::run);
+
+		assertTrue(values.isDone());
+		assertEquals((Integer) 1, values.join().get("a"));
+		assertEquals((Integer) 2, values.join().get("bb"));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void nonPositiveExpiryTest() {
+		ExpiryPolicy.none().expireAfterWrite(Duration.ZERO);
+	}
+
+	@Test(timeout = 5000)
+	public void concurrentPutGetComputesOnceTest() throws Exception {
+		CountDownLatch start = new CountDownLatch(1);
+		ConcurrentCacheComputingMap<String, Integer> map = new ConcurrentCacheComputingMap<>(s -> {
+			computations.incrementAndGet();
+			try {
+				Thread.sleep(50);
+			} catch (InterruptedException e) {}
+			return s.length();
+		}, 10);
+
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		try {
+			List<Future<Integer>> results = new ArrayList<>();
+			for (int i = 0; i < 8; i++) {
+				results.add(executor.submit(() -> {
+					start.await();
+					return map.putGet("key");
+				}));
+			}
+			start.countDown();
+
+			for (Future<Integer> result : results)
+				assertEquals((Integer) 3, result.get(5, TimeUnit.SECONDS));
+			assertEquals(1, computations.get());
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+}
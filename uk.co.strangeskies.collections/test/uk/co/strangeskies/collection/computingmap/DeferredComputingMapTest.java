@@ -0,0 +1,74 @@
+/*
+ * Copyright (C) 2018 Elias N Vasylenko <eliasvasylenko@strangeskies.co.uk>
+ *      __   _______  ____           _       __     _      __       __
+ *    ,`_ `,|__   __||  _ `.        / \     |  \   | |  ,-`__`¬  ,-`__`¬
+ *   ( (_`-'   | |   | | ) |       / . \    | . \  | | / .`  `' / .`  `'
+ *    `._ `.   | |   | |<. L      / / \ \   | |\ \ | || |    _ | '--.
+ *   _   `. \  | |   | |  `.`.   / /   \ \  | | \ \| || |   | || +--'
+ *  \ \__.' /  | |   | |    \ \ / /     \ \ | |  \ ` | \ `._' | \ `.__,.
+ *   `.__.-`   |_|   |_|    |_|/_/       \_\|_|   \__|  `-.__.J  `-.__.J
+ *                   __    _         _      __      __
+ *                 ,`_ `, | |  _    | |  ,-`__`¬  ,`_ `,
+ *                ( (_`-' | | ) |   | | / .`  `' ( (_`-'
+ *                 `._ `. | L-' L   | || '--.     `._ `.
+ *                _   `. \| ,.-^.`. | || +--'    _   `. \
+ *               \ \__.' /| |    \ \| | \ `.__,.\ \__.' /
+ *                `.__.-` |_|    |_||_|  `-.__.J `.__.-`
+ *
+ * This file is part of uk.co.strangeskies.collections.
+ *
+ * uk.co.strangeskies.collections is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * uk.co.strangeskies.collections is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package uk.co.strangeskies.collection.computingmap;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.Test;
+
+@SuppressWarnings("javadoc")
+public class DeferredComputingMapTest {
+	@Test
+	public void getAsyncComputedValueCompletesDirectlyTest() {
+		List<Runnable> tasks = new ArrayList<>();
+		DeferredComputingMap<String, Integer> map = new DeferredComputingMap<>(String::length);
+
+		map.putGet("a");
+		CompletableFuture<Integer> value = map.getAsync("a", tasks::add);
+
+		assertTrue(value.isDone());
+		assertEquals((Integer) 1, value.join());
+		assertTrue(tasks.isEmpty());
+	}
+
+	@Test
+	public void getAsyncPendingValueWaitsOnExecutorTest() {
+		List<Runnable> tasks = new ArrayList<>();
+		DeferredComputingMap<String, Integer> map = new DeferredComputingMap<>(String::length);
+
+		map.put("bb");
+		CompletableFuture<Integer> value = map.getAsync("bb", tasks::add);
+
+		assertFalse(value.isDone());
+		assertEquals(1, tasks.size());
+
+		tasks.get(0).run();
+		assertEquals((Integer) 2, value.join());
+	}
+}
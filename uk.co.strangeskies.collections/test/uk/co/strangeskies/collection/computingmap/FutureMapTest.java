@@ -0,0 +1,205 @@
+/*
+ * Copyright (C) 2018 Elias N Vasylenko <eliasvasylenko@strangeskies.co.uk>
+ *      __   _______  ____           _       __     _      __       __
+ *    ,`_ `,|__   __||  _ `.        / \     |  \   | |  ,-`__`¬  ,-`__`¬
+ *   ( (_`-'   | |   | | ) |       / . \    | . \  | | / .`  `' / .`  `'
+ *    `._ `.   | |   | |<. L      / / \ \   | |\ \ | || |    _ | '--.
+ *   _   `. \  | |   | |  `.`.   / /   \ \  | | \ \| || |   | || +--'
+ *  \ \__.' /  | |   | |    \ \ / /     \ \ | |  \ ` | \ `._' | \ `.__,.
+ *   `.__.-`   |_|   |_|    |_|/_/       \_\|_|   \__|  `-.__.J  `-.__.J
+ *                   __    _         _      __      __
+ *                 ,`_ `, | |  _    | |  ,-`__`¬  ,`_ `,
+ *                ( (_`-' | | ) |   | | / .`  `' ( (_`-'
+ *                 `._ `. | L-' L   | || '--.     `._ `.
+ *                _   `. \| ,.-^.`. | || +--'    _   `. \
+ *               \ \__.' /| |    \ \| | \ `.__,.\ \__.' /
+ *                `.__.-` |_|    |_||_|  `-.__.J `.__.-`
+ *
+ * This file is part of uk.co.strangeskies.collections.
+ *
+ * uk.co.strangeskies.collections is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * uk.co.strangeskies.collections is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package uk.co.strangeskies.collection.computingmap;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+@SuppressWarnings("javadoc")
+public class FutureMapTest {
+	private static class ManualExecutor implements Executor {
+		private final Queue<Runnable> tasks = new ArrayDeque<>();
+
+		@Override
+		public void execute(Runnable command) {
+			tasks.add(command);
+		}
+
+		void runAll() {
+			Runnable task;
+			while ((task = tasks.poll()) != null)
+				task.run();
+		}
+	}
+
+	private final AtomicInteger computations = new AtomicInteger();
+	private final ManualExecutor executor = new ManualExecutor();
+
+	private FutureMap<String, Integer> createMap() {
+		return new FutureMap<>(s -> {
+			computations.incrementAndGet();
+			return s.length();
+		}, executor);
+	}
+
+	@Test
+	public void putComputesOnExecutorTest() {
+		FutureMap<String, Integer> map = createMap();
+
+		assertTrue(map.put("one"));
+		assertFalse(map.put("one"));
+		assertEquals(0, computations.get());
+
+		executor.runAll();
+
+		assertEquals(1, computations.get());
+		assertEquals((Integer) 3, map.get("one"));
+	}
+
+	@Test
+	public void getComputesBeforeExecutorTest() {
+		FutureMap<String, Integer> map = createMap();
+
+		map.put("one");
+
+		assertEquals((Integer) 3, map.get("one"));
+
+		executor.runAll();
+
+		assertEquals(1, computations.get());
+	}
+
+	@Test
+	public void getMissingKeyTest() {
+		FutureMap<String, Integer> map = createMap();
+
+		assertNull(map.get("missing"));
+	}
+
+	@Test
+	public void getAsyncDoesNotComputeTest() {
+		FutureMap<String, Integer> map = createMap();
+
+		map.put("one");
+		CompletableFuture<Integer> value = map.getAsync("one");
+
+		assertFalse(value.isDone());
+
+		executor.runAll();
+
+		assertEquals((Integer) 3, value.join());
+	}
+
+	@Test
+	public void getAsyncMissingKeyTest() {
+		FutureMap<String, Integer> map = createMap();
+
+		assertNull(map.getAsync("missing").join());
+	}
+
+	@Test
+	public void removeCancelsPendingComputationTest() {
+		FutureMap<String, Integer> map = createMap();
+
+		map.put("one");
+		CompletableFuture<Integer> value = map.getAsync("one");
+		assertTrue(map.remove("one"));
+		executor.runAll();
+
+		assertEquals(0, computations.get());
+		assertTrue(value.isCancelled());
+		assertNull(map.get("one"));
+	}
+
+	@Test
+	public void putGetTest() {
+		FutureMap<String, Integer> map = createMap();
+		AtomicInteger missing = new AtomicInteger();
+		AtomicInteger present = new AtomicInteger();
+
+		map.putGet("one", v -> present.incrementAndGet(), v -> missing.incrementAndGet());
+		map.putGet("one", v -> present.incrementAndGet(), v -> missing.incrementAndGet());
+
+		assertEquals(1, missing.get());
+		assertEquals(1, present.get());
+		assertEquals(1, computations.get());
+	}
+
+	@Test
+	public void failedComputationRemovedTest() {
+		FutureMap<String, Integer> map = new FutureMap<>(s -> {
+			throw new IllegalStateException();
+		}, executor);
+
+		map.put("one");
+		executor.runAll();
+
+		assertTrue(map.isEmpty());
+	}
+
+	@Test(timeout = 5000)
+	public void removeInterruptsRunningComputationTest() throws InterruptedException {
+		CountDownLatch started = new CountDownLatch(1);
+		AtomicBoolean interrupted = new AtomicBoolean();
+		ExecutorService threads = Executors.newSingleThreadExecutor();
+
+		try {
+			FutureMap<String, Integer> map = new FutureMap<>(s -> {
+				started.countDown();
+				try {
+					Thread.sleep(5000);
+				} catch (InterruptedException e) {
+					interrupted.set(true);
+				}
+				return s.length();
+			}, threads);
+
+			map.put("one");
+			started.await();
+			map.remove("one");
+
+			threads.shutdown();
+			threads.awaitTermination(5, TimeUnit.SECONDS);
+
+			assertTrue(interrupted.get());
+			assertTrue(map.isEmpty());
+		} finally {
+			threads.shutdownNow();
+		}
+	}
+}
@@ -0,0 +1,179 @@
+/*
+ * Copyright (C) 2018 Elias N Vasylenko <eliasvasylenko@strangeskies.co.uk>
+ *      __   _______  ____           _       __     _      __       __
+ *    ,`_ `,|__   __||  _ `.        / \     |  \   | |  ,-`__`¬  ,-`__`¬
+ *   ( (_`-'   | |   | | ) |       / . \    | . \  | | / .`  `' / .`  `'
+ *    `._ `.   | |   | |<. L      / / \ \   | |\ \ | || |    _ | '--.
+ *   _   `. \  | |   | |  `.`.   / /   \ \  | | \ \| || |   | || +--'
+ *  \ \__.' /  | |   | |    \ \ / /     \ \ | |  \ ` | \ `._' | \ `.__,.
+ *   `.__.-`   |_|   |_|    |_|/_/       \_\|_|   \__|  `-.__.J  `-.__.J
+ *                   __    _         _      __      __
+ *                 ,`_ `, | |  _    | |  ,-`__`¬  ,`_ `,
+ *                ( (_`-' | | ) |   | | / .`  `' ( (_`-'
+ *                 `._ `. | L-' L   | || '--.     `._ `.
+ *                _   `. \| ,.-^.`. | || +--'    _   `. \
+ *               \ \__.' /| |    \ \| | \ `.__,.\ \__.' /
+ *                `.__.-` |_|    |_||_|  `-.__.J `.__.-`
+ *
+ * This file is part of uk.co.strangeskies.collections.
+ *
+ * uk.co.strangeskies.collections is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * uk.co.strangeskies.collections is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package uk.co.strangeskies.collection.multimap;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+@SuppressWarnings("javadoc")
+public class IntMultiHashMapTest {
+	@Test
+	public void emptyMapTest() {
+		IntMultiHashMap map = new IntMultiHashMap();
+
+		assertTrue(map.isEmpty());
+		assertEquals(0, map.keyCount());
+		assertFalse(map.containsKey(0));
+		assertEquals(0, map.valueCount(0));
+		assertArrayEquals(new int[0], map.toArray(0));
+	}
+
+	@Test
+	public void addValuesTest() {
+		IntMultiHashMap map = new IntMultiHashMap();
+
+		map.add(1, 10);
+		map.add(1, 11);
+		map.add(1, 10);
+		map.addAll(2, 20, 21);
+
+		assertEquals(2, map.keyCount());
+		assertEquals(5, map.size());
+		assertArrayEquals(new int[] { 10, 11, 10 }, map.toArray(1));
+		assertArrayEquals(new int[] { 20, 21 }, map.values(2).toArray());
+		assertTrue(map.contains(2, 21));
+		assertFalse(map.contains(2, 10));
+	}
+
+	@Test
+	public void zeroAndNegativeKeysTest() {
+		IntMultiHashMap map = new IntMultiHashMap();
+
+		map.add(0, 1);
+		map.add(-1, 2);
+		map.add(Integer.MIN_VALUE, 3);
+
+		assertArrayEquals(new int[] { 1 }, map.toArray(0));
+		assertArrayEquals(new int[] { 2 }, map.toArray(-1));
+		assertArrayEquals(new int[] { 3 }, map.toArray(Integer.MIN_VALUE));
+	}
+
+	@Test
+	public void removeLastValueRemovesKeyTest() {
+		IntMultiHashMap map = new IntMultiHashMap();
+		map.addAll(1, 10, 11);
+
+		assertTrue(map.removeValue(1, 10));
+		assertTrue(map.containsKey(1));
+		assertTrue(map.removeValue(1, 11));
+		assertFalse(map.containsKey(1));
+		assertFalse(map.removeValue(1, 11));
+		assertTrue(map.isEmpty());
+	}
+
+	@Test
+	public void removeKeyTest() {
+		IntMultiHashMap map = new IntMultiHashMap();
+		map.addAll(1, 10, 11);
+		map.add(2, 20);
+
+		assertTrue(map.remove(1));
+		assertFalse(map.remove(1));
+		assertEquals(1, map.keyCount());
+		assertEquals(1, map.size());
+	}
+
+	@Test
+	public void randomOperationsMatchMultiHashMapTest() {
+		Random random = new Random(0);
+		IntMultiHashMap map = new IntMultiHashMap(0);
+		MultiHashMap<Integer, Integer, List<Integer>> expected = new MultiHashMap<>(ArrayList::new);
+
+		for (int i = 0; i < 20000; i++) {
+			int key = random.nextInt(200);
+			int value = random.nextInt(8);
+
+			switch (random.nextInt(4)) {
+			case 0:
+				map.remove(key);
+				expected.remove(key);
+				break;
+			case 1:
+				assertEquals(expected.removeValue(key, value), map.removeValue(key, value));
+				break;
+			default:
+				map.add(key, value);
+				expected.add(key, value);
+			}
+		}
+
+		assertEquals(expected.size(), map.keyCount());
+		assertEquals(expected.values().stream().mapToInt(List::size).sum(), map.size());
+		for (int key = 0; key < 200; key++) {
+			List<Integer> values = expected.get(key);
+			assertEquals(values != null, map.containsKey(key));
+			if (values != null)
+				assertArrayEquals(values.stream().mapToInt(Integer::intValue).toArray(), map.toArray(key));
+		}
+	}
+
+	@Test
+	public void freezeTest() {
+		IntMultiHashMap map = new IntMultiHashMap();
+		map.addAll(3, 30, 31);
+		map.add(-1, 10);
+		map.addAll(2, 20);
+
+		FrozenIntMultiMap frozen = map.freeze();
+
+		assertArrayEquals(new int[] { -1, 2, 3 }, frozen.keys().toArray());
+		assertEquals(3, frozen.keyCount());
+		assertEquals(4, frozen.size());
+		assertArrayEquals(new int[] { 30, 31 }, frozen.toArray(3));
+		assertArrayEquals(new int[] { 20 }, frozen.values(2).toArray());
+		assertFalse(frozen.containsKey(1));
+		assertEquals(0, frozen.valueCount(1));
+		assertEquals("{-1=[10], 2=[20], 3=[30, 31]}", frozen.toString());
+		assertSame(frozen, frozen.freeze());
+	}
+
+	@Test
+	public void copyTest() {
+		IntMultiHashMap map = new IntMultiHashMap();
+		map.addAll(1, 10, 11);
+
+		IntMultiHashMap copy = new IntMultiHashMap(map.freeze());
+		map.add(1, 12);
+
+		assertArrayEquals(new int[] { 10, 11 }, copy.toArray(1));
+	}
+}
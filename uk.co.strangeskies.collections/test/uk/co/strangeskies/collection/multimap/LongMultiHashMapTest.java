@@ -0,0 +1,87 @@
+/*
+ * Copyright (C) 2018 Elias N Vasylenko <eliasvasylenko@strangeskies.co.uk>
+ *      __   _______  ____           _       __     _      __       __
+ *    ,`_ `,|__   __||  _ `.        / \     |  \   | |  ,-`__`¬  ,-`__`¬
+ *   ( (_`-'   | |   | | ) |       / . \    | . \  | | / .`  `' / .`  `'
+ *    `._ `.   | |   | |<. L      / / \ \   | |\ \ | || |    _ | '--.
+ *   _   `. \  | |   | |  `.`.   / /   \ \  | | \ \| || |   | || +--'
+ *  \ \__.' /  | |   | |    \ \ / /     \ \ | |  \ ` | \ `._' | \ `.__,.
+ *   `.__.-`   |_|   |_|    |_|/_/       \_\|_|   \__|  `-.__.J  `-.__.J
+ *                   __    _         _      __      __
+ *                 ,`_ `, | |  _    | |  ,-`__`¬  ,`_ `,
+ *                ( (_`-' | | ) |   | | / .`  `' ( (_`-'
+ *                 `._ `. | L-' L   | || '--.     `._ `.
+ *                _   `. \| ,.-^.`. | || +--'    _   `. \
+ *               \ \__.' /| |    \ \| | \ `.__,.\ \__.' /
+ *                `.__.-` |_|    |_||_|  `-.__.J `.__.-`
+ *
+ * This file is part of uk.co.strangeskies.collections.
+ *
+ * uk.co.strangeskies.collections is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * uk.co.strangeskies.collections is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package uk.co.strangeskies.collection.multimap;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+@SuppressWarnings("javadoc")
+public class LongMultiHashMapTest {
+	@Test
+	public void addAndRemoveWideKeysTest() {
+		LongMultiHashMap map = new LongMultiHashMap();
+
+		map.add(Long.MAX_VALUE, 1);
+		map.add(1L << 32, 2);
+		map.add(1, 3);
+		map.add(1, 4);
+
+		assertEquals(3, map.keyCount());
+		assertArrayEquals(new long[] { 2 }, map.toArray(1L << 32));
+		assertArrayEquals(new long[] { 3, 4 }, map.toArray(1));
+
+		assertTrue(map.removeValue(1L << 32, 2));
+		assertFalse(map.containsKey(1L << 32));
+		assertEquals(3, map.size());
+	}
+
+	@Test
+	public void manyKeysTest() {
+		LongMultiHashMap map = new LongMultiHashMap();
+
+		for (long key = 0; key < 10000; key++)
+			map.addAll(key * 31, key, -key);
+
+		assertEquals(10000, map.keyCount());
+		assertEquals(20000, map.size());
+		assertArrayEquals(new long[] { 42, -42 }, map.toArray(42 * 31));
+	}
+
+	@Test
+	public void freezeTest() {
+		LongMultiHashMap map = new LongMultiHashMap();
+		map.addAll(5, 50, 51);
+		map.add(Long.MIN_VALUE, 1);
+
+		FrozenLongMultiMap frozen = map.freeze();
+
+		assertArrayEquals(new long[] { Long.MIN_VALUE, 5 }, frozen.keys().toArray());
+		assertArrayEquals(new long[] { 50, 51 }, frozen.toArray(5));
+		assertTrue(frozen.contains(5, 51));
+		assertEquals(3, frozen.size());
+	}
+}
@@ -0,0 +1,162 @@
+/*
+ * Copyright (C) 2018 Elias N Vasylenko <eliasvasylenko@strangeskies.co.uk>
+ *      __   _______  ____           _       __     _      __       __
+ *    ,`_ `,|__   __||  _ `.        / \     |  \   | |  ,-`__`¬  ,-`__`¬
+ *   ( (_`-'   | |   | | ) |       / . \    | . \  | | / .`  `' / .`  `'
+ *    `._ `.   | |   | |<. L      / / \ \   | |\ \ | || |    _ | '--.
+ *   _   `. \  | |   | |  `.`.   / /   \ \  | | \ \| || |   | || +--'
+ *  \ \__.' /  | |   | |    \ \ / /     \ \ | |  \ ` | \ `._' | \ `.__,.
+ *   `.__.-`   |_|   |_|    |_|/_/       \_\|_|   \__|  `-.__.J  `-.__.J
+ *                   __    _         _      __      __
+ *                 ,`_ `, | |  _    | |  ,-`__`¬  ,`_ `,
+ *                ( (_`-' | | ) |   | | / .`  `' ( (_`-'
+ *                 `._ `. | L-' L   | || '--.     `._ `.
+ *                _   `. \| ,.-^.`. | || +--'    _   `. \
+ *               \ \__.' /| |    \ \| | \ `.__,.\ \__.' /
+ *                `.__.-` |_|    |_||_|  `-.__.J `.__.-`
+ *
+ * This file is part of uk.co.strangeskies.collections.
+ *
+ * uk.co.strangeskies.collections is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * uk.co.strangeskies.collections is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package uk.co.strangeskies.collection.stream;
+
+import static java.util.Arrays.asList;
+import static java.util.stream.Collectors.toList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import org.junit.Test;
+
+@SuppressWarnings("javadoc")
+public class FusedStreamTest {
+	@Test
+	public void chainMatchesJdkTest() {
+		List<String> expected = IntStream
+				.range(0, 100)
+				.boxed()
+				.filter(i -> i % 3 == 0)
+				.map(i -> i * 2)
+				.skip(2)
+				.limit(10)
+				.map(String::valueOf)
+				.collect(toList());
+
+		List<String> fused = FusedStream
+				.over(IntStream.range(0, 100).boxed())
+				.filter(i -> i % 3 == 0)
+				.map(i -> i * 2)
+				.skip(2)
+				.limit(10)
+				.map(String::valueOf)
+				.collect(toList());
+
+		assertEquals(expected, fused);
+	}
+
+	@Test
+	public void sameShapeReturnsReceiverTest() {
+		Stream<Integer> stream = FusedStream.over(Stream.of(1, 2, 3));
+
+		assertSame(stream, stream.filter(i -> i > 1).map(i -> i + 1).skip(1));
+		assertEquals(asList(4), stream.collect(toList()));
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void terminateLinkedStreamTest() {
+		Stream<Integer> stream = FusedStream.over(Stream.of(1, 2, 3));
+
+		stream.mapToInt(Integer::intValue);
+		stream.count();
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void relinkStreamTest() {
+		Stream<Integer> stream = FusedStream.over(Stream.of(1, 2, 3));
+
+		stream.mapToInt(Integer::intValue);
+		stream.map(i -> i + 1);
+	}
+
+	@Test
+	public void branchesDoNotShareStagesTest() {
+		Stream<Integer> stream = FusedStream.over(Stream.of(1, 2, 3));
+		IntStream ints = stream.mapToInt(Integer::intValue);
+
+		try {
+			stream.map(i -> "" + i);
+		} catch (IllegalStateException e) {}
+
+		assertEquals(6, ints.sum());
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void relinkBuiltStreamTest() {
+		Stream<Integer> stream = FusedStream.over(Stream.of(1, 2, 3));
+		stream.isParallel();
+
+		stream.filter(i -> i > 1);
+		stream.filter(i -> i > 2);
+	}
+
+	@Test
+	public void stagesDeferredUntilTerminalTest() {
+		List<Integer> peeked = new ArrayList<>();
+
+		Stream<Integer> stream = FusedStream.over(Stream.of(1, 2, 3)).peek(peeked::add).map(i -> i + 1);
+		assertTrue(peeked.isEmpty());
+
+		assertEquals(asList(2, 3, 4), stream.collect(toList()));
+		assertEquals(asList(1, 2, 3), peeked);
+	}
+
+	@Test
+	public void changeShapeTest() {
+		assertEquals(
+				asList(1L, 4L, 9L),
+				FusedStream
+						.over(Stream.of("a", "bb", "ccc"))
+						.mapToInt(String::length)
+						.map(i -> i * i)
+						.asLongStream()
+						.boxed()
+						.collect(toList()));
+	}
+
+	@Test
+	public void operateAfterBuildTest() {
+		Stream<Integer> stream = FusedStream.over(Stream.of(1, 2, 3)).filter(i -> i != 2);
+
+		assertFalse(stream.isParallel());
+		assertEquals(asList(10, 30), stream.map(i -> i * 10).collect(toList()));
+	}
+
+	@Test
+	public void closeRunsHandlersTest() {
+		List<String> closed = new ArrayList<>();
+
+		try (Stream<Integer> stream = FusedStream.over(Stream.of(1)).onClose(() -> closed.add("closed"))) {
+			assertEquals(1, stream.count());
+		}
+
+		assertEquals(asList("closed"), closed);
+	}
+}
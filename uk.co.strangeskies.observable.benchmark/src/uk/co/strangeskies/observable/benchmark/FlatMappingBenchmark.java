@@ -0,0 +1,104 @@
+/*
+ * Copyright (C) 2018 Elias N Vasylenko <eliasvasylenko@strangeskies.co.uk>
+ *      __   _______  ____           _       __     _      __       __
+ *    ,`_ `,|__   __||  _ `.        / \     |  \   | |  ,-`__`¬  ,-`__`¬
+ *   ( (_`-'   | |   | | ) |       / . \    | . \  | | / .`  `' / .`  `'
+ *    `._ `.   | |   | |<. L      / / \ \   | |\ \ | || |    _ | '--.
+ *   _   `. \  | |   | |  `.`.   / /   \ \  | | \ \| || |   | || +--'
+ *  \ \__.' /  | |   | |    \ \ / /     \ \ | |  \ ` | \ `._' | \ `.__,.
+ *   `.__.-`   |_|   |_|    |_|/_/       \_\|_|   \__|  `-.__.J  `-.__.J
+ *                   __    _         _      __      __
+ *                 ,`_ `, | |  _    | |  ,-`__`¬  ,`_ `,
+ *                ( (_`-' | | ) |   | | / .`  `' ( (_`-'
+ *                 `._ `. | L-' L   | || '--.     `._ `.
+ *                _   `. \| ,.-^.`. | || +--'    _   `. \
+ *               \ \__.' /| |    \ \| | \ `.__,.\ \__.' /
+ *                `.__.-` |_|    |_||_|  `-.__.J `.__.-`
+ *
+ * This file is part of uk.co.strangeskies.observable.benchmark.
+ *
+ * uk.co.strangeskies.observable is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * uk.co.strangeskies.observable is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package uk.co.strangeskies.observable.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import uk.co.strangeskies.observable.Observable;
+
+/**
+ * Throughput of messages through
+ * {@link Observable#mergeMap(java.util.function.Function) merging} and
+ * {@link Observable#concatMap(java.util.function.Function) concatenation} of
+ * inner cold observables. The number of messages sent downstream is the same
+ * for each size of inner observable, so each operation is one message.
+ * 
+ * @author Elias N Vasylenko
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FlatMappingBenchmark {
+  private static final int SIZE = 100000;
+
+  @Param({ "1", "1000" })
+  public int innerSize;
+
+  private Observable<Integer> source;
+  private Observable<Integer> inner;
+
+  @Setup
+  public void setup() {
+    int sourceSize = SIZE / innerSize;
+    List<Integer> messages = new ArrayList<>(sourceSize);
+    for (int i = 0; i < sourceSize; i++)
+      messages.add(i);
+    source = Observable.of(messages);
+
+    List<Integer> innerMessages = new ArrayList<>(innerSize);
+    for (int i = 0; i < innerSize; i++)
+      innerMessages.add(i);
+    inner = Observable.of(innerMessages);
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(SIZE)
+  public void mergeMap(Blackhole blackhole) {
+    source.mergeMap(i -> inner).requestUnbounded().observe(blackhole::consume);
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(SIZE)
+  public void concatMap(Blackhole blackhole) {
+    source.concatMap(i -> inner).requestUnbounded().observe(blackhole::consume);
+  }
+}
@@ -77,14 +77,14 @@ public class BackpressureReducingObserver<T, M> extends PassthroughObserver<T, M
 
       @Override
       public void request(long count) {
-        synchronized (outstandingRequests) {
-          outstandingRequests.request(count);
+        outstandingRequests.request(count);
 
+        synchronized (outstandingRequests) {
           if (current != null) {
             if (complete) {
               current = null;
               getDownstreamObserver().onComplete();
-            } else if (count > 0) {
+            } else {
               sendNext();
             }
           }
@@ -113,10 +113,11 @@ public class BackpressureReducingObserver<T, M> extends PassthroughObserver<T, M
 
   private void sendNext() {
     synchronized (outstandingRequests) {
-      outstandingRequests.fulfil();
-      M message = current;
-      current = null;
-      getDownstreamObserver().onNext(message);
+      if (outstandingRequests.tryFulfil()) {
+        M message = current;
+        current = null;
+        getDownstreamObserver().onNext(message);
+      }
     }
   }
 
@@ -128,9 +129,7 @@ public class BackpressureReducingObserver<T, M> extends PassthroughObserver<T, M
       else
         current = accumulator.apply(current, message);
 
-      if (!outstandingRequests.isFulfilled()) {
-        sendNext();
-      }
+      sendNext();
     }
   }
 
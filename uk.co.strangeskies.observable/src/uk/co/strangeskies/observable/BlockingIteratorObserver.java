@@ -0,0 +1,184 @@
+/*
+ * Copyright (C) 2018 Elias N Vasylenko <eliasvasylenko@strangeskies.co.uk>
+ *      __   _______  ____           _       __     _      __       __
+ *    ,`_ `,|__   __||  _ `.        / \     |  \   | |  ,-`__`¬  ,-`__`¬
+ *   ( (_`-'   | |   | | ) |       / . \    | . \  | | / .`  `' / .`  `'
+ *    `._ `.   | |   | |<. L      / / \ \   | |\ \ | || |    _ | '--.
+ *   _   `. \  | |   | |  `.`.   / /   \ \  | | \ \| || |   | || +--'
+ *  \ \__.' /  | |   | |    \ \ / /     \ \ | |  \ ` | \ `._' | \ `.__,.
+ *   `.__.-`   |_|   |_|    |_|/_/       \_\|_|   \__|  `-.__.J  `-.__.J
+ *                   __    _         _      __      __
+ *                 ,`_ `, | |  _    | |  ,-`__`¬  ,`_ `,
+ *                ( (_`-' | | ) |   | | / .`  `' ( (_`-'
+ *                 `._ `. | L-' L   | || '--.     `._ `.
+ *                _   `. \| ,.-^.`. | || +--'    _   `. \
+ *               \ \__.' /| |    \ \| | \ `.__,.\ \__.' /
+ *                `.__.-` |_|    |_||_|  `-.__.J `.__.-`
+ *
+ * This file is part of uk.co.strangeskies.observable.
+ *
+ * uk.co.strangeskies.observable is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * uk.co.strangeskies.observable is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package uk.co.strangeskies.observable;
+
+import java.lang.invoke.VarHandle;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * An observer which exposes the messages it receives as a blocking iterator,
+ * requesting messages from upstream in batches.
+ * <p>
+ * An initial request is made upstream for the prefetch count, and messages are
+ * held in a bounded single-producer single-consumer queue of that size until
+ * they are consumed. Whenever three quarters of the prefetch count have been
+ * consumed, that many more messages are requested.
+ * <p>
+ * The consuming thread parks while it waits for messages rather than waiting
+ * on a monitor, so it is cheap to block on many such iterators from virtual
+ * threads. If the upstream observable fails, the failure is thrown from
+ * {@link #hasNext()} as the cause of a {@link MissingValueException}.
+ * 
+ * @author Elias N Vasylenko
+ *
+ * @param <M>
+ *          The message type
+ */
+public class BlockingIteratorObserver<M> implements Observer<M>, Iterator<M>, Disposable {
+  private final Observable<?> observable;
+  private final int prefetch;
+  private final int replenishThreshold;
+  private final SpscArrayQueue<M> queue;
+
+  private volatile Observation observation;
+  private volatile boolean done;
+  private volatile Throwable failure;
+  private volatile Thread waitingThread;
+
+  private M next;
+  private int consumed;
+
+  public BlockingIteratorObserver(Observable<?> observable, int prefetch) {
+    this.observable = observable;
+
+    if (prefetch <= 0)
+      throw new IllegalArgumentException("Prefetch count must be positive " + prefetch);
+
+    this.prefetch = prefetch;
+    this.replenishThreshold = prefetch - (prefetch >> 2);
+    this.queue = new SpscArrayQueue<>(prefetch);
+  }
+
+  @Override
+  public void onObserve(Observation observation) {
+    this.observation = observation;
+    observation.request(prefetch);
+  }
+
+  @Override
+  public void onNext(M message) {
+    if (!queue.offer(message)) {
+      observation.cancel();
+      failure = new MessageOverflowException(message, prefetch);
+      done = true;
+    }
+    signal();
+  }
+
+  @Override
+  public void onComplete() {
+    done = true;
+    signal();
+  }
+
+  @Override
+  public void onFail(Throwable t) {
+    failure = t;
+    done = true;
+    signal();
+  }
+
+  @Override
+  public void cancel() {
+    done = true;
+    Observation observation = this.observation;
+    if (observation != null)
+      observation.cancel();
+    signal();
+  }
+
+  private void signal() {
+    /*
+     * The fence orders our update to the queue before our read of the waiting
+     * thread, pairing with the consumer which sets the waiting thread before
+     * checking the queue one last time, so that a wakeup cannot be lost.
+     */
+    VarHandle.fullFence();
+    Thread waitingThread = this.waitingThread;
+    if (waitingThread != null)
+      LockSupport.unpark(waitingThread);
+  }
+
+  @Override
+  public boolean hasNext() {
+    if (next != null)
+      return true;
+
+    for (;;) {
+      /*
+       * We must check for completion before checking the queue, otherwise a
+       * message may arrive between the two checks.
+       */
+      boolean done = this.done;
+      M message = queue.poll();
+
+      if (message != null) {
+        next = message;
+
+        if (++consumed == replenishThreshold) {
+          consumed = 0;
+          observation.request(replenishThreshold);
+        }
+        return true;
+
+      } else if (done) {
+        Throwable failure = this.failure;
+        if (failure != null)
+          throw new MissingValueException(observable, failure);
+        return false;
+      }
+
+      waitingThread = Thread.currentThread();
+      if (!this.done && queue.isEmpty())
+        LockSupport.park(this);
+      waitingThread = null;
+
+      if (Thread.currentThread().isInterrupted()) {
+        cancel();
+        throw new MissingValueException(observable, new InterruptedException());
+      }
+    }
+  }
+
+  @Override
+  public M next() {
+    if (!hasNext())
+      throw new NoSuchElementException();
+
+    M message = next;
+    next = null;
+    return message;
+  }
+}
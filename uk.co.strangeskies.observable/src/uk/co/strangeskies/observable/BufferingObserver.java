@@ -0,0 +1,238 @@
+/*
+ * Copyright (C) 2018 Elias N Vasylenko <eliasvasylenko@strangeskies.co.uk>
+ *      __   _______  ____           _       __     _      __       __
+ *    ,`_ `,|__   __||  _ `.        / \     |  \   | |  ,-`__`¬  ,-`__`¬
+ *   ( (_`-'   | |   | | ) |       / . \    | . \  | | / .`  `' / .`  `'
+ *    `._ `.   | |   | |<. L      / / \ \   | |\ \ | || |    _ | '--.
+ *   _   `. \  | |   | |  `.`.   / /   \ \  | | \ \| || |   | || +--'
+ *  \ \__.' /  | |   | |    \ \ / /     \ \ | |  \ ` | \ `._' | \ `.__,.
+ *   `.__.-`   |_|   |_|    |_|/_/       \_\|_|   \__|  `-.__.J  `-.__.J
+ *                   __    _         _      __      __
+ *                 ,`_ `, | |  _    | |  ,-`__`¬  ,`_ `,
+ *                ( (_`-' | | ) |   | | / .`  `' ( (_`-'
+ *                 `._ `. | L-' L   | || '--.     `._ `.
+ *                _   `. \| ,.-^.`. | || +--'    _   `. \
+ *               \ \__.' /| |    \ \| | \ `.__,.\ \__.' /
+ *                `.__.-` |_|    |_||_|  `-.__.J `.__.-`
+ *
+ * This file is part of uk.co.strangeskies.observable.
+ *
+ * uk.co.strangeskies.observable is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * uk.co.strangeskies.observable is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package uk.co.strangeskies.observable;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Introduce backpressure by holding messages in a bounded buffer until they are
+ * requested downstream.
+ * <p>
+ * The buffer is a ring preallocated to the given capacity, so no allocation is
+ * made per message. An unbounded request is made upstream, so it is not
+ * required to support backpressure. If a message arrives when the buffer is
+ * full it is dealt with according to the given {@link OverflowStrategy}.
+ * <p>
+ * Failure events are passed downstream immediately, discarding any buffered
+ * messages, whereas completion events are passed downstream once the buffer
+ * has been drained.
+ * 
+ * @author Elias N Vasylenko
+ *
+ * @param <M>
+ *          The message type
+ */
+public class BufferingObserver<M> extends PassthroughObserver<M, M> {
+  private final OverflowStrategy overflowStrategy;
+
+  private final Object[] buffer;
+  private int head;
+  private int size;
+
+  private Observation upstreamObservation;
+  private final RequestCount outstandingRequests = new RequestCount();
+  private final AtomicInteger drainRequests = new AtomicInteger();
+
+  private volatile boolean done;
+  private volatile Throwable failure;
+  private volatile boolean cancelled;
+  private boolean terminated;
+
+  public BufferingObserver(
+      Observer<? super M> downstreamObserver,
+      int capacity,
+      OverflowStrategy overflowStrategy) {
+    super(downstreamObserver);
+
+    if (capacity <= 0)
+      throw new IllegalArgumentException("Buffer capacity must be positive " + capacity);
+
+    this.buffer = new Object[capacity];
+    this.overflowStrategy = requireNonNull(overflowStrategy);
+  }
+
+  @Override
+  public void onObserve(Observation observation) {
+    upstreamObservation = observation;
+
+    super.onObserve(new Observation() {
+      @Override
+      public void request(long count) {
+        outstandingRequests.request(count);
+        drain();
+      }
+
+      @Override
+      public void cancel() {
+        cancelled = true;
+        observation.cancel();
+        synchronized (buffer) {
+          buffer.notifyAll();
+        }
+        drain();
+      }
+
+      @Override
+      public long getPendingRequestCount() {
+        return outstandingRequests.getCount();
+      }
+    });
+
+    observation.requestUnbounded();
+  }
+
+  @Override
+  public void onNext(M message) {
+    try {
+      if (!offer(message)) {
+        upstreamObservation.cancel();
+        onFail(new MessageOverflowException(message, buffer.length));
+        return;
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      upstreamObservation.cancel();
+      onFail(e);
+      return;
+    }
+
+    drain();
+  }
+
+  @Override
+  public void onComplete() {
+    done = true;
+    drain();
+  }
+
+  @Override
+  public void onFail(Throwable t) {
+    failure = t;
+    done = true;
+    drain();
+  }
+
+  private boolean offer(M message) throws InterruptedException {
+    synchronized (buffer) {
+      if (size == buffer.length) {
+        switch (overflowStrategy) {
+        case DROP_OLDEST:
+          poll();
+          break;
+        case DROP_LATEST:
+          return true;
+        case FAIL:
+          return false;
+        case BLOCK:
+          while (size == buffer.length && !cancelled)
+            buffer.wait();
+          if (cancelled)
+            return true;
+          break;
+        }
+      }
+
+      buffer[(head + size) % buffer.length] = message;
+      size++;
+      return true;
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private M poll() {
+    M message = (M) buffer[head];
+    buffer[head] = null;
+    head = (head + 1) % buffer.length;
+    if (size-- == buffer.length && overflowStrategy == OverflowStrategy.BLOCK)
+      buffer.notifyAll();
+    return message;
+  }
+
+  private void clear() {
+    synchronized (buffer) {
+      while (size > 0)
+        poll();
+    }
+  }
+
+  private void drain() {
+    if (drainRequests.getAndIncrement() != 0)
+      return;
+
+    int missed = 1;
+    do {
+      while (!terminated) {
+        if (cancelled) {
+          terminated = true;
+          clear();
+          break;
+        }
+
+        Throwable failure = this.failure;
+        if (failure != null) {
+          terminated = true;
+          clear();
+          getDownstreamObserver().onFail(failure);
+          break;
+        }
+
+        /*
+         * We must check for completion before checking the buffer, otherwise a
+         * message may arrive between the two checks.
+         */
+        boolean done = this.done;
+        boolean empty;
+        M message = null;
+        synchronized (buffer) {
+          empty = size == 0;
+          if (!empty && outstandingRequests.tryFulfil())
+            message = poll();
+        }
+
+        if (message != null) {
+          getDownstreamObserver().onNext(message);
+        } else {
+          if (done && empty) {
+            terminated = true;
+            getDownstreamObserver().onComplete();
+          }
+          break;
+        }
+      }
+
+      missed = drainRequests.addAndGet(-missed);
+    } while (missed != 0);
+  }
+}
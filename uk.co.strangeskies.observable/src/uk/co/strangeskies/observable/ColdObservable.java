@@ -33,7 +33,7 @@
 package uk.co.strangeskies.observable;
 
 import java.util.Iterator;
-import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * A simple implementation of {@link Observable} which implements backpressure
@@ -61,60 +61,51 @@ public class ColdObservable<M> implements Observable<M> {
 
   static class ColdObservation<M> extends ObservationImpl<M> {
     private final Iterator<? extends M> iterator;
-    private final AtomicLong totalCount = new AtomicLong();
+    private final RequestCount pendingRequests = new RequestCount();
+    private final AtomicInteger drainRequests = new AtomicInteger();
 
     ColdObservation(Iterable<? extends M> iterable, Observer<? super M> observer) {
       super(observer);
       this.iterator = iterable.iterator();
       onObserve();
-      tryContinue();
+      drain();
     }
 
     @Override
     public void request(long count) {
-      if (count < 0) {
-        throw new IllegalArgumentException();
-      }
-
-      totalCount.addAndGet(count);
-
-      if (count == Long.MAX_VALUE) {
-        requestUnbounded();
-        return;
-      }
-
-      while (count-- > 0 && tryNext()) {}
+      pendingRequests.request(count);
+      drain();
     }
 
-    @Override
-    public void requestUnbounded() {
-      totalCount.set(Long.MAX_VALUE);
-      while (tryNext()) {}
-    }
-
-    private synchronized boolean tryNext() {
-      if (tryContinue()) {
-        if (totalCount.get() < Long.MAX_VALUE)
-          totalCount.decrementAndGet();
-        onNext(iterator.next());
-        tryContinue();
-        return true;
-      }
-      return false;
-    }
+    /*
+     * Only one thread at a time may iterate. Any thread which makes a request
+     * while another is draining increments the counter and returns immediately,
+     * and the draining thread then loops again to fulfil the new request. This
+     * also prevents recursion when requests are made from within onNext.
+     */
+    private void drain() {
+      if (drainRequests.getAndIncrement() != 0)
+        return;
 
-    private boolean tryContinue() {
-      if (!isDisposed() && !iterator.hasNext()) {
-        onComplete();
-        cancel();
-        return false;
-      }
-      return true;
+      int missed = 1;
+      do {
+        while (!isDisposed()) {
+          if (!iterator.hasNext()) {
+            onComplete();
+            cancel();
+          } else if (pendingRequests.tryFulfil()) {
+            onNext(iterator.next());
+          } else {
+            break;
+          }
+        }
+        missed = drainRequests.addAndGet(-missed);
+      } while (missed != 0);
     }
 
     @Override
     public long getPendingRequestCount() {
-      return totalCount.get();
+      return pendingRequests.getCount();
     }
 
     @Override
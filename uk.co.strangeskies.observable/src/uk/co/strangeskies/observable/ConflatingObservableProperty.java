@@ -0,0 +1,184 @@
+/*
+ * Copyright (C) 2018 Elias N Vasylenko <eliasvasylenko@strangeskies.co.uk>
+ *      __   _______  ____           _       __     _      __       __
+ *    ,`_ `,|__   __||  _ `.        / \     |  \   | |  ,-`__`¬  ,-`__`¬
+ *   ( (_`-'   | |   | | ) |       / . \    | . \  | | / .`  `' / .`  `'
+ *    `._ `.   | |   | |<. L      / / \ \   | |\ \ | || |    _ | '--.
+ *   _   `. \  | |   | |  `.`.   / /   \ \  | | \ \| || |   | || +--'
+ *  \ \__.' /  | |   | |    \ \ / /     \ \ | |  \ ` | \ `._' | \ `.__,.
+ *   `.__.-`   |_|   |_|    |_|/_/       \_\|_|   \__|  `-.__.J  `-.__.J
+ *                   __    _         _      __      __
+ *                 ,`_ `, | |  _    | |  ,-`__`¬  ,`_ `,
+ *                ( (_`-' | | ) |   | | / .`  `' ( (_`-'
+ *                 `._ `. | L-' L   | || '--.     `._ `.
+ *                _   `. \| ,.-^.`. | || +--'    _   `. \
+ *               \ \__.' /| |    \ \| | \ `.__,.\ \__.' /
+ *                `.__.-` |_|    |_||_|  `-.__.J `.__.-`
+ *
+ * This file is part of uk.co.strangeskies.observable.
+ *
+ * uk.co.strangeskies.observable is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * uk.co.strangeskies.observable is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package uk.co.strangeskies.observable;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.Optional;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * An implementation of {@link ObservableProperty} which conflates updates for
+ * consumers which cannot keep up with the rate at which the property is set.
+ * <p>
+ * Setting the property only records the new state and schedules a drain on
+ * the given executor, so the setter never blocks on, or runs, observer code.
+ * When the drain runs, observers receive only the latest state, and any
+ * intermediate states which were overwritten in the meantime are never seen.
+ * <p>
+ * The value returned by {@link #get()} always reflects the most recent
+ * assignment, whereas observers may lag behind it until the next drain.
+ * 
+ * @author Elias N Vasylenko
+ * @param <T>
+ *          the type of event message to produce
+ */
+public class ConflatingObservableProperty<T> implements ObservableProperty<T> {
+  private final Executor executor;
+  private final ObservablePropertyImpl<T> delivered;
+
+  private final AtomicReference<ObservableValue<T>> latest;
+  private final AtomicInteger drainRequests;
+  private ObservableValue<T> lastDelivered;
+
+  public ConflatingObservableProperty(T initialValue, Executor executor) {
+    this(new ImmutableObservableValue<>(requireNonNull(initialValue)), executor);
+  }
+
+  public ConflatingObservableProperty(Throwable initialProblem, Executor executor) {
+    this(new ImmutableObservableValue<>(requireNonNull(initialProblem)), executor);
+  }
+
+  private ConflatingObservableProperty(ObservableValue<T> initialState, Executor executor) {
+    this.executor = requireNonNull(executor);
+    this.delivered = initialState.isValid()
+        ? new ObservablePropertyImpl<>(initialState.get())
+        : new ObservablePropertyImpl<>(initialState.getProblem());
+    this.latest = new AtomicReference<>(initialState);
+    this.drainRequests = new AtomicInteger();
+    this.lastDelivered = initialState;
+  }
+
+  /**
+   * @return an immutable snapshot of the most recently assigned state of the
+   *         property, which may not yet have been delivered to observers
+   */
+  public ObservableValue<T> currentState() {
+    return latest.get();
+  }
+
+  /*
+   * If the executor refuses the drain then no drain is in flight, so the count
+   * is reset to allow the next assignment to schedule one. The new state is
+   * still recorded, and the failure is propagated to the caller.
+   */
+  private void scheduleDrain() {
+    if (drainRequests.getAndIncrement() == 0) {
+      try {
+        executor.execute(this::drain);
+      } catch (Throwable t) {
+        drainRequests.set(0);
+        throw t;
+      }
+    }
+  }
+
+  /*
+   * Only one drain is ever in flight, so delivery to the backing property is
+   * never concurrent and lastDelivered needs no further synchronization.
+   */
+  private void drain() {
+    int missed = 1;
+    do {
+      ObservableValue<T> state = latest.get();
+
+      if (state != lastDelivered) {
+        lastDelivered = state;
+        if (state.isValid()) {
+          delivered.set(state.get());
+        } else {
+          delivered.setProblem(state.getProblem());
+        }
+      }
+
+      missed = drainRequests.addAndGet(-missed);
+    } while (missed != 0);
+  }
+
+  @Override
+  public Disposable observe(Observer<? super T> observer) {
+    return delivered.observe(observer);
+  }
+
+  @Override
+  public Observable<Change<T>> changes() {
+    return delivered.changes();
+  }
+
+  @Override
+  public T set(T value) {
+    ObservableValue<T> previous = latest
+        .getAndSet(new ImmutableObservableValue<>(requireNonNull(value)));
+    scheduleDrain();
+    return previous.tryGet().orElse(null);
+  }
+
+  @Override
+  public void setProblem(Throwable t) {
+    latest.set(new ImmutableObservableValue<>(requireNonNull(t)));
+    scheduleDrain();
+  }
+
+  @Override
+  public T get() {
+    ObservableValue<T> state = latest.get();
+    if (!state.isValid())
+      throw new MissingValueException(this, state.getProblem());
+    return state.get();
+  }
+
+  @Override
+  public Optional<T> tryGet() {
+    return latest.get().tryGet();
+  }
+
+  @Override
+  public boolean isValid() {
+    return latest.get().isValid();
+  }
+
+  @Override
+  public Throwable getProblem() {
+    ObservableValue<T> state = latest.get();
+    if (state.isValid())
+      throw new IllegalStateException("No problem with valid property " + this);
+    return state.getProblem();
+  }
+
+  @Override
+  public Optional<Throwable> tryGetProblem() {
+    return latest.get().tryGetProblem();
+  }
+}
@@ -0,0 +1,197 @@
+/*
+ * Copyright (C) 2018 Elias N Vasylenko <eliasvasylenko@strangeskies.co.uk>
+ *      __   _______  ____           _       __     _      __       __
+ *    ,`_ `,|__   __||  _ `.        / \     |  \   | |  ,-`__`¬  ,-`__`¬
+ *   ( (_`-'   | |   | | ) |       / . \    | . \  | | / .`  `' / .`  `'
+ *    `._ `.   | |   | |<. L      / / \ \   | |\ \ | || |    _ | '--.
+ *   _   `. \  | |   | |  `.`.   / /   \ \  | | \ \| || |   | || +--'
+ *  \ \__.' /  | |   | |    \ \ / /     \ \ | |  \ ` | \ `._' | \ `.__,.
+ *   `.__.-`   |_|   |_|    |_|/_/       \_\|_|   \__|  `-.__.J  `-.__.J
+ *                   __    _         _      __      __
+ *                 ,`_ `, | |  _    | |  ,-`__`¬  ,`_ `,
+ *                ( (_`-' | | ) |   | | / .`  `' ( (_`-'
+ *                 `._ `. | L-' L   | || '--.     `._ `.
+ *                _   `. \| ,.-^.`. | || +--'    _   `. \
+ *               \ \__.' /| |    \ \| | \ `.__,.\ \__.' /
+ *                `.__.-` |_|    |_||_|  `-.__.J `.__.-`
+ *
+ * This file is part of uk.co.strangeskies.observable.
+ *
+ * uk.co.strangeskies.observable is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * uk.co.strangeskies.observable is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package uk.co.strangeskies.observable;
+
+import static java.util.Objects.requireNonNull;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+import java.time.Duration;
+
+/**
+ * Forward a message only once no further message has been received from
+ * upstream for the given quiet period.
+ * <p>
+ * An unbounded request is made upstream, so it is not required to support
+ * backpressure. If no request is outstanding downstream when the quiet period
+ * elapses, the message is retained until a request is made, unless it is
+ * superseded. When the upstream observable completes, the most recent message
+ * which has not yet been forwarded is forwarded immediately if a request is
+ * outstanding.
+ * <p>
+ * Rather than rescheduling a timer on every message, a single timer is kept
+ * for each observation, and when it expires it is rescheduled for whatever
+ * remains of the quiet period following the most recent message.
+ * 
+ * @author Elias N Vasylenko
+ *
+ * @param <M>
+ *          The message type
+ */
+public class DebouncingObserver<M> extends PassthroughObserver<M, M> {
+  private final long quietNanos;
+  private final Scheduler scheduler;
+  private final SerializingObserver<M> emitter;
+
+  private final RequestCount outstandingRequests = new RequestCount();
+  private M pending;
+  private long pendingTime;
+  private M ready;
+  private Disposable timer;
+  private boolean done;
+
+  public DebouncingObserver(
+      Observer<? super M> downstreamObserver,
+      Duration quietPeriod,
+      Scheduler scheduler) {
+    this(new SerializingObserver<>(downstreamObserver), quietPeriod, scheduler);
+  }
+
+  /*
+   * Messages are chosen while holding the monitor, but delivered downstream
+   * through the emitter after it is released, so a slow downstream observer
+   * never blocks upstream or the scheduler.
+   */
+  private DebouncingObserver(
+      SerializingObserver<M> emitter,
+      Duration quietPeriod,
+      Scheduler scheduler) {
+    super(emitter);
+    this.emitter = emitter;
+
+    this.quietNanos = quietPeriod.toNanos();
+    this.scheduler = requireNonNull(scheduler);
+
+    if (quietNanos <= 0)
+      throw new IllegalArgumentException("Quiet period must be positive " + quietPeriod);
+  }
+
+  @Override
+  public void onObserve(Observation observation) {
+    super.onObserve(new Observation() {
+      @Override
+      public void request(long count) {
+        outstandingRequests.request(count);
+        synchronized (DebouncingObserver.this) {
+          tryForward();
+        }
+        emitter.drain();
+      }
+
+      @Override
+      public void cancel() {
+        stop();
+        observation.cancel();
+      }
+
+      @Override
+      public long getPendingRequestCount() {
+        return outstandingRequests.getCount();
+      }
+    });
+
+    observation.requestUnbounded();
+  }
+
+  private synchronized boolean stop() {
+    if (done)
+      return false;
+
+    done = true;
+    if (timer != null)
+      timer.cancel();
+    timer = null;
+    pending = null;
+    ready = null;
+    return true;
+  }
+
+  /*
+   * Must be called while holding the monitor.
+   */
+  private void tryForward() {
+    if (!done && ready != null && outstandingRequests.tryFulfil()) {
+      M message = ready;
+      ready = null;
+      emitter.offer(message);
+    }
+  }
+
+  private void expire() {
+    synchronized (this) {
+      if (done || pending == null) {
+        timer = null;
+        return;
+      }
+
+      long remaining = quietNanos - (scheduler.now() - pendingTime);
+      if (remaining > 0) {
+        timer = scheduler.schedule(this::expire, remaining, NANOSECONDS);
+        return;
+      }
+
+      timer = null;
+      ready = pending;
+      pending = null;
+      tryForward();
+    }
+    emitter.drain();
+  }
+
+  @Override
+  public synchronized void onNext(M message) {
+    if (!done) {
+      pending = message;
+      pendingTime = scheduler.now();
+      if (timer == null)
+        timer = scheduler.schedule(this::expire, quietNanos, NANOSECONDS);
+    }
+  }
+
+  @Override
+  public void onComplete() {
+    synchronized (this) {
+      M last = pending != null ? pending : ready;
+      if (!stop())
+        return;
+      if (last != null && outstandingRequests.tryFulfil())
+        emitter.offer(last);
+    }
+    emitter.onComplete();
+  }
+
+  @Override
+  public void onFail(Throwable t) {
+    if (stop())
+      emitter.onFail(t);
+  }
+}
@@ -0,0 +1,190 @@
+/*
+ * Copyright (C) 2018 Elias N Vasylenko <eliasvasylenko@strangeskies.co.uk>
+ *      __   _______  ____           _       __     _      __       __
+ *    ,`_ `,|__   __||  _ `.        / \     |  \   | |  ,-`__`¬  ,-`__`¬
+ *   ( (_`-'   | |   | | ) |       / . \    | . \  | | / .`  `' / .`  `'
+ *    `._ `.   | |   | |<. L      / / \ \   | |\ \ | || |    _ | '--.
+ *   _   `. \  | |   | |  `.`.   / /   \ \  | | \ \| || |   | || +--'
+ *  \ \__.' /  | |   | |    \ \ / /     \ \ | |  \ ` | \ `._' | \ `.__,.
+ *   `.__.-`   |_|   |_|    |_|/_/       \_\|_|   \__|  `-.__.J  `-.__.J
+ *                   __    _         _      __      __
+ *                 ,`_ `, | |  _    | |  ,-`__`¬  ,`_ `,
+ *                ( (_`-' | | ) |   | | / .`  `' ( (_`-'
+ *                 `._ `. | L-' L   | || '--.     `._ `.
+ *                _   `. \| ,.-^.`. | || +--'    _   `. \
+ *               \ \__.' /| |    \ \| | \ `.__,.\ \__.' /
+ *                `.__.-` |_|    |_||_|  `-.__.J `.__.-`
+ *
+ * This file is part of uk.co.strangeskies.observable.
+ *
+ * uk.co.strangeskies.observable is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * uk.co.strangeskies.observable is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package uk.co.strangeskies.observable;
+
+import static java.util.Objects.requireNonNull;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+import java.time.Duration;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Forward each message and the completion of the upstream observable after the
+ * given delay, preserving their order. Failure is forwarded immediately, and
+ * any delayed messages which have not yet been forwarded are discarded.
+ * <p>
+ * Requests are passed directly upstream. Delayed messages are forwarded on the
+ * scheduler, so downstream observers which do significant work should move it
+ * onto an executor.
+ * 
+ * @author Elias N Vasylenko
+ *
+ * @param <M>
+ *          The message type
+ */
+public class DelayingObserver<M> extends PassthroughObserver<M, M> {
+  private static class Delayed<M> {
+    private final long due;
+    private final M message;
+
+    Delayed(long due, M message) {
+      this.due = due;
+      this.message = message;
+    }
+  }
+
+  private final long delayNanos;
+  private final Scheduler scheduler;
+
+  private final Queue<Delayed<M>> queue = new ConcurrentLinkedQueue<>();
+  private final AtomicInteger drainRequests = new AtomicInteger();
+  private final AtomicBoolean drainScheduled = new AtomicBoolean();
+  private volatile Throwable failure;
+  private volatile boolean cancelled;
+  private boolean done;
+
+  public DelayingObserver(
+      Observer<? super M> downstreamObserver,
+      Duration delay,
+      Scheduler scheduler) {
+    super(downstreamObserver);
+
+    this.delayNanos = delay.toNanos();
+    this.scheduler = requireNonNull(scheduler);
+
+    if (delayNanos < 0)
+      throw new IllegalArgumentException("Delay must not be negative " + delay);
+  }
+
+  @Override
+  public void onObserve(Observation observation) {
+    super.onObserve(new Observation() {
+      @Override
+      public void request(long count) {
+        observation.request(count);
+      }
+
+      @Override
+      public void cancel() {
+        cancelled = true;
+        queue.clear();
+        observation.cancel();
+      }
+
+      @Override
+      public long getPendingRequestCount() {
+        return observation.getPendingRequestCount();
+      }
+    });
+  }
+
+  private void enqueue(M message) {
+    queue.add(new Delayed<>(scheduler.now() + delayNanos, message));
+    scheduleDrain();
+  }
+
+  /*
+   * At most one drain is scheduled at a time, for when the message at the head
+   * of the queue is due, rather than one for each message. Messages are queued
+   * in the order they fall due, so whichever thread schedules the drain
+   * schedules it for the earliest of them.
+   */
+  private void scheduleDrain() {
+    Delayed<M> head = queue.peek();
+    if (head != null && drainScheduled.compareAndSet(false, true))
+      scheduler.schedule(
+          this::drainAndReschedule,
+          Math.max(0, head.due - scheduler.now()),
+          NANOSECONDS);
+  }
+
+  private void drainAndReschedule() {
+    drain();
+    drainScheduled.set(false);
+    scheduleDrain();
+  }
+
+  /*
+   * Any drain will forward every message which is due, so messages are
+   * forwarded in order even if the scheduler runs tasks concurrently.
+   */
+  private void drain() {
+    if (drainRequests.getAndIncrement() != 0)
+      return;
+
+    int missed = 1;
+    do {
+      while (!done) {
+        if (cancelled) {
+          done = true;
+        } else if (failure != null) {
+          done = true;
+          queue.clear();
+          getDownstreamObserver().onFail(failure);
+        } else {
+          Delayed<M> next = queue.peek();
+          if (next == null || next.due - scheduler.now() > 0)
+            break;
+
+          queue.poll();
+          if (next.message == null) {
+            done = true;
+            getDownstreamObserver().onComplete();
+          } else {
+            getDownstreamObserver().onNext(next.message);
+          }
+        }
+      }
+      missed = drainRequests.addAndGet(-missed);
+    } while (missed != 0);
+  }
+
+  @Override
+  public void onNext(M message) {
+    enqueue(requireNonNull(message));
+  }
+
+  @Override
+  public void onComplete() {
+    enqueue(null);
+  }
+
+  @Override
+  public void onFail(Throwable t) {
+    failure = t;
+    drain();
+  }
+}
@@ -34,18 +34,119 @@ package uk.co.strangeskies.observable;
 
 import static java.util.Objects.requireNonNull;
 
-import java.util.ArrayList;
-import java.util.LinkedHashMap;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Function;
 
+/**
+ * An observer which maps each message to an inner observable, then merges the
+ * messages of each inner observable downstream.
+ * <p>
+ * Downstream requests are distributed between the inner observations by a
+ * {@link RequestAllocator}. Inner observations are held in a
+ * {@link PendingRequestIndex}, by the order they were made and by their pending
+ * request counts, so the standard allocators need neither scan nor sort them.
+ * An inner observation is only re-indexed once a message has arrived from it
+ * since it was last indexed, and the total pending request count across all
+ * inner observations is maintained incrementally.
+ * <p>
+ * Inner observables may send events concurrently from different threads. Rather
+ * than holding a lock while passing events downstream, events are added to
+ * lock-free queues, and the first thread to arrive drains them while any other
+ * threads return immediately. All bookkeeping of the inner observations is
+ * performed by the draining thread.
+ * 
+ * @author Elias N Vasylenko
+ *
+ * @param <T>
+ *          The message type of the upstream observable
+ * @param <U>
+ *          The message type of the inner observables
+ */
 public class FlatMappingObserver<T, U> extends PassthroughObserver<T, U> {
+  private class InnerObserver implements Observer<U>, Observation {
+    private final RequestCount allocatedRequests = new RequestCount();
+    private volatile Observation observation;
+    private volatile boolean complete;
+    private volatile boolean fulfilled;
+    private boolean registered;
+    private boolean deregistered;
+
+    @Override
+    public void onObserve(Observation observation) {
+      this.observation = observation;
+      innerEvents.offer(this);
+      drain();
+    }
+
+    @Override
+    public void onNext(U message) {
+      allocatedRequests.tryFulfil();
+      innerPendingRequests.tryFulfil();
+      messages.offer(message);
+      if (observation.getPendingRequestCount() == 0)
+        reallocate = true;
+      if (!fulfilled) {
+        fulfilled = true;
+        innerEvents.offer(this);
+      }
+      drain();
+    }
+
+    @Override
+    public void onComplete() {
+      complete = true;
+      innerEvents.offer(this);
+      drain();
+    }
+
+    @Override
+    public void onFail(Throwable t) {
+      failure = t;
+      drain();
+    }
+
+    @Override
+    public void request(long count) {
+      allocatedRequests.request(count);
+      innerPendingRequests.request(count);
+      observation.request(count);
+    }
+
+    @Override
+    public long getPendingRequestCount() {
+      return observation.getPendingRequestCount();
+    }
+
+    @Override
+    public void cancel() {
+      observation.cancel();
+    }
+  }
+
   private final RequestAllocator requestAllocator;
   private final Function<? super T, ? extends Observable<? extends U>> mapping;
 
   private Observation upstreamObservation;
-  private final LinkedHashMap<Observer<? extends U>, Observation> observations;
-  private long outstandingRequests;
-  private boolean cancelled;
+  private final RequestCount outstandingRequests;
+  private final RequestCount innerPendingRequests;
+  private final AtomicInteger activeObservations;
+
+  private final Queue<U> messages;
+  private final Queue<InnerObserver> innerEvents;
+  private final AtomicInteger drainRequests;
+
+  /*
+   * Only accessed by the draining thread.
+   */
+  private final PendingRequestIndex<InnerObserver> observations;
+  private boolean terminated;
+
+  private volatile boolean reallocate;
+  private volatile boolean done;
+  private volatile Throwable failure;
+  private volatile boolean cancelled;
 
   public FlatMappingObserver(
       Observer<? super U> downstreamObserver,
@@ -53,23 +154,17 @@ public class FlatMappingObserver<T, U> extends PassthroughObserver<T, U> {
       RequestAllocator requestAllocator) {
     super(downstreamObserver);
     this.mapping = requireNonNull(mapping);
-    this.observations = new LinkedHashMap<>();
     this.requestAllocator = requireNonNull(requestAllocator);
-  }
 
-  protected Object getMutex() {
-    return observations;
-  }
+    this.outstandingRequests = new RequestCount();
+    this.innerPendingRequests = new RequestCount();
+    this.activeObservations = new AtomicInteger();
 
-  private void allocateRequests() {
-    synchronized (getMutex()) {
-      if (observations.isEmpty()) {
-        upstreamObservation.requestNext();
-      } else {
-        outstandingRequests = requestAllocator
-            .allocateRequests(outstandingRequests, new ArrayList<>(observations.values()));
-      }
-    }
+    this.messages = new ConcurrentLinkedQueue<>();
+    this.innerEvents = new ConcurrentLinkedQueue<>();
+    this.drainRequests = new AtomicInteger();
+
+    this.observations = new PendingRequestIndex<>();
   }
 
   @Override
@@ -78,85 +173,161 @@ public class FlatMappingObserver<T, U> extends PassthroughObserver<T, U> {
     super.onObserve(new Observation() {
       @Override
       public void cancel() {
-        observation.cancel();
         cancelled = true;
-        synchronized (getMutex()) {
-          observations.values().forEach(Observation::cancel);
-        }
+        observation.cancel();
+        drain();
       }
 
       @Override
       public void request(long count) {
-        synchronized (getMutex()) {
-          if (outstandingRequests < Long.MAX_VALUE) {
-            outstandingRequests += count;
-          }
-          allocateRequests();
-        }
-      }
-
-      @Override
-      public void requestUnbounded() {
-        Observation.super.requestUnbounded();
-      }
-
-      @Override
-      public void requestNext() {
-        Observation.super.requestNext();
+        outstandingRequests.request(count);
+        reallocate = true;
+        drain();
       }
 
       @Override
       public long getPendingRequestCount() {
-        synchronized (getMutex()) {
-          return observations
-              .values()
-              .stream()
-              .mapToLong(Observation::getPendingRequestCount)
-              .sum();
-        }
+        return innerPendingRequests.getCount();
       }
     });
   }
 
   @Override
   public void onNext(T message) {
-    synchronized (getMutex()) {
-      if (!cancelled) {
-        mapping.apply(message).observe(new Observer<U>() {
-          @Override
-          public void onNext(U m) {
-            getDownstreamObserver().onNext(m);
-            synchronized (getMutex()) {
-              if (observations.get(this).getPendingRequestCount() == 0) {
-                allocateRequests();
-              }
-            }
-          }
-
-          @Override
-          public void onObserve(Observation observation) {
-            synchronized (getMutex()) {
-              observations.put(this, observation);
-              allocateRequests();
-            }
-          }
-
-          @Override
-          public void onComplete() {
-            synchronized (getMutex()) {
-              getObservation().request(observations.remove(this).getPendingRequestCount());
-            }
-          }
-
-          @Override
-          public void onFail(Throwable t) {
-            synchronized (getMutex()) {
-              observations.values().forEach(Observation::cancel);
-            }
-            getDownstreamObserver().onFail(t);
-          }
-        });
+    if (cancelled)
+      return;
+
+    Observable<? extends U> observable;
+    try {
+      observable = mapping.apply(message);
+    } catch (Throwable t) {
+      onFail(t);
+      return;
+    }
+
+    activeObservations.incrementAndGet();
+    observable.observe(new InnerObserver());
+  }
+
+  @Override
+  public void onComplete() {
+    done = true;
+    drain();
+  }
+
+  @Override
+  public void onFail(Throwable t) {
+    failure = t;
+    drain();
+  }
+
+  private void drain() {
+    if (drainRequests.getAndIncrement() != 0)
+      return;
+
+    int missed = 1;
+    do {
+      if (!terminated)
+        drainEvents();
+
+      if (terminated)
+        clearEvents();
+
+      missed = drainRequests.addAndGet(-missed);
+    } while (missed != 0);
+  }
+
+  /*
+   * Every event is followed by a call to drain, so a single pass is sufficient
+   * for each missed drain request.
+   */
+  private void drainEvents() {
+    Throwable failure = this.failure;
+    if (failure != null) {
+      terminated = true;
+      cancelled = true;
+      upstreamObservation.cancel();
+      getDownstreamObserver().onFail(failure);
+      return;
+    } else if (cancelled) {
+      terminated = true;
+      return;
+    }
+
+    /*
+     * We must check for completion before checking for outstanding work,
+     * otherwise an inner observation may be made between the two checks.
+     */
+    boolean done = this.done;
+
+    U message;
+    while (!cancelled && (message = messages.poll()) != null)
+      getDownstreamObserver().onNext(message);
+
+    InnerObserver inner;
+    while ((inner = innerEvents.poll()) != null) {
+      inner.fulfilled = false;
+      if (!inner.registered) {
+        inner.registered = true;
+        observations.add(inner);
+        reallocate = true;
+      } else if (!inner.deregistered) {
+        observations.update(inner);
       }
+      if (inner.complete && !inner.deregistered) {
+        inner.deregistered = true;
+        observations.remove(inner);
+        activeObservations.decrementAndGet();
+
+        long remaining = inner.allocatedRequests.getCount();
+        innerPendingRequests.tryFulfil(remaining);
+        if (remaining > 0) {
+          outstandingRequests.request(remaining);
+          reallocate = true;
+        }
+      }
+    }
+
+    if (reallocate && !cancelled)
+      allocateRequests();
+
+    if (done && activeObservations.get() == 0 && messages.isEmpty()) {
+      terminated = true;
+      getDownstreamObserver().onComplete();
     }
   }
+
+  private void allocateRequests() {
+    reallocate = false;
+
+    long count = outstandingRequests.getCount();
+    if (count == 0)
+      return;
+
+    if (observations.isEmpty()) {
+      if (activeObservations.get() == 0 && upstreamObservation.getPendingRequestCount() == 0)
+        upstreamObservation.requestNext();
+
+    } else {
+      long remaining;
+      if (requestAllocator instanceof IndexedRequestAllocator)
+        remaining = ((IndexedRequestAllocator) requestAllocator)
+            .allocateRequests(count, observations);
+      else
+        remaining = requestAllocator.allocateRequests(count, observations.observations());
+      outstandingRequests.tryFulfil(count - remaining);
+    }
+  }
+
+  private void clearEvents() {
+    messages.clear();
+
+    for (Observation observation : observations.observations())
+      observation.cancel();
+    observations.clear();
+
+    InnerObserver inner;
+    while ((inner = innerEvents.poll()) != null)
+      inner.cancel();
+  }
 }
@@ -32,18 +32,22 @@
  */
 package uk.co.strangeskies.observable;
 
-import java.util.ArrayList;
-import java.util.LinkedHashSet;
+import java.util.Arrays;
 import java.util.Objects;
-import java.util.Set;
-import java.util.function.Consumer;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * A simple implementation of {@link Observable} which maintains a list of
  * listeners to receive events fired with {@link #next(Object)}.
  * <p>
- * Addition and removal of observers, as well as the firing of events, are
- * synchronized on the implementation object.
+ * Observers are held in a copy-on-write array. Addition and removal of
+ * observers atomically swap in a new array, and firing an event iterates over
+ * whichever array was current at the time of the call without taking a lock or
+ * allocating. This means that events may be fired concurrently from multiple
+ * producer threads, with each event delivered to exactly those observers which
+ * were registered when it was fired. Observers which require messages to be
+ * serialized when fired from multiple threads should compose the observable
+ * with an appropriate operation.
  * <p>
  * This implementation does not support backpressure, so listeners which need to
  * control demand must compose the observable with e.g. a buffering or dropping
@@ -54,8 +58,16 @@ import java.util.function.Consumer;
  *          The type of event message to produce
  */
 public class HotObservable<M> implements Observable<M> {
-  private boolean live = true;
-  private Set<ObservationImpl<M>> observations;
+  private static final ObservationImpl<?>[] NO_OBSERVATIONS = new ObservationImpl<?>[0];
+
+  private volatile boolean live = true;
+  private final AtomicReference<ObservationImpl<M>[]> observations = new AtomicReference<>(
+      noObservations());
+
+  @SuppressWarnings("unchecked")
+  private static <M> ObservationImpl<M>[] noObservations() {
+    return (ObservationImpl<M>[]) NO_OBSERVATIONS;
+  }
 
   @Override
   public Disposable observe(Observer<? super M> observer) {
@@ -78,10 +90,13 @@ public class HotObservable<M> implements Observable<M> {
       }
     };
 
-    if (observations == null)
-      observations = new LinkedHashSet<>();
-
-    observations.add(observation);
+    ObservationImpl<M>[] current;
+    ObservationImpl<M>[] next;
+    do {
+      current = observations.get();
+      next = Arrays.copyOf(current, current.length + 1);
+      next[current.length] = observation;
+    } while (!observations.compareAndSet(current, next));
 
     if (isLive())
       observation.onObserve();
@@ -90,23 +105,33 @@ public class HotObservable<M> implements Observable<M> {
   }
 
   public boolean hasObservers() {
-    return observations != null;
+    return observations.get().length > 0;
   }
 
   void cancelObservation(Observation observer) {
-    if (observations != null && observations.remove(observer) && observations.isEmpty()) {
-      observations = null;
-    }
+    ObservationImpl<M>[] current;
+    ObservationImpl<M>[] next;
+    do {
+      current = observations.get();
+
+      int index = indexOf(current, observer);
+      if (index < 0)
+        return;
+
+      if (current.length == 1) {
+        next = noObservations();
+      } else {
+        next = Arrays.copyOf(current, current.length - 1);
+        System.arraycopy(current, index + 1, next, index, next.length - index);
+      }
+    } while (!observations.compareAndSet(current, next));
   }
 
-  private void forObservers(
-      Set<ObservationImpl<M>> observations,
-      Consumer<ObservationImpl<M>> action) {
-    if (observations != null) {
-      for (ObservationImpl<M> observation : new ArrayList<>(observations)) {
-        action.accept(observation);
-      }
-    }
+  private static int indexOf(ObservationImpl<?>[] observations, Observation observation) {
+    for (int i = 0; i < observations.length; i++)
+      if (observations[i] == observation)
+        return i;
+    return -1;
   }
 
   boolean isLive() {
@@ -126,7 +151,8 @@ public class HotObservable<M> implements Observable<M> {
   public HotObservable<M> start() {
     assertDead();
     live = true;
-    forObservers(observations, o -> o.onObserve());
+    for (ObservationImpl<M> observation : observations.get())
+      observation.onObserve();
     return this;
   }
 
@@ -140,28 +166,27 @@ public class HotObservable<M> implements Observable<M> {
   public HotObservable<M> next(M item) {
     assertLive();
     Objects.requireNonNull(item);
-    forObservers(observations, o -> o.onNext(item));
+    for (ObservationImpl<M> observation : observations.get())
+      observation.onNext(item);
     return this;
   }
 
   public HotObservable<M> complete() {
     assertLive();
-    Set<ObservationImpl<M>> observations = this.observations;
-    this.observations = null;
     live = false;
 
-    forObservers(observations, o -> o.onComplete());
+    for (ObservationImpl<M> observation : observations.getAndSet(noObservations()))
+      observation.onComplete();
     return this;
   }
 
   public HotObservable<M> fail(Throwable t) {
     assertLive();
     Objects.requireNonNull(t);
-    Set<ObservationImpl<M>> observations = this.observations;
-    this.observations = null;
     live = false;
 
-    forObservers(observations, o -> o.onFail(t));
+    for (ObservationImpl<M> observation : observations.getAndSet(noObservations()))
+      observation.onFail(t);
     return this;
   }
 }
@@ -32,6 +32,8 @@
  */
 package uk.co.strangeskies.observable;
 
+import java.util.Optional;
+
 public class ImmutableObservableValue<T> implements ObservableValue<T> {
   private final T message;
   private final Throwable failure;
@@ -105,6 +107,28 @@ public class ImmutableObservableValue<T> implements ObservableValue<T> {
     }
   }
 
+  @Override
+  public Optional<T> tryGet() {
+    return Optional.ofNullable(message);
+  }
+
+  @Override
+  public boolean isValid() {
+    return message != null;
+  }
+
+  @Override
+  public Throwable getProblem() {
+    if (failure == null)
+      throw new IllegalStateException("No problem with valid value " + this);
+    return failure;
+  }
+
+  @Override
+  public Optional<Throwable> tryGetProblem() {
+    return Optional.ofNullable(failure);
+  }
+
   @Override
   public Observable<Change<T>> changes() {
     return Observable.empty();
@@ -0,0 +1,107 @@
+/*
+ * Copyright (C) 2018 Elias N Vasylenko <eliasvasylenko@strangeskies.co.uk>
+ *      __   _______  ____           _       __     _      __       __
+ *    ,`_ `,|__   __||  _ `.        / \     |  \   | |  ,-`__`¬  ,-`__`¬
+ *   ( (_`-'   | |   | | ) |       / . \    | . \  | | / .`  `' / .`  `'
+ *    `._ `.   | |   | |<. L      / / \ \   | |\ \ | || |    _ | '--.
+ *   _   `. \  | |   | |  `.`.   / /   \ \  | | \ \| || |   | || +--'
+ *  \ \__.' /  | |   | |    \ \ / /     \ \ | |  \ ` | \ `._' | \ `.__,.
+ *   `.__.-`   |_|   |_|    |_|/_/       \_\|_|   \__|  `-.__.J  `-.__.J
+ *                   __    _         _      __      __
+ *                 ,`_ `, | |  _    | |  ,-`__`¬  ,`_ `,
+ *                ( (_`-' | | ) |   | | / .`  `' ( (_`-'
+ *                 `._ `. | L-' L   | || '--.     `._ `.
+ *                _   `. \| ,.-^.`. | || +--'    _   `. \
+ *               \ \__.' /| |    \ \| | \ `.__,.\ \__.' /
+ *                `.__.-` |_|    |_||_|  `-.__.J `.__.-`
+ *
+ * This file is part of uk.co.strangeskies.observable.
+ *
+ * uk.co.strangeskies.observable is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * uk.co.strangeskies.observable is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package uk.co.strangeskies.observable;
+
+import static java.util.Objects.requireNonNull;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+import java.time.Duration;
+
+/**
+ * An {@link Observable} which, for each observation, produces an ascending
+ * sequence of numbers starting from 0, one at the end of each period.
+ * <p>
+ * Messages are produced on the scheduler. If no request is outstanding when a
+ * period elapses, that number is dropped, so that the number received always
+ * reflects the number of periods which have elapsed since the observation
+ * began.
+ * 
+ * @author Elias N Vasylenko
+ */
+public class IntervalObservable implements Observable<Long> {
+  private final long periodNanos;
+  private final Scheduler scheduler;
+
+  public IntervalObservable(Duration period, Scheduler scheduler) {
+    this.periodNanos = period.toNanos();
+    this.scheduler = requireNonNull(scheduler);
+
+    if (periodNanos <= 0)
+      throw new IllegalArgumentException("Interval period must be positive " + period);
+  }
+
+  @Override
+  public Disposable observe(Observer<? super Long> observer) {
+    return new IntervalObservation(observer);
+  }
+
+  class IntervalObservation extends ObservationImpl<Long> {
+    private final RequestCount pendingRequests = new RequestCount();
+    private volatile Disposable ticking;
+    private long count;
+
+    IntervalObservation(Observer<? super Long> observer) {
+      super(observer);
+      onObserve();
+
+      if (!isDisposed()) {
+        ticking = scheduler.scheduleAtFixedRate(this::tick, periodNanos, periodNanos, NANOSECONDS);
+        if (isDisposed())
+          ticking.cancel();
+      }
+    }
+
+    private void tick() {
+      long tick = count++;
+      if (!isDisposed() && pendingRequests.tryFulfil())
+        onNext(tick);
+    }
+
+    @Override
+    public void request(long count) {
+      pendingRequests.request(count);
+    }
+
+    @Override
+    public long getPendingRequestCount() {
+      return pendingRequests.getCount();
+    }
+
+    @Override
+    protected void cancelImpl() {
+      Disposable ticking = this.ticking;
+      if (ticking != null)
+        ticking.cancel();
+    }
+  }
+}
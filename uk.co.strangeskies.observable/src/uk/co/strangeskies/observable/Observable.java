@@ -33,6 +33,9 @@
 package uk.co.strangeskies.observable;
 
 import static java.util.Collections.emptySet;
+import static java.util.Spliterator.NONNULL;
+import static java.util.Spliterator.ORDERED;
+import static java.util.Spliterators.spliteratorUnknownSize;
 import static java.util.function.Function.identity;
 import static java.util.stream.Collectors.collectingAndThen;
 import static java.util.stream.Collectors.toCollection;
@@ -42,14 +45,18 @@ import static uk.co.strangeskies.observable.Observer.onObservation;
 import static uk.co.strangeskies.observable.RequestAllocator.balanced;
 import static uk.co.strangeskies.observable.RequestAllocator.sequential;
 
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.function.BiFunction;
 import java.util.function.BinaryOperator;
 import java.util.function.Function;
@@ -57,6 +64,7 @@ import java.util.function.Predicate;
 import java.util.function.Supplier;
 import java.util.stream.Collector;
 import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import uk.co.strangeskies.property.IdentityProperty;
 import uk.co.strangeskies.property.Property;
@@ -109,26 +117,22 @@ public interface Observable<M> {
 
       @Override
       public void onObserve(Observation o) {
-        new Exception("onObserve").printStackTrace();
         ob = o;
       }
 
       @Override
       public void onComplete() {
-        new Exception("onComplete").printStackTrace();
         result.completeExceptionally(new AlreadyCompletedException(ob));
       }
 
       @Override
       public void onFail(Throwable t) {
-        new Exception("onFail").printStackTrace();
         ob.cancel();
         result.completeExceptionally(t);
       }
 
       @Override
       public void onNext(M message) {
-        new Exception("onNext").printStackTrace();
         ob.cancel();
         result.complete(message);
       }
@@ -169,6 +173,57 @@ public interface Observable<M> {
     }
   }
 
+  /**
+   * Derive a blocking iterator over the messages of this observable, requesting
+   * messages in batches.
+   * <p>
+   * Messages are requested up to the given prefetch count ahead of consumption,
+   * and are replenished each time three quarters of that count have been
+   * consumed. A thread which is waiting for the next message parks, rather than
+   * waiting on a monitor, so this is suitable for consuming many observables
+   * with blocking code on virtual threads.
+   * 
+   * @param prefetch
+   *          the maximum number of messages to request ahead of consumption
+   * @return an iterator over the messages of the observable
+   * @throws MissingValueException
+   *           from the iterator if a failure event is received, with the
+   *           failure throwable as the cause
+   */
+  default Iterator<M> toBlockingIterator(int prefetch) {
+    BlockingIteratorObserver<M> iterator = new BlockingIteratorObserver<>(this, prefetch);
+    observe(iterator);
+    return iterator;
+  }
+
+  /**
+   * Derive a blocking stream over the messages of this observable, as per
+   * {@link #toBlockingIterator(int)}. Closing the stream cancels the
+   * observation.
+   * 
+   * @param prefetch
+   *          the maximum number of messages to request ahead of consumption
+   * @return a stream over the messages of the observable
+   */
+  default Stream<M> toStream(int prefetch) {
+    BlockingIteratorObserver<M> iterator = new BlockingIteratorObserver<>(this, prefetch);
+    observe(iterator);
+    return StreamSupport
+        .stream(spliteratorUnknownSize(iterator, ORDERED | NONNULL), false)
+        .onClose(iterator::cancel);
+  }
+
+  /**
+   * Derive a {@link Flow.Publisher} over the messages of this observable. Each
+   * subscription to the publisher makes a new observation of this observable,
+   * and demand from the subscriber is passed directly upstream.
+   * 
+   * @return a publisher over the messages of the observable
+   */
+  default Flow.Publisher<M> toPublisher() {
+    return new ObservablePublisher<>(this);
+  }
+
   /**
    * Derive a new observable by application of the given function. This gives the
    * same result as just applying the function to the observable directly, and
@@ -300,7 +355,7 @@ public interface Observable<M> {
    * @return the derived observable
    */
   default Observable<M> weakReference() {
-    return observer -> observe(ReferenceObserver.weak(observer));
+    return observer -> ReferenceObserver.<M>weak(observer).observeUpstream(this);
   }
 
   /**
@@ -320,7 +375,7 @@ public interface Observable<M> {
    * @return the derived observable
    */
   default <O> Observable<OwnedMessage<O, M>> weakReference(O owner) {
-    return observer -> observe(ReferenceOwnedObserver.weak(owner, observer));
+    return observer -> ReferenceOwnedObserver.<O, M>weak(owner, observer).observeUpstream(this);
   }
 
   /**
@@ -330,7 +385,7 @@ public interface Observable<M> {
    * @return the derived observable
    */
   default Observable<M> softReference() {
-    return observer -> observe(ReferenceObserver.soft(observer));
+    return observer -> ReferenceObserver.<M>soft(observer).observeUpstream(this);
   }
 
   /**
@@ -350,7 +405,7 @@ public interface Observable<M> {
    * @return the derived observable
    */
   default <O> Observable<OwnedMessage<O, M>> softReference(O owner) {
-    return observer -> observe(ReferenceOwnedObserver.soft(owner, observer));
+    return observer -> ReferenceOwnedObserver.<O, M>soft(owner, observer).observeUpstream(this);
   }
 
   /**
@@ -364,6 +419,43 @@ public interface Observable<M> {
     return observer -> observe(new ExecutorObserver<>(observer, executor));
   }
 
+  /**
+   * Derive an observable which re-emits messages on the given executor, in
+   * order, requesting messages from upstream in batches.
+   * <p>
+   * Rather than submitting a task to the executor for each message, a single
+   * task delivers each burst of messages. Messages are requested from upstream
+   * up to the given prefetch count, and are replenished each time three
+   * quarters of that count have been delivered downstream.
+   * 
+   * @param executor
+   *          the target executor
+   * @param prefetch
+   *          the maximum number of messages to request from upstream ahead of
+   *          downstream demand
+   * @return the derived observable
+   */
+  default Observable<M> executeOn(Executor executor, int prefetch) {
+    return observer -> observe(new PrefetchingExecutorObserver<>(observer, executor, prefetch));
+  }
+
+  /**
+   * Derive parallel rails over the messages of this observable, such that
+   * processing stages may be applied to messages concurrently on the given
+   * executor. Messages are distributed round-robin to each rail.
+   * 
+   * @param rails
+   *          the number of rails
+   * @param executor
+   *          the executor on which to process messages
+   * @return parallel rails over the messages of this observable
+   * @see ParallelObservable#merge()
+   * @see ParallelObservable#mergeOrdered()
+   */
+  default ParallelObservable<M> parallel(int rails, Executor executor) {
+    return new ParallelObservable<>(this, rails, executor, identity());
+  }
+
   /**
    * Derive an observable which transforms messages according to the given
    * mapping.
@@ -414,10 +506,44 @@ public interface Observable<M> {
     return observer -> observe(new DropWhileObserver<>(observer, condition));
   }
 
+  /**
+   * Derive an observable which serializes events which may be sent from multiple
+   * threads concurrently, such that the observer contract is preserved
+   * downstream.
+   * <p>
+   * Unlike {@link #synchronize()}, no lock is held while events are passed
+   * downstream, and producing threads never block waiting for one another.
+   * Instead the first thread to arrive delivers events from any other threads
+   * which arrive while it is busy.
+   * 
+   * @return the derived observable
+   */
+  default Observable<M> serialize() {
+    return observer -> observe(new SerializingObserver<>(observer));
+  }
+
+  /**
+   * Derive an observable which serializes events by synchronizing on a private
+   * mutex while passing them downstream.
+   * 
+   * @return the derived observable
+   * @see #serialize()
+   */
   default Observable<M> synchronize() {
     return synchronize(new Object());
   }
 
+  /**
+   * Derive an observable which serializes events by synchronizing on the given
+   * mutex while passing them downstream. This may be used to serialize events
+   * across several observables, but producers block one another for the
+   * duration of downstream processing.
+   * 
+   * @param mutex
+   *          the object to synchronize on
+   * @return the derived observable
+   * @see #serialize()
+   */
   default Observable<M> synchronize(Object mutex) {
     return observer -> observe(new SynchronizedObserver<>(observer, mutex));
   }
@@ -561,6 +687,266 @@ public interface Observable<M> {
     return reduceBackpressure(m -> m, accumulator);
   }
 
+  /**
+   * Introduce backpressure by holding messages in a bounded buffer until a
+   * request is made downstream.
+   * <p>
+   * An unbounded request is made to the upstream observable, so it is not
+   * required to support backpressure.
+   * 
+   * @param capacity
+   *          the maximum number of messages to buffer
+   * @param overflowStrategy
+   *          the strategy for dealing with messages which arrive when the buffer
+   *          is full
+   * @return an observable over the buffered messages
+   */
+  default Observable<M> buffer(int capacity, OverflowStrategy overflowStrategy) {
+    return observer -> observe(new BufferingObserver<>(observer, capacity, overflowStrategy));
+  }
+
+  /**
+   * As {@link #sample(Duration, Scheduler)} using the {@link Scheduler#shared()
+   * shared scheduler}.
+   * 
+   * @param period
+   *          the sampling period
+   * @return an observable over the sampled messages
+   */
+  default Observable<M> sample(Duration period) {
+    return sample(period, Scheduler.shared());
+  }
+
+  /**
+   * As {@link #sample(Duration, Scheduler)} using a scheduler over the given
+   * executor.
+   * 
+   * @param period
+   *          the sampling period
+   * @param executor
+   *          the executor on which to schedule sampling
+   * @return an observable over the sampled messages
+   */
+  default Observable<M> sample(Duration period, ScheduledExecutorService executor) {
+    return sample(period, Scheduler.over(executor));
+  }
+
+  /**
+   * Introduce backpressure by periodically forwarding the most recent message,
+   * if a new message has arrived within the period.
+   * <p>
+   * An unbounded request is made to the upstream observable, so it is not
+   * required to support backpressure.
+   * 
+   * @param period
+   *          the sampling period
+   * @param scheduler
+   *          the scheduler on which to schedule sampling
+   * @return an observable over the sampled messages
+   */
+  default Observable<M> sample(Duration period, Scheduler scheduler) {
+    return observer -> observe(new SamplingObserver<>(observer, period, scheduler));
+  }
+
+  /**
+   * As {@link #throttleLatest(Duration, Scheduler)} using the
+   * {@link Scheduler#shared() shared scheduler}.
+   * 
+   * @param window
+   *          the minimum time between forwarded messages
+   * @return an observable over the throttled messages
+   */
+  default Observable<M> throttleLatest(Duration window) {
+    return throttleLatest(window, Scheduler.shared());
+  }
+
+  /**
+   * As {@link #throttleLatest(Duration, Scheduler)} using a scheduler over the
+   * given executor.
+   * 
+   * @param window
+   *          the minimum time between forwarded messages
+   * @param executor
+   *          the executor on which to schedule the end of each window
+   * @return an observable over the throttled messages
+   */
+  default Observable<M> throttleLatest(Duration window, ScheduledExecutorService executor) {
+    return throttleLatest(window, Scheduler.over(executor));
+  }
+
+  /**
+   * Introduce backpressure by forwarding a message, then forwarding only the
+   * most recent message to arrive within each subsequent window of the given
+   * duration.
+   * <p>
+   * An unbounded request is made to the upstream observable, so it is not
+   * required to support backpressure.
+   * 
+   * @param window
+   *          the minimum time between forwarded messages
+   * @param scheduler
+   *          the scheduler on which to schedule the end of each window
+   * @return an observable over the throttled messages
+   */
+  default Observable<M> throttleLatest(Duration window, Scheduler scheduler) {
+    return observer -> observe(new ThrottlingObserver<>(observer, window, scheduler));
+  }
+
+  /**
+   * As {@link #debounce(Duration, Scheduler)} using the
+   * {@link Scheduler#shared() shared scheduler}.
+   * 
+   * @param quietPeriod
+   *          the time which must pass without a new message before the most
+   *          recent message is forwarded
+   * @return an observable over the debounced messages
+   */
+  default Observable<M> debounce(Duration quietPeriod) {
+    return debounce(quietPeriod, Scheduler.shared());
+  }
+
+  /**
+   * Forward a message only once the given quiet period has passed without a
+   * further message arriving.
+   * <p>
+   * An unbounded request is made to the upstream observable, so it is not
+   * required to support backpressure.
+   * 
+   * @param quietPeriod
+   *          the time which must pass without a new message before the most
+   *          recent message is forwarded
+   * @param scheduler
+   *          the scheduler on which to schedule the end of each quiet period
+   * @return an observable over the debounced messages
+   */
+  default Observable<M> debounce(Duration quietPeriod, Scheduler scheduler) {
+    return observer -> observe(new DebouncingObserver<>(observer, quietPeriod, scheduler));
+  }
+
+  /**
+   * As {@link #window(Duration, Scheduler)} using the
+   * {@link Scheduler#shared() shared scheduler}.
+   * 
+   * @param period
+   *          the duration of each window
+   * @return an observable over lists of the messages in each window
+   */
+  default Observable<List<M>> window(Duration period) {
+    return window(period, Scheduler.shared());
+  }
+
+  /**
+   * Collect messages into consecutive windows of the given duration, forwarding
+   * the messages of each non-empty window as a list at the end of its period.
+   * <p>
+   * An unbounded request is made to the upstream observable, so it is not
+   * required to support backpressure. While no request is outstanding
+   * downstream the current window is extended without bound, so
+   * {@link #window(Duration, int, Scheduler)} should be preferred where
+   * downstream demand may lag.
+   * 
+   * @param period
+   *          the duration of each window
+   * @param scheduler
+   *          the scheduler on which to schedule the end of each window
+   * @return an observable over lists of the messages in each window
+   */
+  default Observable<List<M>> window(Duration period, Scheduler scheduler) {
+    return observer -> observe(new WindowingObserver<>(observer, period, scheduler));
+  }
+
+  /**
+   * As {@link #window(Duration, int, Scheduler)} using the
+   * {@link Scheduler#shared() shared scheduler}.
+   * 
+   * @param period
+   *          the duration of each window
+   * @param maximumSize
+   *          the maximum number of messages in a window
+   * @return an observable over lists of the messages in each window
+   */
+  default Observable<List<M>> window(Duration period, int maximumSize) {
+    return window(period, maximumSize, Scheduler.shared());
+  }
+
+  /**
+   * Collect messages into consecutive windows of the given duration, forwarding
+   * the messages of each non-empty window as a list at the end of its period,
+   * or as soon as it is full if that comes sooner.
+   * <p>
+   * An unbounded request is made to the upstream observable, so it is not
+   * required to support backpressure. If a window is full and no request is
+   * outstanding downstream, the observation fails with a
+   * {@link MessageOverflowException}.
+   * 
+   * @param period
+   *          the duration of each window
+   * @param maximumSize
+   *          the maximum number of messages in a window
+   * @param scheduler
+   *          the scheduler on which to schedule the end of each window
+   * @return an observable over lists of the messages in each window
+   */
+  default Observable<List<M>> window(Duration period, int maximumSize, Scheduler scheduler) {
+    return observer -> observe(
+        new WindowingObserver<>(observer, period, maximumSize, scheduler));
+  }
+
+  /**
+   * As {@link #timeout(Duration, Scheduler)} using the
+   * {@link Scheduler#shared() shared scheduler}.
+   * 
+   * @param timeout
+   *          the maximum time to wait for each message
+   * @return an observable over the same messages which fails if they do not
+   *         arrive in time
+   */
+  default Observable<M> timeout(Duration timeout) {
+    return timeout(timeout, Scheduler.shared());
+  }
+
+  /**
+   * Fail with a {@link java.util.concurrent.TimeoutException} if no message
+   * arrives within the given timeout of the start of the observation or of the
+   * previous message.
+   * 
+   * @param timeout
+   *          the maximum time to wait for each message
+   * @param scheduler
+   *          the scheduler on which to schedule the timeout
+   * @return an observable over the same messages which fails if they do not
+   *         arrive in time
+   */
+  default Observable<M> timeout(Duration timeout, Scheduler scheduler) {
+    return observer -> observe(new TimeoutObserver<>(observer, timeout, scheduler));
+  }
+
+  /**
+   * As {@link #delay(Duration, Scheduler)} using the {@link Scheduler#shared()
+   * shared scheduler}.
+   * 
+   * @param delay
+   *          the delay before each message is forwarded
+   * @return an observable over the delayed messages
+   */
+  default Observable<M> delay(Duration delay) {
+    return delay(delay, Scheduler.shared());
+  }
+
+  /**
+   * Forward each message, and completion, after the given delay. Failure is
+   * forwarded immediately.
+   * 
+   * @param delay
+   *          the delay before each message is forwarded
+   * @param scheduler
+   *          the scheduler on which to forward delayed messages
+   * @return an observable over the delayed messages
+   */
+  default Observable<M> delay(Duration delay, Scheduler scheduler) {
+    return observer -> observe(new DelayingObserver<>(observer, delay, scheduler));
+  }
+
   default <R, A> CompletableFuture<R> collect(Collector<? super M, A, ? extends R> collector) {
     return reduce(collector.supplier(), (a, m) -> {
       collector.accumulator();
@@ -642,4 +1028,46 @@ public interface Observable<M> {
   static <T> Observable<T> empty() {
     return new ImmutableObservable<>();
   }
+
+  /**
+   * As {@link #interval(Duration, Scheduler)} using the
+   * {@link Scheduler#shared() shared scheduler}.
+   * 
+   * @param period
+   *          the period between messages
+   * @return an observable over the number of elapsed periods
+   */
+  static Observable<Long> interval(Duration period) {
+    return interval(period, Scheduler.shared());
+  }
+
+  /**
+   * Derive an observable which produces an ascending sequence of numbers,
+   * starting from 0, at the end of each period after an observation begins.
+   * Numbers which are due when no request is outstanding are dropped.
+   * 
+   * @param period
+   *          the period between messages
+   * @param scheduler
+   *          the scheduler on which to produce messages
+   * @return an observable over the number of elapsed periods
+   */
+  static Observable<Long> interval(Duration period, Scheduler scheduler) {
+    return new IntervalObservable(period, scheduler);
+  }
+
+  /**
+   * Derive an observable over the messages of a {@link Flow.Publisher}. Each
+   * observation makes a new subscription to the publisher, and requests from
+   * the observer are passed directly upstream.
+   * 
+   * @param <M>
+   *          the message type
+   * @param publisher
+   *          the publisher to observe
+   * @return an observable over the messages of the publisher
+   */
+  static <M> Observable<M> fromPublisher(Flow.Publisher<? extends M> publisher) {
+    return new PublisherObservable<>(publisher);
+  }
 }
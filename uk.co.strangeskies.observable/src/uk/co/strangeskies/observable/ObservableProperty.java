@@ -33,6 +33,7 @@
 package uk.co.strangeskies.observable;
 
 import java.util.Optional;
+import java.util.concurrent.Executor;
 
 import uk.co.strangeskies.property.Property;
 
@@ -60,6 +61,23 @@ public interface ObservableProperty<T> extends ObservableValue<T>, Property<T> {
     return new ObservablePropertyImpl<>(initialValue);
   }
 
+  /**
+   * Instantiate an observable property which conflates updates, such that
+   * setting the property never blocks on observers, and observers receive only
+   * the latest value each time the property is drained on the given executor.
+   * 
+   * @param <T>
+   *          the type of event message to produce and which we may assign from
+   * @param initialValue
+   *          the initial value
+   * @param executor
+   *          the executor on which to deliver updates to observers
+   * @return a conflating observable property with the given default value
+   */
+  static <T> ObservableProperty<T> conflated(T initialValue, Executor executor) {
+    return new ConflatingObservableProperty<>(initialValue, executor);
+  }
+
   void setProblem(Throwable t);
 
   @Override
@@ -35,6 +35,7 @@ package uk.co.strangeskies.observable;
 import static java.util.Objects.requireNonNull;
 
 import java.util.Objects;
+import java.util.Optional;
 
 /**
  * A simple implementation of {@link ObservableProperty} which maintains a list
@@ -48,61 +49,81 @@ import java.util.Objects;
  *          the type of event message to produce
  */
 public class ObservablePropertyImpl<T> implements ObservableProperty<T> {
+  private static class ImmutableChange<T> implements Change<T> {
+    private final ObservableValue<T> previousValue;
+    private final ObservableValue<T> newValue;
+
+    ImmutableChange(ObservableValue<T> previousValue, ObservableValue<T> newValue) {
+      this.previousValue = previousValue;
+      this.newValue = newValue;
+    }
+
+    @Override
+    public ObservableValue<T> previousValue() {
+      return previousValue;
+    }
+
+    @Override
+    public ObservableValue<T> newValue() {
+      return newValue;
+    }
+  }
+
   private final HotObservable<T> backingObservable;
+  private final HotObservable<Change<T>> changeObservable;
+  private final Observable<Change<T>> changes;
 
   private T value;
   private Throwable failure;
+  private ObservableValue<T> state;
 
   public ObservablePropertyImpl(T initialValue) {
     this.backingObservable = new HotObservable<>();
+    this.changeObservable = new HotObservable<>();
+    this.changes = changeObservable::observe;
     this.value = requireNonNull(initialValue);
   }
 
   public ObservablePropertyImpl(Throwable initialProblem) {
     this.backingObservable = new HotObservable<>();
+    this.changeObservable = new HotObservable<>();
+    this.changes = changeObservable::observe;
     this.failure = requireNonNull(initialProblem);
   }
 
+  /*
+   * A read-only view, so that callers cannot push events through the backing
+   * hot observable.
+   */
   @Override
   public Observable<Change<T>> changes() {
-    return observer -> backingObservable.materialize().repeating().observe(
-        new PassthroughObserver<Observable<T>, Change<T>>(observer) {
-          private ObservableValue<T> previousValue;
-
-          @Override
-          public void onObserve(Observation observation) {
-            this.previousValue = currentState();
-            super.onObserve(observation);
-          }
-
-          @Override
-          public void onNext(Observable<T> message) {
-            ObservableValue<T> previousValue = this.previousValue;
-            ObservableValue<T> nextValue = message.toValue();
-
-            this.previousValue = nextValue;
-
-            getDownstreamObserver().onNext(new Change<T>() {
-              @Override
-              public ObservableValue<T> previousValue() {
-                return previousValue;
-              }
-
-              @Override
-              public ObservableValue<T> newValue() {
-                return nextValue;
-              }
-            });
-          }
-        });
+    return changes;
   }
 
-  public ObservableValue<T> currentState() {
-    if (value != null) {
-      return Observable.value(value);
-    } else {
-      return Observable.failingValue(failure);
+  /**
+   * @return an immutable snapshot of the current state of the property
+   */
+  public synchronized ObservableValue<T> currentState() {
+    if (state == null) {
+      state = value != null
+          ? new ImmutableObservableValue<>(value)
+          : new ImmutableObservableValue<>(failure);
     }
+    return state;
+  }
+
+  /*
+   * A single change record is shared between all change observers, so the
+   * number of allocations per change does not depend on the number of
+   * observers.
+   */
+  private void fireChange(ObservableValue<T> previousState) {
+    if (previousState != null)
+      changeObservable.next(new ImmutableChange<>(previousState, currentState()));
+  }
+
+  private ObservableValue<T> previousStateForChange() {
+    return changeObservable.hasObservers() ? currentState() : null;
   }
 
   @Override
@@ -127,9 +148,12 @@ public class ObservablePropertyImpl<T> implements ObservableProperty<T> {
 
     backingObservable.next(value);
 
+    ObservableValue<T> previousState = previousStateForChange();
     T previous = this.value;
     failure = null;
     this.value = value;
+    state = null;
+    fireChange(previousState);
 
     return previous;
   }
@@ -138,8 +162,11 @@ public class ObservablePropertyImpl<T> implements ObservableProperty<T> {
   public synchronized void setProblem(Throwable t) {
     backingObservable.fail(t);
 
+    ObservableValue<T> previousState = previousStateForChange();
     value = null;
     failure = t;
+    state = null;
+    fireChange(previousState);
 
     backingObservable.start();
   }
@@ -150,4 +177,26 @@ public class ObservablePropertyImpl<T> implements ObservableProperty<T> {
       throw new MissingValueException(this, failure);
     return value;
   }
+
+  @Override
+  public synchronized Optional<T> tryGet() {
+    return Optional.ofNullable(value);
+  }
+
+  @Override
+  public synchronized boolean isValid() {
+    return value != null;
+  }
+
+  @Override
+  public synchronized Throwable getProblem() {
+    if (failure == null)
+      throw new IllegalStateException("No problem with valid property " + this);
+    return failure;
+  }
+
+  @Override
+  public synchronized Optional<Throwable> tryGetProblem() {
+    return Optional.ofNullable(failure);
+  }
 }
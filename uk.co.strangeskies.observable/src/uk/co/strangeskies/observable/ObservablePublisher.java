@@ -0,0 +1,120 @@
+/*
+ * Copyright (C) 2018 Elias N Vasylenko <eliasvasylenko@strangeskies.co.uk>
+ *      __   _______  ____           _       __     _      __       __
+ *    ,`_ `,|__   __||  _ `.        / \     |  \   | |  ,-`__`¬  ,-`__`¬
+ *   ( (_`-'   | |   | | ) |       / . \    | . \  | | / .`  `' / .`  `'
+ *    `._ `.   | |   | |<. L      / / \ \   | |\ \ | || |    _ | '--.
+ *   _   `. \  | |   | |  `.`.   / /   \ \  | | \ \| || |   | || +--'
+ *  \ \__.' /  | |   | |    \ \ / /     \ \ | |  \ ` | \ `._' | \ `.__,.
+ *   `.__.-`   |_|   |_|    |_|/_/       \_\|_|   \__|  `-.__.J  `-.__.J
+ *                   __    _         _      __      __
+ *                 ,`_ `, | |  _    | |  ,-`__`¬  ,`_ `,
+ *                ( (_`-' | | ) |   | | / .`  `' ( (_`-'
+ *                 `._ `. | L-' L   | || '--.     `._ `.
+ *                _   `. \| ,.-^.`. | || +--'    _   `. \
+ *               \ \__.' /| |    \ \| | \ `.__,.\ \__.' /
+ *                `.__.-` |_|    |_||_|  `-.__.J `.__.-`
+ *
+ * This file is part of uk.co.strangeskies.observable.
+ *
+ * uk.co.strangeskies.observable is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * uk.co.strangeskies.observable is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package uk.co.strangeskies.observable;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.concurrent.Flow;
+
+/**
+ * An adapter from an {@link Observable} to a {@link Flow.Publisher}.
+ * <p>
+ * Each subscription makes a new observation of the underlying observable, and
+ * requests made through the {@link Flow.Subscription subscription} are passed
+ * directly upstream, so no buffering is introduced between the two.
+ * 
+ * @author Elias N Vasylenko
+ * @param <M>
+ *          The type of message to publish
+ */
+public class ObservablePublisher<M> implements Flow.Publisher<M> {
+  private final Observable<? extends M> observable;
+
+  public ObservablePublisher(Observable<? extends M> observable) {
+    this.observable = requireNonNull(observable);
+  }
+
+  @Override
+  public void subscribe(Flow.Subscriber<? super M> subscriber) {
+    requireNonNull(subscriber);
+
+    observable.observe(new SubscriberObserver<>(subscriber).serialized());
+  }
+
+  static class SubscriberObserver<M> implements Observer<M>, Flow.Subscription {
+    private final Flow.Subscriber<? super M> subscriber;
+    private final Observer<M> serializedObserver;
+    private volatile Observation observation;
+
+    SubscriberObserver(Flow.Subscriber<? super M> subscriber) {
+      this.subscriber = subscriber;
+      this.serializedObserver = new SerializingObserver<>(this);
+    }
+
+    /*
+     * A failure due to an invalid request may be signalled by the subscriber
+     * concurrently with messages from upstream, so all events are passed through
+     * a serializing observer.
+     */
+    Observer<M> serialized() {
+      return serializedObserver;
+    }
+
+    @Override
+    public void onObserve(Observation observation) {
+      this.observation = observation;
+      subscriber.onSubscribe(this);
+    }
+
+    @Override
+    public void onNext(M message) {
+      subscriber.onNext(message);
+    }
+
+    @Override
+    public void onComplete() {
+      subscriber.onComplete();
+    }
+
+    @Override
+    public void onFail(Throwable t) {
+      subscriber.onError(t);
+    }
+
+    @Override
+    public void request(long count) {
+      if (count <= 0) {
+        observation.cancel();
+        serializedObserver
+            .onFail(new IllegalArgumentException("Request count must be positive " + count));
+      } else {
+        observation.request(count);
+      }
+    }
+
+    @Override
+    public void cancel() {
+      observation.cancel();
+    }
+  }
+}
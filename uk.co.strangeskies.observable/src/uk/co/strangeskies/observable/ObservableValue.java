@@ -117,6 +117,15 @@ public interface ObservableValue<T> extends Observable<T> {
     return tryGet().filter(value::test).isPresent();
   }
 
+  /**
+   * Immediately resolve the current failure state. Implementations which hold
+   * their state directly should override this method, and the methods which
+   * depend on it, to avoid throwing and catching exceptions.
+   * 
+   * @return the current problem
+   * @throws IllegalStateException
+   *           if the current value is valid
+   */
   default Throwable getProblem() {
     try {
       get();
@@ -127,11 +136,7 @@ public interface ObservableValue<T> extends Observable<T> {
   }
 
   default Optional<Throwable> tryGetProblem() {
-    try {
-      return Optional.of(getProblem());
-    } catch (IllegalStateException e) {
-      return Optional.empty();
-    }
+    return isValid() ? Optional.empty() : Optional.of(getProblem());
   }
 
   /**
@@ -0,0 +1,190 @@
+/*
+ * Copyright (C) 2018 Elias N Vasylenko <eliasvasylenko@strangeskies.co.uk>
+ *      __   _______  ____           _       __     _      __       __
+ *    ,`_ `,|__   __||  _ `.        / \     |  \   | |  ,-`__`¬  ,-`__`¬
+ *   ( (_`-'   | |   | | ) |       / . \    | . \  | | / .`  `' / .`  `'
+ *    `._ `.   | |   | |<. L      / / \ \   | |\ \ | || |    _ | '--.
+ *   _   `. \  | |   | |  `.`.   / /   \ \  | | \ \| || |   | || +--'
+ *  \ \__.' /  | |   | |    \ \ / /     \ \ | |  \ ` | \ `._' | \ `.__,.
+ *   `.__.-`   |_|   |_|    |_|/_/       \_\|_|   \__|  `-.__.J  `-.__.J
+ *                   __    _         _      __      __
+ *                 ,`_ `, | |  _    | |  ,-`__`¬  ,`_ `,
+ *                ( (_`-' | | ) |   | | / .`  `' ( (_`-'
+ *                 `._ `. | L-' L   | || '--.     `._ `.
+ *                _   `. \| ,.-^.`. | || +--'    _   `. \
+ *               \ \__.' /| |    \ \| | \ `.__,.\ \__.' /
+ *                `.__.-` |_|    |_||_|  `-.__.J `.__.-`
+ *
+ * This file is part of uk.co.strangeskies.observable.
+ *
+ * uk.co.strangeskies.observable is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * uk.co.strangeskies.observable is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package uk.co.strangeskies.observable;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.BiFunction;
+import java.util.function.BinaryOperator;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * A view of an {@link Observable} whose messages are fanned out round-robin to
+ * a number of rails, such that processing stages may be applied concurrently
+ * on a given executor.
+ * <p>
+ * Stages are composed lazily, and no observation is made until the rails are
+ * merged back into an observable or reduced.
+ * 
+ * @author Elias N Vasylenko
+ *
+ * @param <M>
+ *          The message type of the rails
+ */
+public class ParallelObservable<M> {
+  private final Observable<Object> source;
+  private final int railCount;
+  private final Executor executor;
+  private final Function<Object, ? extends M> stage;
+
+  @SuppressWarnings("unchecked")
+  protected <S> ParallelObservable(
+      Observable<S> source,
+      int railCount,
+      Executor executor,
+      Function<? super S, ? extends M> stage) {
+    if (railCount <= 0)
+      throw new IllegalArgumentException("Rail count must be positive " + railCount);
+
+    this.source = (Observable<Object>) requireNonNull(source);
+    this.railCount = railCount;
+    this.executor = requireNonNull(executor);
+    this.stage = (Function<Object, ? extends M>) requireNonNull(stage);
+  }
+
+  public int getRailCount() {
+    return railCount;
+  }
+
+  /**
+   * Derive parallel rails by applying the given mapping to each message on its
+   * rail.
+   * 
+   * @param <T>
+   *          the type of the mapped messages
+   * @param mapping
+   *          the mapping function
+   * @return the derived rails
+   */
+  public <T> ParallelObservable<T> map(Function<? super M, ? extends T> mapping) {
+    requireNonNull(mapping);
+    return new ParallelObservable<>(source, railCount, executor, m -> {
+      M message = stage.apply(m);
+      return message == null
+          ? null
+          : requireNonNull(mapping.apply(message), "Observable message must not be null");
+    });
+  }
+
+  /**
+   * Derive parallel rails by filtering the messages on each rail by the given
+   * condition.
+   * 
+   * @param condition
+   *          the filter condition
+   * @return the derived rails
+   */
+  public ParallelObservable<M> filter(Predicate<? super M> condition) {
+    requireNonNull(condition);
+    return new ParallelObservable<>(source, railCount, executor, m -> {
+      M message = stage.apply(m);
+      return message == null || !condition.test(message) ? null : message;
+    });
+  }
+
+  /**
+   * Merge the rails into a single observable, passing results downstream in the
+   * order they become available.
+   * 
+   * @return the merged observable
+   */
+  public Observable<M> merge() {
+    return observer -> source
+        .observe(new ParallelObserver<>(observer, railCount, executor, stage, false));
+  }
+
+  /**
+   * Merge the rails into a single observable, passing results downstream in the
+   * order in which the original messages were received. Results which are
+   * completed early are held until all earlier results are available.
+   * 
+   * @return the merged observable
+   */
+  public Observable<M> mergeOrdered() {
+    return observer -> source
+        .observe(new ParallelObserver<>(observer, railCount, executor, stage, true));
+  }
+
+  /**
+   * Reduce the messages on each rail independently, then combine the results of
+   * each rail upon completion. All messages are requested from upstream.
+   * 
+   * @param <R>
+   *          the type of the reduction
+   * @param identity
+   *          the initial reduction for each rail
+   * @param accumulator
+   *          the function to accumulate a message into a reduction
+   * @param combiner
+   *          the function to combine the reductions of two rails
+   * @return a future over the combined reduction
+   */
+  public <R> CompletableFuture<R> reduce(
+      Supplier<R> identity,
+      BiFunction<R, ? super M, R> accumulator,
+      BinaryOperator<R> combiner) {
+    CompletableFuture<R> future = new CompletableFuture<>();
+
+    source
+        .observe(
+            new ParallelReducingObserver<>(
+                new Observer<R>() {
+                  @Override
+                  public void onObserve(Observation observation) {
+                    observation.requestUnbounded();
+                  }
+
+                  @Override
+                  public void onNext(R message) {
+                    future.complete(message);
+                  }
+
+                  @Override
+                  public void onFail(Throwable t) {
+                    future.completeExceptionally(t);
+                  }
+                },
+                railCount,
+                executor,
+                stage,
+                identity,
+                accumulator,
+                combiner));
+
+    return future;
+  }
+}
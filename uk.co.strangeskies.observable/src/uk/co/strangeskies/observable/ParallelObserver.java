@@ -0,0 +1,338 @@
+/*
+ * Copyright (C) 2018 Elias N Vasylenko <eliasvasylenko@strangeskies.co.uk>
+ *      __   _______  ____           _       __     _      __       __
+ *    ,`_ `,|__   __||  _ `.        / \     |  \   | |  ,-`__`¬  ,-`__`¬
+ *   ( (_`-'   | |   | | ) |       / . \    | . \  | | / .`  `' / .`  `'
+ *    `._ `.   | |   | |<. L      / / \ \   | |\ \ | || |    _ | '--.
+ *   _   `. \  | |   | |  `.`.   / /   \ \  | | \ \| || |   | || +--'
+ *  \ \__.' /  | |   | |    \ \ / /     \ \ | |  \ ` | \ `._' | \ `.__,.
+ *   `.__.-`   |_|   |_|    |_|/_/       \_\|_|   \__|  `-.__.J  `-.__.J
+ *                   __    _         _      __      __
+ *                 ,`_ `, | |  _    | |  ,-`__`¬  ,`_ `,
+ *                ( (_`-' | | ) |   | | / .`  `' ( (_`-'
+ *                 `._ `. | L-' L   | || '--.     `._ `.
+ *                _   `. \| ,.-^.`. | || +--'    _   `. \
+ *               \ \__.' /| |    \ \| | \ `.__,.\ \__.' /
+ *                `.__.-` |_|    |_||_|  `-.__.J `.__.-`
+ *
+ * This file is part of uk.co.strangeskies.observable.
+ *
+ * uk.co.strangeskies.observable is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * uk.co.strangeskies.observable is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package uk.co.strangeskies.observable;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * An observer which fans messages out round-robin to a number of rails, each of
+ * which applies a processing stage on the given executor, before merging the
+ * results back together for the downstream observer.
+ * <p>
+ * Results may be merged in the order they become available, or in the order
+ * the messages were originally received. Requests from downstream are passed
+ * directly upstream, and a further message is requested for each message which
+ * is dropped by the processing stage, so the processing stage may only run
+ * concurrently across rails to the extent that the downstream observer makes
+ * requests in advance.
+ * 
+ * @author Elias N Vasylenko
+ *
+ * @param <M>
+ *          The message type of the upstream observable
+ * @param <T>
+ *          The message type of the downstream observer
+ */
+public class ParallelObserver<M, T> extends PassthroughObserver<M, T> {
+  /*
+   * A result to mark a message which has been processed but which should not be
+   * passed downstream.
+   */
+  static final Object DROPPED = new Object();
+
+  private static class Sequenced<M> {
+    private final long sequence;
+    private final M message;
+
+    Sequenced(long sequence, M message) {
+      this.sequence = sequence;
+      this.message = message;
+    }
+  }
+
+  private class Rail implements Runnable {
+    private final int index;
+    private final Queue<Sequenced<M>> messages = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger drainRequests = new AtomicInteger();
+
+    Rail(int index) {
+      this.index = index;
+    }
+
+    void offer(Sequenced<M> message) {
+      messages.offer(message);
+      if (drainRequests.getAndIncrement() == 0)
+        executor.execute(this);
+    }
+
+    @Override
+    public void run() {
+      int missed = 1;
+      do {
+        Sequenced<M> message;
+        while (!cancelled && (message = messages.poll()) != null) {
+          Object result;
+          try {
+            result = process(index, message.message);
+          } catch (Throwable t) {
+            fail(t);
+            break;
+          }
+          merge(message.sequence, result);
+        }
+
+        if (cancelled)
+          messages.clear();
+
+        missed = drainRequests.addAndGet(-missed);
+      } while (missed != 0);
+    }
+  }
+
+  private final Executor executor;
+  private final Function<? super M, ? extends T> stage;
+  private final boolean ordered;
+
+  private final List<Rail> rails;
+  private long sequence;
+
+  private final Map<Long, Object> orderedResults;
+  private final Queue<Object> unorderedResults;
+  private final AtomicInteger mergeRequests = new AtomicInteger();
+  private long nextSequence;
+  private long merged;
+  private boolean terminated;
+
+  private volatile boolean done;
+  private volatile long total;
+  private volatile Throwable failure;
+  private volatile boolean cancelled;
+
+  /**
+   * @param downstreamObserver
+   *          the downstream observer
+   * @param railCount
+   *          the number of rails to process messages on
+   * @param executor
+   *          the executor on which to process messages
+   * @param stage
+   *          the processing stage to apply to each message, returning null to
+   *          drop a message
+   * @param ordered
+   *          whether results should be merged in the order messages were
+   *          received
+   */
+  public ParallelObserver(
+      Observer<? super T> downstreamObserver,
+      int railCount,
+      Executor executor,
+      Function<? super M, ? extends T> stage,
+      boolean ordered) {
+    super(downstreamObserver);
+
+    if (railCount <= 0)
+      throw new IllegalArgumentException("Rail count must be positive " + railCount);
+
+    this.executor = requireNonNull(executor);
+    this.stage = requireNonNull(stage);
+    this.ordered = ordered;
+
+    this.rails = new ArrayList<>(railCount);
+    for (int i = 0; i < railCount; i++)
+      rails.add(new Rail(i));
+
+    if (ordered) {
+      orderedResults = new ConcurrentHashMap<>();
+      unorderedResults = null;
+    } else {
+      orderedResults = null;
+      unorderedResults = new ConcurrentLinkedQueue<>();
+    }
+  }
+
+  protected int getRailCount() {
+    return rails.size();
+  }
+
+  /**
+   * Process a message on the given rail. Invocations for a given rail never
+   * overlap, so implementations may keep per-rail state without further
+   * synchronization.
+   * 
+   * @param rail
+   *          the index of the rail
+   * @param message
+   *          the message to process
+   * @return the result to pass downstream, or {@link #DROPPED}
+   */
+  protected Object process(int rail, M message) {
+    T result = stage.apply(message);
+    return result == null ? DROPPED : result;
+  }
+
+  /**
+   * Invoked once every message has been processed and merged, after upstream
+   * completion.
+   */
+  protected void completeDownstream() {
+    getDownstreamObserver().onComplete();
+  }
+
+  @Override
+  public void onObserve(Observation observation) {
+    initializeObservation(observation);
+    getDownstreamObserver().onObserve(new Observation() {
+      @Override
+      public void cancel() {
+        cancelled = true;
+        observation.cancel();
+      }
+
+      @Override
+      public void request(long count) {
+        observation.request(count);
+      }
+
+      @Override
+      public long getPendingRequestCount() {
+        return observation.getPendingRequestCount();
+      }
+    });
+  }
+
+  @Override
+  public void onNext(M message) {
+    long sequence = this.sequence++;
+    rails.get((int) (sequence % rails.size())).offer(new Sequenced<>(sequence, message));
+  }
+
+  @Override
+  public void onComplete() {
+    total = sequence;
+    done = true;
+    drainResults();
+  }
+
+  @Override
+  public void onFail(Throwable t) {
+    failure = t;
+    done = true;
+    drainResults();
+  }
+
+  private void fail(Throwable t) {
+    /*
+     * The failure must be visible before cancellation, otherwise the merging
+     * thread may see the cancellation and terminate without passing it on.
+     */
+    failure = t;
+    done = true;
+    cancelled = true;
+    getObservation().cancel();
+    drainResults();
+  }
+
+  private void merge(long sequence, Object result) {
+    if (ordered)
+      orderedResults.put(sequence, result);
+    else
+      unorderedResults.offer(result);
+    drainResults();
+  }
+
+  private Object pollResult() {
+    if (ordered) {
+      Object result = orderedResults.remove(nextSequence);
+      if (result != null)
+        nextSequence++;
+      return result;
+    } else {
+      return unorderedResults.poll();
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private void drainResults() {
+    if (mergeRequests.getAndIncrement() != 0)
+      return;
+
+    int missed = 1;
+    do {
+      while (!terminated) {
+        Throwable failure = this.failure;
+        if (failure != null) {
+          terminated = true;
+          cancelled = true;
+          getDownstreamObserver().onFail(failure);
+          break;
+        }
+
+        if (cancelled) {
+          terminated = true;
+          break;
+        }
+
+        /*
+         * We must check for completion before polling, otherwise the last
+         * result may arrive between an empty poll and the check.
+         */
+        boolean done = this.done;
+        Object result = pollResult();
+
+        if (result != null) {
+          merged++;
+          if (result == DROPPED)
+            getObservation().requestNext();
+          else
+            getDownstreamObserver().onNext((T) result);
+
+        } else {
+          if (done && merged == total) {
+            terminated = true;
+            completeDownstream();
+          }
+          break;
+        }
+      }
+
+      if (terminated) {
+        if (ordered)
+          orderedResults.clear();
+        else
+          unorderedResults.clear();
+      }
+
+      missed = mergeRequests.addAndGet(-missed);
+    } while (missed != 0);
+  }
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright (C) 2018 Elias N Vasylenko <eliasvasylenko@strangeskies.co.uk>
+ *      __   _______  ____           _       __     _      __       __
+ *    ,`_ `,|__   __||  _ `.        / \     |  \   | |  ,-`__`¬  ,-`__`¬
+ *   ( (_`-'   | |   | | ) |       / . \    | . \  | | / .`  `' / .`  `'
+ *    `._ `.   | |   | |<. L      / / \ \   | |\ \ | || |    _ | '--.
+ *   _   `. \  | |   | |  `.`.   / /   \ \  | | \ \| || |   | || +--'
+ *  \ \__.' /  | |   | |    \ \ / /     \ \ | |  \ ` | \ `._' | \ `.__,.
+ *   `.__.-`   |_|   |_|    |_|/_/       \_\|_|   \__|  `-.__.J  `-.__.J
+ *                   __    _         _      __      __
+ *                 ,`_ `, | |  _    | |  ,-`__`¬  ,`_ `,
+ *                ( (_`-' | | ) |   | | / .`  `' ( (_`-'
+ *                 `._ `. | L-' L   | || '--.     `._ `.
+ *                _   `. \| ,.-^.`. | || +--'    _   `. \
+ *               \ \__.' /| |    \ \| | \ `.__,.\ \__.' /
+ *                `.__.-` |_|    |_||_|  `-.__.J `.__.-`
+ *
+ * This file is part of uk.co.strangeskies.observable.
+ *
+ * uk.co.strangeskies.observable is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * uk.co.strangeskies.observable is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package uk.co.strangeskies.observable;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.function.BiFunction;
+import java.util.function.BinaryOperator;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * A {@link ParallelObserver parallel observer} which reduces messages on each
+ * rail independently, then combines the results of each rail into a single
+ * message upon completion.
+ * 
+ * @author Elias N Vasylenko
+ *
+ * @param <M>
+ *          The message type of the upstream observable
+ * @param <T>
+ *          The message type of the processing stage
+ * @param <R>
+ *          The type of the reduction
+ */
+public class ParallelReducingObserver<M, T, R> extends ParallelObserver<M, R> {
+  private final Function<? super M, ? extends T> stage;
+  private final BiFunction<R, ? super T, R> accumulator;
+  private final BinaryOperator<R> combiner;
+  private final List<R> reductions;
+
+  public ParallelReducingObserver(
+      Observer<? super R> downstreamObserver,
+      int railCount,
+      Executor executor,
+      Function<? super M, ? extends T> stage,
+      Supplier<R> identity,
+      BiFunction<R, ? super T, R> accumulator,
+      BinaryOperator<R> combiner) {
+    super(downstreamObserver, railCount, executor, m -> null, false);
+
+    this.stage = requireNonNull(stage);
+    this.accumulator = requireNonNull(accumulator);
+    this.combiner = requireNonNull(combiner);
+
+    this.reductions = new ArrayList<>(railCount);
+    for (int i = 0; i < railCount; i++)
+      reductions.add(identity.get());
+  }
+
+  @Override
+  protected Object process(int rail, M message) {
+    T result = stage.apply(message);
+    if (result != null)
+      reductions.set(rail, accumulator.apply(reductions.get(rail), result));
+    return DROPPED;
+  }
+
+  @Override
+  protected void completeDownstream() {
+    R reduction = reductions.get(0);
+    for (int i = 1; i < reductions.size(); i++)
+      reduction = combiner.apply(reduction, reductions.get(i));
+
+    getDownstreamObserver().onNext(reduction);
+    getDownstreamObserver().onComplete();
+  }
+}
@@ -0,0 +1,212 @@
+/*
+ * Copyright (C) 2018 Elias N Vasylenko <eliasvasylenko@strangeskies.co.uk>
+ *      __   _______  ____           _       __     _      __       __
+ *    ,`_ `,|__   __||  _ `.        / \     |  \   | |  ,-`__`¬  ,-`__`¬
+ *   ( (_`-'   | |   | | ) |       / . \    | . \  | | / .`  `' / .`  `'
+ *    `._ `.   | |   | |<. L      / / \ \   | |\ \ | || |    _ | '--.
+ *   _   `. \  | |   | |  `.`.   / /   \ \  | | \ \| || |   | || +--'
+ *  \ \__.' /  | |   | |    \ \ / /     \ \ | |  \ ` | \ `._' | \ `.__,.
+ *   `.__.-`   |_|   |_|    |_|/_/       \_\|_|   \__|  `-.__.J  `-.__.J
+ *                   __    _         _      __      __
+ *                 ,`_ `, | |  _    | |  ,-`__`¬  ,`_ `,
+ *                ( (_`-' | | ) |   | | / .`  `' ( (_`-'
+ *                 `._ `. | L-' L   | || '--.     `._ `.
+ *                _   `. \| ,.-^.`. | || +--'    _   `. \
+ *               \ \__.' /| |    \ \| | \ `.__,.\ \__.' /
+ *                `.__.-` |_|    |_||_|  `-.__.J `.__.-`
+ *
+ * This file is part of uk.co.strangeskies.observable.
+ *
+ * uk.co.strangeskies.observable is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * uk.co.strangeskies.observable is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package uk.co.strangeskies.observable;
+
+import static java.util.Collections.unmodifiableList;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * The observations between which a {@link FlatMappingObserver} distributes
+ * requests, indexed both by the order in which they were made and by the
+ * number of requests pending on each, so that the standard
+ * {@link RequestAllocator request allocators} need neither scan nor sort them.
+ * <p>
+ * The pending request count of an observation falls as its messages arrive,
+ * so the index holds the count as of the last request made through it or the
+ * last {@link #update(Observation) update}, whichever is later. The index is
+ * not thread safe.
+ * 
+ * @author Elias N Vasylenko
+ *
+ * @param <E>
+ *          The type of the observations
+ */
+class PendingRequestIndex<E extends Observation> {
+  private final Map<E, Long> pendingCounts = new LinkedHashMap<>();
+  private final NavigableMap<Long, Set<E>> buckets = new TreeMap<>();
+  private List<Observation> observations;
+
+  public void add(E observation) {
+    long pending = observation.getPendingRequestCount();
+    pendingCounts.put(observation, pending);
+    bucket(pending).add(observation);
+    observations = null;
+  }
+
+  public void remove(E observation) {
+    Long pending = pendingCounts.remove(observation);
+    if (pending != null) {
+      unbucket(pending, observation);
+      observations = null;
+    }
+  }
+
+  public void update(E observation) {
+    Long previous = pendingCounts.get(observation);
+    if (previous != null)
+      move(observation, previous, observation.getPendingRequestCount());
+  }
+
+  public void clear() {
+    pendingCounts.clear();
+    buckets.clear();
+    observations = null;
+  }
+
+  public boolean isEmpty() {
+    return pendingCounts.isEmpty();
+  }
+
+  public int size() {
+    return pendingCounts.size();
+  }
+
+  /**
+   * @return an unmodifiable list of the observations, in the order they were
+   *         made, which is only copied again once an observation is added or
+   *         removed
+   */
+  public List<Observation> observations() {
+    if (observations == null)
+      observations = unmodifiableList(new ArrayList<>(pendingCounts.keySet()));
+    return observations;
+  }
+
+  private Set<E> bucket(long pending) {
+    return buckets.computeIfAbsent(pending, p -> new LinkedHashSet<>());
+  }
+
+  private void unbucket(long pending, E observation) {
+    Set<E> bucket = buckets.get(pending);
+    bucket.remove(observation);
+    if (bucket.isEmpty())
+      buckets.remove(pending);
+  }
+
+  private void move(E observation, long previous, long pending) {
+    if (pending != previous) {
+      unbucket(previous, observation);
+      pendingCounts.put(observation, pending);
+      bucket(pending).add(observation);
+    }
+  }
+
+  private void request(E observation, long count) {
+    observation.request(count);
+
+    long previous = pendingCounts.get(observation);
+    long pending = previous + count;
+    move(observation, previous, pending < previous ? Long.MAX_VALUE : pending);
+  }
+
+  private long requestUnbounded() {
+    for (E observation : pendingCounts.keySet())
+      request(observation, Long.MAX_VALUE);
+    return Long.MAX_VALUE;
+  }
+
+  /*
+   * As RequestAllocator.sequential().
+   */
+  long allocateSequential(long count) {
+    request(pendingCounts.keySet().iterator().next(), count);
+    return count == Long.MAX_VALUE ? Long.MAX_VALUE : 0;
+  }
+
+  /*
+   * As RequestAllocator.balanced(), visiting only the observations with no
+   * pending requests, in the order they became idle.
+   */
+  long allocateBalanced(long count) {
+    if (count == Long.MAX_VALUE)
+      return requestUnbounded();
+
+    Set<E> idle;
+    while (count > 0 && (idle = buckets.get(0L)) != null) {
+      request(idle.iterator().next(), 1);
+      count--;
+    }
+
+    return count;
+  }
+
+  /*
+   * As RequestAllocator.spread(), visiting only the observations which are
+   * raised to the new baseline, in ascending order of pending requests.
+   */
+  long allocateSpread(long count) {
+    if (count == Long.MAX_VALUE)
+      return requestUnbounded();
+
+    List<E> underBaseline = new ArrayList<>();
+    long pendingUnderBaseline = 0;
+
+    for (Map.Entry<Long, Set<E>> bucket : buckets.entrySet()) {
+      long pending = bucket.getKey();
+      if (pending == Long.MAX_VALUE
+          || (!underBaseline.isEmpty()
+              && pending > (pendingUnderBaseline + count) / underBaseline.size()))
+        break;
+
+      underBaseline.addAll(bucket.getValue());
+      pendingUnderBaseline += pending * bucket.getValue().size();
+    }
+
+    if (underBaseline.isEmpty())
+      return 0;
+
+    long total = pendingUnderBaseline + count;
+    long baseline = total / underBaseline.size();
+    long remainder = total % underBaseline.size();
+
+    for (E observation : underBaseline) {
+      long fulfilled = baseline - pendingCounts.get(observation);
+      if (remainder > 0) {
+        fulfilled++;
+        remainder--;
+      }
+      if (fulfilled > 0)
+        request(observation, fulfilled);
+    }
+
+    return 0;
+  }
+}
@@ -0,0 +1,205 @@
+/*
+ * Copyright (C) 2018 Elias N Vasylenko <eliasvasylenko@strangeskies.co.uk>
+ *      __   _______  ____           _       __     _      __       __
+ *    ,`_ `,|__   __||  _ `.        / \     |  \   | |  ,-`__`¬  ,-`__`¬
+ *   ( (_`-'   | |   | | ) |       / . \    | . \  | | / .`  `' / .`  `'
+ *    `._ `.   | |   | |<. L      / / \ \   | |\ \ | || |    _ | '--.
+ *   _   `. \  | |   | |  `.`.   / /   \ \  | | \ \| || |   | || +--'
+ *  \ \__.' /  | |   | |    \ \ / /     \ \ | |  \ ` | \ `._' | \ `.__,.
+ *   `.__.-`   |_|   |_|    |_|/_/       \_\|_|   \__|  `-.__.J  `-.__.J
+ *                   __    _         _      __      __
+ *                 ,`_ `, | |  _    | |  ,-`__`¬  ,`_ `,
+ *                ( (_`-' | | ) |   | | / .`  `' ( (_`-'
+ *                 `._ `. | L-' L   | || '--.     `._ `.
+ *                _   `. \| ,.-^.`. | || +--'    _   `. \
+ *               \ \__.' /| |    \ \| | \ `.__,.\ \__.' /
+ *                `.__.-` |_|    |_||_|  `-.__.J `.__.-`
+ *
+ * This file is part of uk.co.strangeskies.observable.
+ *
+ * uk.co.strangeskies.observable is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * uk.co.strangeskies.observable is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package uk.co.strangeskies.observable;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Re-emit messages on an executor, in order, with messages being requested
+ * from upstream in batches.
+ * <p>
+ * An initial request is made upstream for the prefetch count, and messages are
+ * held in a bounded single-producer single-consumer queue of that size until
+ * they are requested downstream. Each burst of events is delivered by a single
+ * task on the executor, which drains the queue until it is empty or downstream
+ * demand is exhausted. Whenever three quarters of the prefetch count have been
+ * delivered, that many more messages are requested from upstream.
+ * <p>
+ * The upstream observable must respect backpressure, and its events must be
+ * serialized as per the observer contract. Failure events are passed
+ * downstream as soon as they are observed, discarding any queued messages,
+ * whereas completion events are passed downstream once the queue has been
+ * drained.
+ * 
+ * @author Elias N Vasylenko
+ *
+ * @param <T>
+ *          The message type
+ */
+public class PrefetchingExecutorObserver<T> extends PassthroughObserver<T, T> {
+  private final Executor executor;
+  private final int prefetch;
+  private final int replenishThreshold;
+
+  private final SpscArrayQueue<T> queue;
+  private final RequestCount outstandingRequests = new RequestCount();
+  private final AtomicInteger drainRequests = new AtomicInteger();
+  private final Runnable drainTask = this::drain;
+
+  private Observation upstreamObservation;
+  private Observation downstreamObservation;
+  private volatile boolean done;
+  private volatile Throwable failure;
+  private volatile boolean cancelled;
+
+  private boolean observed;
+  private boolean terminated;
+  private int consumed;
+
+  public PrefetchingExecutorObserver(
+      Observer<? super T> downstreamObserver,
+      Executor executor,
+      int prefetch) {
+    super(downstreamObserver);
+
+    this.executor = requireNonNull(executor);
+
+    if (prefetch <= 0)
+      throw new IllegalArgumentException("Prefetch count must be positive " + prefetch);
+
+    this.prefetch = prefetch;
+    this.replenishThreshold = prefetch - (prefetch >> 2);
+    this.queue = new SpscArrayQueue<>(prefetch);
+  }
+
+  @Override
+  public void onObserve(Observation observation) {
+    upstreamObservation = observation;
+    downstreamObservation = new Observation() {
+      @Override
+      public void request(long count) {
+        outstandingRequests.request(count);
+        schedule();
+      }
+
+      @Override
+      public void cancel() {
+        cancelled = true;
+        observation.cancel();
+        schedule();
+      }
+
+      @Override
+      public long getPendingRequestCount() {
+        return outstandingRequests.getCount();
+      }
+    };
+    initializeObservation(downstreamObservation);
+
+    schedule();
+    observation.request(prefetch);
+  }
+
+  @Override
+  public void onNext(T message) {
+    if (!queue.offer(message)) {
+      upstreamObservation.cancel();
+      onFail(new MessageOverflowException(message, prefetch));
+      return;
+    }
+    schedule();
+  }
+
+  @Override
+  public void onComplete() {
+    done = true;
+    schedule();
+  }
+
+  @Override
+  public void onFail(Throwable t) {
+    failure = t;
+    done = true;
+    schedule();
+  }
+
+  private void schedule() {
+    if (drainRequests.getAndIncrement() == 0)
+      executor.execute(drainTask);
+  }
+
+  private void drain() {
+    int missed = 1;
+
+    if (!observed) {
+      observed = true;
+      getDownstreamObserver().onObserve(downstreamObservation);
+    }
+
+    do {
+      while (!terminated) {
+        if (cancelled) {
+          terminated = true;
+          queue.clear();
+          break;
+        }
+
+        Throwable failure = this.failure;
+        if (failure != null) {
+          terminated = true;
+          queue.clear();
+          getDownstreamObserver().onFail(failure);
+          break;
+        }
+
+        /*
+         * We must check for completion before checking the queue, otherwise a
+         * message may arrive between the two checks.
+         */
+        boolean done = this.done;
+        T message = outstandingRequests.isFulfilled() ? null : queue.poll();
+
+        if (message != null) {
+          outstandingRequests.tryFulfil();
+          getDownstreamObserver().onNext(message);
+
+          if (++consumed == replenishThreshold) {
+            consumed = 0;
+            upstreamObservation.request(replenishThreshold);
+          }
+        } else {
+          if (done && queue.isEmpty()) {
+            terminated = true;
+            getDownstreamObserver().onComplete();
+          }
+          break;
+        }
+      }
+
+      missed = drainRequests.addAndGet(-missed);
+    } while (missed != 0);
+  }
+}
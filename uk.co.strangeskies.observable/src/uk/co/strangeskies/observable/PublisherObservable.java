@@ -0,0 +1,137 @@
+/*
+ * Copyright (C) 2018 Elias N Vasylenko <eliasvasylenko@strangeskies.co.uk>
+ *      __   _______  ____           _       __     _      __       __
+ *    ,`_ `,|__   __||  _ `.        / \     |  \   | |  ,-`__`¬  ,-`__`¬
+ *   ( (_`-'   | |   | | ) |       / . \    | . \  | | / .`  `' / .`  `'
+ *    `._ `.   | |   | |<. L      / / \ \   | |\ \ | || |    _ | '--.
+ *   _   `. \  | |   | |  `.`.   / /   \ \  | | \ \| || |   | || +--'
+ *  \ \__.' /  | |   | |    \ \ / /     \ \ | |  \ ` | \ `._' | \ `.__,.
+ *   `.__.-`   |_|   |_|    |_|/_/       \_\|_|   \__|  `-.__.J  `-.__.J
+ *                   __    _         _      __      __
+ *                 ,`_ `, | |  _    | |  ,-`__`¬  ,`_ `,
+ *                ( (_`-' | | ) |   | | / .`  `' ( (_`-'
+ *                 `._ `. | L-' L   | || '--.     `._ `.
+ *                _   `. \| ,.-^.`. | || +--'    _   `. \
+ *               \ \__.' /| |    \ \| | \ `.__,.\ \__.' /
+ *                `.__.-` |_|    |_||_|  `-.__.J `.__.-`
+ *
+ * This file is part of uk.co.strangeskies.observable.
+ *
+ * uk.co.strangeskies.observable is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * uk.co.strangeskies.observable is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package uk.co.strangeskies.observable;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.concurrent.Flow;
+
+/**
+ * An adapter from a {@link Flow.Publisher} to an {@link Observable}.
+ * <p>
+ * Each observation makes a new subscription to the underlying publisher, and
+ * requests made through the {@link Observation observation} are passed
+ * directly upstream, so no buffering is introduced between the two. The
+ * observer is not notified of the observation until the publisher has
+ * delivered a subscription.
+ * 
+ * @author Elias N Vasylenko
+ * @param <M>
+ *          The type of message to observe
+ */
+public class PublisherObservable<M> implements Observable<M> {
+  private final Flow.Publisher<? extends M> publisher;
+
+  public PublisherObservable(Flow.Publisher<? extends M> publisher) {
+    this.publisher = requireNonNull(publisher);
+  }
+
+  @Override
+  public Disposable observe(Observer<? super M> observer) {
+    PublisherObservation<M> observation = new PublisherObservation<>(observer);
+    publisher.subscribe(observation);
+    return observation;
+  }
+
+  static class PublisherObservation<M> implements Observation, Flow.Subscriber<M> {
+    private final SafeObserver<? super M> observer;
+    private final RequestCount pendingRequests = new RequestCount();
+    private volatile Flow.Subscription subscription;
+    private volatile boolean cancelled;
+
+    PublisherObservation(Observer<? super M> observer) {
+      this.observer = new SafeObserver<>(observer);
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+      requireNonNull(subscription);
+
+      if (this.subscription != null) {
+        subscription.cancel();
+        return;
+      }
+
+      /*
+       * We must publish the subscription before checking for cancellation,
+       * pairing with the cancelling thread which does the reverse, so that at
+       * least one of us sees the other.
+       */
+      this.subscription = subscription;
+      if (cancelled) {
+        subscription.cancel();
+      } else {
+        observer.onObserve(this);
+      }
+    }
+
+    @Override
+    public void onNext(M message) {
+      if (!cancelled) {
+        pendingRequests.tryFulfil();
+        observer.onNext(message);
+      }
+    }
+
+    @Override
+    public void onError(Throwable t) {
+      if (!cancelled)
+        observer.onFail(t);
+    }
+
+    @Override
+    public void onComplete() {
+      if (!cancelled)
+        observer.onComplete();
+    }
+
+    @Override
+    public void request(long count) {
+      pendingRequests.request(count);
+      subscription.request(count);
+    }
+
+    @Override
+    public long getPendingRequestCount() {
+      return pendingRequests.getCount();
+    }
+
+    @Override
+    public void cancel() {
+      cancelled = true;
+      Flow.Subscription subscription = this.subscription;
+      if (subscription != null)
+        subscription.cancel();
+    }
+  }
+}
@@ -33,24 +33,79 @@
 package uk.co.strangeskies.observable;
 
 import java.lang.ref.Reference;
-import java.lang.ref.SoftReference;
-import java.lang.ref.WeakReference;
+import java.util.function.BiFunction;
 import java.util.function.Consumer;
 import java.util.function.Function;
 
+import uk.co.strangeskies.observable.ReferenceReaper.Reclamation;
+
+/**
+ * An observer which holds the downstream observer by a weak or soft reference.
+ * Once the downstream observer is reclaimed by the garbage collector, the
+ * observation is cancelled by the {@link ReferenceReaper}. The reaper forgets
+ * the observation once it is cancelled, completed or failed.
+ * 
+ * @author Elias N Vasylenko
+ *
+ * @param <M>
+ *          The message type
+ */
 public class ReferenceObserver<M> extends PassthroughObserver<M, M> {
   public static <M> ReferenceObserver<M> weak(Observer<? super M> downstreamObserver) {
-    return new ReferenceObserver<>(downstreamObserver, WeakReference::new);
+    return new ReferenceObserver<>(downstreamObserver, ReferenceReaper::weak);
   }
 
   public static <M> ReferenceObserver<M> soft(Observer<? super M> downstreamObserver) {
-    return new ReferenceObserver<>(downstreamObserver, SoftReference::new);
+    return new ReferenceObserver<>(downstreamObserver, ReferenceReaper::soft);
   }
 
+  private final Reclamation reclamation;
+
+  /**
+   * Create an observer over a reference to the downstream observer. The
+   * observation is cancelled when the next event arrives after the downstream
+   * observer has been reclaimed.
+   * 
+   * @param downstreamObserver
+   *          the downstream observer
+   * @param referenceFunction
+   *          a function to create a reference to the downstream observer
+   */
   protected ReferenceObserver(
       Observer<? super M> downstreamObserver,
       Function<Observer<? super M>, Reference<Observer<? super M>>> referenceFunction) {
-    super(referenceFunction.apply(downstreamObserver)::get);
+    this(downstreamObserver, (o, r) -> referenceFunction.apply(o), new Reclamation());
+  }
+
+  private ReferenceObserver(
+      Observer<? super M> downstreamObserver,
+      BiFunction<Observer<? super M>, Reclamation, Reference<Observer<? super M>>> referenceFunction) {
+    this(downstreamObserver, referenceFunction, new Reclamation());
+  }
+
+  private ReferenceObserver(
+      Observer<? super M> downstreamObserver,
+      BiFunction<Observer<? super M>, Reclamation, Reference<Observer<? super M>>> referenceFunction,
+      Reclamation reclamation) {
+    super(referenceFunction.apply(downstreamObserver, reclamation)::get);
+    this.reclamation = reclamation;
+  }
+
+  @Override
+  protected void initializeObservation(Observation observation) {
+    super.initializeObservation(reclamation.observe(observation));
+  }
+
+  /*
+   * Observe the upstream observable through this observer, such that disposal
+   * also releases the observation from the reaper.
+   */
+  Disposable observeUpstream(Observable<M> upstream) {
+    Disposable disposable = upstream.observe(this);
+    return () -> {
+      reclamation.release();
+      disposable.cancel();
+    };
   }
 
   public void withObserver(Consumer<Observer<? super M>> action) {
@@ -65,7 +120,7 @@ public class ReferenceObserver<M> extends PassthroughObserver<M, M> {
   @Override
   public void onObserve(Observation observation) {
     initializeObservation(observation);
-    withObserver(o -> o.onObserve(observation));
+    withObserver(o -> o.onObserve(getObservation()));
   }
 
   @Override
@@ -75,11 +130,13 @@ public class ReferenceObserver<M> extends PassthroughObserver<M, M> {
 
   @Override
   public void onComplete() {
+    reclamation.release();
     withObserver(o -> o.onComplete());
   }
 
   @Override
   public void onFail(Throwable t) {
+    reclamation.release();
     withObserver(o -> o.onFail(t));
   }
 }
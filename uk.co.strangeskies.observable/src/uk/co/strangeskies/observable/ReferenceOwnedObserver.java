@@ -35,32 +35,103 @@ package uk.co.strangeskies.observable;
 import static java.util.Objects.requireNonNull;
 
 import java.lang.ref.Reference;
-import java.lang.ref.SoftReference;
-import java.lang.ref.WeakReference;
+import java.util.function.BiFunction;
 import java.util.function.Consumer;
 import java.util.function.Function;
 
+import uk.co.strangeskies.observable.ReferenceReaper.Reclamation;
+
+/**
+ * An observer which holds an owner object by a weak or soft reference, passing
+ * it downstream along with each message. Once the owner is reclaimed by the
+ * garbage collector, the observation is cancelled by the
+ * {@link ReferenceReaper}. The reaper forgets the observation once it is
+ * cancelled, completed or failed.
+ * 
+ * @author Elias N Vasylenko
+ *
+ * @param <O>
+ *          The owner type
+ * @param <M>
+ *          The message type
+ */
 public class ReferenceOwnedObserver<O, M> extends PassthroughObserver<M, OwnedMessage<O, M>> {
   public static <O, M> ReferenceOwnedObserver<O, M> weak(
       O owner,
       Observer<? super OwnedMessage<O, M>> downstreamObserver) {
-    return new ReferenceOwnedObserver<>(owner, downstreamObserver, WeakReference::new);
+    return new ReferenceOwnedObserver<>(owner, downstreamObserver, ReferenceReaper::weak);
   }
 
   public static <O, M> ReferenceOwnedObserver<O, M> soft(
       O owner,
       Observer<? super OwnedMessage<O, M>> downstreamObserver) {
-    return new ReferenceOwnedObserver<>(owner, downstreamObserver, SoftReference::new);
+    return new ReferenceOwnedObserver<>(owner, downstreamObserver, ReferenceReaper::soft);
   }
 
+  private final Reclamation reclamation;
   private final Reference<O> ownerReference;
 
+  /**
+   * Create an observer over a reference to the owner. The observation is
+   * cancelled when the next message arrives after the owner has been
+   * reclaimed.
+   * 
+   * @param owner
+   *          the owner
+   * @param downstreamObserver
+   *          the downstream observer
+   * @param referenceFunction
+   *          a function to create a reference to the owner
+   */
   protected ReferenceOwnedObserver(
       O owner,
       Observer<? super OwnedMessage<O, M>> downstreamObserver,
       Function<O, Reference<O>> referenceFunction) {
+    this(owner, downstreamObserver, (o, r) -> referenceFunction.apply(o));
+  }
+
+  private ReferenceOwnedObserver(
+      O owner,
+      Observer<? super OwnedMessage<O, M>> downstreamObserver,
+      BiFunction<O, Reclamation, Reference<O>> referenceFunction) {
     super(downstreamObserver);
-    this.ownerReference = requireNonNull(referenceFunction.apply(owner));
+    this.reclamation = new Reclamation();
+    this.ownerReference = requireNonNull(referenceFunction.apply(owner, reclamation));
+  }
+
+  @Override
+  protected void initializeObservation(Observation observation) {
+    super.initializeObservation(reclamation.observe(observation));
+  }
+
+  @Override
+  public void onObserve(Observation observation) {
+    initializeObservation(observation);
+    getDownstreamObserver().onObserve(getObservation());
+  }
+
+  @Override
+  public void onComplete() {
+    reclamation.release();
+    super.onComplete();
+  }
+
+  @Override
+  public void onFail(Throwable t) {
+    reclamation.release();
+    super.onFail(t);
+  }
+
+  /*
+   * Observe the upstream observable through this observer, such that disposal
+   * also releases the observation from the reaper.
+   */
+  Disposable observeUpstream(Observable<M> upstream) {
+    Disposable disposable = upstream.observe(this);
+    return () -> {
+      reclamation.release();
+      disposable.cancel();
+    };
   }
 
   public void withOwner(Consumer<O> action) {
@@ -0,0 +1,169 @@
+/*
+ * Copyright (C) 2018 Elias N Vasylenko <eliasvasylenko@strangeskies.co.uk>
+ *      __   _______  ____           _       __     _      __       __
+ *    ,`_ `,|__   __||  _ `.        / \     |  \   | |  ,-`__`¬  ,-`__`¬
+ *   ( (_`-'   | |   | | ) |       / . \    | . \  | | / .`  `' / .`  `'
+ *    `._ `.   | |   | |<. L      / / \ \   | |\ \ | || |    _ | '--.
+ *   _   `. \  | |   | |  `.`.   / /   \ \  | | \ \| || |   | || +--'
+ *  \ \__.' /  | |   | |    \ \ / /     \ \ | |  \ ` | \ `._' | \ `.__,.
+ *   `.__.-`   |_|   |_|    |_|/_/       \_\|_|   \__|  `-.__.J  `-.__.J
+ *                   __    _         _      __      __
+ *                 ,`_ `, | |  _    | |  ,-`__`¬  ,`_ `,
+ *                ( (_`-' | | ) |   | | / .`  `' ( (_`-'
+ *                 `._ `. | L-' L   | || '--.     `._ `.
+ *                _   `. \| ,.-^.`. | || +--'    _   `. \
+ *               \ \__.' /| |    \ \| | \ `.__,.\ \__.' /
+ *                `.__.-` |_|    |_||_|  `-.__.J `.__.-`
+ *
+ * This file is part of uk.co.strangeskies.observable.
+ *
+ * uk.co.strangeskies.observable is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * uk.co.strangeskies.observable is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package uk.co.strangeskies.observable;
+
+import static java.lang.Thread.currentThread;
+
+import java.lang.ref.Cleaner;
+import java.lang.ref.Cleaner.Cleanable;
+import java.lang.ref.Reference;
+import java.lang.ref.SoftReference;
+import java.lang.ref.WeakReference;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A single daemon thread shared between all {@link ReferenceObserver reference
+ * observers} and {@link ReferenceOwnedObserver reference owned observers},
+ * which cancels their observations as soon as their referents are reclaimed by
+ * the garbage collector, rather than waiting for the next event to arrive.
+ * <p>
+ * The thread is only started once the first such observer is created. An
+ * observation is deregistered from the thread as soon as it is cancelled or
+ * terminated, so the thread does not keep the upstream observable reachable
+ * for the remaining lifetime of the referent. It holds nothing of this class
+ * once every observation it watches has been reclaimed or deregistered, so it
+ * stops of its own accord when the class is unloaded, for example when the
+ * bundle is refreshed.
+ * 
+ * @author Elias N Vasylenko
+ */
+public final class ReferenceReaper {
+  /**
+   * The observation of a reference observer, to be cancelled once the referent
+   * is reclaimed. The observation may be made either before or after the
+   * referent is reclaimed, and is released once it is cancelled or terminated.
+   */
+  static final class Reclamation {
+    private static final Object RELEASED = new Object();
+    private static final Object RECLAIMED = new Object();
+
+    /*
+     * The live observation, or one of the markers above.
+     */
+    private final AtomicReference<Object> observation = new AtomicReference<>();
+    private volatile Cleanable cleanable;
+
+    /**
+     * @param observation
+     *          the observation to cancel once the referent is reclaimed
+     * @return an observation which releases this reclamation when cancelled
+     */
+    Observation observe(Observation observation) {
+      if (!this.observation.compareAndSet(null, observation)
+          && this.observation.get() == RECLAIMED) {
+        observation.cancel();
+        RECLAIMED_COUNT.increment();
+      }
+
+      return new Observation() {
+        @Override
+        public void cancel() {
+          release();
+          observation.cancel();
+        }
+
+        @Override
+        public void request(long count) {
+          observation.request(count);
+        }
+
+        @Override
+        public long getPendingRequestCount() {
+          return observation.getPendingRequestCount();
+        }
+      };
+    }
+
+    void reclaim() {
+      Object observation = this.observation.getAndSet(RECLAIMED);
+      if (observation instanceof Observation) {
+        ((Observation) observation).cancel();
+        RECLAIMED_COUNT.increment();
+      }
+    }
+
+    /*
+     * Forget the observation and deregister from the cleaner, which would
+     * otherwise keep the observation reachable until the referent is reclaimed.
+     */
+    void release() {
+      if (observation.getAndSet(RELEASED) instanceof Observation) {
+        Cleanable cleanable = this.cleanable;
+        if (cleanable != null)
+          cleanable.clean();
+      }
+    }
+  }
+
+  /*
+   * Initialized on first use, so the thread is not started until it is needed.
+   */
+  private static class Reaper {
+    private static final Cleaner CLEANER = Cleaner.create();
+  }
+
+  private static final LongAdder RECLAIMED_COUNT = new LongAdder();
+
+  private ReferenceReaper() {}
+
+  /*
+   * The action must not refer to the referent, or it would never be reclaimed.
+   */
+  private static <T> T register(T referent, Reclamation reclamation) {
+    reclamation.cleanable = Reaper.CLEANER.register(referent, () -> {
+      try {
+        reclamation.reclaim();
+      } catch (Throwable t) {
+        currentThread().getUncaughtExceptionHandler().uncaughtException(currentThread(), t);
+      }
+    });
+    return referent;
+  }
+
+  static <T> Reference<T> weak(T referent, Reclamation reclamation) {
+    return new WeakReference<>(register(referent, reclamation));
+  }
+
+  static <T> Reference<T> soft(T referent, Reclamation reclamation) {
+    return new SoftReference<>(register(referent, reclamation));
+  }
+
+  /**
+   * @return the number of observations which have been cancelled because
+   *         their referents were reclaimed by the garbage collector
+   */
+  public static long getReclaimedCount() {
+    return RECLAIMED_COUNT.sum();
+  }
+}
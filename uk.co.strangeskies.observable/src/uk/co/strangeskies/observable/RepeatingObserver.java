@@ -45,7 +45,9 @@ public class RepeatingObserver<T> extends PassthroughObserver<T, T> {
 
     public RetryingObservation setUpstreamObservation(Observation upstreamObservation) {
       this.upstreamObservation = upstreamObservation;
-      upstreamObservation.request(pendingRequests - upstreamObservation.getPendingRequestCount());
+      long deficit = pendingRequests - upstreamObservation.getPendingRequestCount();
+      if (deficit > 0)
+        upstreamObservation.request(deficit);
       pendingRequests = upstreamObservation.getPendingRequestCount();
       return this;
     }
@@ -57,12 +59,17 @@ public class RepeatingObserver<T> extends PassthroughObserver<T, T> {
 
     @Override
     public void request(long count) {
-      pendingRequests += count;
+      if (pendingRequests < Long.MAX_VALUE) {
+        pendingRequests += count;
+        if (pendingRequests < 0)
+          pendingRequests = Long.MAX_VALUE;
+      }
       upstreamObservation.request(count);
     }
 
     public void fulfilRequest() {
-      pendingRequests--;
+      if (pendingRequests < Long.MAX_VALUE)
+        pendingRequests--;
     }
 
     @Override
@@ -34,45 +34,89 @@ package uk.co.strangeskies.observable;
 
 import static java.util.Comparator.comparing;
 
+import java.util.ArrayList;
 import java.util.List;
 
+/**
+ * A strategy for distributing requests between a number of observations, for
+ * example the inner observations of a {@link FlatMappingObserver}.
+ * <p>
+ * The standard allocators are also able to distribute requests over the index
+ * of observations maintained by a {@link FlatMappingObserver}, in time
+ * proportional to the number of observations which receive requests rather
+ * than to the total number of observations.
+ * 
+ * @author Elias N Vasylenko
+ */
 @FunctionalInterface
 public interface RequestAllocator {
+  /**
+   * @param requestCount
+   *          the number of requests to allocate
+   * @param observations
+   *          an unmodifiable list of the observations, in the order they were
+   *          made
+   * @return the number of requests which were not allocated
+   */
   long allocateRequests(long requestCount, List<Observation> observations);
 
   static RequestAllocator balanced() {
-    return (count, observations) -> {
-      if (count == Long.MAX_VALUE) {
-        observations.forEach(o -> o.request(Long.MAX_VALUE));
+    return new IndexedRequestAllocator() {
+      @Override
+      public long allocateRequests(long count, PendingRequestIndex<?> observations) {
+        return observations.allocateBalanced(count);
+      }
 
-      } else {
-        for (int i = 0; i < observations.size() && count > 0; i++) {
-          Observation observation = observations.get(i);
-          if (observation.getPendingRequestCount() == 0) {
-            observation.requestNext();
-            count--;
+      @Override
+      public long allocateRequests(long count, List<Observation> observations) {
+        if (count == Long.MAX_VALUE) {
+          observations.forEach(o -> o.request(Long.MAX_VALUE));
+
+        } else {
+          for (int i = 0; i < observations.size() && count > 0; i++) {
+            Observation observation = observations.get(i);
+            if (observation.getPendingRequestCount() == 0) {
+              observation.requestNext();
+              count--;
+            }
           }
         }
-      }
 
-      return count;
+        return count;
+      }
     };
   }
 
   static RequestAllocator sequential() {
-    return (count, observations) -> {
-      observations.get(0).request(count);
-      return count == Long.MAX_VALUE ? Long.MAX_VALUE : 0;
+    return new IndexedRequestAllocator() {
+      @Override
+      public long allocateRequests(long count, PendingRequestIndex<?> observations) {
+        return observations.allocateSequential(count);
+      }
+
+      @Override
+      public long allocateRequests(long count, List<Observation> observations) {
+        observations.get(0).request(count);
+        return count == Long.MAX_VALUE ? Long.MAX_VALUE : 0;
+      }
     };
   }
 
   static RequestAllocator spread() {
-    return (count, observations) -> {
-      if (count == Long.MAX_VALUE) {
-        observations.forEach(o -> o.request(Long.MAX_VALUE));
-        return count;
+    return new IndexedRequestAllocator() {
+      @Override
+      public long allocateRequests(long count, PendingRequestIndex<?> observations) {
+        return observations.allocateSpread(count);
+      }
+
+      @Override
+      public long allocateRequests(long count, List<Observation> observations) {
+        if (count == Long.MAX_VALUE) {
+          observations.forEach(o -> o.request(Long.MAX_VALUE));
+          return count;
+        }
 
-      } else {
+        observations = new ArrayList<>(observations);
         observations.sort(comparing(Observation::getPendingRequestCount));
 
         int observationsUnderBaseline = observations.size();
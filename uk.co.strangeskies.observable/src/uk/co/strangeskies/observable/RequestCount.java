@@ -32,42 +32,112 @@
  */
 package uk.co.strangeskies.observable;
 
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A lock-free count of outstanding requests for an {@link Observation}.
+ * <p>
+ * Requests accumulate with saturating addition, such that a count of
+ * {@link Long#MAX_VALUE} represents unbounded demand which will never be
+ * fulfilled. Each update is made with a single compare-and-set, so it is safe
+ * to make requests from a different thread to that which fulfils them.
+ * 
+ * @author Elias N Vasylenko
+ */
 public class RequestCount {
-  private long requestCount;
+  private final AtomicLong requestCount;
+
+  public RequestCount() {
+    this(0);
+  }
+
+  public RequestCount(long initialCount) {
+    if (initialCount < 0)
+      throw new IllegalArgumentException(
+          "Must request a positive number of messages " + initialCount);
+
+    requestCount = new AtomicLong(initialCount);
+  }
 
   public long getCount() {
-    return requestCount < 0 ? Long.MAX_VALUE : requestCount;
+    return requestCount.get();
   }
 
-  public synchronized void request(long count) {
+  /**
+   * Add the given number of requests to the count, saturating at
+   * {@link Long#MAX_VALUE}.
+   * 
+   * @param count
+   *          the number of requests to add
+   * @return the count before the requests were added
+   */
+  public long request(long count) {
     if (count < 0)
       throw new IllegalArgumentException("Must request a positive number of messages " + count);
 
-    else if (count == Long.MAX_VALUE)
-      requestCount = -1;
+    long current;
+    long next;
+    do {
+      current = requestCount.get();
+      if (current == Long.MAX_VALUE)
+        return current;
+
+      next = current + count;
+      if (next < 0)
+        next = Long.MAX_VALUE;
+    } while (!requestCount.compareAndSet(current, next));
 
-    else if (requestCount >= 0)
-      requestCount += count;
+    return current;
   }
 
-  public synchronized boolean isFulfilled() {
-    return requestCount == 0;
+  public boolean isUnbounded() {
+    return requestCount.get() == Long.MAX_VALUE;
   }
 
-  public synchronized void fulfil() {
+  public boolean isFulfilled() {
+    return requestCount.get() == 0;
+  }
+
+  public void fulfil() {
     if (!tryFulfil())
       throw new IllegalStateException("No request to fulfil");
   }
 
-  public synchronized boolean tryFulfil() {
-    if (requestCount > 0) {
-      requestCount--;
-      return true;
+  public boolean tryFulfil() {
+    long current;
+    do {
+      current = requestCount.get();
+      if (current == Long.MAX_VALUE)
+        return true;
+      else if (current == 0)
+        return false;
+    } while (!requestCount.compareAndSet(current, current - 1));
+
+    return true;
+  }
+
+  /**
+   * Fulfil up to the given number of requests. If the count is unbounded it is
+   * unaffected.
+   * 
+   * @param count
+   *          the maximum number of requests to fulfil
+   * @return the number of requests which were fulfilled
+   */
+  public long tryFulfil(long count) {
+    if (count < 0)
+      throw new IllegalArgumentException("Must fulfil a positive number of messages " + count);
+
+    long current;
+    long fulfilled;
+    do {
+      current = requestCount.get();
+      if (current == Long.MAX_VALUE)
+        return count;
 
-    } else if (requestCount < 0)
-      return true;
+      fulfilled = Math.min(current, count);
+    } while (!requestCount.compareAndSet(current, current - fulfilled));
 
-    else
-      return false;
+    return fulfilled;
   }
 }
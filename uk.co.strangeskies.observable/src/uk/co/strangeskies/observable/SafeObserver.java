@@ -39,12 +39,12 @@ import java.util.Objects;
 public class SafeObserver<T> extends PassthroughObserver<T, T> {
   static class SafeObservation implements Observation {
     private final Observation upstreamObservation;
-    private boolean done;
-    private long pendingRequestCount;
+    private volatile boolean done;
+    private final RequestCount pendingRequestCount;
 
     public SafeObservation(Observation upstreamObservation) {
       this.upstreamObservation = upstreamObservation;
-      this.pendingRequestCount = upstreamObservation.getPendingRequestCount();
+      this.pendingRequestCount = new RequestCount(upstreamObservation.getPendingRequestCount());
     }
 
     @Override
@@ -52,25 +52,17 @@ public class SafeObserver<T> extends PassthroughObserver<T, T> {
       if (done)
         return;
 
-      if (pendingRequestCount + count < pendingRequestCount) {
-        pendingRequestCount = Long.MAX_VALUE;
+      if (pendingRequestCount.request(count) < Long.MAX_VALUE)
         upstreamObservation.request(count);
-      } else if (pendingRequestCount < Long.MAX_VALUE) {
-        pendingRequestCount += count;
-        upstreamObservation.request(count);
-      } else {
-        pendingRequestCount = Long.MAX_VALUE;
-      }
     }
 
     @Override
     public long getPendingRequestCount() {
-      return pendingRequestCount;
+      return pendingRequestCount.getCount();
     }
 
-    public void fulfilPendingRequest() {
-      if (pendingRequestCount < Long.MAX_VALUE)
-        pendingRequestCount--;
+    public boolean tryFulfilPendingRequest() {
+      return pendingRequestCount.tryFulfil();
     }
 
     @Override
@@ -159,16 +151,23 @@ public class SafeObserver<T> extends PassthroughObserver<T, T> {
     if (!assertIsMakingObservation())
       return;
 
-    if (getObservation().getPendingRequestCount() == 0) {
+    if (!getObservation().tryFulfilPendingRequest()) {
       onFail(new UnexpectedMessageException("Unrequested message " + message));
       return;
     }
 
-    tryAction(() -> {
+    /*
+     * This is inlined rather than going through tryAction to avoid capturing a
+     * lambda for every message.
+     */
+    try {
       getDownstreamObserver().onNext(message);
-
-      getObservation().fulfilPendingRequest();
-    });
+    } catch (VirtualMachineError | ThreadDeath | LinkageError t) {
+      cancelObservation();
+      throw t;
+    } catch (Throwable t) {
+      handleActionFailure(t);
+    }
   }
 
   @Override
@@ -200,13 +199,17 @@ public class SafeObserver<T> extends PassthroughObserver<T, T> {
       cancelObservation();
       throw t;
     } catch (Throwable t) {
-      cancelObservation();
-      try {
-        getDownstreamObserver().onFail(t);
-      } catch (Throwable u) {
-        t.addSuppressed(u);
-        unmanagedError(t);
-      }
+      handleActionFailure(t);
+    }
+  }
+
+  private void handleActionFailure(Throwable t) {
+    cancelObservation();
+    try {
+      getDownstreamObserver().onFail(t);
+    } catch (Throwable u) {
+      t.addSuppressed(u);
+      unmanagedError(t);
     }
   }
 }
@@ -0,0 +1,161 @@
+/*
+ * Copyright (C) 2018 Elias N Vasylenko <eliasvasylenko@strangeskies.co.uk>
+ *      __   _______  ____           _       __     _      __       __
+ *    ,`_ `,|__   __||  _ `.        / \     |  \   | |  ,-`__`¬  ,-`__`¬
+ *   ( (_`-'   | |   | | ) |       / . \    | . \  | | / .`  `' / .`  `'
+ *    `._ `.   | |   | |<. L      / / \ \   | |\ \ | || |    _ | '--.
+ *   _   `. \  | |   | |  `.`.   / /   \ \  | | \ \| || |   | || +--'
+ *  \ \__.' /  | |   | |    \ \ / /     \ \ | |  \ ` | \ `._' | \ `.__,.
+ *   `.__.-`   |_|   |_|    |_|/_/       \_\|_|   \__|  `-.__.J  `-.__.J
+ *                   __    _         _      __      __
+ *                 ,`_ `, | |  _    | |  ,-`__`¬  ,`_ `,
+ *                ( (_`-' | | ) |   | | / .`  `' ( (_`-'
+ *                 `._ `. | L-' L   | || '--.     `._ `.
+ *                _   `. \| ,.-^.`. | || +--'    _   `. \
+ *               \ \__.' /| |    \ \| | \ `.__,.\ \__.' /
+ *                `.__.-` |_|    |_||_|  `-.__.J `.__.-`
+ *
+ * This file is part of uk.co.strangeskies.observable.
+ *
+ * uk.co.strangeskies.observable is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * uk.co.strangeskies.observable is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package uk.co.strangeskies.observable;
+
+import static java.util.Objects.requireNonNull;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+import java.time.Duration;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Introduce backpressure by periodically forwarding the most recent message
+ * received from upstream, if any message has been received since the last
+ * period.
+ * <p>
+ * An unbounded request is made upstream, so it is not required to support
+ * backpressure. If no request is outstanding downstream at the end of a period,
+ * the most recent message is retained until the end of the next period, unless
+ * it is superseded. When the upstream observable completes, any message which
+ * has not yet been forwarded is discarded.
+ * 
+ * @author Elias N Vasylenko
+ *
+ * @param <M>
+ *          The message type
+ */
+public class SamplingObserver<M> extends PassthroughObserver<M, M> {
+  private final long periodNanos;
+  private final Scheduler scheduler;
+  private final SerializingObserver<M> emitter;
+
+  private final AtomicReference<M> latest = new AtomicReference<>();
+  private final RequestCount outstandingRequests = new RequestCount();
+  private Disposable sampling;
+  private boolean done;
+
+  public SamplingObserver(
+      Observer<? super M> downstreamObserver,
+      Duration period,
+      ScheduledExecutorService executor) {
+    this(downstreamObserver, period, Scheduler.over(executor));
+  }
+
+  public SamplingObserver(
+      Observer<? super M> downstreamObserver,
+      Duration period,
+      Scheduler scheduler) {
+    this(new SerializingObserver<>(downstreamObserver), period, scheduler);
+  }
+
+  /*
+   * Samples are taken while holding the monitor, but delivered downstream
+   * through the emitter after it is released, so a slow downstream observer
+   * never blocks the scheduler.
+   */
+  private SamplingObserver(SerializingObserver<M> emitter, Duration period, Scheduler scheduler) {
+    super(emitter);
+    this.emitter = emitter;
+
+    this.periodNanos = period.toNanos();
+    this.scheduler = requireNonNull(scheduler);
+
+    if (periodNanos <= 0)
+      throw new IllegalArgumentException("Sample period must be positive " + period);
+  }
+
+  @Override
+  public void onObserve(Observation observation) {
+    super.onObserve(new Observation() {
+      @Override
+      public void request(long count) {
+        outstandingRequests.request(count);
+      }
+
+      @Override
+      public void cancel() {
+        stop();
+        observation.cancel();
+      }
+
+      @Override
+      public long getPendingRequestCount() {
+        return outstandingRequests.getCount();
+      }
+    });
+
+    synchronized (this) {
+      if (!done)
+        sampling = scheduler.scheduleAtFixedRate(this::sample, periodNanos, periodNanos, NANOSECONDS);
+    }
+
+    observation.requestUnbounded();
+  }
+
+  private synchronized boolean stop() {
+    if (done)
+      return false;
+
+    done = true;
+    if (sampling != null)
+      sampling.cancel();
+    latest.set(null);
+    return true;
+  }
+
+  private void sample() {
+    synchronized (this) {
+      if (!done && latest.get() != null && outstandingRequests.tryFulfil())
+        emitter.offer(latest.getAndSet(null));
+    }
+    emitter.drain();
+  }
+
+  @Override
+  public void onNext(M message) {
+    latest.set(message);
+  }
+
+  @Override
+  public void onComplete() {
+    if (stop())
+      emitter.onComplete();
+  }
+
+  @Override
+  public void onFail(Throwable t) {
+    if (stop())
+      emitter.onFail(t);
+  }
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright (C) 2018 Elias N Vasylenko <eliasvasylenko@strangeskies.co.uk>
+ *      __   _______  ____           _       __     _      __       __
+ *    ,`_ `,|__   __||  _ `.        / \     |  \   | |  ,-`__`¬  ,-`__`¬
+ *   ( (_`-'   | |   | | ) |       / . \    | . \  | | / .`  `' / .`  `'
+ *    `._ `.   | |   | |<. L      / / \ \   | |\ \ | || |    _ | '--.
+ *   _   `. \  | |   | |  `.`.   / /   \ \  | | \ \| || |   | || +--'
+ *  \ \__.' /  | |   | |    \ \ / /     \ \ | |  \ ` | \ `._' | \ `.__,.
+ *   `.__.-`   |_|   |_|    |_|/_/       \_\|_|   \__|  `-.__.J  `-.__.J
+ *                   __    _         _      __      __
+ *                 ,`_ `, | |  _    | |  ,-`__`¬  ,`_ `,
+ *                ( (_`-' | | ) |   | | / .`  `' ( (_`-'
+ *                 `._ `. | L-' L   | || '--.     `._ `.
+ *                _   `. \| ,.-^.`. | || +--'    _   `. \
+ *               \ \__.' /| |    \ \| | \ `.__,.\ \__.' /
+ *                `.__.-` |_|    |_||_|  `-.__.J `.__.-`
+ *
+ * This file is part of uk.co.strangeskies.observable.
+ *
+ * uk.co.strangeskies.observable is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * uk.co.strangeskies.observable is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package uk.co.strangeskies.observable;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+import java.time.Duration;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A source of time for time-based operators, and a means of scheduling tasks
+ * against it.
+ * <p>
+ * Tasks scheduled by time-based operators are expected to be short, typically
+ * forwarding a single message downstream, so that many streams may share a
+ * single scheduler thread. The {@link #shared() shared scheduler} is used by
+ * operators which are not given an explicit scheduler, and a
+ * {@link VirtualScheduler virtual scheduler} may be substituted in tests.
+ * 
+ * @author Elias N Vasylenko
+ */
+public interface Scheduler {
+  /**
+   * @return the current time according to the scheduler in nanoseconds, only
+   *         meaningful in relation to other values returned by the same
+   *         scheduler
+   */
+  long now();
+
+  /**
+   * Schedule a task to run once after the given delay.
+   * 
+   * @param task
+   *          the task to run
+   * @param delay
+   *          the delay before the task is run
+   * @param unit
+   *          the unit of the delay
+   * @return a disposable to cancel the task if it has not yet run
+   */
+  Disposable schedule(Runnable task, long delay, TimeUnit unit);
+
+  /**
+   * Schedule a task to run once after the given delay.
+   * 
+   * @param task
+   *          the task to run
+   * @param delay
+   *          the delay before the task is run
+   * @return a disposable to cancel the task if it has not yet run
+   */
+  default Disposable schedule(Runnable task, Duration delay) {
+    return schedule(task, delay.toNanos(), NANOSECONDS);
+  }
+
+  /**
+   * Schedule a task to run periodically, at a fixed rate, after the given
+   * initial delay.
+   * 
+   * @param task
+   *          the task to run
+   * @param initialDelay
+   *          the delay before the task is first run
+   * @param period
+   *          the period between successive runs of the task
+   * @param unit
+   *          the unit of the delay and period
+   * @return a disposable to cancel any further runs of the task
+   */
+  Disposable scheduleAtFixedRate(Runnable task, long initialDelay, long period, TimeUnit unit);
+
+  /**
+   * @return a scheduler backed by a single daemon thread shared between all
+   *         time-based operations which are not given an explicit scheduler
+   */
+  static Scheduler shared() {
+    return SharedScheduledExecutor.scheduler();
+  }
+
+  /**
+   * @param executor
+   *          the executor on which to schedule tasks
+   * @return a scheduler which schedules tasks on the given executor according
+   *         to {@link System#nanoTime()}
+   */
+  static Scheduler over(ScheduledExecutorService executor) {
+    return new ExecutorScheduler(executor);
+  }
+}
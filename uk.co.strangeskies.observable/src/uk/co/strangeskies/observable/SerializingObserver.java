@@ -0,0 +1,129 @@
+/*
+ * Copyright (C) 2018 Elias N Vasylenko <eliasvasylenko@strangeskies.co.uk>
+ *      __   _______  ____           _       __     _      __       __
+ *    ,`_ `,|__   __||  _ `.        / \     |  \   | |  ,-`__`¬  ,-`__`¬
+ *   ( (_`-'   | |   | | ) |       / . \    | . \  | | / .`  `' / .`  `'
+ *    `._ `.   | |   | |<. L      / / \ \   | |\ \ | || |    _ | '--.
+ *   _   `. \  | |   | |  `.`.   / /   \ \  | | \ \| || |   | || +--'
+ *  \ \__.' /  | |   | |    \ \ / /     \ \ | |  \ ` | \ `._' | \ `.__,.
+ *   `.__.-`   |_|   |_|    |_|/_/       \_\|_|   \__|  `-.__.J  `-.__.J
+ *                   __    _         _      __      __
+ *                 ,`_ `, | |  _    | |  ,-`__`¬  ,`_ `,
+ *                ( (_`-' | | ) |   | | / .`  `' ( (_`-'
+ *                 `._ `. | L-' L   | || '--.     `._ `.
+ *                _   `. \| ,.-^.`. | || +--'    _   `. \
+ *               \ \__.' /| |    \ \| | \ `.__,.\ \__.' /
+ *                `.__.-` |_|    |_||_|  `-.__.J `.__.-`
+ *
+ * This file is part of uk.co.strangeskies.observable.
+ *
+ * uk.co.strangeskies.observable is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * uk.co.strangeskies.observable is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package uk.co.strangeskies.observable;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * An observer which serializes events which may be sent concurrently from
+ * multiple threads, without holding a lock while passing them downstream.
+ * <p>
+ * Events are added to a lock-free queue, and the first thread to arrive drains
+ * the queue downstream while any other threads enqueue their events and return
+ * immediately. This means that a slow downstream observer does not block
+ * producers, though they may find themselves delivering events from other
+ * threads.
+ * 
+ * @author Elias N Vasylenko
+ *
+ * @param <M>
+ *          The message type
+ */
+public class SerializingObserver<M> extends PassthroughObserver<M, M> {
+  private final Queue<M> messages = new ConcurrentLinkedQueue<>();
+  private final AtomicInteger drainRequests = new AtomicInteger();
+
+  private volatile boolean done;
+  private volatile Throwable failure;
+  private boolean terminated;
+
+  public SerializingObserver(Observer<? super M> downstreamObserver) {
+    super(downstreamObserver);
+  }
+
+  @Override
+  public void onNext(M message) {
+    messages.offer(message);
+    drain();
+  }
+
+  @Override
+  public void onComplete() {
+    done = true;
+    drain();
+  }
+
+  @Override
+  public void onFail(Throwable t) {
+    failure = t;
+    done = true;
+    drain();
+  }
+
+  /*
+   * Enqueue a message without delivering it. Operators which decide what to
+   * emit while holding a lock may enqueue under the lock, fixing the order of
+   * their messages, then drain once it is released.
+   */
+  void offer(M message) {
+    messages.offer(message);
+  }
+
+  void drain() {
+    if (drainRequests.getAndIncrement() != 0)
+      return;
+
+    int missed = 1;
+    do {
+      while (!terminated) {
+        /*
+         * We must check for completion before polling, otherwise a message may
+         * arrive between an empty poll and the check.
+         */
+        boolean done = this.done;
+        M message = messages.poll();
+
+        if (message != null) {
+          getDownstreamObserver().onNext(message);
+        } else {
+          if (done) {
+            terminated = true;
+            Throwable failure = this.failure;
+            if (failure != null)
+              getDownstreamObserver().onFail(failure);
+            else
+              getDownstreamObserver().onComplete();
+          }
+          break;
+        }
+      }
+
+      if (terminated)
+        messages.clear();
+
+      missed = drainRequests.addAndGet(-missed);
+    } while (missed != 0);
+  }
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright (C) 2018 Elias N Vasylenko <eliasvasylenko@strangeskies.co.uk>
+ *      __   _______  ____           _       __     _      __       __
+ *    ,`_ `,|__   __||  _ `.        / \     |  \   | |  ,-`__`¬  ,-`__`¬
+ *   ( (_`-'   | |   | | ) |       / . \    | . \  | | / .`  `' / .`  `'
+ *    `._ `.   | |   | |<. L      / / \ \   | |\ \ | || |    _ | '--.
+ *   _   `. \  | |   | |  `.`.   / /   \ \  | | \ \| || |   | || +--'
+ *  \ \__.' /  | |   | |    \ \ / /     \ \ | |  \ ` | \ `._' | \ `.__,.
+ *   `.__.-`   |_|   |_|    |_|/_/       \_\|_|   \__|  `-.__.J  `-.__.J
+ *                   __    _         _      __      __
+ *                 ,`_ `, | |  _    | |  ,-`__`¬  ,`_ `,
+ *                ( (_`-' | | ) |   | | / .`  `' ( (_`-'
+ *                 `._ `. | L-' L   | || '--.     `._ `.
+ *                _   `. \| ,.-^.`. | || +--'    _   `. \
+ *               \ \__.' /| |    \ \| | \ `.__,.\ \__.' /
+ *                `.__.-` |_|    |_||_|  `-.__.J `.__.-`
+ *
+ * This file is part of uk.co.strangeskies.observable.
+ *
+ * uk.co.strangeskies.observable is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * uk.co.strangeskies.observable is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package uk.co.strangeskies.observable;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A bounded, lock-free queue which is safe for use by a single producer thread
+ * and a single consumer thread concurrently.
+ * <p>
+ * Elements are held in a ring preallocated to a power of two at least as large
+ * as the requested capacity. The producer publishes each element with an
+ * ordered write to its index, and the consumer releases each slot the same way,
+ * so neither side ever takes a lock.
+ * 
+ * @author Elias N Vasylenko
+ *
+ * @param <T>
+ *          The element type
+ */
+class SpscArrayQueue<T> {
+  private final Object[] elements;
+  private final int mask;
+  private final int capacity;
+
+  private final AtomicLong producerIndex = new AtomicLong();
+  private final AtomicLong consumerIndex = new AtomicLong();
+
+  public SpscArrayQueue(int capacity) {
+    if (capacity <= 0)
+      throw new IllegalArgumentException("Queue capacity must be positive " + capacity);
+
+    int length = Integer.highestOneBit(capacity);
+    if (length < capacity)
+      length <<= 1;
+
+    this.elements = new Object[length];
+    this.mask = length - 1;
+    this.capacity = capacity;
+  }
+
+  public int capacity() {
+    return capacity;
+  }
+
+  /**
+   * Add an element to the queue. Must only be called from the producer thread.
+   * 
+   * @param element
+   *          the element to add
+   * @return true if the element was added, false if the queue was full
+   */
+  public boolean offer(T element) {
+    long index = producerIndex.get();
+    if (index - consumerIndex.get() >= capacity)
+      return false;
+
+    elements[(int) index & mask] = element;
+    producerIndex.lazySet(index + 1);
+    return true;
+  }
+
+  /**
+   * Remove an element from the queue. Must only be called from the consumer
+   * thread.
+   * 
+   * @return the next element, or null if the queue was empty
+   */
+  @SuppressWarnings("unchecked")
+  public T poll() {
+    long index = consumerIndex.get();
+    if (index == producerIndex.get())
+      return null;
+
+    int offset = (int) index & mask;
+    T element = (T) elements[offset];
+    elements[offset] = null;
+    consumerIndex.lazySet(index + 1);
+    return element;
+  }
+
+  public boolean isEmpty() {
+    return consumerIndex.get() == producerIndex.get();
+  }
+
+  /**
+   * Remove all elements from the queue. Must only be called from the consumer
+   * thread.
+   */
+  public void clear() {
+    while (poll() != null) {}
+  }
+}
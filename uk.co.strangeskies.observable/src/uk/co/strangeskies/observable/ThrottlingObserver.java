@@ -0,0 +1,181 @@
+/*
+ * Copyright (C) 2018 Elias N Vasylenko <eliasvasylenko@strangeskies.co.uk>
+ *      __   _______  ____           _       __     _      __       __
+ *    ,`_ `,|__   __||  _ `.        / \     |  \   | |  ,-`__`¬  ,-`__`¬
+ *   ( (_`-'   | |   | | ) |       / . \    | . \  | | / .`  `' / .`  `'
+ *    `._ `.   | |   | |<. L      / / \ \   | |\ \ | || |    _ | '--.
+ *   _   `. \  | |   | |  `.`.   / /   \ \  | | \ \| || |   | || +--'
+ *  \ \__.' /  | |   | |    \ \ / /     \ \ | |  \ ` | \ `._' | \ `.__,.
+ *   `.__.-`   |_|   |_|    |_|/_/       \_\|_|   \__|  `-.__.J  `-.__.J
+ *                   __    _         _      __      __
+ *                 ,`_ `, | |  _    | |  ,-`__`¬  ,`_ `,
+ *                ( (_`-' | | ) |   | | / .`  `' ( (_`-'
+ *                 `._ `. | L-' L   | || '--.     `._ `.
+ *                _   `. \| ,.-^.`. | || +--'    _   `. \
+ *               \ \__.' /| |    \ \| | \ `.__,.\ \__.' /
+ *                `.__.-` |_|    |_||_|  `-.__.J `.__.-`
+ *
+ * This file is part of uk.co.strangeskies.observable.
+ *
+ * uk.co.strangeskies.observable is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * uk.co.strangeskies.observable is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package uk.co.strangeskies.observable;
+
+import static java.util.Objects.requireNonNull;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+import java.time.Duration;
+import java.util.concurrent.ScheduledExecutorService;
+
+/**
+ * Introduce backpressure by forwarding a message immediately, then ignoring
+ * all but the most recent message received until the throttling window has
+ * elapsed, at which point that message is forwarded and a new window is
+ * started.
+ * <p>
+ * An unbounded request is made upstream, so it is not required to support
+ * backpressure. If no request is outstanding downstream when a message would
+ * be forwarded, it is retained until a request is made, unless it is
+ * superseded. When the upstream observable completes, any message which has
+ * not yet been forwarded is discarded.
+ * 
+ * @author Elias N Vasylenko
+ *
+ * @param <M>
+ *          The message type
+ */
+public class ThrottlingObserver<M> extends PassthroughObserver<M, M> {
+  private final long windowNanos;
+  private final Scheduler scheduler;
+  private final SerializingObserver<M> emitter;
+
+  private final RequestCount outstandingRequests = new RequestCount();
+  private M latest;
+  private Disposable window;
+  private boolean done;
+
+  public ThrottlingObserver(
+      Observer<? super M> downstreamObserver,
+      Duration window,
+      ScheduledExecutorService executor) {
+    this(downstreamObserver, window, Scheduler.over(executor));
+  }
+
+  public ThrottlingObserver(
+      Observer<? super M> downstreamObserver,
+      Duration window,
+      Scheduler scheduler) {
+    this(new SerializingObserver<>(downstreamObserver), window, scheduler);
+  }
+
+  /*
+   * Messages are chosen while holding the monitor, but delivered downstream
+   * through the emitter after it is released, so a slow downstream observer
+   * never blocks upstream or the scheduler.
+   */
+  private ThrottlingObserver(SerializingObserver<M> emitter, Duration window, Scheduler scheduler) {
+    super(emitter);
+    this.emitter = emitter;
+
+    this.windowNanos = window.toNanos();
+    this.scheduler = requireNonNull(scheduler);
+
+    if (windowNanos <= 0)
+      throw new IllegalArgumentException("Throttle window must be positive " + window);
+  }
+
+  @Override
+  public void onObserve(Observation observation) {
+    super.onObserve(new Observation() {
+      @Override
+      public void request(long count) {
+        outstandingRequests.request(count);
+        synchronized (ThrottlingObserver.this) {
+          if (window == null)
+            tryForward();
+        }
+        emitter.drain();
+      }
+
+      @Override
+      public void cancel() {
+        stop();
+        observation.cancel();
+      }
+
+      @Override
+      public long getPendingRequestCount() {
+        return outstandingRequests.getCount();
+      }
+    });
+
+    observation.requestUnbounded();
+  }
+
+  private synchronized boolean stop() {
+    if (done)
+      return false;
+
+    done = true;
+    if (window != null)
+      window.cancel();
+    window = null;
+    latest = null;
+    return true;
+  }
+
+  /*
+   * Must be called while holding the monitor, and only when no window is open.
+   */
+  private void tryForward() {
+    if (!done && latest != null && outstandingRequests.tryFulfil()) {
+      M message = latest;
+      latest = null;
+      window = scheduler.schedule(this::closeWindow, windowNanos, NANOSECONDS);
+      emitter.offer(message);
+    }
+  }
+
+  private void closeWindow() {
+    synchronized (this) {
+      window = null;
+      tryForward();
+    }
+    emitter.drain();
+  }
+
+  @Override
+  public void onNext(M message) {
+    synchronized (this) {
+      if (!done) {
+        latest = message;
+        if (window == null)
+          tryForward();
+      }
+    }
+    emitter.drain();
+  }
+
+  @Override
+  public void onComplete() {
+    if (stop())
+      emitter.onComplete();
+  }
+
+  @Override
+  public void onFail(Throwable t) {
+    if (stop())
+      emitter.onFail(t);
+  }
+}
@@ -0,0 +1,162 @@
+/*
+ * Copyright (C) 2018 Elias N Vasylenko <eliasvasylenko@strangeskies.co.uk>
+ *      __   _______  ____           _       __     _      __       __
+ *    ,`_ `,|__   __||  _ `.        / \     |  \   | |  ,-`__`¬  ,-`__`¬
+ *   ( (_`-'   | |   | | ) |       / . \    | . \  | | / .`  `' / .`  `'
+ *    `._ `.   | |   | |<. L      / / \ \   | |\ \ | || |    _ | '--.
+ *   _   `. \  | |   | |  `.`.   / /   \ \  | | \ \| || |   | || +--'
+ *  \ \__.' /  | |   | |    \ \ / /     \ \ | |  \ ` | \ `._' | \ `.__,.
+ *   `.__.-`   |_|   |_|    |_|/_/       \_\|_|   \__|  `-.__.J  `-.__.J
+ *                   __    _         _      __      __
+ *                 ,`_ `, | |  _    | |  ,-`__`¬  ,`_ `,
+ *                ( (_`-' | | ) |   | | / .`  `' ( (_`-'
+ *                 `._ `. | L-' L   | || '--.     `._ `.
+ *                _   `. \| ,.-^.`. | || +--'    _   `. \
+ *               \ \__.' /| |    \ \| | \ `.__,.\ \__.' /
+ *                `.__.-` |_|    |_||_|  `-.__.J `.__.-`
+ *
+ * This file is part of uk.co.strangeskies.observable.
+ *
+ * uk.co.strangeskies.observable is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * uk.co.strangeskies.observable is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package uk.co.strangeskies.observable;
+
+import static java.util.Objects.requireNonNull;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+import java.time.Duration;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Forward messages from upstream, failing with a {@link TimeoutException} and
+ * cancelling the upstream observation if no message is received within the
+ * given timeout of the start of the observation or of the previous message.
+ * <p>
+ * Requests are passed directly upstream. Rather than rescheduling a timer on
+ * every message, a single timer is kept for each observation, and when it
+ * expires it is rescheduled for whatever remains of the timeout following the
+ * most recent message. The timer never waits on the delivery of a message, so
+ * a slow downstream observer does not hold up a shared scheduler thread.
+ * 
+ * @author Elias N Vasylenko
+ *
+ * @param <M>
+ *          The message type
+ */
+public class TimeoutObserver<M> extends PassthroughObserver<M, M> {
+  private static final int IDLE = 0;
+  private static final int DELIVERING = 1;
+  private static final int DONE = 2;
+
+  private final long timeoutNanos;
+  private final Scheduler scheduler;
+
+  private final AtomicInteger state = new AtomicInteger(IDLE);
+  private volatile long lastMessageTime;
+  private volatile Disposable timer;
+
+  public TimeoutObserver(
+      Observer<? super M> downstreamObserver,
+      Duration timeout,
+      Scheduler scheduler) {
+    super(downstreamObserver);
+
+    this.timeoutNanos = timeout.toNanos();
+    this.scheduler = requireNonNull(scheduler);
+
+    if (timeoutNanos <= 0)
+      throw new IllegalArgumentException("Timeout must be positive " + timeout);
+  }
+
+  @Override
+  public void onObserve(Observation observation) {
+    lastMessageTime = scheduler.now();
+
+    super.onObserve(new Observation() {
+      @Override
+      public void request(long count) {
+        observation.request(count);
+      }
+
+      @Override
+      public void cancel() {
+        stop();
+        observation.cancel();
+      }
+
+      @Override
+      public long getPendingRequestCount() {
+        return observation.getPendingRequestCount();
+      }
+    });
+
+    if (state.get() != DONE)
+      timer = scheduler.schedule(this::expire, timeoutNanos, NANOSECONDS);
+  }
+
+  private boolean stop() {
+    if (state.getAndSet(DONE) == DONE)
+      return false;
+
+    Disposable timer = this.timer;
+    if (timer != null)
+      timer.cancel();
+    return true;
+  }
+
+  private void expire() {
+    switch (state.get()) {
+    case DONE:
+      return;
+
+    case DELIVERING:
+      timer = scheduler.schedule(this::expire, timeoutNanos, NANOSECONDS);
+      return;
+
+    default:
+      long remaining = timeoutNanos - (scheduler.now() - lastMessageTime);
+      if (remaining > 0) {
+        timer = scheduler.schedule(this::expire, remaining, NANOSECONDS);
+      } else if (state.compareAndSet(IDLE, DONE)) {
+        getObservation().cancel();
+        getDownstreamObserver().onFail(
+            new TimeoutException("No message within " + Duration.ofNanos(timeoutNanos)));
+      } else {
+        expire();
+      }
+    }
+  }
+
+  @Override
+  public void onNext(M message) {
+    if (state.compareAndSet(IDLE, DELIVERING)) {
+      lastMessageTime = scheduler.now();
+      getDownstreamObserver().onNext(message);
+      state.compareAndSet(DELIVERING, IDLE);
+    }
+  }
+
+  @Override
+  public void onComplete() {
+    if (stop())
+      getDownstreamObserver().onComplete();
+  }
+
+  @Override
+  public void onFail(Throwable t) {
+    if (stop())
+      getDownstreamObserver().onFail(t);
+  }
+}
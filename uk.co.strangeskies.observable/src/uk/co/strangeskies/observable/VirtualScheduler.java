@@ -0,0 +1,183 @@
+/*
+ * Copyright (C) 2018 Elias N Vasylenko <eliasvasylenko@strangeskies.co.uk>
+ *      __   _______  ____           _       __     _      __       __
+ *    ,`_ `,|__   __||  _ `.        / \     |  \   | |  ,-`__`¬  ,-`__`¬
+ *   ( (_`-'   | |   | | ) |       / . \    | . \  | | / .`  `' / .`  `'
+ *    `._ `.   | |   | |<. L      / / \ \   | |\ \ | || |    _ | '--.
+ *   _   `. \  | |   | |  `.`.   / /   \ \  | | \ \| || |   | || +--'
+ *  \ \__.' /  | |   | |    \ \ / /     \ \ | |  \ ` | \ `._' | \ `.__,.
+ *   `.__.-`   |_|   |_|    |_|/_/       \_\|_|   \__|  `-.__.J  `-.__.J
+ *                   __    _         _      __      __
+ *                 ,`_ `, | |  _    | |  ,-`__`¬  ,`_ `,
+ *                ( (_`-' | | ) |   | | / .`  `' ( (_`-'
+ *                 `._ `. | L-' L   | || '--.     `._ `.
+ *                _   `. \| ,.-^.`. | || +--'    _   `. \
+ *               \ \__.' /| |    \ \| | \ `.__,.\ \__.' /
+ *                `.__.-` |_|    |_||_|  `-.__.J `.__.-`
+ *
+ * This file is part of uk.co.strangeskies.observable.
+ *
+ * uk.co.strangeskies.observable is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * uk.co.strangeskies.observable is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package uk.co.strangeskies.observable;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+import java.time.Duration;
+import java.util.PriorityQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A {@link Scheduler} over a virtual clock which only advances when requested,
+ * for deterministic testing of time-based operators.
+ * <p>
+ * Tasks are run on the thread which advances the clock, in order of the time
+ * at which they are due, and tasks which are due at the same time are run in
+ * the order in which they were scheduled. While each task runs the clock reads
+ * the time at which it was due.
+ * 
+ * @author Elias N Vasylenko
+ */
+public class VirtualScheduler implements Scheduler {
+  private class Task implements Disposable, Comparable<Task> {
+    private final Runnable action;
+    private final long period;
+    private long due;
+    private long sequence;
+
+    Task(Runnable action, long due, long period) {
+      this.action = action;
+      this.due = due;
+      this.period = period;
+    }
+
+    @Override
+    public int compareTo(Task that) {
+      int compare = Long.compare(due, that.due);
+      return compare != 0 ? compare : Long.compare(sequence, that.sequence);
+    }
+
+    @Override
+    public void cancel() {
+      synchronized (VirtualScheduler.this) {
+        tasks.remove(this);
+      }
+    }
+  }
+
+  private final PriorityQueue<Task> tasks = new PriorityQueue<>();
+  private long now;
+  private long sequence;
+
+  @Override
+  public synchronized long now() {
+    return now;
+  }
+
+  /**
+   * @return the number of tasks which are waiting to run
+   */
+  public synchronized int getPendingTaskCount() {
+    return tasks.size();
+  }
+
+  private synchronized Task enqueue(Task task) {
+    task.sequence = sequence++;
+    tasks.add(task);
+    return task;
+  }
+
+  @Override
+  public Disposable schedule(Runnable task, long delay, TimeUnit unit) {
+    synchronized (this) {
+      return enqueue(new Task(task, now + Math.max(unit.toNanos(delay), 0), 0));
+    }
+  }
+
+  @Override
+  public Disposable scheduleAtFixedRate(
+      Runnable task,
+      long initialDelay,
+      long period,
+      TimeUnit unit) {
+    if (period <= 0)
+      throw new IllegalArgumentException("Period must be positive " + period);
+
+    synchronized (this) {
+      return enqueue(
+          new Task(task, now + Math.max(unit.toNanos(initialDelay), 0), unit.toNanos(period)));
+    }
+  }
+
+  /**
+   * Advance the clock by the given duration, running any tasks which become due
+   * in the meantime.
+   * 
+   * @param duration
+   *          the amount of time to advance by
+   */
+  public void advanceBy(Duration duration) {
+    advanceBy(duration.toNanos(), NANOSECONDS);
+  }
+
+  /**
+   * Advance the clock by the given amount of time, running any tasks which
+   * become due in the meantime.
+   * 
+   * @param time
+   *          the amount of time to advance by
+   * @param unit
+   *          the unit of time
+   */
+  public void advanceBy(long time, TimeUnit unit) {
+    if (time < 0)
+      throw new IllegalArgumentException("Cannot advance clock backwards " + time);
+
+    long target;
+    synchronized (this) {
+      target = now + unit.toNanos(time);
+    }
+    advanceTo(target);
+  }
+
+  /**
+   * Run any tasks which are due at the current time, without advancing the
+   * clock.
+   */
+  public void runDueTasks() {
+    advanceBy(0, NANOSECONDS);
+  }
+
+  private void advanceTo(long target) {
+    for (;;) {
+      Task task;
+      synchronized (this) {
+        task = tasks.peek();
+        if (task == null || task.due > target) {
+          now = Math.max(now, target);
+          return;
+        }
+
+        tasks.poll();
+        now = task.due;
+        if (task.period > 0) {
+          task.due += task.period;
+          enqueue(task);
+        }
+      }
+
+      task.action.run();
+    }
+  }
+}
@@ -0,0 +1,209 @@
+/*
+ * Copyright (C) 2018 Elias N Vasylenko <eliasvasylenko@strangeskies.co.uk>
+ *      __   _______  ____           _       __     _      __       __
+ *    ,`_ `,|__   __||  _ `.        / \     |  \   | |  ,-`__`¬  ,-`__`¬
+ *   ( (_`-'   | |   | | ) |       / . \    | . \  | | / .`  `' / .`  `'
+ *    `._ `.   | |   | |<. L      / / \ \   | |\ \ | || |    _ | '--.
+ *   _   `. \  | |   | |  `.`.   / /   \ \  | | \ \| || |   | || +--'
+ *  \ \__.' /  | |   | |    \ \ / /     \ \ | |  \ ` | \ `._' | \ `.__,.
+ *   `.__.-`   |_|   |_|    |_|/_/       \_\|_|   \__|  `-.__.J  `-.__.J
+ *                   __    _         _      __      __
+ *                 ,`_ `, | |  _    | |  ,-`__`¬  ,`_ `,
+ *                ( (_`-' | | ) |   | | / .`  `' ( (_`-'
+ *                 `._ `. | L-' L   | || '--.     `._ `.
+ *                _   `. \| ,.-^.`. | || +--'    _   `. \
+ *               \ \__.' /| |    \ \| | \ `.__,.\ \__.' /
+ *                `.__.-` |_|    |_||_|  `-.__.J `.__.-`
+ *
+ * This file is part of uk.co.strangeskies.observable.
+ *
+ * uk.co.strangeskies.observable is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * uk.co.strangeskies.observable is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package uk.co.strangeskies.observable;
+
+import static java.util.Objects.requireNonNull;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Collect the messages received from upstream into consecutive windows of the
+ * given duration, forwarding each window as a list at the end of its period.
+ * <p>
+ * An unbounded request is made upstream, so it is not required to support
+ * backpressure. Empty windows are not forwarded. If no request is outstanding
+ * downstream at the end of a period, the window is extended into the next
+ * period rather than any messages being discarded. When the upstream
+ * observable completes, the current window is forwarded immediately if it is
+ * not empty and a request is outstanding.
+ * <p>
+ * If a maximum size is given, a window which fills up is forwarded early if a
+ * request is outstanding. Otherwise the upstream observation is cancelled and
+ * the downstream observer is failed with a {@link MessageOverflowException}.
+ * 
+ * @author Elias N Vasylenko
+ *
+ * @param <M>
+ *          The message type
+ */
+public class WindowingObserver<M> extends PassthroughObserver<M, List<M>> {
+  private final long periodNanos;
+  private final int maximumSize;
+  private final Scheduler scheduler;
+  private final SerializingObserver<List<M>> emitter;
+
+  private final RequestCount outstandingRequests = new RequestCount();
+  private Observation upstreamObservation;
+  private List<M> window = new ArrayList<>();
+  private Disposable windowing;
+  private boolean done;
+
+  public WindowingObserver(
+      Observer<? super List<M>> downstreamObserver,
+      Duration period,
+      Scheduler scheduler) {
+    this(downstreamObserver, period, Integer.MAX_VALUE, scheduler);
+  }
+
+  public WindowingObserver(
+      Observer<? super List<M>> downstreamObserver,
+      Duration period,
+      int maximumSize,
+      Scheduler scheduler) {
+    this(new SerializingObserver<>(downstreamObserver), period, maximumSize, scheduler);
+  }
+
+  /*
+   * Windows are closed while holding the monitor, but delivered downstream
+   * through the emitter after it is released, so a slow downstream observer
+   * never blocks upstream or the scheduler.
+   */
+  private WindowingObserver(
+      SerializingObserver<List<M>> emitter,
+      Duration period,
+      int maximumSize,
+      Scheduler scheduler) {
+    super(emitter);
+    this.emitter = emitter;
+
+    this.periodNanos = period.toNanos();
+    this.maximumSize = maximumSize;
+    this.scheduler = requireNonNull(scheduler);
+
+    if (periodNanos <= 0)
+      throw new IllegalArgumentException("Window period must be positive " + period);
+    if (maximumSize <= 0)
+      throw new IllegalArgumentException("Maximum window size must be positive " + maximumSize);
+  }
+
+  @Override
+  public void onObserve(Observation observation) {
+    upstreamObservation = observation;
+
+    super.onObserve(new Observation() {
+      @Override
+      public void request(long count) {
+        outstandingRequests.request(count);
+      }
+
+      @Override
+      public void cancel() {
+        stop();
+        observation.cancel();
+      }
+
+      @Override
+      public long getPendingRequestCount() {
+        return outstandingRequests.getCount();
+      }
+    });
+
+    synchronized (this) {
+      if (!done)
+        windowing = scheduler
+            .scheduleAtFixedRate(this::closeWindow, periodNanos, periodNanos, NANOSECONDS);
+    }
+
+    observation.requestUnbounded();
+  }
+
+  private synchronized boolean stop() {
+    if (done)
+      return false;
+
+    done = true;
+    if (windowing != null)
+      windowing.cancel();
+    window = null;
+    return true;
+  }
+
+  /*
+   * Must be called while holding the monitor.
+   */
+  private boolean tryCloseWindow() {
+    if (!done && !window.isEmpty() && outstandingRequests.tryFulfil()) {
+      emitter.offer(window);
+      window = new ArrayList<>();
+      return true;
+    }
+    return false;
+  }
+
+  private void closeWindow() {
+    synchronized (this) {
+      tryCloseWindow();
+    }
+    emitter.drain();
+  }
+
+  @Override
+  public void onNext(M message) {
+    boolean overflow;
+    synchronized (this) {
+      if (done)
+        return;
+
+      overflow = window.size() >= maximumSize && !tryCloseWindow();
+      if (!overflow)
+        window.add(message);
+    }
+
+    if (!overflow) {
+      emitter.drain();
+    } else if (stop()) {
+      upstreamObservation.cancel();
+      emitter.onFail(new MessageOverflowException(message, maximumSize));
+    }
+  }
+
+  @Override
+  public void onComplete() {
+    synchronized (this) {
+      tryCloseWindow();
+    }
+    if (stop())
+      emitter.onComplete();
+    else
+      emitter.drain();
+  }
+
+  @Override
+  public void onFail(Throwable t) {
+    if (stop())
+      emitter.onFail(t);
+  }
+}
@@ -0,0 +1,158 @@
+/*
+ * Copyright (C) 2018 Elias N Vasylenko <eliasvasylenko@strangeskies.co.uk>
+ *      __   _______  ____           _       __     _      __       __
+ *    ,`_ `,|__   __||  _ `.        / \     |  \   | |  ,-`__`¬  ,-`__`¬
+ *   ( (_`-'   | |   | | ) |       / . \    | . \  | | / .`  `' / .`  `'
+ *    `._ `.   | |   | |<. L      / / \ \   | |\ \ | || |    _ | '--.
+ *   _   `. \  | |   | |  `.`.   / /   \ \  | | \ \| || |   | || +--'
+ *  \ \__.' /  | |   | |    \ \ / /     \ \ | |  \ ` | \ `._' | \ `.__,.
+ *   `.__.-`   |_|   |_|    |_|/_/       \_\|_|   \__|  `-.__.J  `-.__.J
+ *                   __    _         _      __      __
+ *                 ,`_ `, | |  _    | |  ,-`__`¬  ,`_ `,
+ *                ( (_`-' | | ) |   | | / .`  `' ( (_`-'
+ *                 `._ `. | L-' L   | || '--.     `._ `.
+ *                _   `. \| ,.-^.`. | || +--'    _   `. \
+ *               \ \__.' /| |    \ \| | \ `.__,.\ \__.' /
+ *                `.__.-` |_|    |_||_|  `-.__.J `.__.-`
+ *
+ * This file is part of uk.co.strangeskies.observable.
+ *
+ * uk.co.strangeskies.observable is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * uk.co.strangeskies.observable is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package uk.co.strangeskies.observable;
+
+import static java.util.Arrays.asList;
+import static java.util.stream.Collectors.toList;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.hamcrest.core.IsInstanceOf.instanceOf;
+import static org.junit.Assert.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ExecutorService;
+
+import org.junit.Test;
+
+@SuppressWarnings("javadoc")
+public class BlockingIteratorObserverTest {
+  class RecordingObservation implements Observation {
+    final List<Long> requests = new ArrayList<>();
+    boolean cancelled;
+
+    @Override
+    public void cancel() {
+      cancelled = true;
+    }
+
+    @Override
+    public void request(long count) {
+      requests.add(count);
+    }
+
+    @Override
+    public long getPendingRequestCount() {
+      return 0;
+    }
+  }
+
+  @Test
+  public void iterateMessagesTest() {
+    List<String> messages = new ArrayList<>();
+    Observable.of("a", "b", "c").toBlockingIterator(2).forEachRemaining(messages::add);
+
+    assertThat(messages, equalTo(asList("a", "b", "c")));
+  }
+
+  @Test
+  public void requestsPrefetchOnObserveTest() {
+    RecordingObservation observation = new RecordingObservation();
+    BlockingIteratorObserver<String> iterator = new BlockingIteratorObserver<>(Observable.empty(), 4);
+    iterator.onObserve(observation);
+
+    assertThat(observation.requests, equalTo(asList(4l)));
+  }
+
+  @Test
+  public void replenishAfterThreeQuartersConsumedTest() {
+    RecordingObservation observation = new RecordingObservation();
+    BlockingIteratorObserver<String> iterator = new BlockingIteratorObserver<>(Observable.empty(), 4);
+    iterator.onObserve(observation);
+    iterator.onNext("a");
+    iterator.onNext("b");
+    iterator.onNext("c");
+    iterator.onNext("d");
+
+    iterator.next();
+    iterator.next();
+    assertThat(observation.requests, equalTo(asList(4l)));
+
+    iterator.next();
+    assertThat(observation.requests, equalTo(asList(4l, 3l)));
+  }
+
+  @Test
+  public void overflowFailsTest() {
+    RecordingObservation observation = new RecordingObservation();
+    BlockingIteratorObserver<String> iterator = new BlockingIteratorObserver<>(Observable.empty(), 1);
+    iterator.onObserve(observation);
+    iterator.onNext("a");
+    iterator.onNext("b");
+
+    assertThat(observation.cancelled, equalTo(true));
+    assertThat(iterator.next(), equalTo("a"));
+    try {
+      iterator.hasNext();
+      throw new AssertionError();
+    } catch (MissingValueException e) {
+      assertThat(e.getCause(), instanceOf(MessageOverflowException.class));
+    }
+  }
+
+  @Test(expected = MissingValueException.class)
+  public void failureThrowsTest() {
+    Observable.failingValue(new Exception()).toBlockingIterator(2).hasNext();
+  }
+
+  @Test
+  public void cancelEndsIterationTest() {
+    RecordingObservation observation = new RecordingObservation();
+    BlockingIteratorObserver<String> iterator = new BlockingIteratorObserver<>(Observable.empty(), 4);
+    iterator.onObserve(observation);
+    iterator.cancel();
+
+    assertThat(observation.cancelled, equalTo(true));
+    assertThat(iterator.hasNext(), equalTo(false));
+  }
+
+  @Test(timeout = 5000)
+  public void iterateAcrossThreadsTest() {
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    try {
+      List<Integer> expected = new ArrayList<>();
+      for (int i = 0; i < 1000; i++)
+        expected.add(i);
+
+      List<Integer> messages = Observable
+          .of(expected)
+          .executeOn(executor, 8)
+          .toStream(16)
+          .collect(toList());
+
+      assertThat(messages, equalTo(expected));
+    } finally {
+      executor.shutdown();
+    }
+  }
+}
@@ -0,0 +1,172 @@
+/*
+ * Copyright (C) 2018 Elias N Vasylenko <eliasvasylenko@strangeskies.co.uk>
+ *      __   _______  ____           _       __     _      __       __
+ *    ,`_ `,|__   __||  _ `.        / \     |  \   | |  ,-`__`¬  ,-`__`¬
+ *   ( (_`-'   | |   | | ) |       / . \    | . \  | | / .`  `' / .`  `'
+ *    `._ `.   | |   | |<. L      / / \ \   | |\ \ | || |    _ | '--.
+ *   _   `. \  | |   | |  `.`.   / /   \ \  | | \ \| || |   | || +--'
+ *  \ \__.' /  | |   | |    \ \ / /     \ \ | |  \ ` | \ `._' | \ `.__,.
+ *   `.__.-`   |_|   |_|    |_|/_/       \_\|_|   \__|  `-.__.J  `-.__.J
+ *                   __    _         _      __      __
+ *                 ,`_ `, | |  _    | |  ,-`__`¬  ,`_ `,
+ *                ( (_`-' | | ) |   | | / .`  `' ( (_`-'
+ *                 `._ `. | L-' L   | || '--.     `._ `.
+ *                _   `. \| ,.-^.`. | || +--'    _   `. \
+ *               \ \__.' /| |    \ \| | \ `.__,.\ \__.' /
+ *                `.__.-` |_|    |_||_|  `-.__.J `.__.-`
+ *
+ * This file is part of uk.co.strangeskies.observable.
+ *
+ * uk.co.strangeskies.observable is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * uk.co.strangeskies.observable is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package uk.co.strangeskies.observable;
+
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.hamcrest.core.IsInstanceOf.instanceOf;
+import static org.junit.Assert.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+@SuppressWarnings("javadoc")
+public class BufferingObserverTest {
+  class RecordingObserver implements Observer<String> {
+    final List<Object> events = new ArrayList<>();
+    Observation observation;
+
+    @Override
+    public void onObserve(Observation observation) {
+      this.observation = observation;
+    }
+
+    @Override
+    public void onNext(String message) {
+      events.add(message);
+    }
+
+    @Override
+    public void onComplete() {
+      events.add("complete");
+    }
+
+    @Override
+    public void onFail(Throwable t) {
+      events.add(t);
+    }
+  }
+
+  RecordingObserver downstreamObserver = new RecordingObserver();
+
+  HotObservable<String> upstreamObservable = new HotObservable<>();
+
+  @Test
+  public void bufferUntilRequestedTest() {
+    upstreamObservable.buffer(4, OverflowStrategy.FAIL).observe(downstreamObserver);
+    upstreamObservable.next("one").next("two");
+
+    assertThat(downstreamObserver.events, equalTo(List.of()));
+
+    downstreamObserver.observation.requestNext();
+    assertThat(downstreamObserver.events, equalTo(List.of("one")));
+
+    downstreamObserver.observation.requestNext();
+    assertThat(downstreamObserver.events, equalTo(List.of("one", "two")));
+  }
+
+  @Test
+  public void passThroughWhenRequestedTest() {
+    upstreamObservable.buffer(4, OverflowStrategy.FAIL).observe(downstreamObserver);
+    downstreamObserver.observation.requestUnbounded();
+    upstreamObservable.next("one").next("two");
+
+    assertThat(downstreamObserver.events, equalTo(List.of("one", "two")));
+  }
+
+  @Test
+  public void dropOldestTest() {
+    upstreamObservable.buffer(2, OverflowStrategy.DROP_OLDEST).observe(downstreamObserver);
+    upstreamObservable.next("one").next("two").next("three");
+    downstreamObserver.observation.requestUnbounded();
+
+    assertThat(downstreamObserver.events, equalTo(List.of("two", "three")));
+  }
+
+  @Test
+  public void dropLatestTest() {
+    upstreamObservable.buffer(2, OverflowStrategy.DROP_LATEST).observe(downstreamObserver);
+    upstreamObservable.next("one").next("two").next("three");
+    downstreamObserver.observation.requestUnbounded();
+
+    assertThat(downstreamObserver.events, equalTo(List.of("one", "two")));
+  }
+
+  @Test
+  public void failOnOverflowTest() {
+    upstreamObservable.buffer(2, OverflowStrategy.FAIL).observe(downstreamObserver);
+    upstreamObservable.next("one").next("two").next("three");
+
+    assertThat(downstreamObserver.events.size(), equalTo(1));
+    assertThat(downstreamObserver.events.get(0), instanceOf(MessageOverflowException.class));
+    assertThat(upstreamObservable.hasObservers(), equalTo(false));
+  }
+
+  @Test
+  public void blockOnOverflowTest() throws InterruptedException {
+    upstreamObservable.buffer(1, OverflowStrategy.BLOCK).observe(downstreamObserver);
+
+    Thread producer = new Thread(() -> upstreamObservable.next("one").next("two").complete());
+    producer.start();
+
+    while (producer.getState() != Thread.State.WAITING && producer.isAlive())
+      Thread.yield();
+
+    downstreamObserver.observation.requestUnbounded();
+    producer.join();
+
+    assertThat(downstreamObserver.events, equalTo(List.of("one", "two", "complete")));
+  }
+
+  @Test
+  public void completeAfterBufferDrainedTest() {
+    upstreamObservable.buffer(4, OverflowStrategy.FAIL).observe(downstreamObserver);
+    upstreamObservable.next("one").complete();
+
+    assertThat(downstreamObserver.events, equalTo(List.of()));
+
+    downstreamObserver.observation.requestNext();
+    assertThat(downstreamObserver.events, equalTo(List.of("one", "complete")));
+  }
+
+  @Test
+  public void failImmediatelyTest() {
+    Throwable failure = new Throwable();
+
+    upstreamObservable.buffer(4, OverflowStrategy.FAIL).observe(downstreamObserver);
+    upstreamObservable.next("one").fail(failure);
+
+    assertThat(downstreamObserver.events, equalTo(List.of(failure)));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void zeroCapacityTest() {
+    new BufferingObserver<>(downstreamObserver, 0, OverflowStrategy.FAIL);
+  }
+
+  @Test(expected = NullPointerException.class)
+  public void nullStrategyTest() {
+    new BufferingObserver<>(downstreamObserver, 1, null);
+  }
+}
@@ -0,0 +1,224 @@
+/*
+ * Copyright (C) 2018 Elias N Vasylenko <eliasvasylenko@strangeskies.co.uk>
+ *      __   _______  ____           _       __     _      __       __
+ *    ,`_ `,|__   __||  _ `.        / \     |  \   | |  ,-`__`¬  ,-`__`¬
+ *   ( (_`-'   | |   | | ) |       / . \    | . \  | | / .`  `' / .`  `'
+ *    `._ `.   | |   | |<. L      / / \ \   | |\ \ | || |    _ | '--.
+ *   _   `. \  | |   | |  `.`.   / /   \ \  | | \ \| || |   | || +--'
+ *  \ \__.' /  | |   | |    \ \ / /     \ \ | |  \ ` | \ `._' | \ `.__,.
+ *   `.__.-`   |_|   |_|    |_|/_/       \_\|_|   \__|  `-.__.J  `-.__.J
+ *                   __    _         _      __      __
+ *                 ,`_ `, | |  _    | |  ,-`__`¬  ,`_ `,
+ *                ( (_`-' | | ) |   | | / .`  `' ( (_`-'
+ *                 `._ `. | L-' L   | || '--.     `._ `.
+ *                _   `. \| ,.-^.`. | || +--'    _   `. \
+ *               \ \__.' /| |    \ \| | \ `.__,.\ \__.' /
+ *                `.__.-` |_|    |_||_|  `-.__.J `.__.-`
+ *
+ * This file is part of uk.co.strangeskies.observable.
+ *
+ * uk.co.strangeskies.observable is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * uk.co.strangeskies.observable is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package uk.co.strangeskies.observable;
+
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.junit.Test;
+
+import uk.co.strangeskies.observable.ObservableValue.Change;
+
+@SuppressWarnings("javadoc")
+public class ConflatingObservablePropertyTest {
+  private static class ManualExecutor implements Executor {
+    private final Queue<Runnable> tasks = new ArrayDeque<>();
+    boolean rejecting;
+
+    @Override
+    public void execute(Runnable command) {
+      if (rejecting)
+        throw new RejectedExecutionException();
+      tasks.add(command);
+    }
+
+    int pending() {
+      return tasks.size();
+    }
+
+    void runAll() {
+      Runnable task;
+      while ((task = tasks.poll()) != null)
+        task.run();
+    }
+  }
+
+  @Test
+  public void rejectedDrainIsRescheduledTest() {
+    ManualExecutor executor = new ManualExecutor();
+    ObservableProperty<String> property = ObservableProperty.conflated("initial", executor);
+    List<String> messages = new ArrayList<>();
+    property.observe(messages::add);
+
+    executor.rejecting = true;
+    boolean rejected = false;
+    try {
+      property.set("first");
+    } catch (RejectedExecutionException e) {
+      rejected = true;
+    }
+    assertThat(rejected, equalTo(true));
+    assertThat(property.get(), equalTo("first"));
+
+    executor.rejecting = false;
+    property.set("second");
+    executor.runAll();
+
+    assertThat(messages, equalTo(Arrays.asList("initial", "second")));
+  }
+
+  @Test
+  public void initialValueOnObserveTest() {
+    ObservableProperty<String> property = ObservableProperty.conflated("initial", Runnable::run);
+    List<String> messages = new ArrayList<>();
+
+    property.observe(messages::add);
+
+    assertThat(messages, equalTo(Arrays.asList("initial")));
+  }
+
+  @Test
+  public void setWithDirectExecutorDeliversEachValueTest() {
+    ObservableProperty<String> property = ObservableProperty.conflated("initial", Runnable::run);
+    List<String> messages = new ArrayList<>();
+    property.observe(messages::add);
+
+    property.set("first");
+    property.set("second");
+
+    assertThat(messages, equalTo(Arrays.asList("initial", "first", "second")));
+  }
+
+  @Test
+  public void setDoesNotDeliverBeforeDrainTest() {
+    ManualExecutor executor = new ManualExecutor();
+    ObservableProperty<String> property = ObservableProperty.conflated("initial", executor);
+    List<String> messages = new ArrayList<>();
+    property.observe(messages::add);
+
+    property.set("message");
+
+    assertThat(messages, equalTo(Arrays.asList("initial")));
+    assertThat(property.get(), equalTo("message"));
+  }
+
+  @Test
+  public void setReturnsPreviousValueTest() {
+    ObservableProperty<String> property = ObservableProperty
+        .conflated("initial", new ManualExecutor());
+
+    assertThat(property.set("first"), equalTo("initial"));
+    assertThat(property.set("second"), equalTo("first"));
+  }
+
+  @Test
+  public void intermediateValuesConflatedTest() {
+    ManualExecutor executor = new ManualExecutor();
+    ObservableProperty<String> property = ObservableProperty.conflated("initial", executor);
+    List<String> messages = new ArrayList<>();
+    property.observe(messages::add);
+
+    property.set("first");
+    property.set("second");
+    property.set("third");
+
+    assertThat(executor.pending(), equalTo(1));
+
+    executor.runAll();
+
+    assertThat(messages, equalTo(Arrays.asList("initial", "third")));
+  }
+
+  @Test
+  public void drainCycleRescheduledAfterCompletionTest() {
+    ManualExecutor executor = new ManualExecutor();
+    ObservableProperty<String> property = ObservableProperty.conflated("initial", executor);
+    List<String> messages = new ArrayList<>();
+    property.observe(messages::add);
+
+    property.set("first");
+    executor.runAll();
+    property.set("second");
+    executor.runAll();
+
+    assertThat(messages, equalTo(Arrays.asList("initial", "first", "second")));
+  }
+
+  @Test
+  public void setProblemConflatedTest() {
+    ManualExecutor executor = new ManualExecutor();
+    ObservableProperty<String> property = ObservableProperty.conflated("initial", executor);
+    Throwable problem = new Throwable();
+    List<Throwable> failures = new ArrayList<>();
+    property.observe(Observer.onFailure(failures::add));
+
+    property.set("first");
+    property.setProblem(problem);
+
+    assertFalse(property.isValid());
+    assertThat(property.getProblem(), equalTo(problem));
+
+    executor.runAll();
+
+    assertThat(failures, equalTo(Arrays.asList(problem)));
+  }
+
+  @Test
+  public void conflatedBackToSameValueNotDeliveredTest() {
+    ManualExecutor executor = new ManualExecutor();
+    ObservableProperty<String> property = ObservableProperty.conflated("initial", executor);
+    List<String> messages = new ArrayList<>();
+    property.observe(messages::add);
+
+    property.set("first");
+    property.set("initial");
+    executor.runAll();
+
+    assertThat(messages, equalTo(Arrays.asList("initial")));
+  }
+
+  @Test
+  public void changesConflatedTest() {
+    ManualExecutor executor = new ManualExecutor();
+    ObservableProperty<String> property = ObservableProperty.conflated("initial", executor);
+    List<Change<String>> changes = new ArrayList<>();
+    property.changes().observe(changes::add);
+
+    property.set("first");
+    property.set("second");
+    executor.runAll();
+
+    assertThat(changes.size(), equalTo(1));
+    assertThat(changes.get(0).previousValue().get(), equalTo("initial"));
+    assertThat(changes.get(0).newValue().get(), equalTo("second"));
+  }
+}
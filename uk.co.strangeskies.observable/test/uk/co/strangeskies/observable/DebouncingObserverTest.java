@@ -0,0 +1,201 @@
+/*
+ * Copyright (C) 2018 Elias N Vasylenko <eliasvasylenko@strangeskies.co.uk>
+ *      __   _______  ____           _       __     _      __       __
+ *    ,`_ `,|__   __||  _ `.        / \     |  \   | |  ,-`__`¬  ,-`__`¬
+ *   ( (_`-'   | |   | | ) |       / . \    | . \  | | / .`  `' / .`  `'
+ *    `._ `.   | |   | |<. L      / / \ \   | |\ \ | || |    _ | '--.
+ *   _   `. \  | |   | |  `.`.   / /   \ \  | | \ \| || |   | || +--'
+ *  \ \__.' /  | |   | |    \ \ / /     \ \ | |  \ ` | \ `._' | \ `.__,.
+ *   `.__.-`   |_|   |_|    |_|/_/       \_\|_|   \__|  `-.__.J  `-.__.J
+ *                   __    _         _      __      __
+ *                 ,`_ `, | |  _    | |  ,-`__`¬  ,`_ `,
+ *                ( (_`-' | | ) |   | | / .`  `' ( (_`-'
+ *                 `._ `. | L-' L   | || '--.     `._ `.
+ *                _   `. \| ,.-^.`. | || +--'    _   `. \
+ *               \ \__.' /| |    \ \| | \ `.__,.\ \__.' /
+ *                `.__.-` |_|    |_||_|  `-.__.J `.__.-`
+ *
+ * This file is part of uk.co.strangeskies.observable.
+ *
+ * uk.co.strangeskies.observable is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * uk.co.strangeskies.observable is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package uk.co.strangeskies.observable;
+
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.junit.Assert.assertThat;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.Test;
+
+@SuppressWarnings("javadoc")
+public class DebouncingObserverTest {
+  VirtualScheduler scheduler = new VirtualScheduler();
+
+  HotObservable<String> upstreamObservable = new HotObservable<>();
+
+  List<String> received = new ArrayList<>();
+
+  @Test(timeout = 5000)
+  public void slowDownstreamDoesNotBlockUpstreamTest() throws InterruptedException {
+    CountDownLatch delivering = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+
+    DebouncingObserver<String> debounce = new DebouncingObserver<>(new Observer<String>() {
+      @Override
+      public void onObserve(Observation observation) {
+        observation.requestUnbounded();
+      }
+
+      @Override
+      public void onNext(String message) {
+        received.add(message);
+        delivering.countDown();
+        try {
+          release.await();
+        } catch (InterruptedException e) {
+          throw new AssertionError(e);
+        }
+      }
+    }, Duration.ofSeconds(1), scheduler);
+    upstreamObservable.observe(debounce);
+
+    debounce.onNext("one");
+    Thread timer = new Thread(() -> scheduler.advanceBy(Duration.ofSeconds(1)));
+    timer.start();
+    delivering.await();
+
+    debounce.onNext("two");
+    debounce.onComplete();
+
+    release.countDown();
+    timer.join();
+
+    assertThat(received, equalTo(List.of("one", "two")));
+  }
+
+  @Test
+  public void holdMessageUntilQuietTest() {
+    upstreamObservable
+        .debounce(Duration.ofSeconds(1), scheduler)
+        .requestUnbounded()
+        .observe(received::add);
+
+    upstreamObservable.next("one");
+    scheduler.advanceBy(Duration.ofMillis(500));
+
+    assertThat(received, equalTo(List.of()));
+
+    scheduler.advanceBy(Duration.ofMillis(500));
+
+    assertThat(received, equalTo(List.of("one")));
+  }
+
+  @Test
+  public void forwardOnlyLatestOfBurstTest() {
+    upstreamObservable
+        .debounce(Duration.ofSeconds(1), scheduler)
+        .requestUnbounded()
+        .observe(received::add);
+
+    upstreamObservable.next("one");
+    scheduler.advanceBy(Duration.ofMillis(600));
+    upstreamObservable.next("two");
+    scheduler.advanceBy(Duration.ofMillis(600));
+    upstreamObservable.next("three");
+    scheduler.advanceBy(Duration.ofMillis(600));
+
+    assertThat(received, equalTo(List.of()));
+
+    scheduler.advanceBy(Duration.ofMillis(400));
+
+    assertThat(received, equalTo(List.of("three")));
+  }
+
+  @Test
+  public void forwardEachQuietMessageTest() {
+    upstreamObservable
+        .debounce(Duration.ofSeconds(1), scheduler)
+        .requestUnbounded()
+        .observe(received::add);
+
+    upstreamObservable.next("one");
+    scheduler.advanceBy(Duration.ofSeconds(2));
+    upstreamObservable.next("two");
+    scheduler.advanceBy(Duration.ofSeconds(2));
+
+    assertThat(received, equalTo(List.of("one", "two")));
+  }
+
+  @Test
+  public void retainMessageUntilRequestedTest() {
+    List<Observation> observation = new ArrayList<>();
+
+    upstreamObservable
+        .debounce(Duration.ofSeconds(1), scheduler)
+        .then(Observer.onObservation(observation::add))
+        .observe(received::add);
+
+    upstreamObservable.next("one");
+    scheduler.advanceBy(Duration.ofSeconds(2));
+
+    assertThat(received, equalTo(List.of()));
+
+    observation.get(0).requestNext();
+
+    assertThat(received, equalTo(List.of("one")));
+  }
+
+  @Test
+  public void forwardPendingMessageOnCompleteTest() {
+    List<String> completed = new ArrayList<>();
+    upstreamObservable
+        .debounce(Duration.ofSeconds(1), scheduler)
+        .requestUnbounded()
+        .then(Observer.onCompletion(() -> completed.add("complete")))
+        .observe(received::add);
+
+    upstreamObservable.next("one");
+    upstreamObservable.complete();
+
+    assertThat(received, equalTo(List.of("one")));
+    assertThat(completed, equalTo(List.of("complete")));
+  }
+
+  @Test
+  public void cancelStopsTimerTest() {
+    List<Observation> observation = new ArrayList<>();
+
+    upstreamObservable
+        .debounce(Duration.ofSeconds(1), scheduler)
+        .requestUnbounded()
+        .then(Observer.onObservation(observation::add))
+        .observe(received::add);
+
+    upstreamObservable.next("one");
+    observation.get(0).cancel();
+    scheduler.advanceBy(Duration.ofSeconds(2));
+
+    assertThat(received, equalTo(List.of()));
+    assertThat(scheduler.getPendingTaskCount(), equalTo(0));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void nonPositiveQuietPeriodTest() {
+    new DebouncingObserver<String>(received::add, Duration.ZERO, scheduler);
+  }
+}
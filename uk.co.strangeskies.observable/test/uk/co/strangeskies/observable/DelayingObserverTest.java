@@ -0,0 +1,157 @@
+/*
+ * Copyright (C) 2018 Elias N Vasylenko <eliasvasylenko@strangeskies.co.uk>
+ *      __   _______  ____           _       __     _      __       __
+ *    ,`_ `,|__   __||  _ `.        / \     |  \   | |  ,-`__`¬  ,-`__`¬
+ *   ( (_`-'   | |   | | ) |       / . \    | . \  | | / .`  `' / .`  `'
+ *    `._ `.   | |   | |<. L      / / \ \   | |\ \ | || |    _ | '--.
+ *   _   `. \  | |   | |  `.`.   / /   \ \  | | \ \| || |   | || +--'
+ *  \ \__.' /  | |   | |    \ \ / /     \ \ | |  \ ` | \ `._' | \ `.__,.
+ *   `.__.-`   |_|   |_|    |_|/_/       \_\|_|   \__|  `-.__.J  `-.__.J
+ *                   __    _         _      __      __
+ *                 ,`_ `, | |  _    | |  ,-`__`¬  ,`_ `,
+ *                ( (_`-' | | ) |   | | / .`  `' ( (_`-'
+ *                 `._ `. | L-' L   | || '--.     `._ `.
+ *                _   `. \| ,.-^.`. | || +--'    _   `. \
+ *               \ \__.' /| |    \ \| | \ `.__,.\ \__.' /
+ *                `.__.-` |_|    |_||_|  `-.__.J `.__.-`
+ *
+ * This file is part of uk.co.strangeskies.observable.
+ *
+ * uk.co.strangeskies.observable is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * uk.co.strangeskies.observable is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package uk.co.strangeskies.observable;
+
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.junit.Assert.assertThat;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+@SuppressWarnings("javadoc")
+public class DelayingObserverTest {
+  VirtualScheduler scheduler = new VirtualScheduler();
+
+  HotObservable<String> upstreamObservable = new HotObservable<>();
+
+  List<String> received = new ArrayList<>();
+  List<String> events = new ArrayList<>();
+
+  void observe() {
+    upstreamObservable
+        .delay(Duration.ofSeconds(1), scheduler)
+        .requestUnbounded()
+        .then(Observer.onCompletion(() -> events.add("complete")))
+        .then(Observer.onFailure(t -> events.add("fail")))
+        .observe(received::add);
+  }
+
+  @Test
+  public void delayMessageTest() {
+    observe();
+
+    upstreamObservable.next("one");
+    scheduler.advanceBy(Duration.ofMillis(999));
+
+    assertThat(received, equalTo(List.of()));
+
+    scheduler.advanceBy(Duration.ofMillis(1));
+
+    assertThat(received, equalTo(List.of("one")));
+  }
+
+  @Test
+  public void preserveOrderTest() {
+    observe();
+
+    upstreamObservable.next("one");
+    scheduler.advanceBy(Duration.ofMillis(500));
+    upstreamObservable.next("two").next("three");
+    scheduler.advanceBy(Duration.ofSeconds(2));
+
+    assertThat(received, equalTo(List.of("one", "two", "three")));
+  }
+
+  @Test
+  public void scheduleOneDrainAtATimeTest() {
+    observe();
+
+    upstreamObservable.next("one").next("two").next("three");
+    scheduler.advanceBy(Duration.ofMillis(500));
+    upstreamObservable.next("four");
+
+    assertThat(scheduler.getPendingTaskCount(), equalTo(1));
+
+    scheduler.advanceBy(Duration.ofMillis(500));
+
+    assertThat(received, equalTo(List.of("one", "two", "three")));
+    assertThat(scheduler.getPendingTaskCount(), equalTo(1));
+
+    scheduler.advanceBy(Duration.ofMillis(500));
+
+    assertThat(received, equalTo(List.of("one", "two", "three", "four")));
+    assertThat(scheduler.getPendingTaskCount(), equalTo(0));
+  }
+
+  @Test
+  public void delayCompletionTest() {
+    observe();
+
+    upstreamObservable.next("one").complete();
+
+    assertThat(events, equalTo(List.of()));
+
+    scheduler.advanceBy(Duration.ofSeconds(1));
+
+    assertThat(received, equalTo(List.of("one")));
+    assertThat(events, equalTo(List.of("complete")));
+  }
+
+  @Test
+  public void failImmediatelyAndDiscardDelayedTest() {
+    observe();
+
+    upstreamObservable.next("one").fail(new Throwable());
+
+    assertThat(events, equalTo(List.of("fail")));
+
+    scheduler.advanceBy(Duration.ofSeconds(1));
+
+    assertThat(received, equalTo(List.of()));
+  }
+
+  @Test
+  public void discardDelayedOnCancelTest() {
+    List<Observation> observation = new ArrayList<>();
+
+    upstreamObservable
+        .delay(Duration.ofSeconds(1), scheduler)
+        .requestUnbounded()
+        .then(Observer.onObservation(observation::add))
+        .observe(received::add);
+
+    upstreamObservable.next("one");
+    observation.get(0).cancel();
+    scheduler.advanceBy(Duration.ofSeconds(1));
+
+    assertThat(received, equalTo(List.of()));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void negativeDelayTest() {
+    new DelayingObserver<String>(received::add, Duration.ofSeconds(-1), scheduler);
+  }
+}
@@ -32,7 +32,21 @@
  */
 package uk.co.strangeskies.observable;
 
+import static java.util.Arrays.asList;
 import static java.util.function.Function.identity;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.hamcrest.core.IsInstanceOf.instanceOf;
+import static org.junit.Assert.assertThat;
+import static uk.co.strangeskies.observable.RequestAllocator.balanced;
+import static uk.co.strangeskies.observable.RequestAllocator.sequential;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
 import org.junit.Test;
 
@@ -58,4 +72,190 @@ public class FlatMappingObserverTest {
   public void nullRequestAllocatorTest() {
     new FlatMappingObserver<>(downstreamObserver, identity(), null);
   }
+
+  class RecordingObserver<T> implements Observer<T> {
+    final List<T> messages = Collections.synchronizedList(new ArrayList<>());
+    final CountDownLatch terminated = new CountDownLatch(1);
+    Observation observation;
+    volatile boolean complete;
+    volatile Throwable failure;
+
+    @Override
+    public void onObserve(Observation observation) {
+      this.observation = observation;
+    }
+
+    @Override
+    public void onNext(T message) {
+      messages.add(message);
+    }
+
+    @Override
+    public void onComplete() {
+      complete = true;
+      terminated.countDown();
+    }
+
+    @Override
+    public void onFail(Throwable t) {
+      failure = t;
+      terminated.countDown();
+    }
+  }
+
+  @Test
+  public void mergeUnboundedTest() {
+    RecordingObserver<Integer> observer = new RecordingObserver<>();
+    Observable
+        .of(1, 2, 3)
+        .requestUnbounded()
+        .observe(
+            new FlatMappingObserver<>(
+                observer,
+                i -> Observable.of(i, i * 10).requestUnbounded(),
+                balanced()));
+    observer.observation.requestUnbounded();
+
+    assertThat(observer.messages, equalTo(asList(1, 10, 2, 20, 3, 30)));
+    assertThat(observer.complete, equalTo(true));
+  }
+
+  @Test
+  public void concatBoundedRequestsTest() {
+    RecordingObserver<Integer> observer = new RecordingObserver<>();
+    Observable
+        .of(1, 2, 3)
+        .observe(
+            new FlatMappingObserver<>(observer, i -> Observable.of(i, i * 10), sequential()));
+
+    observer.observation.request(3);
+    assertThat(observer.messages, equalTo(asList(1, 10, 2)));
+    assertThat(observer.complete, equalTo(false));
+
+    observer.observation.request(3);
+    assertThat(observer.messages, equalTo(asList(1, 10, 2, 20, 3, 30)));
+    assertThat(observer.complete, equalTo(true));
+  }
+
+  @Test
+  public void pendingRequestCountTest() {
+    RecordingObserver<Integer> observer = new RecordingObserver<>();
+    Observable
+        .of(1)
+        .observe(new FlatMappingObserver<>(observer, i -> Observable.of(1, 2, 3, 4), sequential()));
+
+    observer.observation.request(2);
+
+    assertThat(observer.messages, equalTo(asList(1, 2)));
+    assertThat(observer.observation.getPendingRequestCount(), equalTo(0l));
+  }
+
+  @Test
+  public void completeAfterInnerCompletesTest() {
+    RecordingObserver<Integer> observer = new RecordingObserver<>();
+    HotObservable<Integer> inner = new HotObservable<>();
+    Observable
+        .of(1)
+        .requestUnbounded()
+        .observe(new FlatMappingObserver<>(observer, i -> inner, balanced()));
+    observer.observation.requestUnbounded();
+
+    inner.next(1);
+    assertThat(observer.complete, equalTo(false));
+
+    inner.complete();
+    assertThat(observer.messages, equalTo(asList(1)));
+    assertThat(observer.complete, equalTo(true));
+  }
+
+  @Test
+  public void innerFailureCancelsOtherInnersTest() {
+    RecordingObserver<Integer> observer = new RecordingObserver<>();
+    HotObservable<Integer> first = new HotObservable<>();
+    HotObservable<Integer> second = new HotObservable<>();
+    Exception failure = new Exception();
+    Observable
+        .of(first, second)
+        .requestUnbounded()
+        .observe(new FlatMappingObserver<>(observer, identity(), balanced()));
+    observer.observation.requestUnbounded();
+
+    second.fail(failure);
+
+    assertThat(observer.failure, equalTo(failure));
+    assertThat(first.hasObservers(), equalTo(false));
+  }
+
+  @Test
+  public void mappingFailureTest() {
+    RecordingObserver<Integer> observer = new RecordingObserver<>();
+    Observable.of(1).requestUnbounded().observe(new FlatMappingObserver<Integer, Integer>(
+        observer,
+        i -> {
+          throw new IllegalStateException();
+        },
+        balanced()));
+    observer.observation.requestUnbounded();
+
+    assertThat(observer.failure, instanceOf(IllegalStateException.class));
+  }
+
+  @Test
+  public void cancelCancelsInnersTest() {
+    RecordingObserver<Integer> observer = new RecordingObserver<>();
+    HotObservable<Integer> inner = new HotObservable<>();
+    Observable
+        .of(1)
+        .requestUnbounded()
+        .observe(new FlatMappingObserver<>(observer, i -> inner, balanced()));
+    observer.observation.requestUnbounded();
+
+    observer.observation.cancel();
+
+    assertThat(inner.hasObservers(), equalTo(false));
+  }
+
+  @Test(timeout = 5000)
+  public void concurrentInnersTest() throws InterruptedException {
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      List<Integer> range = new ArrayList<>();
+      for (int i = 0; i < 100; i++)
+        range.add(i);
+
+      RecordingObserver<Integer> observer = new RecordingObserver<>();
+      Observable
+          .of(range)
+          .requestUnbounded()
+          .observe(
+              new FlatMappingObserver<>(
+                  observer,
+                  i -> Observable.of(range).executeOn(executor, 16).requestUnbounded(),
+                  balanced()));
+      observer.observation.requestUnbounded();
+
+      assertThat(observer.terminated.await(5, TimeUnit.SECONDS), equalTo(true));
+      assertThat(observer.messages.size(), equalTo(10000));
+      assertThat(observer.complete, equalTo(true));
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  @Test(timeout = 5000)
+  public void manyInnersTest() {
+    List<Integer> range = new ArrayList<>();
+    for (int i = 0; i < 10000; i++)
+      range.add(i);
+
+    RecordingObserver<Integer> observer = new RecordingObserver<>();
+    Observable
+        .of(range)
+        .requestUnbounded()
+        .observe(new FlatMappingObserver<>(observer, i -> Observable.of(i), balanced()));
+    observer.observation.request(20000);
+
+    assertThat(observer.messages, equalTo(range));
+    assertThat(observer.complete, equalTo(true));
+  }
 }
@@ -35,6 +35,9 @@ package uk.co.strangeskies.observable;
 import static org.hamcrest.core.IsEqual.equalTo;
 import static org.junit.Assert.assertThat;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import org.junit.Test;
 
 import mockit.FullVerifications;
@@ -222,4 +225,45 @@ public class HotObservableTest {
     observable.observe();
     observable.next(null);
   }
+
+  @Test
+  public void cancelDuringMessageStillDeliversToRemainingObserversTest() {
+    List<String> received = new ArrayList<>();
+
+    HotObservable<String> observable = new HotObservable<>();
+    Disposable second = observable.observe(m -> received.add("second " + m));
+    observable.observe(m -> received.add("third " + m));
+    second.cancel();
+    Disposable first = observable.observe(m -> received.add("first " + m));
+    observable.observe(m -> first.cancel());
+
+    observable.next("a");
+    observable.next("b");
+
+    assertThat(received, equalTo(List.of("third a", "first a", "third b")));
+  }
+
+  @Test
+  public void observeDuringMessageDoesNotReceiveMessageTest() {
+    List<String> received = new ArrayList<>();
+
+    HotObservable<String> observable = new HotObservable<>();
+    observable.observe(m -> {
+      if (m.equals("a"))
+        observable.observe(n -> received.add(n));
+    });
+
+    observable.next("a");
+    observable.next("b");
+
+    assertThat(received, equalTo(List.of("b")));
+  }
+
+  @Test
+  public void hasNoObserversAfterCompleteTest() {
+    HotObservable<String> observable = new HotObservable<>();
+    observable.observe();
+    observable.complete();
+    assertThat(observable.hasObservers(), equalTo(false));
+  }
 }
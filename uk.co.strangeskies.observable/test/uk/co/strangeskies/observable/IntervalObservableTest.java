@@ -0,0 +1,94 @@
+/*
+ * Copyright (C) 2018 Elias N Vasylenko <eliasvasylenko@strangeskies.co.uk>
+ *      __   _______  ____           _       __     _      __       __
+ *    ,`_ `,|__   __||  _ `.        / \     |  \   | |  ,-`__`¬  ,-`__`¬
+ *   ( (_`-'   | |   | | ) |       / . \    | . \  | | / .`  `' / .`  `'
+ *    `._ `.   | |   | |<. L      / / \ \   | |\ \ | || |    _ | '--.
+ *   _   `. \  | |   | |  `.`.   / /   \ \  | | \ \| || |   | || +--'
+ *  \ \__.' /  | |   | |    \ \ / /     \ \ | |  \ ` | \ `._' | \ `.__,.
+ *   `.__.-`   |_|   |_|    |_|/_/       \_\|_|   \__|  `-.__.J  `-.__.J
+ *                   __    _         _      __      __
+ *                 ,`_ `, | |  _    | |  ,-`__`¬  ,`_ `,
+ *                ( (_`-' | | ) |   | | / .`  `' ( (_`-'
+ *                 `._ `. | L-' L   | || '--.     `._ `.
+ *                _   `. \| ,.-^.`. | || +--'    _   `. \
+ *               \ \__.' /| |    \ \| | \ `.__,.\ \__.' /
+ *                `.__.-` |_|    |_||_|  `-.__.J `.__.-`
+ *
+ * This file is part of uk.co.strangeskies.observable.
+ *
+ * uk.co.strangeskies.observable is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * uk.co.strangeskies.observable is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package uk.co.strangeskies.observable;
+
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.junit.Assert.assertThat;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+@SuppressWarnings("javadoc")
+public class IntervalObservableTest {
+  VirtualScheduler scheduler = new VirtualScheduler();
+
+  List<Long> received = new ArrayList<>();
+
+  @Test
+  public void tickEachPeriodTest() {
+    Observable.interval(Duration.ofSeconds(1), scheduler).requestUnbounded().observe(received::add);
+
+    scheduler.advanceBy(Duration.ofMillis(3500));
+
+    assertThat(received, equalTo(List.of(0L, 1L, 2L)));
+  }
+
+  @Test
+  public void dropTicksWithoutRequestTest() {
+    List<Observation> observation = new ArrayList<>();
+
+    Observable
+        .interval(Duration.ofSeconds(1), scheduler)
+        .then(Observer.onObservation(observation::add))
+        .observe(received::add);
+
+    scheduler.advanceBy(Duration.ofSeconds(2));
+    observation.get(0).requestNext();
+    scheduler.advanceBy(Duration.ofSeconds(2));
+
+    assertThat(received, equalTo(List.of(2L)));
+  }
+
+  @Test
+  public void stopTickingOnCancelTest() {
+    Disposable observation = Observable
+        .interval(Duration.ofSeconds(1), scheduler)
+        .requestUnbounded()
+        .observe(received::add);
+
+    scheduler.advanceBy(Duration.ofSeconds(1));
+    observation.cancel();
+    scheduler.advanceBy(Duration.ofSeconds(2));
+
+    assertThat(received, equalTo(List.of(0L)));
+    assertThat(scheduler.getPendingTaskCount(), equalTo(0));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void nonPositivePeriodTest() {
+    Observable.interval(Duration.ZERO, scheduler);
+  }
+}
@@ -33,9 +33,14 @@
 package uk.co.strangeskies.observable;
 
 import static org.hamcrest.core.IsEqual.equalTo;
+import static org.hamcrest.core.IsSame.sameInstance;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertThat;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
 import org.junit.Test;
 
 import mockit.FullVerifications;
@@ -328,4 +333,81 @@ public class ObservablePropertyImplTest {
     };
     new FullVerifications() {};
   }
+
+  @Test
+  public void changeRecordSharedBetweenObserversTest() {
+    ObservablePropertyImpl<String> observable = new ObservablePropertyImpl<>("initial");
+    List<Change<String>> firstChanges = new ArrayList<>();
+    List<Change<String>> secondChanges = new ArrayList<>();
+    observable.changes().observe(firstChanges::add);
+    observable.changes().observe(secondChanges::add);
+    observable.set("message");
+
+    assertThat(firstChanges.size(), equalTo(1));
+    assertThat(secondChanges.get(0), sameInstance(firstChanges.get(0)));
+    assertThat(firstChanges.get(0).previousValue().get(), equalTo("initial"));
+    assertThat(firstChanges.get(0).newValue().get(), equalTo("message"));
+  }
+
+  @Test
+  public void changesAreReadOnlyTest() {
+    ObservablePropertyImpl<String> observable = new ObservablePropertyImpl<>("initial");
+
+    assertFalse(observable.changes() instanceof HotObservable<?>);
+  }
+
+  @Test
+  public void changeToProblemAndBackTest() {
+    ObservablePropertyImpl<String> observable = new ObservablePropertyImpl<>("initial");
+    Throwable problem = new Throwable();
+    List<Change<String>> changes = new ArrayList<>();
+    observable.changes().observe(changes::add);
+    observable.setProblem(problem);
+    observable.set("message");
+
+    assertThat(changes.size(), equalTo(2));
+    assertThat(changes.get(0).previousValue().get(), equalTo("initial"));
+    assertThat(changes.get(0).newValue().getProblem(), equalTo(problem));
+    assertThat(changes.get(1).previousValue(), sameInstance(changes.get(0).newValue()));
+    assertThat(changes.get(1).newValue().get(), equalTo("message"));
+  }
+
+  @Test
+  public void currentStateIsCachedUntilChangeTest() {
+    ObservablePropertyImpl<String> observable = new ObservablePropertyImpl<>("initial");
+    ObservableValue<String> state = observable.currentState();
+
+    assertThat(observable.currentState(), sameInstance(state));
+
+    observable.set("message");
+
+    assertThat(observable.currentState().get(), equalTo("message"));
+    assertThat(state.get(), equalTo("initial"));
+  }
+
+  @Test
+  public void validityTest() {
+    ObservablePropertyImpl<String> observable = new ObservablePropertyImpl<>("initial");
+
+    assertThat(observable.isValid(), equalTo(true));
+    assertThat(observable.tryGetProblem(), equalTo(Optional.empty()));
+    assertThat(observable.tryGet(), equalTo(Optional.of("initial")));
+  }
+
+  @Test
+  public void problemTest() {
+    ObservablePropertyImpl<String> observable = new ObservablePropertyImpl<>("initial");
+    Throwable problem = new Throwable();
+    observable.setProblem(problem);
+
+    assertThat(observable.isValid(), equalTo(false));
+    assertThat(observable.getProblem(), equalTo(problem));
+    assertThat(observable.tryGetProblem(), equalTo(Optional.of(problem)));
+    assertThat(observable.tryGet(), equalTo(Optional.empty()));
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void getProblemWhenValidTest() {
+    new ObservablePropertyImpl<>("initial").getProblem();
+  }
 }
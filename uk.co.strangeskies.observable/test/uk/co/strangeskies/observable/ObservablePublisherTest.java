@@ -0,0 +1,148 @@
+/*
+ * Copyright (C) 2018 Elias N Vasylenko <eliasvasylenko@strangeskies.co.uk>
+ *      __   _______  ____           _       __     _      __       __
+ *    ,`_ `,|__   __||  _ `.        / \     |  \   | |  ,-`__`¬  ,-`__`¬
+ *   ( (_`-'   | |   | | ) |       / . \    | . \  | | / .`  `' / .`  `'
+ *    `._ `.   | |   | |<. L      / / \ \   | |\ \ | || |    _ | '--.
+ *   _   `. \  | |   | |  `.`.   / /   \ \  | | \ \| || |   | || +--'
+ *  \ \__.' /  | |   | |    \ \ / /     \ \ | |  \ ` | \ `._' | \ `.__,.
+ *   `.__.-`   |_|   |_|    |_|/_/       \_\|_|   \__|  `-.__.J  `-.__.J
+ *                   __    _         _      __      __
+ *                 ,`_ `, | |  _    | |  ,-`__`¬  ,`_ `,
+ *                ( (_`-' | | ) |   | | / .`  `' ( (_`-'
+ *                 `._ `. | L-' L   | || '--.     `._ `.
+ *                _   `. \| ,.-^.`. | || +--'    _   `. \
+ *               \ \__.' /| |    \ \| | \ `.__,.\ \__.' /
+ *                `.__.-` |_|    |_||_|  `-.__.J `.__.-`
+ *
+ * This file is part of uk.co.strangeskies.observable.
+ *
+ * uk.co.strangeskies.observable is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * uk.co.strangeskies.observable is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package uk.co.strangeskies.observable;
+
+import static java.util.Arrays.asList;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.hamcrest.core.IsInstanceOf.instanceOf;
+import static org.junit.Assert.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Flow;
+
+import org.junit.Test;
+
+@SuppressWarnings("javadoc")
+public class ObservablePublisherTest {
+  class RecordingSubscriber<M> implements Flow.Subscriber<M> {
+    Flow.Subscription subscription;
+    final List<M> messages = new ArrayList<>();
+    boolean complete;
+    Throwable failure;
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+      this.subscription = subscription;
+    }
+
+    @Override
+    public void onNext(M item) {
+      messages.add(item);
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+      failure = throwable;
+    }
+
+    @Override
+    public void onComplete() {
+      complete = true;
+    }
+  }
+
+  @Test(expected = NullPointerException.class)
+  public void subscribeNullTest() {
+    Observable.of("a").toPublisher().subscribe(null);
+  }
+
+  @Test
+  public void subscribeWithoutRequestTest() {
+    RecordingSubscriber<String> subscriber = new RecordingSubscriber<>();
+    Observable.of("a", "b").toPublisher().subscribe(subscriber);
+
+    assertThat(subscriber.subscription == null, equalTo(false));
+    assertThat(subscriber.messages, equalTo(asList()));
+  }
+
+  @Test
+  public void requestPropagatesDemandTest() {
+    RecordingSubscriber<String> subscriber = new RecordingSubscriber<>();
+    Observable.of("a", "b", "c").toPublisher().subscribe(subscriber);
+
+    subscriber.subscription.request(2);
+    assertThat(subscriber.messages, equalTo(asList("a", "b")));
+    assertThat(subscriber.complete, equalTo(false));
+
+    subscriber.subscription.request(1);
+    assertThat(subscriber.messages, equalTo(asList("a", "b", "c")));
+    assertThat(subscriber.complete, equalTo(true));
+  }
+
+  @Test
+  public void requestUnboundedTest() {
+    RecordingSubscriber<String> subscriber = new RecordingSubscriber<>();
+    Observable.of("a", "b").toPublisher().subscribe(subscriber);
+
+    subscriber.subscription.request(Long.MAX_VALUE);
+    subscriber.subscription.request(Long.MAX_VALUE);
+
+    assertThat(subscriber.messages, equalTo(asList("a", "b")));
+    assertThat(subscriber.complete, equalTo(true));
+  }
+
+  @Test
+  public void requestZeroFailsTest() {
+    RecordingSubscriber<String> subscriber = new RecordingSubscriber<>();
+    Observable.of("a", "b").toPublisher().subscribe(subscriber);
+
+    subscriber.subscription.request(0);
+    subscriber.subscription.request(1);
+
+    assertThat(subscriber.failure, instanceOf(IllegalArgumentException.class));
+    assertThat(subscriber.messages, equalTo(asList()));
+  }
+
+  @Test
+  public void cancelStopsMessagesTest() {
+    RecordingSubscriber<String> subscriber = new RecordingSubscriber<>();
+    Observable.of("a", "b").toPublisher().subscribe(subscriber);
+
+    subscriber.subscription.request(1);
+    subscriber.subscription.cancel();
+    subscriber.subscription.request(1);
+
+    assertThat(subscriber.messages, equalTo(asList("a")));
+    assertThat(subscriber.complete, equalTo(false));
+  }
+
+  @Test
+  public void failurePropagatesTest() {
+    RecordingSubscriber<String> subscriber = new RecordingSubscriber<>();
+    Exception failure = new Exception();
+    Observable.<String>failingValue(failure).toPublisher().subscribe(subscriber);
+
+    assertThat(subscriber.failure, equalTo(failure));
+  }
+}
@@ -34,6 +34,8 @@ package uk.co.strangeskies.observable;
 
 import static org.hamcrest.core.IsInstanceOf.instanceOf;
 
+import java.time.Duration;
+
 import org.junit.Test;
 
 import mockit.Injectable;
@@ -134,6 +136,28 @@ public class ObservableTest {
     };
   }
 
+  @Test
+  public void executeOnWithPrefetchTest() {
+    upstreamObservable.executeOn(r -> {}, 128);
+
+    new Verifications() {
+      {
+        upstreamObservable.observe(withArgThat(instanceOf(PrefetchingExecutorObserver.class)));
+      }
+    };
+  }
+
+  @Test
+  public void toBlockingIteratorTest() {
+    upstreamObservable.toBlockingIterator(16);
+
+    new Verifications() {
+      {
+        upstreamObservable.observe(withArgThat(instanceOf(BlockingIteratorObserver.class)));
+      }
+    };
+  }
+
   @Test
   public void mapTest() {
     upstreamObservable.map(s -> s);
@@ -177,4 +201,48 @@ public class ObservableTest {
       }
     };
   }
+
+  @Test
+  public void serializeTest() {
+    upstreamObservable.serialize();
+
+    new Verifications() {
+      {
+        upstreamObservable.observe(withArgThat(instanceOf(SerializingObserver.class)));
+      }
+    };
+  }
+
+  @Test
+  public void bufferTest() {
+    upstreamObservable.buffer(1, OverflowStrategy.FAIL);
+
+    new Verifications() {
+      {
+        upstreamObservable.observe(withArgThat(instanceOf(BufferingObserver.class)));
+      }
+    };
+  }
+
+  @Test
+  public void sampleTest() {
+    upstreamObservable.sample(Duration.ofSeconds(1));
+
+    new Verifications() {
+      {
+        upstreamObservable.observe(withArgThat(instanceOf(SamplingObserver.class)));
+      }
+    };
+  }
+
+  @Test
+  public void throttleLatestTest() {
+    upstreamObservable.throttleLatest(Duration.ofSeconds(1));
+
+    new Verifications() {
+      {
+        upstreamObservable.observe(withArgThat(instanceOf(ThrottlingObserver.class)));
+      }
+    };
+  }
 }
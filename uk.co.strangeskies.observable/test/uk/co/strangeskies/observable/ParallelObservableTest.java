@@ -0,0 +1,133 @@
+/*
+ * Copyright (C) 2018 Elias N Vasylenko <eliasvasylenko@strangeskies.co.uk>
+ *      __   _______  ____           _       __     _      __       __
+ *    ,`_ `,|__   __||  _ `.        / \     |  \   | |  ,-`__`¬  ,-`__`¬
+ *   ( (_`-'   | |   | | ) |       / . \    | . \  | | / .`  `' / .`  `'
+ *    `._ `.   | |   | |<. L      / / \ \   | |\ \ | || |    _ | '--.
+ *   _   `. \  | |   | |  `.`.   / /   \ \  | | \ \| || |   | || +--'
+ *  \ \__.' /  | |   | |    \ \ / /     \ \ | |  \ ` | \ `._' | \ `.__,.
+ *   `.__.-`   |_|   |_|    |_|/_/       \_\|_|   \__|  `-.__.J  `-.__.J
+ *                   __    _         _      __      __
+ *                 ,`_ `, | |  _    | |  ,-`__`¬  ,`_ `,
+ *                ( (_`-' | | ) |   | | / .`  `' ( (_`-'
+ *                 `._ `. | L-' L   | || '--.     `._ `.
+ *                _   `. \| ,.-^.`. | || +--'    _   `. \
+ *               \ \__.' /| |    \ \| | \ `.__,.\ \__.' /
+ *                `.__.-` |_|    |_||_|  `-.__.J `.__.-`
+ *
+ * This file is part of uk.co.strangeskies.observable.
+ *
+ * uk.co.strangeskies.observable is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * uk.co.strangeskies.observable is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package uk.co.strangeskies.observable;
+
+import static java.util.Arrays.asList;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.junit.Assert.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+@SuppressWarnings("javadoc")
+public class ParallelObservableTest {
+  private ExecutorService executor;
+
+  @Before
+  public void createExecutor() {
+    executor = Executors.newFixedThreadPool(4);
+  }
+
+  @After
+  public void shutdownExecutor() {
+    executor.shutdownNow();
+  }
+
+  private List<Integer> range(int count) {
+    List<Integer> range = new ArrayList<>();
+    for (int i = 0; i < count; i++)
+      range.add(i);
+    return range;
+  }
+
+  private <T> List<T> collect(Observable<T> observable) throws InterruptedException {
+    List<T> messages = new ArrayList<>();
+    CountDownLatch complete = new CountDownLatch(1);
+
+    observable
+        .thenAfter(Observer.onCompletion(complete::countDown))
+        .requestUnbounded()
+        .observe(messages::add);
+
+    assertThat(complete.await(5, TimeUnit.SECONDS), equalTo(true));
+    return messages;
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void zeroRailsTest() {
+    Observable.of(1).parallel(0, executor);
+  }
+
+  @Test
+  public void railCountTest() {
+    assertThat(Observable.of(1).parallel(3, executor).getRailCount(), equalTo(3));
+  }
+
+  @Test(timeout = 5000)
+  public void mapFilterOrderedTest() throws InterruptedException {
+    List<String> messages = collect(
+        Observable
+            .of(range(20))
+            .parallel(4, executor)
+            .filter(i -> i % 3 == 0)
+            .map(i -> "#" + i)
+            .mergeOrdered());
+
+    assertThat(
+        messages,
+        equalTo(asList("#0", "#3", "#6", "#9", "#12", "#15", "#18")));
+  }
+
+  @Test(timeout = 5000)
+  public void mergeUnorderedTest() throws InterruptedException {
+    List<Integer> messages = collect(
+        Observable.of(range(1000)).parallel(4, executor).map(i -> i + 1).merge());
+
+    messages.sort(null);
+    List<Integer> expected = new ArrayList<>();
+    for (int i = 1; i <= 1000; i++)
+      expected.add(i);
+    assertThat(messages, equalTo(expected));
+  }
+
+  @Test(timeout = 5000)
+  public void reduceTest() throws InterruptedException, ExecutionException {
+    int sum = Observable
+        .of(range(1000))
+        .parallel(4, executor)
+        .filter(i -> i % 2 == 0)
+        .reduce(() -> 0, Integer::sum, Integer::sum)
+        .get();
+
+    assertThat(sum, equalTo(249500));
+  }
+}
@@ -0,0 +1,227 @@
+/*
+ * Copyright (C) 2018 Elias N Vasylenko <eliasvasylenko@strangeskies.co.uk>
+ *      __   _______  ____           _       __     _      __       __
+ *    ,`_ `,|__   __||  _ `.        / \     |  \   | |  ,-`__`¬  ,-`__`¬
+ *   ( (_`-'   | |   | | ) |       / . \    | . \  | | / .`  `' / .`  `'
+ *    `._ `.   | |   | |<. L      / / \ \   | |\ \ | || |    _ | '--.
+ *   _   `. \  | |   | |  `.`.   / /   \ \  | | \ \| || |   | || +--'
+ *  \ \__.' /  | |   | |    \ \ / /     \ \ | |  \ ` | \ `._' | \ `.__,.
+ *   `.__.-`   |_|   |_|    |_|/_/       \_\|_|   \__|  `-.__.J  `-.__.J
+ *                   __    _         _      __      __
+ *                 ,`_ `, | |  _    | |  ,-`__`¬  ,`_ `,
+ *                ( (_`-' | | ) |   | | / .`  `' ( (_`-'
+ *                 `._ `. | L-' L   | || '--.     `._ `.
+ *                _   `. \| ,.-^.`. | || +--'    _   `. \
+ *               \ \__.' /| |    \ \| | \ `.__,.\ \__.' /
+ *                `.__.-` |_|    |_||_|  `-.__.J `.__.-`
+ *
+ * This file is part of uk.co.strangeskies.observable.
+ *
+ * uk.co.strangeskies.observable is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * uk.co.strangeskies.observable is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package uk.co.strangeskies.observable;
+
+import static java.util.Arrays.asList;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.hamcrest.core.IsInstanceOf.instanceOf;
+import static org.junit.Assert.assertThat;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+@SuppressWarnings("javadoc")
+public class ParallelObserverTest {
+  private ExecutorService executor;
+
+  @Before
+  public void createExecutor() {
+    executor = Executors.newFixedThreadPool(4);
+  }
+
+  @After
+  public void shutdownExecutor() {
+    executor.shutdownNow();
+  }
+
+  class RecordingObserver<T> implements Observer<T> {
+    final List<T> messages = Collections.synchronizedList(new ArrayList<>());
+    final CountDownLatch terminated = new CountDownLatch(1);
+    Observation observation;
+    volatile Throwable failure;
+
+    @Override
+    public void onObserve(Observation observation) {
+      this.observation = observation;
+      observation.requestUnbounded();
+    }
+
+    @Override
+    public void onNext(T message) {
+      messages.add(message);
+    }
+
+    @Override
+    public void onComplete() {
+      terminated.countDown();
+    }
+
+    @Override
+    public void onFail(Throwable t) {
+      failure = t;
+      terminated.countDown();
+    }
+
+    void await() throws InterruptedException {
+      assertThat(terminated.await(5, TimeUnit.SECONDS), equalTo(true));
+    }
+  }
+
+  private List<Integer> range(int count) {
+    List<Integer> range = new ArrayList<>();
+    for (int i = 0; i < count; i++)
+      range.add(i);
+    return range;
+  }
+
+  private <T> Function<Integer, T> slowly(Function<Integer, T> function) {
+    return i -> {
+      if (i % 7 == 0)
+        Thread.yield();
+      return function.apply(i);
+    };
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void zeroRailsTest() {
+    new ParallelObserver<>(m -> {}, 0, executor, m -> m, false);
+  }
+
+  @Test(timeout = 5000)
+  public void orderedMergeTest() throws InterruptedException {
+    RecordingObserver<Integer> observer = new RecordingObserver<>();
+    Observable
+        .of(range(1000))
+        .observe(new ParallelObserver<>(observer, 4, executor, slowly(i -> i * 2), true));
+
+    observer.await();
+
+    List<Integer> expected = new ArrayList<>();
+    for (int i = 0; i < 1000; i++)
+      expected.add(i * 2);
+    assertThat(observer.messages, equalTo(expected));
+  }
+
+  @Test(timeout = 5000)
+  public void unorderedMergeTest() throws InterruptedException {
+    RecordingObserver<Integer> observer = new RecordingObserver<>();
+    Observable
+        .of(range(1000))
+        .observe(new ParallelObserver<>(observer, 4, executor, slowly(i -> i), false));
+
+    observer.await();
+
+    List<Integer> messages = new ArrayList<>(observer.messages);
+    Collections.sort(messages);
+    assertThat(messages, equalTo(range(1000)));
+  }
+
+  @Test(timeout = 5000)
+  public void droppedMessagesRequestMoreTest() throws InterruptedException {
+    RecordingObserver<Integer> observer = new RecordingObserver<Integer>() {
+      @Override
+      public void onObserve(Observation observation) {
+        this.observation = observation;
+        observation.request(5);
+      }
+    };
+    Observable
+        .of(range(100))
+        .observe(
+            new ParallelObserver<>(observer, 3, executor, i -> i % 2 == 0 ? i : null, true));
+
+    for (int i = 0; i < 100 && observer.messages.size() < 5; i++)
+      Thread.sleep(10);
+
+    assertThat(observer.messages, equalTo(asList(0, 2, 4, 6, 8)));
+  }
+
+  @Test(timeout = 5000)
+  public void directExecutorTest() throws InterruptedException {
+    RecordingObserver<String> observer = new RecordingObserver<>();
+    Observable
+        .of("a", "b", "c")
+        .observe(new ParallelObserver<>(observer, 2, Runnable::run, String::toUpperCase, true));
+
+    observer.await();
+
+    assertThat(observer.messages, equalTo(asList("A", "B", "C")));
+  }
+
+  @Test(timeout = 5000)
+  public void stageFailureTest() throws InterruptedException {
+    RecordingObserver<Integer> observer = new RecordingObserver<>();
+    Observable.of(range(100)).observe(new ParallelObserver<>(observer, 4, executor, i -> {
+      if (i == 50)
+        throw new IllegalStateException();
+      return i;
+    }, true));
+
+    observer.await();
+
+    assertThat(observer.failure, instanceOf(IllegalStateException.class));
+  }
+
+  @Test(timeout = 5000)
+  public void upstreamFailureTest() throws InterruptedException {
+    RecordingObserver<Integer> observer = new RecordingObserver<>();
+    Exception failure = new Exception();
+    Observable
+        .<Integer>failingValue(failure)
+        .observe(new ParallelObserver<>(observer, 4, executor, i -> i, false));
+
+    observer.await();
+
+    assertThat(observer.failure, equalTo(failure));
+  }
+
+  @Test(timeout = 5000)
+  public void reduceTest() throws InterruptedException {
+    RecordingObserver<Integer> observer = new RecordingObserver<>();
+    Observable
+        .of(range(1000))
+        .observe(
+            new ParallelReducingObserver<>(
+                observer,
+                4,
+                executor,
+                i -> i,
+                () -> 0,
+                Integer::sum,
+                Integer::sum));
+
+    observer.await();
+
+    assertThat(observer.messages, equalTo(asList(499500)));
+  }
+}
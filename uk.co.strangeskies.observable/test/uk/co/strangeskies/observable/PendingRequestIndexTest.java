@@ -0,0 +1,203 @@
+/*
+ * Copyright (C) 2018 Elias N Vasylenko <eliasvasylenko@strangeskies.co.uk>
+ *      __   _______  ____           _       __     _      __       __
+ *    ,`_ `,|__   __||  _ `.        / \     |  \   | |  ,-`__`¬  ,-`__`¬
+ *   ( (_`-'   | |   | | ) |       / . \    | . \  | | / .`  `' / .`  `'
+ *    `._ `.   | |   | |<. L      / / \ \   | |\ \ | || |    _ | '--.
+ *   _   `. \  | |   | |  `.`.   / /   \ \  | | \ \| || |   | || +--'
+ *  \ \__.' /  | |   | |    \ \ / /     \ \ | |  \ ` | \ `._' | \ `.__,.
+ *   `.__.-`   |_|   |_|    |_|/_/       \_\|_|   \__|  `-.__.J  `-.__.J
+ *                   __    _         _      __      __
+ *                 ,`_ `, | |  _    | |  ,-`__`¬  ,`_ `,
+ *                ( (_`-' | | ) |   | | / .`  `' ( (_`-'
+ *                 `._ `. | L-' L   | || '--.     `._ `.
+ *                _   `. \| ,.-^.`. | || +--'    _   `. \
+ *               \ \__.' /| |    \ \| | \ `.__,.\ \__.' /
+ *                `.__.-` |_|    |_||_|  `-.__.J `.__.-`
+ *
+ * This file is part of uk.co.strangeskies.observable.
+ *
+ * uk.co.strangeskies.observable is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * uk.co.strangeskies.observable is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package uk.co.strangeskies.observable;
+
+import static java.util.Arrays.asList;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.junit.Assert.assertThat;
+
+import org.junit.Test;
+
+@SuppressWarnings("javadoc")
+public class PendingRequestIndexTest {
+  static class CountingObservation implements Observation {
+    long pending;
+
+    CountingObservation(long pending) {
+      this.pending = pending;
+    }
+
+    @Override
+    public void cancel() {}
+
+    @Override
+    public void request(long count) {
+      pending += count;
+      if (pending < count)
+        pending = Long.MAX_VALUE;
+    }
+
+    @Override
+    public long getPendingRequestCount() {
+      return pending;
+    }
+  }
+
+  private final PendingRequestIndex<CountingObservation> index = new PendingRequestIndex<>();
+
+  private CountingObservation add(long pending) {
+    CountingObservation observation = new CountingObservation(pending);
+    index.add(observation);
+    return observation;
+  }
+
+  @Test
+  public void observationsInOrderOfAdditionTest() {
+    CountingObservation first = add(2);
+    CountingObservation second = add(0);
+    CountingObservation third = add(1);
+
+    assertThat(index.observations(), equalTo(asList(first, second, third)));
+  }
+
+  @Test
+  public void removeObservationTest() {
+    CountingObservation first = add(0);
+    CountingObservation second = add(0);
+    CountingObservation third = add(0);
+
+    index.remove(second);
+
+    assertThat(index.size(), equalTo(2));
+    assertThat(index.observations(), equalTo(asList(first, third)));
+  }
+
+  @Test
+  public void allocateSequentialTest() {
+    CountingObservation first = add(0);
+    CountingObservation second = add(0);
+
+    long remaining = index.allocateSequential(3);
+
+    assertThat(remaining, equalTo(0l));
+    assertThat(first.pending, equalTo(3l));
+    assertThat(second.pending, equalTo(0l));
+  }
+
+  @Test
+  public void allocateBalancedToIdleObservationsTest() {
+    CountingObservation first = add(1);
+    CountingObservation second = add(0);
+    CountingObservation third = add(0);
+
+    long remaining = index.allocateBalanced(3);
+
+    assertThat(remaining, equalTo(1l));
+    assertThat(first.pending, equalTo(1l));
+    assertThat(second.pending, equalTo(1l));
+    assertThat(third.pending, equalTo(1l));
+  }
+
+  @Test
+  public void allocateBalancedAfterUpdateTest() {
+    CountingObservation first = add(0);
+    CountingObservation second = add(0);
+
+    index.allocateBalanced(2);
+    first.pending = 0;
+    index.update(first);
+    long remaining = index.allocateBalanced(2);
+
+    assertThat(remaining, equalTo(1l));
+    assertThat(first.pending, equalTo(1l));
+    assertThat(second.pending, equalTo(1l));
+  }
+
+  @Test
+  public void allocateBalancedUnboundedTest() {
+    CountingObservation first = add(1);
+    CountingObservation second = add(0);
+
+    long remaining = index.allocateBalanced(Long.MAX_VALUE);
+
+    assertThat(remaining, equalTo(Long.MAX_VALUE));
+    assertThat(first.pending, equalTo(Long.MAX_VALUE));
+    assertThat(second.pending, equalTo(Long.MAX_VALUE));
+  }
+
+  @Test
+  public void allocateSpreadEvenlyTest() {
+    CountingObservation first = add(5);
+    CountingObservation second = add(5);
+    CountingObservation third = add(5);
+
+    long remaining = index.allocateSpread(4);
+
+    assertThat(remaining, equalTo(0l));
+    assertThat(first.pending, equalTo(7l));
+    assertThat(second.pending, equalTo(6l));
+    assertThat(third.pending, equalTo(6l));
+  }
+
+  @Test
+  public void allocateSpreadUpToTheGreatestNumberOfPendingRequestsTest() {
+    CountingObservation first = add(2);
+    CountingObservation second = add(1);
+    CountingObservation third = add(0);
+
+    long remaining = index.allocateSpread(3);
+
+    assertThat(remaining, equalTo(0l));
+    assertThat(first.pending, equalTo(2l));
+    assertThat(second.pending, equalTo(2l));
+    assertThat(third.pending, equalTo(2l));
+  }
+
+  @Test
+  public void allocateSpreadBelowTheGreatestNumberOfPendingRequestsTest() {
+    CountingObservation first = add(3);
+    CountingObservation second = add(1);
+    CountingObservation third = add(0);
+
+    long remaining = index.allocateSpread(3);
+
+    assertThat(remaining, equalTo(0l));
+    assertThat(first.pending, equalTo(3l));
+    assertThat(second.pending, equalTo(2l));
+    assertThat(third.pending, equalTo(2l));
+  }
+
+  @Test
+  public void allocateSpreadAfterUpdateTest() {
+    CountingObservation first = add(0);
+    CountingObservation second = add(0);
+
+    index.allocateSpread(4);
+    first.pending = 0;
+    index.update(first);
+    index.allocateSpread(2);
+
+    assertThat(first.pending, equalTo(2l));
+    assertThat(second.pending, equalTo(2l));
+  }
+}
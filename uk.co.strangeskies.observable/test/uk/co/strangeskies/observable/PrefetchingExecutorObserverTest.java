@@ -0,0 +1,187 @@
+/*
+ * Copyright (C) 2018 Elias N Vasylenko <eliasvasylenko@strangeskies.co.uk>
+ *      __   _______  ____           _       __     _      __       __
+ *    ,`_ `,|__   __||  _ `.        / \     |  \   | |  ,-`__`¬  ,-`__`¬
+ *   ( (_`-'   | |   | | ) |       / . \    | . \  | | / .`  `' / .`  `'
+ *    `._ `.   | |   | |<. L      / / \ \   | |\ \ | || |    _ | '--.
+ *   _   `. \  | |   | |  `.`.   / /   \ \  | | \ \| || |   | || +--'
+ *  \ \__.' /  | |   | |    \ \ / /     \ \ | |  \ ` | \ `._' | \ `.__,.
+ *   `.__.-`   |_|   |_|    |_|/_/       \_\|_|   \__|  `-.__.J  `-.__.J
+ *                   __    _         _      __      __
+ *                 ,`_ `, | |  _    | |  ,-`__`¬  ,`_ `,
+ *                ( (_`-' | | ) |   | | / .`  `' ( (_`-'
+ *                 `._ `. | L-' L   | || '--.     `._ `.
+ *                _   `. \| ,.-^.`. | || +--'    _   `. \
+ *               \ \__.' /| |    \ \| | \ `.__,.\ \__.' /
+ *                `.__.-` |_|    |_||_|  `-.__.J `.__.-`
+ *
+ * This file is part of uk.co.strangeskies.observable.
+ *
+ * uk.co.strangeskies.observable is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * uk.co.strangeskies.observable is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package uk.co.strangeskies.observable;
+
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.hamcrest.core.IsInstanceOf.instanceOf;
+import static org.junit.Assert.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.Test;
+
+@SuppressWarnings("javadoc")
+public class PrefetchingExecutorObserverTest {
+  class RecordingObservation implements Observation {
+    final List<Long> requests = new ArrayList<>();
+    boolean cancelled;
+
+    @Override
+    public void request(long count) {
+      requests.add(count);
+    }
+
+    @Override
+    public void cancel() {
+      cancelled = true;
+    }
+
+    @Override
+    public long getPendingRequestCount() {
+      return 0;
+    }
+  }
+
+  class RecordingObserver implements Observer<Integer> {
+    final List<Object> events = new ArrayList<>();
+    Observation observation;
+
+    @Override
+    public void onObserve(Observation observation) {
+      this.observation = observation;
+    }
+
+    @Override
+    public void onNext(Integer message) {
+      events.add(message);
+    }
+
+    @Override
+    public void onComplete() {
+      events.add("complete");
+    }
+
+    @Override
+    public void onFail(Throwable t) {
+      events.add(t);
+    }
+  }
+
+  RecordingObservation upstreamObservation = new RecordingObservation();
+
+  RecordingObserver downstreamObserver = new RecordingObserver();
+
+  @Test
+  public void prefetchOnObserveTest() {
+    Observer<Integer> test = new PrefetchingExecutorObserver<>(downstreamObserver, r -> r.run(), 8);
+    test.onObserve(upstreamObservation);
+
+    assertThat(upstreamObservation.requests, equalTo(List.of(8l)));
+  }
+
+  @Test
+  public void replenishAfterThreeQuartersTest() {
+    Observer<Integer> test = new PrefetchingExecutorObserver<>(downstreamObserver, r -> r.run(), 8);
+    test.onObserve(upstreamObservation);
+    downstreamObserver.observation.requestUnbounded();
+
+    for (int i = 0; i < 6; i++)
+      test.onNext(i);
+
+    assertThat(upstreamObservation.requests, equalTo(List.of(8l, 6l)));
+    assertThat(downstreamObserver.events, equalTo(List.of(0, 1, 2, 3, 4, 5)));
+  }
+
+  @Test
+  public void holdMessagesUntilRequestedTest() {
+    Observer<Integer> test = new PrefetchingExecutorObserver<>(downstreamObserver, r -> r.run(), 8);
+    test.onObserve(upstreamObservation);
+    test.onNext(1);
+    test.onNext(2);
+    test.onComplete();
+
+    assertThat(downstreamObserver.events, equalTo(List.of()));
+
+    downstreamObserver.observation.request(2);
+
+    assertThat(downstreamObserver.events, equalTo(List.of(1, 2, "complete")));
+  }
+
+  @Test
+  public void failWhenPrefetchExceededTest() {
+    Observer<Integer> test = new PrefetchingExecutorObserver<>(downstreamObserver, r -> r.run(), 1);
+    test.onObserve(upstreamObservation);
+    test.onNext(1);
+    test.onNext(2);
+
+    assertThat(upstreamObservation.cancelled, equalTo(true));
+    assertThat(downstreamObserver.events.get(0), instanceOf(MessageOverflowException.class));
+  }
+
+  @Test
+  public void singleTaskPerBurstTest() {
+    List<Runnable> tasks = new ArrayList<>();
+
+    Observer<Integer> test = new PrefetchingExecutorObserver<>(downstreamObserver, tasks::add, 8);
+    test.onObserve(upstreamObservation);
+    test.onNext(1);
+    test.onNext(2);
+    test.onNext(3);
+
+    assertThat(tasks.size(), equalTo(1));
+  }
+
+  @Test
+  public void deliverInOrderOnExecutorTest() throws InterruptedException {
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    List<Integer> messages = IntStream.range(0, 10000).boxed().collect(Collectors.toList());
+    List<Integer> received = new ArrayList<>();
+    CountDownLatch completed = new CountDownLatch(1);
+
+    try {
+      Observable
+          .of(messages)
+          .executeOn(executor, 128)
+          .requestUnbounded()
+          .thenAfter(Observer.onCompletion(completed::countDown))
+          .observe(received::add);
+
+      assertThat(completed.await(10, TimeUnit.SECONDS), equalTo(true));
+      assertThat(received, equalTo(messages));
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void zeroPrefetchTest() {
+    new PrefetchingExecutorObserver<>(downstreamObserver, r -> r.run(), 0);
+  }
+}
@@ -0,0 +1,169 @@
+/*
+ * Copyright (C) 2018 Elias N Vasylenko <eliasvasylenko@strangeskies.co.uk>
+ *      __   _______  ____           _       __     _      __       __
+ *    ,`_ `,|__   __||  _ `.        / \     |  \   | |  ,-`__`¬  ,-`__`¬
+ *   ( (_`-'   | |   | | ) |       / . \    | . \  | | / .`  `' / .`  `'
+ *    `._ `.   | |   | |<. L      / / \ \   | |\ \ | || |    _ | '--.
+ *   _   `. \  | |   | |  `.`.   / /   \ \  | | \ \| || |   | || +--'
+ *  \ \__.' /  | |   | |    \ \ / /     \ \ | |  \ ` | \ `._' | \ `.__,.
+ *   `.__.-`   |_|   |_|    |_|/_/       \_\|_|   \__|  `-.__.J  `-.__.J
+ *                   __    _         _      __      __
+ *                 ,`_ `, | |  _    | |  ,-`__`¬  ,`_ `,
+ *                ( (_`-' | | ) |   | | / .`  `' ( (_`-'
+ *                 `._ `. | L-' L   | || '--.     `._ `.
+ *                _   `. \| ,.-^.`. | || +--'    _   `. \
+ *               \ \__.' /| |    \ \| | \ `.__,.\ \__.' /
+ *                `.__.-` |_|    |_||_|  `-.__.J `.__.-`
+ *
+ * This file is part of uk.co.strangeskies.observable.
+ *
+ * uk.co.strangeskies.observable is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * uk.co.strangeskies.observable is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package uk.co.strangeskies.observable;
+
+import static java.util.Arrays.asList;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.junit.Assert.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Flow;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+@SuppressWarnings("javadoc")
+public class PublisherObservableTest {
+  class RecordingSubscription implements Flow.Subscription {
+    final List<Long> requests = new ArrayList<>();
+    boolean cancelled;
+
+    @Override
+    public void request(long n) {
+      requests.add(n);
+    }
+
+    @Override
+    public void cancel() {
+      cancelled = true;
+    }
+  }
+
+  class RecordingPublisher implements Flow.Publisher<String> {
+    Flow.Subscriber<? super String> subscriber;
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super String> subscriber) {
+      this.subscriber = subscriber;
+    }
+  }
+
+  @Test
+  public void observeOnSubscribeTest() {
+    RecordingPublisher publisher = new RecordingPublisher();
+    List<Observation> observations = new ArrayList<>();
+    Observable.fromPublisher(publisher).observe(Observer.onObservation(observations::add));
+
+    assertThat(observations.size(), equalTo(0));
+
+    publisher.subscriber.onSubscribe(new RecordingSubscription());
+
+    assertThat(observations.size(), equalTo(1));
+  }
+
+  @Test
+  public void requestPropagatesDemandTest() {
+    RecordingPublisher publisher = new RecordingPublisher();
+    RecordingSubscription subscription = new RecordingSubscription();
+    Observable
+        .fromPublisher(publisher)
+        .observe(Observer.onObservation(observation -> observation.request(3)));
+    publisher.subscriber.onSubscribe(subscription);
+
+    assertThat(subscription.requests, equalTo(asList(3l)));
+  }
+
+  @Test
+  public void secondSubscriptionIsCancelledTest() {
+    RecordingPublisher publisher = new RecordingPublisher();
+    RecordingSubscription first = new RecordingSubscription();
+    RecordingSubscription second = new RecordingSubscription();
+    Observable.fromPublisher(publisher).observe();
+    publisher.subscriber.onSubscribe(first);
+    publisher.subscriber.onSubscribe(second);
+
+    assertThat(first.cancelled, equalTo(false));
+    assertThat(second.cancelled, equalTo(true));
+  }
+
+  @Test
+  public void cancelBeforeSubscribeTest() {
+    RecordingPublisher publisher = new RecordingPublisher();
+    RecordingSubscription subscription = new RecordingSubscription();
+    Observable.fromPublisher(publisher).observe().cancel();
+    publisher.subscriber.onSubscribe(subscription);
+
+    assertThat(subscription.cancelled, equalTo(true));
+  }
+
+  @Test
+  public void messagesAfterCancelAreDroppedTest() {
+    RecordingPublisher publisher = new RecordingPublisher();
+    List<String> messages = new ArrayList<>();
+    Disposable disposable = Observable.fromPublisher(publisher).observe(messages::add);
+    publisher.subscriber.onSubscribe(new RecordingSubscription());
+
+    disposable.cancel();
+    publisher.subscriber.onNext("a");
+
+    assertThat(messages, equalTo(asList()));
+  }
+
+  @Test(timeout = 5000)
+  public void submissionPublisherTest() throws InterruptedException {
+    List<Integer> messages = new ArrayList<>();
+    CountDownLatch complete = new CountDownLatch(1);
+
+    try (SubmissionPublisher<Integer> publisher = new SubmissionPublisher<>()) {
+      Observable
+          .fromPublisher(publisher)
+          .then(Observer.onCompletion(complete::countDown))
+          .requestUnbounded()
+          .observe(messages::add);
+
+      for (int i = 0; i < 100; i++)
+        publisher.submit(i);
+    }
+
+    complete.await(5, TimeUnit.SECONDS);
+
+    List<Integer> expected = new ArrayList<>();
+    for (int i = 0; i < 100; i++)
+      expected.add(i);
+    assertThat(messages, equalTo(expected));
+  }
+
+  @Test
+  public void roundTripTest() {
+    List<String> messages = new ArrayList<>();
+    Observable
+        .fromPublisher(Observable.of("a", "b", "c").toPublisher())
+        .requestUnbounded()
+        .observe(messages::add);
+
+    assertThat(messages, equalTo(asList("a", "b", "c")));
+  }
+}
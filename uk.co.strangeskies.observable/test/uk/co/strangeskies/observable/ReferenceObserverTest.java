@@ -98,7 +98,7 @@ public class ReferenceObserverTest {
 
     new VerificationsInOrder() {
       {
-        downstreamObserver.onObserve(upstreamObservation);
+        downstreamObserver.onObserve((Observation) any);
         downstreamObserver.onNext("message");
       }
     };
@@ -118,7 +118,7 @@ public class ReferenceObserverTest {
 
     new VerificationsInOrder() {
       {
-        downstreamObserver.onObserve(upstreamObservation);
+        downstreamObserver.onObserve((Observation) any);
         downstreamObserver.onNext("message1");
         upstreamObservation.cancel();
       }
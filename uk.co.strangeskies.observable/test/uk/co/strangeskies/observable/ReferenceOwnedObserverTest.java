@@ -112,7 +112,7 @@ public class ReferenceOwnedObserverTest {
 
     new VerificationsInOrder() {
       {
-        downstreamObserver.onObserve(upstreamObservation);
+        downstreamObserver.onObserve((Observation) any);
         downstreamObserver.onNext((OwnedMessage<Object, String>) any);
       }
     };
@@ -135,7 +135,7 @@ public class ReferenceOwnedObserverTest {
 
     new VerificationsInOrder() {
       {
-        downstreamObserver.onObserve(upstreamObservation);
+        downstreamObserver.onObserve((Observation) any);
         downstreamObserver.onNext((OwnedMessage<Object, String>) any);
         upstreamObservation.cancel();
       }
@@ -0,0 +1,213 @@
+/*
+ * Copyright (C) 2018 Elias N Vasylenko <eliasvasylenko@strangeskies.co.uk>
+ *      __   _______  ____           _       __     _      __       __
+ *    ,`_ `,|__   __||  _ `.        / \     |  \   | |  ,-`__`¬  ,-`__`¬
+ *   ( (_`-'   | |   | | ) |       / . \    | . \  | | / .`  `' / .`  `'
+ *    `._ `.   | |   | |<. L      / / \ \   | |\ \ | || |    _ | '--.
+ *   _   `. \  | |   | |  `.`.   / /   \ \  | | \ \| || |   | || +--'
+ *  \ \__.' /  | |   | |    \ \ / /     \ \ | |  \ ` | \ `._' | \ `.__,.
+ *   `.__.-`   |_|   |_|    |_|/_/       \_\|_|   \__|  `-.__.J  `-.__.J
+ *                   __    _         _      __      __
+ *                 ,`_ `, | |  _    | |  ,-`__`¬  ,`_ `,
+ *                ( (_`-' | | ) |   | | / .`  `' ( (_`-'
+ *                 `._ `. | L-' L   | || '--.     `._ `.
+ *                _   `. \| ,.-^.`. | || +--'    _   `. \
+ *               \ \__.' /| |    \ \| | \ `.__,.\ \__.' /
+ *                `.__.-` |_|    |_||_|  `-.__.J `.__.-`
+ *
+ * This file is part of uk.co.strangeskies.observable.
+ *
+ * uk.co.strangeskies.observable is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * uk.co.strangeskies.observable is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package uk.co.strangeskies.observable;
+
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.junit.Assert.assertThat;
+
+import java.lang.ref.Reference;
+import java.lang.ref.WeakReference;
+
+import org.junit.Test;
+
+import uk.co.strangeskies.observable.ReferenceReaper.Reclamation;
+
+@SuppressWarnings("javadoc")
+public class ReferenceReaperTest {
+  class RecordingObservation implements Observation {
+    boolean cancelled;
+
+    @Override
+    public void cancel() {
+      cancelled = true;
+    }
+
+    @Override
+    public void request(long count) {}
+
+    @Override
+    public long getPendingRequestCount() {
+      return 0;
+    }
+  }
+
+  /*
+   * A non-capturing lambda would be a constant which is never collected.
+   */
+  private Observer<String> newObserver() {
+    return new Observer<String>() {
+      @Override
+      public void onNext(String message) {}
+    };
+  }
+
+  private void collectGarbageUntil(HotObservable<?> observable) throws InterruptedException {
+    while (observable.hasObservers()) {
+      new Object();
+      System.gc();
+      Thread.sleep(10);
+    }
+  }
+
+  @Test
+  public void reclaimAfterObserveTest() {
+    RecordingObservation observation = new RecordingObservation();
+    Reclamation reclamation = new Reclamation();
+    reclamation.observe(observation);
+
+    assertThat(observation.cancelled, equalTo(false));
+
+    reclamation.reclaim();
+
+    assertThat(observation.cancelled, equalTo(true));
+  }
+
+  @Test
+  public void reclaimBeforeObserveTest() {
+    RecordingObservation observation = new RecordingObservation();
+    Reclamation reclamation = new Reclamation();
+    reclamation.reclaim();
+    reclamation.observe(observation);
+
+    assertThat(observation.cancelled, equalTo(true));
+  }
+
+  @Test
+  public void reclaimAfterReleaseTest() {
+    RecordingObservation observation = new RecordingObservation();
+    Reclamation reclamation = new Reclamation();
+    reclamation.observe(observation);
+    reclamation.release();
+    long reclaimedCount = ReferenceReaper.getReclaimedCount();
+
+    reclamation.reclaim();
+
+    assertThat(observation.cancelled, equalTo(false));
+    assertThat(ReferenceReaper.getReclaimedCount(), equalTo(reclaimedCount));
+  }
+
+  @Test
+  public void cancelReleasesTest() {
+    RecordingObservation observation = new RecordingObservation();
+    Reclamation reclamation = new Reclamation();
+    reclamation.observe(observation).cancel();
+
+    assertThat(observation.cancelled, equalTo(true));
+
+    observation.cancelled = false;
+    reclamation.reclaim();
+
+    assertThat(observation.cancelled, equalTo(false));
+  }
+
+  private void collectGarbageUntil(Reference<?> reference) throws InterruptedException {
+    while (reference.get() != null) {
+      new Object();
+      System.gc();
+      Thread.sleep(10);
+    }
+  }
+
+  @Test(timeout = 5000)
+  public void completedWeakObservationReleasesUpstreamTest() throws InterruptedException {
+    Observer<String> observer = newObserver();
+    HotObservable<String> observable = new HotObservable<>();
+    Reference<?> upstream = new WeakReference<>(observable);
+
+    observable.weakReference().observe(observer);
+    observable.complete();
+    observable = null;
+
+    collectGarbageUntil(upstream);
+    Reference.reachabilityFence(observer);
+  }
+
+  @Test(timeout = 5000)
+  public void cancelledWeakOwnedObservationReleasesUpstreamTest() throws InterruptedException {
+    Object owner = new Object();
+    HotObservable<String> observable = new HotObservable<>();
+    Reference<?> upstream = new WeakReference<>(observable);
+
+    observable.weakReference(owner).observe(m -> {}).cancel();
+    observable = null;
+
+    collectGarbageUntil(upstream);
+    Reference.reachabilityFence(owner);
+  }
+
+  @Test(timeout = 5000)
+  public void weakObserverReclaimedWithoutMessageTest() throws InterruptedException {
+    HotObservable<String> observable = new HotObservable<>();
+    long reclaimedCount = ReferenceReaper.getReclaimedCount();
+
+    observable.weakReference().observe(newObserver());
+
+    assertThat(observable.hasObservers(), equalTo(true));
+
+    collectGarbageUntil(observable);
+
+    assertThat(ReferenceReaper.getReclaimedCount() > reclaimedCount, equalTo(true));
+  }
+
+  @Test(timeout = 5000)
+  public void weakOwnerReclaimedWithoutMessageTest() throws InterruptedException {
+    HotObservable<String> observable = new HotObservable<>();
+    long reclaimedCount = ReferenceReaper.getReclaimedCount();
+
+    observable.weakReference(new Object()).observe(m -> {});
+
+    assertThat(observable.hasObservers(), equalTo(true));
+
+    collectGarbageUntil(observable);
+
+    assertThat(ReferenceReaper.getReclaimedCount() > reclaimedCount, equalTo(true));
+  }
+
+  @Test(timeout = 5000)
+  public void heldObserverNotReclaimedTest() throws InterruptedException {
+    HotObservable<String> observable = new HotObservable<>();
+    Observer<String> observer = newObserver();
+
+    observable.weakReference().observe(observer);
+
+    for (int i = 0; i < 5; i++) {
+      System.gc();
+      Thread.sleep(10);
+    }
+
+    assertThat(observable.hasObservers(), equalTo(true));
+    observable.next("message");
+    assertThat(observable.hasObservers(), equalTo(true));
+    Reference.reachabilityFence(observer);
+  }
+}
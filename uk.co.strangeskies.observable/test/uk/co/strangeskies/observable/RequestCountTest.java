@@ -0,0 +1,125 @@
+/*
+ * Copyright (C) 2018 Elias N Vasylenko <eliasvasylenko@strangeskies.co.uk>
+ *      __   _______  ____           _       __     _      __       __
+ *    ,`_ `,|__   __||  _ `.        / \     |  \   | |  ,-`__`¬  ,-`__`¬
+ *   ( (_`-'   | |   | | ) |       / . \    | . \  | | / .`  `' / .`  `'
+ *    `._ `.   | |   | |<. L      / / \ \   | |\ \ | || |    _ | '--.
+ *   _   `. \  | |   | |  `.`.   / /   \ \  | | \ \| || |   | || +--'
+ *  \ \__.' /  | |   | |    \ \ / /     \ \ | |  \ ` | \ `._' | \ `.__,.
+ *   `.__.-`   |_|   |_|    |_|/_/       \_\|_|   \__|  `-.__.J  `-.__.J
+ *                   __    _         _      __      __
+ *                 ,`_ `, | |  _    | |  ,-`__`¬  ,`_ `,
+ *                ( (_`-' | | ) |   | | / .`  `' ( (_`-'
+ *                 `._ `. | L-' L   | || '--.     `._ `.
+ *                _   `. \| ,.-^.`. | || +--'    _   `. \
+ *               \ \__.' /| |    \ \| | \ `.__,.\ \__.' /
+ *                `.__.-` |_|    |_||_|  `-.__.J `.__.-`
+ *
+ * This file is part of uk.co.strangeskies.observable.
+ *
+ * uk.co.strangeskies.observable is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * uk.co.strangeskies.observable is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package uk.co.strangeskies.observable;
+
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.junit.Assert.assertThat;
+
+import org.junit.Test;
+
+@SuppressWarnings("javadoc")
+public class RequestCountTest {
+  @Test
+  public void initialCountTest() {
+    assertThat(new RequestCount().getCount(), equalTo(0l));
+  }
+
+  @Test
+  public void requestTest() {
+    RequestCount count = new RequestCount();
+    count.request(2);
+    assertThat(count.getCount(), equalTo(2l));
+  }
+
+  @Test
+  public void requestReturnsPreviousCountTest() {
+    RequestCount count = new RequestCount(3);
+    assertThat(count.request(2), equalTo(3l));
+  }
+
+  @Test
+  public void requestSaturatesTest() {
+    RequestCount count = new RequestCount(Long.MAX_VALUE - 1);
+    count.request(2);
+    assertThat(count.getCount(), equalTo(Long.MAX_VALUE));
+    assertThat(count.isUnbounded(), equalTo(true));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void requestNegativeTest() {
+    new RequestCount().request(-1);
+  }
+
+  @Test
+  public void fulfilTest() {
+    RequestCount count = new RequestCount(2);
+    count.fulfil();
+    assertThat(count.getCount(), equalTo(1l));
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void fulfilWithoutRequestTest() {
+    new RequestCount().fulfil();
+  }
+
+  @Test
+  public void tryFulfilWithoutRequestTest() {
+    RequestCount count = new RequestCount();
+    assertThat(count.tryFulfil(), equalTo(false));
+    assertThat(count.isFulfilled(), equalTo(true));
+  }
+
+  @Test
+  public void fulfilUnboundedTest() {
+    RequestCount count = new RequestCount(Long.MAX_VALUE);
+    count.fulfil();
+    assertThat(count.getCount(), equalTo(Long.MAX_VALUE));
+  }
+
+  @Test
+  public void tryFulfilManyTest() {
+    RequestCount count = new RequestCount(3);
+    assertThat(count.tryFulfil(5), equalTo(3l));
+    assertThat(count.isFulfilled(), equalTo(true));
+  }
+
+  @Test
+  public void concurrentRequestAndFulfilTest() throws InterruptedException {
+    RequestCount count = new RequestCount();
+
+    Thread requester = new Thread(() -> {
+      for (int i = 0; i < 100000; i++)
+        count.request(1);
+    });
+    requester.start();
+
+    int fulfilled = 0;
+    while (fulfilled < 100000) {
+      if (count.tryFulfil())
+        fulfilled++;
+    }
+    requester.join();
+
+    assertThat(count.isFulfilled(), equalTo(true));
+  }
+}
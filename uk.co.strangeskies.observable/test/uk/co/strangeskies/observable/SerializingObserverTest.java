@@ -0,0 +1,143 @@
+/*
+ * Copyright (C) 2018 Elias N Vasylenko <eliasvasylenko@strangeskies.co.uk>
+ *      __   _______  ____           _       __     _      __       __
+ *    ,`_ `,|__   __||  _ `.        / \     |  \   | |  ,-`__`¬  ,-`__`¬
+ *   ( (_`-'   | |   | | ) |       / . \    | . \  | | / .`  `' / .`  `'
+ *    `._ `.   | |   | |<. L      / / \ \   | |\ \ | || |    _ | '--.
+ *   _   `. \  | |   | |  `.`.   / /   \ \  | | \ \| || |   | || +--'
+ *  \ \__.' /  | |   | |    \ \ / /     \ \ | |  \ ` | \ `._' | \ `.__,.
+ *   `.__.-`   |_|   |_|    |_|/_/       \_\|_|   \__|  `-.__.J  `-.__.J
+ *                   __    _         _      __      __
+ *                 ,`_ `, | |  _    | |  ,-`__`¬  ,`_ `,
+ *                ( (_`-' | | ) |   | | / .`  `' ( (_`-'
+ *                 `._ `. | L-' L   | || '--.     `._ `.
+ *                _   `. \| ,.-^.`. | || +--'    _   `. \
+ *               \ \__.' /| |    \ \| | \ `.__,.\ \__.' /
+ *                `.__.-` |_|    |_||_|  `-.__.J `.__.-`
+ *
+ * This file is part of uk.co.strangeskies.observable.
+ *
+ * uk.co.strangeskies.observable is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * uk.co.strangeskies.observable is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package uk.co.strangeskies.observable;
+
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.junit.Assert.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+@SuppressWarnings("javadoc")
+public class SerializingObserverTest {
+  @Test
+  public void messagesInOrderTest() {
+    List<String> received = new ArrayList<>();
+
+    Observer<String> test = new SerializingObserver<>(received::add);
+    test.onNext("one");
+    test.onNext("two");
+    test.onComplete();
+
+    assertThat(received, equalTo(List.of("one", "two")));
+  }
+
+  @Test
+  public void reentrantMessageIsDeferredTest() {
+    List<String> received = new ArrayList<>();
+    List<Observer<String>> test = new ArrayList<>();
+
+    test.add(new SerializingObserver<>(message -> {
+      if (message.equals("outer")) {
+        received.add("enter");
+        test.get(0).onNext("inner");
+        received.add("exit");
+      } else {
+        received.add(message);
+      }
+    }));
+    test.get(0).onNext("outer");
+
+    assertThat(received, equalTo(List.of("enter", "exit", "inner")));
+  }
+
+  @Test
+  public void failAfterMessagesTest() {
+    Throwable failure = new Throwable();
+    List<Object> received = new ArrayList<>();
+
+    Observer<String> test = new SerializingObserver<>(new Observer<String>() {
+      @Override
+      public void onNext(String message) {
+        received.add(message);
+      }
+
+      @Override
+      public void onFail(Throwable t) {
+        received.add(t);
+      }
+    });
+    test.onNext("message");
+    test.onFail(failure);
+    test.onNext("ignored");
+
+    assertThat(received, equalTo(List.of("message", failure)));
+  }
+
+  @Test
+  public void concurrentMessagesAreSerializedTest() throws InterruptedException {
+    int producers = 4;
+    int messagesPerProducer = 10000;
+
+    AtomicInteger concurrentDeliveries = new AtomicInteger();
+    AtomicInteger overlaps = new AtomicInteger();
+    AtomicInteger received = new AtomicInteger();
+    CountDownLatch completed = new CountDownLatch(1);
+
+    Observer<Integer> test = new SerializingObserver<>(new Observer<Integer>() {
+      @Override
+      public void onNext(Integer message) {
+        if (concurrentDeliveries.incrementAndGet() > 1)
+          overlaps.incrementAndGet();
+        received.incrementAndGet();
+        concurrentDeliveries.decrementAndGet();
+      }
+
+      @Override
+      public void onComplete() {
+        completed.countDown();
+      }
+    });
+
+    List<Thread> threads = new ArrayList<>();
+    for (int i = 0; i < producers; i++) {
+      Thread thread = new Thread(() -> {
+        for (int j = 0; j < messagesPerProducer; j++)
+          test.onNext(j);
+      });
+      threads.add(thread);
+      thread.start();
+    }
+    for (Thread thread : threads)
+      thread.join();
+    test.onComplete();
+    completed.await();
+
+    assertThat(overlaps.get(), equalTo(0));
+    assertThat(received.get(), equalTo(producers * messagesPerProducer));
+  }
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright (C) 2018 Elias N Vasylenko <eliasvasylenko@strangeskies.co.uk>
+ *      __   _______  ____           _       __     _      __       __
+ *    ,`_ `,|__   __||  _ `.        / \     |  \   | |  ,-`__`¬  ,-`__`¬
+ *   ( (_`-'   | |   | | ) |       / . \    | . \  | | / .`  `' / .`  `'
+ *    `._ `.   | |   | |<. L      / / \ \   | |\ \ | || |    _ | '--.
+ *   _   `. \  | |   | |  `.`.   / /   \ \  | | \ \| || |   | || +--'
+ *  \ \__.' /  | |   | |    \ \ / /     \ \ | |  \ ` | \ `._' | \ `.__,.
+ *   `.__.-`   |_|   |_|    |_|/_/       \_\|_|   \__|  `-.__.J  `-.__.J
+ *                   __    _         _      __      __
+ *                 ,`_ `, | |  _    | |  ,-`__`¬  ,`_ `,
+ *                ( (_`-' | | ) |   | | / .`  `' ( (_`-'
+ *                 `._ `. | L-' L   | || '--.     `._ `.
+ *                _   `. \| ,.-^.`. | || +--'    _   `. \
+ *               \ \__.' /| |    \ \| | \ `.__,.\ \__.' /
+ *                `.__.-` |_|    |_||_|  `-.__.J `.__.-`
+ *
+ * This file is part of uk.co.strangeskies.observable.
+ *
+ * uk.co.strangeskies.observable is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * uk.co.strangeskies.observable is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package uk.co.strangeskies.observable;
+
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.junit.Assert.assertThat;
+
+import org.junit.Test;
+
+@SuppressWarnings("javadoc")
+public class SpscArrayQueueTest {
+  @Test
+  public void offerAndPollInOrderTest() {
+    SpscArrayQueue<String> queue = new SpscArrayQueue<>(4);
+    queue.offer("one");
+    queue.offer("two");
+
+    assertThat(queue.poll(), equalTo("one"));
+    assertThat(queue.poll(), equalTo("two"));
+    assertThat(queue.poll(), equalTo(null));
+  }
+
+  @Test
+  public void offerWhenFullTest() {
+    SpscArrayQueue<String> queue = new SpscArrayQueue<>(3);
+
+    assertThat(queue.offer("one"), equalTo(true));
+    assertThat(queue.offer("two"), equalTo(true));
+    assertThat(queue.offer("three"), equalTo(true));
+    assertThat(queue.offer("four"), equalTo(false));
+  }
+
+  @Test
+  public void wrapAroundTest() {
+    SpscArrayQueue<Integer> queue = new SpscArrayQueue<>(2);
+
+    for (int i = 0; i < 10; i++) {
+      queue.offer(i);
+      assertThat(queue.poll(), equalTo(i));
+    }
+    assertThat(queue.isEmpty(), equalTo(true));
+  }
+
+  @Test
+  public void clearTest() {
+    SpscArrayQueue<String> queue = new SpscArrayQueue<>(2);
+    queue.offer("one");
+    queue.clear();
+
+    assertThat(queue.isEmpty(), equalTo(true));
+  }
+
+  @Test
+  public void concurrentProducerAndConsumerTest() throws InterruptedException {
+    SpscArrayQueue<Integer> queue = new SpscArrayQueue<>(16);
+    int count = 100000;
+
+    Thread producer = new Thread(() -> {
+      for (int i = 0; i < count; i++)
+        while (!queue.offer(i))
+          Thread.yield();
+    });
+    producer.start();
+
+    for (int i = 0; i < count; i++) {
+      Integer element;
+      while ((element = queue.poll()) == null)
+        Thread.yield();
+      assertThat(element, equalTo(i));
+    }
+    producer.join();
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void zeroCapacityTest() {
+    new SpscArrayQueue<>(0);
+  }
+}
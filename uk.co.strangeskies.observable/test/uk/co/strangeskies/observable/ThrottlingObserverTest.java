@@ -0,0 +1,177 @@
+/*
+ * Copyright (C) 2018 Elias N Vasylenko <eliasvasylenko@strangeskies.co.uk>
+ *      __   _______  ____           _       __     _      __       __
+ *    ,`_ `,|__   __||  _ `.        / \     |  \   | |  ,-`__`¬  ,-`__`¬
+ *   ( (_`-'   | |   | | ) |       / . \    | . \  | | / .`  `' / .`  `'
+ *    `._ `.   | |   | |<. L      / / \ \   | |\ \ | || |    _ | '--.
+ *   _   `. \  | |   | |  `.`.   / /   \ \  | | \ \| || |   | || +--'
+ *  \ \__.' /  | |   | |    \ \ / /     \ \ | |  \ ` | \ `._' | \ `.__,.
+ *   `.__.-`   |_|   |_|    |_|/_/       \_\|_|   \__|  `-.__.J  `-.__.J
+ *                   __    _         _      __      __
+ *                 ,`_ `, | |  _    | |  ,-`__`¬  ,`_ `,
+ *                ( (_`-' | | ) |   | | / .`  `' ( (_`-'
+ *                 `._ `. | L-' L   | || '--.     `._ `.
+ *                _   `. \| ,.-^.`. | || +--'    _   `. \
+ *               \ \__.' /| |    \ \| | \ `.__,.\ \__.' /
+ *                `.__.-` |_|    |_||_|  `-.__.J `.__.-`
+ *
+ * This file is part of uk.co.strangeskies.observable.
+ *
+ * uk.co.strangeskies.observable is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * uk.co.strangeskies.observable is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package uk.co.strangeskies.observable;
+
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.junit.Assert.assertThat;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Test;
+
+@SuppressWarnings("javadoc")
+public class ThrottlingObserverTest {
+  class ManualExecutor extends ScheduledThreadPoolExecutor {
+    Runnable command;
+
+    ManualExecutor() {
+      super(1);
+    }
+
+    @Override
+    public ScheduledFuture<?> schedule(Runnable command, long delay, TimeUnit unit) {
+      this.command = command;
+      return super.schedule(() -> {}, 1, TimeUnit.DAYS);
+    }
+
+    void elapse() {
+      Runnable command = this.command;
+      this.command = null;
+      if (command != null)
+        command.run();
+    }
+  }
+
+  ManualExecutor executor = new ManualExecutor();
+
+  HotObservable<String> upstreamObservable = new HotObservable<>();
+
+  List<String> received = new ArrayList<>();
+
+  @After
+  public void shutdown() {
+    executor.shutdownNow();
+  }
+
+  @Test(timeout = 5000)
+  public void slowDownstreamDoesNotBlockUpstreamTest() throws InterruptedException {
+    CountDownLatch delivering = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+
+    ThrottlingObserver<String> throttle = new ThrottlingObserver<>(new Observer<String>() {
+      @Override
+      public void onObserve(Observation observation) {
+        observation.requestUnbounded();
+      }
+
+      @Override
+      public void onNext(String message) {
+        received.add(message);
+        delivering.countDown();
+        try {
+          release.await();
+        } catch (InterruptedException e) {
+          throw new AssertionError(e);
+        }
+      }
+    }, Duration.ofSeconds(1), executor);
+    upstreamObservable.observe(throttle);
+
+    Thread producer = new Thread(() -> throttle.onNext("one"));
+    producer.start();
+    delivering.await();
+
+    throttle.onNext("two");
+    executor.elapse();
+    throttle.onComplete();
+
+    release.countDown();
+    producer.join();
+
+    assertThat(received, equalTo(List.of("one", "two")));
+  }
+
+  @Test
+  public void forwardFirstMessageImmediatelyTest() {
+    upstreamObservable
+        .throttleLatest(Duration.ofSeconds(1), executor)
+        .requestUnbounded()
+        .observe(received::add);
+
+    upstreamObservable.next("one");
+
+    assertThat(received, equalTo(List.of("one")));
+  }
+
+  @Test
+  public void forwardLatestAfterWindowTest() {
+    upstreamObservable
+        .throttleLatest(Duration.ofSeconds(1), executor)
+        .requestUnbounded()
+        .observe(received::add);
+
+    upstreamObservable.next("one").next("two").next("three");
+    executor.elapse();
+
+    assertThat(received, equalTo(List.of("one", "three")));
+  }
+
+  @Test
+  public void forwardImmediatelyAfterQuietWindowTest() {
+    upstreamObservable
+        .throttleLatest(Duration.ofSeconds(1), executor)
+        .requestUnbounded()
+        .observe(received::add);
+
+    upstreamObservable.next("one");
+    executor.elapse();
+    upstreamObservable.next("two");
+
+    assertThat(received, equalTo(List.of("one", "two")));
+  }
+
+  @Test
+  public void discardPendingOnCompleteTest() {
+    upstreamObservable
+        .throttleLatest(Duration.ofSeconds(1), executor)
+        .requestUnbounded()
+        .observe(received::add);
+
+    upstreamObservable.next("one").next("two").complete();
+    executor.elapse();
+
+    assertThat(received, equalTo(List.of("one")));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void zeroWindowTest() {
+    new ThrottlingObserver<String>(received::add, Duration.ZERO, executor);
+  }
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright (C) 2018 Elias N Vasylenko <eliasvasylenko@strangeskies.co.uk>
+ *      __   _______  ____           _       __     _      __       __
+ *    ,`_ `,|__   __||  _ `.        / \     |  \   | |  ,-`__`¬  ,-`__`¬
+ *   ( (_`-'   | |   | | ) |       / . \    | . \  | | / .`  `' / .`  `'
+ *    `._ `.   | |   | |<. L      / / \ \   | |\ \ | || |    _ | '--.
+ *   _   `. \  | |   | |  `.`.   / /   \ \  | | \ \| || |   | || +--'
+ *  \ \__.' /  | |   | |    \ \ / /     \ \ | |  \ ` | \ `._' | \ `.__,.
+ *   `.__.-`   |_|   |_|    |_|/_/       \_\|_|   \__|  `-.__.J  `-.__.J
+ *                   __    _         _      __      __
+ *                 ,`_ `, | |  _    | |  ,-`__`¬  ,`_ `,
+ *                ( (_`-' | | ) |   | | / .`  `' ( (_`-'
+ *                 `._ `. | L-' L   | || '--.     `._ `.
+ *                _   `. \| ,.-^.`. | || +--'    _   `. \
+ *               \ \__.' /| |    \ \| | \ `.__,.\ \__.' /
+ *                `.__.-` |_|    |_||_|  `-.__.J `.__.-`
+ *
+ * This file is part of uk.co.strangeskies.observable.
+ *
+ * uk.co.strangeskies.observable is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * uk.co.strangeskies.observable is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package uk.co.strangeskies.observable;
+
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.hamcrest.core.IsInstanceOf.instanceOf;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeoutException;
+
+import org.junit.Test;
+
+@SuppressWarnings("javadoc")
+public class TimeoutObserverTest {
+  VirtualScheduler scheduler = new VirtualScheduler();
+
+  HotObservable<String> upstreamObservable = new HotObservable<>();
+
+  List<String> received = new ArrayList<>();
+  List<Throwable> failures = new ArrayList<>();
+
+  void observe() {
+    upstreamObservable
+        .timeout(Duration.ofSeconds(1), scheduler)
+        .requestUnbounded()
+        .then(Observer.onFailure(failures::add))
+        .observe(received::add);
+  }
+
+  @Test
+  public void forwardMessagesInTimeTest() {
+    observe();
+
+    upstreamObservable.next("one");
+    scheduler.advanceBy(Duration.ofMillis(900));
+    upstreamObservable.next("two");
+    scheduler.advanceBy(Duration.ofMillis(900));
+
+    assertThat(received, equalTo(List.of("one", "two")));
+    assertThat(failures, equalTo(List.of()));
+  }
+
+  @Test
+  public void failWithoutFirstMessageTest() {
+    observe();
+
+    scheduler.advanceBy(Duration.ofSeconds(1));
+
+    assertThat(failures.size(), equalTo(1));
+    assertThat(failures.get(0), instanceOf(TimeoutException.class));
+  }
+
+  @Test
+  public void failAfterLateMessageTest() {
+    observe();
+
+    upstreamObservable.next("one");
+    scheduler.advanceBy(Duration.ofMillis(900));
+    upstreamObservable.next("two");
+    scheduler.advanceBy(Duration.ofSeconds(1));
+    upstreamObservable.next("three");
+
+    assertThat(received, equalTo(List.of("one", "two")));
+    assertThat(failures.size(), equalTo(1));
+  }
+
+  @Test
+  public void cancelUpstreamOnTimeoutTest() {
+    observe();
+
+    scheduler.advanceBy(Duration.ofSeconds(1));
+
+    assertFalse(upstreamObservable.hasObservers());
+  }
+
+  @Test
+  public void noTimeoutAfterCompletionTest() {
+    observe();
+
+    upstreamObservable.complete();
+    scheduler.advanceBy(Duration.ofSeconds(2));
+
+    assertThat(failures, equalTo(List.of()));
+    assertThat(scheduler.getPendingTaskCount(), equalTo(0));
+  }
+
+  @Test
+  public void singleTimerForManyMessagesTest() {
+    observe();
+
+    for (int i = 0; i < 100; i++)
+      upstreamObservable.next("message");
+
+    assertThat(scheduler.getPendingTaskCount(), equalTo(1));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void nonPositiveTimeoutTest() {
+    new TimeoutObserver<String>(received::add, Duration.ZERO, scheduler);
+  }
+}
@@ -0,0 +1,130 @@
+/*
+ * Copyright (C) 2018 Elias N Vasylenko <eliasvasylenko@strangeskies.co.uk>
+ *      __   _______  ____           _       __     _      __       __
+ *    ,`_ `,|__   __||  _ `.        / \     |  \   | |  ,-`__`¬  ,-`__`¬
+ *   ( (_`-'   | |   | | ) |       / . \    | . \  | | / .`  `' / .`  `'
+ *    `._ `.   | |   | |<. L      / / \ \   | |\ \ | || |    _ | '--.
+ *   _   `. \  | |   | |  `.`.   / /   \ \  | | \ \| || |   | || +--'
+ *  \ \__.' /  | |   | |    \ \ / /     \ \ | |  \ ` | \ `._' | \ `.__,.
+ *   `.__.-`   |_|   |_|    |_|/_/       \_\|_|   \__|  `-.__.J  `-.__.J
+ *                   __    _         _      __      __
+ *                 ,`_ `, | |  _    | |  ,-`__`¬  ,`_ `,
+ *                ( (_`-' | | ) |   | | / .`  `' ( (_`-'
+ *                 `._ `. | L-' L   | || '--.     `._ `.
+ *                _   `. \| ,.-^.`. | || +--'    _   `. \
+ *               \ \__.' /| |    \ \| | \ `.__,.\ \__.' /
+ *                `.__.-` |_|    |_||_|  `-.__.J `.__.-`
+ *
+ * This file is part of uk.co.strangeskies.observable.
+ *
+ * uk.co.strangeskies.observable is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * uk.co.strangeskies.observable is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package uk.co.strangeskies.observable;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.junit.Assert.assertThat;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+@SuppressWarnings("javadoc")
+public class VirtualSchedulerTest {
+  VirtualScheduler scheduler = new VirtualScheduler();
+
+  List<String> ran = new ArrayList<>();
+
+  @Test
+  public void clockStartsAtZeroTest() {
+    assertThat(scheduler.now(), equalTo(0L));
+  }
+
+  @Test
+  public void advanceMovesClockTest() {
+    scheduler.advanceBy(Duration.ofSeconds(2));
+
+    assertThat(scheduler.now(), equalTo(Duration.ofSeconds(2).toNanos()));
+  }
+
+  @Test
+  public void taskNotRunBeforeDueTest() {
+    scheduler.schedule(() -> ran.add("task"), Duration.ofSeconds(2));
+    scheduler.advanceBy(Duration.ofSeconds(1));
+
+    assertThat(ran, equalTo(List.of()));
+    assertThat(scheduler.getPendingTaskCount(), equalTo(1));
+  }
+
+  @Test
+  public void taskRunWhenDueTest() {
+    scheduler.schedule(() -> ran.add("task"), Duration.ofSeconds(2));
+    scheduler.advanceBy(Duration.ofSeconds(2));
+
+    assertThat(ran, equalTo(List.of("task")));
+    assertThat(scheduler.getPendingTaskCount(), equalTo(0));
+  }
+
+  @Test
+  public void tasksRunInDueOrderTest() {
+    scheduler.schedule(() -> ran.add("late"), Duration.ofSeconds(2));
+    scheduler.schedule(() -> ran.add("early"), Duration.ofSeconds(1));
+    scheduler.schedule(() -> ran.add("early again"), Duration.ofSeconds(1));
+    scheduler.advanceBy(Duration.ofSeconds(3));
+
+    assertThat(ran, equalTo(List.of("early", "early again", "late")));
+  }
+
+  @Test
+  public void clockReadsDueTimeDuringTaskTest() {
+    List<Long> times = new ArrayList<>();
+    scheduler.schedule(() -> times.add(scheduler.now()), Duration.ofSeconds(1));
+    scheduler.advanceBy(Duration.ofSeconds(3));
+
+    assertThat(times, equalTo(List.of(Duration.ofSeconds(1).toNanos())));
+  }
+
+  @Test
+  public void cancelledTaskNotRunTest() {
+    scheduler.schedule(() -> ran.add("task"), Duration.ofSeconds(1)).cancel();
+    scheduler.advanceBy(Duration.ofSeconds(1));
+
+    assertThat(ran, equalTo(List.of()));
+  }
+
+  @Test
+  public void periodicTaskRunEachPeriodTest() {
+    scheduler.scheduleAtFixedRate(() -> ran.add("tick"), 1, 1, SECONDS);
+    scheduler.advanceBy(Duration.ofMillis(3500));
+
+    assertThat(ran, equalTo(List.of("tick", "tick", "tick")));
+  }
+
+  @Test
+  public void taskScheduledFromTaskRunWhenDueTest() {
+    scheduler.schedule(
+        () -> scheduler.schedule(() -> ran.add("nested"), Duration.ofSeconds(1)),
+        Duration.ofSeconds(1));
+    scheduler.advanceBy(Duration.ofSeconds(2));
+
+    assertThat(ran, equalTo(List.of("nested")));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void advanceBackwardsTest() {
+    scheduler.advanceBy(Duration.ofSeconds(-1));
+  }
+}
@@ -0,0 +1,162 @@
+/*
+ * Copyright (C) 2018 Elias N Vasylenko <eliasvasylenko@strangeskies.co.uk>
+ *      __   _______  ____           _       __     _      __       __
+ *    ,`_ `,|__   __||  _ `.        / \     |  \   | |  ,-`__`¬  ,-`__`¬
+ *   ( (_`-'   | |   | | ) |       / . \    | . \  | | / .`  `' / .`  `'
+ *    `._ `.   | |   | |<. L      / / \ \   | |\ \ | || |    _ | '--.
+ *   _   `. \  | |   | |  `.`.   / /   \ \  | | \ \| || |   | || +--'
+ *  \ \__.' /  | |   | |    \ \ / /     \ \ | |  \ ` | \ `._' | \ `.__,.
+ *   `.__.-`   |_|   |_|    |_|/_/       \_\|_|   \__|  `-.__.J  `-.__.J
+ *                   __    _         _      __      __
+ *                 ,`_ `, | |  _    | |  ,-`__`¬  ,`_ `,
+ *                ( (_`-' | | ) |   | | / .`  `' ( (_`-'
+ *                 `._ `. | L-' L   | || '--.     `._ `.
+ *                _   `. \| ,.-^.`. | || +--'    _   `. \
+ *               \ \__.' /| |    \ \| | \ `.__,.\ \__.' /
+ *                `.__.-` |_|    |_||_|  `-.__.J `.__.-`
+ *
+ * This file is part of uk.co.strangeskies.observable.
+ *
+ * uk.co.strangeskies.observable is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * uk.co.strangeskies.observable is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package uk.co.strangeskies.observable;
+
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.junit.Assert.assertThat;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+@SuppressWarnings("javadoc")
+public class WindowingObserverTest {
+  VirtualScheduler scheduler = new VirtualScheduler();
+
+  HotObservable<String> upstreamObservable = new HotObservable<>();
+
+  List<List<String>> received = new ArrayList<>();
+
+  @Test
+  public void forwardWindowAtEndOfPeriodTest() {
+    upstreamObservable.window(Duration.ofSeconds(1), scheduler).requestUnbounded().observe(
+        received::add);
+
+    upstreamObservable.next("one").next("two");
+
+    assertThat(received, equalTo(List.of()));
+
+    scheduler.advanceBy(Duration.ofSeconds(1));
+
+    assertThat(received, equalTo(List.of(List.of("one", "two"))));
+  }
+
+  @Test
+  public void forwardConsecutiveWindowsTest() {
+    upstreamObservable.window(Duration.ofSeconds(1), scheduler).requestUnbounded().observe(
+        received::add);
+
+    upstreamObservable.next("one");
+    scheduler.advanceBy(Duration.ofSeconds(1));
+    upstreamObservable.next("two").next("three");
+    scheduler.advanceBy(Duration.ofSeconds(1));
+
+    assertThat(received, equalTo(List.of(List.of("one"), List.of("two", "three"))));
+  }
+
+  @Test
+  public void skipEmptyWindowTest() {
+    upstreamObservable.window(Duration.ofSeconds(1), scheduler).requestUnbounded().observe(
+        received::add);
+
+    scheduler.advanceBy(Duration.ofSeconds(1));
+    upstreamObservable.next("one");
+    scheduler.advanceBy(Duration.ofSeconds(1));
+
+    assertThat(received, equalTo(List.of(List.of("one"))));
+  }
+
+  @Test
+  public void extendWindowUntilRequestedTest() {
+    List<Observation> observation = new ArrayList<>();
+
+    upstreamObservable
+        .window(Duration.ofSeconds(1), scheduler)
+        .then(Observer.onObservation(observation::add))
+        .observe(received::add);
+
+    upstreamObservable.next("one");
+    scheduler.advanceBy(Duration.ofSeconds(1));
+    upstreamObservable.next("two");
+    observation.get(0).requestNext();
+    scheduler.advanceBy(Duration.ofSeconds(1));
+
+    assertThat(received, equalTo(List.of(List.of("one", "two"))));
+  }
+
+  @Test
+  public void forwardPartialWindowOnCompleteTest() {
+    upstreamObservable.window(Duration.ofSeconds(1), scheduler).requestUnbounded().observe(
+        received::add);
+
+    upstreamObservable.next("one").complete();
+
+    assertThat(received, equalTo(List.of(List.of("one"))));
+    assertThat(scheduler.getPendingTaskCount(), equalTo(0));
+  }
+
+  @Test
+  public void forwardFullWindowEarlyTest() {
+    upstreamObservable.window(Duration.ofSeconds(1), 2, scheduler).requestUnbounded().observe(
+        received::add);
+
+    upstreamObservable.next("one").next("two").next("three");
+
+    assertThat(received, equalTo(List.of(List.of("one", "two"))));
+
+    scheduler.advanceBy(Duration.ofSeconds(1));
+
+    assertThat(received, equalTo(List.of(List.of("one", "two"), List.of("three"))));
+  }
+
+  @Test
+  public void overflowFullWindowWithoutRequestTest() {
+    List<Throwable> failures = new ArrayList<>();
+
+    upstreamObservable
+        .window(Duration.ofSeconds(1), 2, scheduler)
+        .then(Observer.onFailure(failures::add))
+        .observe(received::add);
+
+    upstreamObservable.next("one").next("two");
+    scheduler.advanceBy(Duration.ofSeconds(1));
+    upstreamObservable.next("three");
+
+    assertThat(received, equalTo(List.of()));
+    assertThat(failures.size(), equalTo(1));
+    assertThat(failures.get(0) instanceof MessageOverflowException, equalTo(true));
+    assertThat(upstreamObservable.hasObservers(), equalTo(false));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void nonPositiveMaximumSizeTest() {
+    new WindowingObserver<String>(received::add, Duration.ofSeconds(1), 0, scheduler);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void nonPositivePeriodTest() {
+    new WindowingObserver<String>(received::add, Duration.ZERO, scheduler);
+  }
+}
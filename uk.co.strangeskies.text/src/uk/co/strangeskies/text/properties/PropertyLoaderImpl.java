@@ -53,9 +53,12 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
 import java.util.stream.Collectors;
 
 import uk.co.strangeskies.collection.computingmap.CacheComputingMap;
+import uk.co.strangeskies.collection.computingmap.CacheStats;
+import uk.co.strangeskies.collection.computingmap.CacheStatsRecorder;
 import uk.co.strangeskies.collection.computingmap.ComputingMap;
 import uk.co.strangeskies.log.Log;
 import uk.co.strangeskies.log.Log.Level;
@@ -108,6 +111,7 @@ class PropertyLoaderImpl implements PropertyLoader {
   private final Map<Class<? extends PropertyResourceStrategy<?>>, PropertyResourceStrategy<?>> resourceStrategies;
   private final Set<PropertyValueProviderFactory> propertyProviders;
   private final ComputingMap<PropertyAccessorConfiguration<?>, Object> localizationCache;
+  private final CacheStatsRecorder localizationCacheStats;
 
   private final LocaleProvider locale;
   private Log log;
@@ -133,7 +137,12 @@ class PropertyLoaderImpl implements PropertyLoader {
     registerValueProvider(optionalProvider());
     registerValueProvider(localDateProvider());
 
-    localizationCache = new CacheComputingMap<>(c -> instantiateProperties(c), true);
+    localizationCacheStats = CacheStatsRecorder.create();
+    localizationCache = new CacheComputingMap<>(
+        c -> instantiateProperties(c),
+        true,
+        ForkJoinPool.commonPool(),
+        localizationCacheStats);
 
     this.locale = locale;
     this.log = log;
@@ -257,6 +266,14 @@ class PropertyLoaderImpl implements PropertyLoader {
     return Log.forwardingLog(() -> log);
   }
 
+  /**
+   * @return a snapshot of the statistics recorded for the cache of property
+   *         accessor instances
+   */
+  public CacheStats getLocalizationCacheStats() {
+    return localizationCacheStats.snapshot();
+  }
+
   @Override
   public Locale getLocale() {
     return locale.getLocale();